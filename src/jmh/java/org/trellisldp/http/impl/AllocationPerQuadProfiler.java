@@ -0,0 +1,84 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http.impl;
+
+import static java.lang.Long.parseLong;
+import static java.lang.management.ManagementFactory.getThreadMXBean;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.Objects.isNull;
+
+import com.sun.management.ThreadMXBean;
+
+import java.util.Collection;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+/**
+ * A JMH profiler that reports the number of bytes allocated per quad.
+ *
+ * <p>The allocation counters of all live threads are sampled before and after each iteration, and the
+ * difference is divided by the number of operations times the {@code size} parameter of the benchmark.
+ * Benchmarks without a {@code size} parameter produce no result.
+ *
+ * @author acoburn
+ */
+public class AllocationPerQuadProfiler implements InternalProfiler {
+
+    private static final String SIZE = "size";
+
+    private final ThreadMXBean threads = (ThreadMXBean) getThreadMXBean();
+
+    private long allocatedBefore;
+
+    @Override
+    public String getDescription() {
+        return "Allocated bytes per quad";
+    }
+
+    @Override
+    public void beforeIteration(final BenchmarkParams benchmarkParams, final IterationParams iterationParams) {
+        allocatedBefore = allocatedBytes();
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(final BenchmarkParams benchmarkParams,
+            final IterationParams iterationParams, final IterationResult result) {
+        final long allocated = allocatedBytes() - allocatedBefore;
+        final String size = benchmarkParams.getParam(SIZE);
+        final long ops = result.getMetadata().getAllOps();
+        if (isNull(size) || ops == 0) {
+            return emptyList();
+        }
+        return singletonList(new ScalarResult("\u00b7alloc.rate.quad", (double) allocated / (ops * parseLong(size)),
+                    "B/quad", AggregationPolicy.AVG));
+    }
+
+    private long allocatedBytes() {
+        long total = 0L;
+        for (final long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            // Threads that have died report -1
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+}
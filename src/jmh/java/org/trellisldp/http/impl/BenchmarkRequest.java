@@ -0,0 +1,221 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http.impl;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.ws.rs.core.Cookie;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.Variant;
+
+import org.trellisldp.http.domain.LdpRequest;
+import org.trellisldp.http.domain.Prefer;
+
+/**
+ * A fixed {@link LdpRequest}, used so that the handler benchmarks measure the handler rather than a
+ * mocking framework.
+ *
+ * @author acoburn
+ */
+class BenchmarkRequest extends LdpRequest {
+
+    private final String partition;
+    private final String path;
+    private final String baseUrl;
+    private final Prefer prefer;
+    private final String subject;
+    private final String predicate;
+    private final String object;
+    private final HttpHeaders headers;
+    private final Request request = new GetRequest();
+
+    /**
+     * Create a benchmark request
+     * @param partition the partition
+     * @param path the path
+     * @param baseUrl the base URL
+     * @param mediaType the acceptable media type
+     * @param prefer the Prefer header, may be null
+     * @param subject the LDF subject, may be null
+     * @param predicate the LDF predicate, may be null
+     * @param object the LDF object, may be null
+     */
+    BenchmarkRequest(final String partition, final String path, final String baseUrl, final MediaType mediaType,
+            final Prefer prefer, final String subject, final String predicate, final String object) {
+        this.partition = partition;
+        this.path = path;
+        this.baseUrl = baseUrl;
+        this.prefer = prefer;
+        this.subject = subject;
+        this.predicate = predicate;
+        this.object = object;
+        this.headers = new AcceptHeaders(mediaType);
+    }
+
+    @Override
+    public String getPartition() {
+        return partition;
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    @Override
+    public Prefer getPrefer() {
+        return prefer;
+    }
+
+    @Override
+    public String getSubject() {
+        return subject;
+    }
+
+    @Override
+    public String getPredicate() {
+        return predicate;
+    }
+
+    @Override
+    public String getObject() {
+        return object;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    @Override
+    public Request getRequest() {
+        return request;
+    }
+
+    /**
+     * An unconditional GET request
+     */
+    private static class GetRequest implements Request {
+
+        @Override
+        public String getMethod() {
+            return "GET";
+        }
+
+        @Override
+        public Variant selectVariant(final List<Variant> variants) {
+            return null;
+        }
+
+        @Override
+        public ResponseBuilder evaluatePreconditions(final EntityTag eTag) {
+            return null;
+        }
+
+        @Override
+        public ResponseBuilder evaluatePreconditions(final Date lastModified) {
+            return null;
+        }
+
+        @Override
+        public ResponseBuilder evaluatePreconditions(final Date lastModified, final EntityTag eTag) {
+            return null;
+        }
+
+        @Override
+        public ResponseBuilder evaluatePreconditions() {
+            return null;
+        }
+    }
+
+    /**
+     * Request headers with a single acceptable media type
+     */
+    private static class AcceptHeaders implements HttpHeaders {
+
+        private final List<MediaType> acceptable;
+
+        AcceptHeaders(final MediaType mediaType) {
+            this.acceptable = singletonList(mediaType);
+        }
+
+        @Override
+        public List<String> getRequestHeader(final String name) {
+            return emptyList();
+        }
+
+        @Override
+        public String getHeaderString(final String name) {
+            return null;
+        }
+
+        @Override
+        public MultivaluedMap<String, String> getRequestHeaders() {
+            return new MultivaluedHashMap<>();
+        }
+
+        @Override
+        public List<MediaType> getAcceptableMediaTypes() {
+            return acceptable;
+        }
+
+        @Override
+        public List<Locale> getAcceptableLanguages() {
+            return emptyList();
+        }
+
+        @Override
+        public MediaType getMediaType() {
+            return null;
+        }
+
+        @Override
+        public Locale getLanguage() {
+            return null;
+        }
+
+        @Override
+        public Map<String, Cookie> getCookies() {
+            return emptyMap();
+        }
+
+        @Override
+        public Date getDate() {
+            return null;
+        }
+
+        @Override
+        public int getLength() {
+            return -1;
+        }
+    }
+}
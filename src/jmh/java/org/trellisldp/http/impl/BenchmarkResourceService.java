@@ -0,0 +1,72 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http.impl;
+
+import static java.util.Optional.empty;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.apache.commons.rdf.api.Dataset;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.Triple;
+
+import org.trellisldp.api.Resource;
+import org.trellisldp.api.ResourceService;
+
+/**
+ * A resource service that only provides the default skolemization and identifier mapping behavior,
+ * which is all that the GET pipeline needs from it.
+ *
+ * @author acoburn
+ */
+class BenchmarkResourceService implements ResourceService {
+
+    @Override
+    public Optional<Resource> get(final IRI identifier) {
+        return empty();
+    }
+
+    @Override
+    public Optional<Resource> get(final IRI identifier, final Instant time) {
+        return empty();
+    }
+
+    @Override
+    public Boolean put(final IRI identifier, final Dataset dataset) {
+        return true;
+    }
+
+    @Override
+    public Stream<IRI> compact(final IRI identifier, final Instant from, final Instant until) {
+        return Stream.empty();
+    }
+
+    @Override
+    public Stream<IRI> purge(final IRI identifier) {
+        return Stream.empty();
+    }
+
+    @Override
+    public Stream<? extends Triple> scan(final String partition) {
+        return Stream.empty();
+    }
+
+    @Override
+    public Supplier<String> getIdentifierSupplier() {
+        return () -> "identifier";
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http.impl;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.apache.commons.io.output.NullOutputStream.NULL_OUTPUT_STREAM;
+import static org.trellisldp.vocabulary.LDP.PreferContainment;
+import static org.trellisldp.vocabulary.Trellis.PreferAccessControl;
+import static org.trellisldp.vocabulary.Trellis.PreferAudit;
+import static org.trellisldp.vocabulary.Trellis.PreferServerManaged;
+
+import java.io.IOException;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.trellisldp.api.IOService;
+import org.trellisldp.api.Resource;
+import org.trellisldp.api.ResourceService;
+import org.trellisldp.http.domain.Prefer;
+import org.trellisldp.io.JenaIOService;
+
+/**
+ * Measure {@link GetHandler#getRepresentation} for an RDF resource, from content negotiation
+ * through the serialized bytes, for each supported syntax and several Prefer headers.
+ *
+ * <p>The allocation rate per quad is reported by {@link AllocationPerQuadProfiler}.
+ *
+ * @author acoburn
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GetHandlerBenchmark {
+
+    private static final String BASE_URL = "http://example.org/";
+    private static final String PARTITION = "repo";
+    private static final String PATH = "/container";
+
+    @Param({"10", "1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"text/turtle", "application/n-triples", "application/ld+json"})
+    private String mediaType;
+
+    @Param({"default", "omitContainment", "includeAll"})
+    private String prefer;
+
+    private final ResourceService resourceService = new BenchmarkResourceService();
+    private final IOService ioService = new JenaIOService(null);
+
+    private Resource resource;
+    private BenchmarkRequest request;
+
+    /**
+     * Build the resource and the request
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        resource = new SyntheticResource(SyntheticResource.internalIdentifier(PARTITION, PATH), size);
+        request = new BenchmarkRequest(PARTITION, PATH, BASE_URL, MediaType.valueOf(mediaType),
+                getPrefer(prefer), null, null, null);
+    }
+
+    /**
+     * Build and serialize a full GET response
+     * @return the response
+     * @throws IOException if the serialization fails
+     */
+    @Benchmark
+    public Response getRepresentation() throws IOException {
+        final GetHandler handler = new GetHandler(request, resourceService, ioService, null, BASE_URL);
+        final Response res = handler.getRepresentation(resource).build();
+        ((StreamingOutput) res.getEntity()).write(NULL_OUTPUT_STREAM);
+        return res;
+    }
+
+    /**
+     * Get a Prefer header by name
+     * @param name the name of the Prefer variant
+     * @return the Prefer header, or null for the default representation
+     */
+    static Prefer getPrefer(final String name) {
+        switch (name) {
+            case "omitContainment":
+                return Prefer.ofOmit(PreferContainment.getIRIString());
+            case "includeAll":
+                return Prefer.ofInclude(PreferServerManaged.getIRIString(), PreferAudit.getIRIString(),
+                        PreferAccessControl.getIRIString());
+            default:
+                return null;
+        }
+    }
+}
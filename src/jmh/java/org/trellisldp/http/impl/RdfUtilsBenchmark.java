@@ -0,0 +1,105 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http.impl;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.trellisldp.http.impl.RdfUtils.filterWithLDF;
+import static org.trellisldp.http.impl.RdfUtils.filterWithPrefer;
+import static org.trellisldp.http.impl.RdfUtils.unskolemizeQuads;
+
+import org.apache.commons.rdf.api.Quad;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.trellisldp.api.Resource;
+import org.trellisldp.api.ResourceService;
+import org.trellisldp.http.domain.Prefer;
+
+/**
+ * Measure the quad filtering chain that {@link GetHandler} applies to a resource before
+ * serialization, without the cost of the serializer itself. The original chain of {@link RdfUtils}
+ * functions is kept as a baseline for the compiled {@link TriplePipeline}.
+ *
+ * @author acoburn
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RdfUtilsBenchmark {
+
+    private static final String BASE_URL = "http://example.org/";
+    private static final String PARTITION = "repo";
+    private static final String PATH = "/container";
+
+    @Param({"10", "1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"default", "omitContainment", "includeAll"})
+    private String prefer;
+
+    @Param({"none", "predicate"})
+    private String fragment;
+
+    private final ResourceService resourceService = new BenchmarkResourceService();
+
+    private Resource resource;
+    private Prefer preferHeader;
+    private String predicate;
+
+    /**
+     * Build the resource
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        resource = new SyntheticResource(SyntheticResource.internalIdentifier(PARTITION, PATH), size);
+        preferHeader = GetHandlerBenchmark.getPrefer(prefer);
+        predicate = "predicate".equals(fragment) ? "http://purl.org/dc/terms/description" : null;
+    }
+
+    /**
+     * Run every quad through the Prefer, unskolemization and LDF chain
+     * @param blackhole the blackhole
+     */
+    @Benchmark
+    public void filterChain(final Blackhole blackhole) {
+        resource.stream().filter(filterWithPrefer(preferHeader))
+            .map(unskolemizeQuads(resourceService, BASE_URL))
+            .filter(filterWithLDF(null, predicate, null))
+            .map(Quad::asTriple).forEach(blackhole::consume);
+    }
+
+    /**
+     * Run every quad through the compiled {@link TriplePipeline}
+     * @param blackhole the blackhole
+     */
+    @Benchmark
+    public void triplePipeline(final Blackhole blackhole) {
+        new TriplePipeline(resourceService, BASE_URL, preferHeader, null, predicate, null)
+            .apply(resource.stream()).forEach(blackhole::consume);
+    }
+}
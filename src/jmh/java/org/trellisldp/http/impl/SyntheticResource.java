@@ -0,0 +1,153 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http.impl;
+
+import static java.time.Instant.ofEpochSecond;
+import static java.util.Collections.emptyList;
+import static org.trellisldp.api.RDFUtils.TRELLIS_BNODE_PREFIX;
+import static org.trellisldp.api.RDFUtils.TRELLIS_PREFIX;
+import static org.trellisldp.api.RDFUtils.getInstance;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.Quad;
+import org.apache.commons.rdf.api.RDF;
+import org.apache.commons.rdf.api.Triple;
+
+import org.trellisldp.api.Resource;
+import org.trellisldp.api.VersionRange;
+import org.trellisldp.vocabulary.ACL;
+import org.trellisldp.vocabulary.DC;
+import org.trellisldp.vocabulary.LDP;
+import org.trellisldp.vocabulary.PROV;
+import org.trellisldp.vocabulary.Trellis;
+import org.trellisldp.vocabulary.XSD;
+
+/**
+ * An in-memory container with a fixed number of quads, spread across the graphs that a
+ * large container typically holds: mostly user-managed data and containment triples, with
+ * smaller amounts of server-managed, audit and access control data. Every tenth user triple
+ * points at a skolemized blank node, so that unskolemization has real work to do. Each graph is
+ * also indexed separately, as a storage backend would.
+ *
+ * @author acoburn
+ */
+public class SyntheticResource implements Resource {
+
+    private static final RDF rdf = getInstance();
+
+    private static final Instant modified = ofEpochSecond(1496262729);
+
+    private final IRI identifier;
+    private final List<Quad> quads;
+    private final Map<IRI, List<Triple>> graphs = new HashMap<>();
+
+    /**
+     * Create a synthetic resource
+     * @param identifier the internal identifier
+     * @param size the number of quads
+     */
+    public SyntheticResource(final IRI identifier, final int size) {
+        this.identifier = identifier;
+        this.quads = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            final Quad quad = createQuad(i);
+            quads.add(quad);
+            quad.getGraphName().map(IRI.class::cast).ifPresent(graph ->
+                    graphs.computeIfAbsent(graph, k -> new ArrayList<>()).add(quad.asTriple()));
+        }
+    }
+
+    private Quad createQuad(final int i) {
+        switch (i % 20) {
+            case 0:
+                return rdf.createQuad(Trellis.PreferServerManaged, identifier, DC.modified,
+                        rdf.createLiteral(modified.plusSeconds(i).toString(), XSD.dateTime));
+            case 1:
+                return rdf.createQuad(Trellis.PreferAudit, rdf.createIRI(TRELLIS_BNODE_PREFIX + "audit" + i),
+                        PROV.atTime, rdf.createLiteral(modified.plusSeconds(i).toString(), XSD.dateTime));
+            case 2:
+                return rdf.createQuad(Trellis.PreferAccessControl, identifier, ACL.mode, ACL.Read);
+            case 3:
+            case 4:
+            case 5:
+            case 6:
+                return rdf.createQuad(LDP.PreferContainment, identifier, LDP.contains,
+                        rdf.createIRI(identifier.getIRIString() + "/child" + i));
+            case 7:
+                return rdf.createQuad(Trellis.PreferUserManaged, identifier, DC.relation,
+                        rdf.createIRI(TRELLIS_BNODE_PREFIX + "node" + i));
+            default:
+                return rdf.createQuad(Trellis.PreferUserManaged, identifier, DC.description,
+                        rdf.createLiteral("Description number " + i, "en"));
+        }
+    }
+
+    /**
+     * Get the internal identifier for a partition and path
+     * @param partition the partition
+     * @param path the path
+     * @return the internal identifier
+     */
+    public static IRI internalIdentifier(final String partition, final String path) {
+        return rdf.createIRI(TRELLIS_PREFIX + partition + path);
+    }
+
+    @Override
+    public IRI getIdentifier() {
+        return identifier;
+    }
+
+    @Override
+    public IRI getInteractionModel() {
+        return LDP.BasicContainer;
+    }
+
+    @Override
+    public List<VersionRange> getMementos() {
+        return emptyList();
+    }
+
+    @Override
+    public Stream<? extends Quad> stream() {
+        return quads.stream();
+    }
+
+    @Override
+    public Stream<? extends Triple> stream(final IRI graphName) {
+        return graphs.getOrDefault(graphName, emptyList()).stream();
+    }
+
+    @Override
+    public Collection<IRI> getTypes() {
+        return emptyList();
+    }
+
+    @Override
+    public Instant getModified() {
+        return modified;
+    }
+
+    @Override
+    public Boolean hasAcl() {
+        return true;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http.load;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableSet;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.commons.rdf.api.IRI;
+
+import org.trellisldp.api.AccessControlService;
+import org.trellisldp.api.Session;
+import org.trellisldp.vocabulary.ACL;
+
+/**
+ * An {@link AccessControlService} that grants every mode to every agent, after a configurable
+ * latency and failure model is applied.
+ *
+ * @author acoburn
+ */
+public class InMemoryAccessControlService implements AccessControlService {
+
+    private static final Set<IRI> ALL_MODES = unmodifiableSet(new HashSet<>(asList(ACL.Read, ACL.Write,
+                    ACL.Append, ACL.Control)));
+
+    private final LatencyModel latency;
+
+    /**
+     * Create an access control service
+     * @param latency the latency model
+     */
+    public InMemoryAccessControlService(final LatencyModel latency) {
+        this.latency = latency;
+    }
+
+    @Override
+    public Set<IRI> getAccessModes(final IRI identifier, final Session session) {
+        latency.apply("getAccessModes");
+        return ALL_MODES;
+    }
+}
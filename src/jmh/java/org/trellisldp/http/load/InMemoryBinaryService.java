@@ -0,0 +1,169 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http.load;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.Optional.ofNullable;
+import static java.util.UUID.randomUUID;
+import static org.apache.commons.codec.binary.Base64.encodeBase64String;
+import static org.apache.commons.codec.digest.DigestUtils.getDigest;
+import static org.apache.commons.codec.digest.DigestUtils.updateDigest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.rdf.api.IRI;
+
+import org.trellisldp.api.BinaryService;
+
+/**
+ * A {@link BinaryService} that keeps binary content in memory, with a configurable latency and
+ * failure model applied to every read and write.
+ *
+ * <p>Multipart uploads are not supported.
+ *
+ * @author acoburn
+ */
+public class InMemoryBinaryService implements BinaryService {
+
+    private static final String SCHEME = "mem";
+
+    private final Resolver resolver;
+
+    /**
+     * Create an in-memory binary service
+     * @param latency the latency model for reads and writes
+     */
+    public InMemoryBinaryService(final LatencyModel latency) {
+        this.resolver = new InMemoryResolver(latency);
+    }
+
+    @Override
+    public Set<String> supportedAlgorithms() {
+        return new HashSet<>(asList("MD5", "SHA", "SHA-256"));
+    }
+
+    @Override
+    public Optional<Resolver> getResolver(final IRI identifier) {
+        return Optional.of(resolver);
+    }
+
+    @Override
+    public Optional<Resolver> getResolverForPartition(final String partition) {
+        return Optional.of(resolver);
+    }
+
+    @Override
+    public Optional<String> digest(final String algorithm, final InputStream stream) {
+        try {
+            return Optional.of(encodeBase64String(updateDigest(getDigest(algorithm), stream).digest()));
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public Supplier<String> getIdentifierSupplier(final String partition) {
+        return () -> SCHEME + ":" + partition + "/" + randomUUID();
+    }
+
+    private static class InMemoryResolver implements Resolver {
+
+        private final Map<IRI, byte[]> content = new ConcurrentHashMap<>();
+        private final LatencyModel latency;
+
+        InMemoryResolver(final LatencyModel latency) {
+            this.latency = latency;
+        }
+
+        @Override
+        public List<String> getUriSchemes() {
+            return singletonList(SCHEME);
+        }
+
+        @Override
+        public Optional<InputStream> getContent(final String partition, final IRI identifier) {
+            latency.apply("getContent");
+            return ofNullable(content.get(identifier)).map(ByteArrayInputStream::new);
+        }
+
+        @Override
+        public Boolean exists(final String partition, final IRI identifier) {
+            return content.containsKey(identifier);
+        }
+
+        @Override
+        public void setContent(final String partition, final IRI identifier, final InputStream stream,
+                final Map<String, String> metadata) {
+            latency.apply("setContent");
+            try {
+                content.put(identifier, IOUtils.toByteArray(stream));
+            } catch (final IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        @Override
+        public void purgeContent(final String partition, final IRI identifier) {
+            content.remove(identifier);
+        }
+
+        @Override
+        public Boolean supportsMultipartUpload() {
+            return false;
+        }
+
+        @Override
+        public String initiateUpload(final String partition, final IRI identifier, final String mimeType) {
+            throw new UnsupportedOperationException("Multipart uploads are not supported");
+        }
+
+        @Override
+        public String uploadPart(final String identifier, final Integer partNumber, final InputStream content) {
+            throw new UnsupportedOperationException("Multipart uploads are not supported");
+        }
+
+        @Override
+        public MultipartUpload completeUpload(final String identifier, final Map<Integer, String> partDigests) {
+            throw new UnsupportedOperationException("Multipart uploads are not supported");
+        }
+
+        @Override
+        public void abortUpload(final String identifier) {
+            throw new UnsupportedOperationException("Multipart uploads are not supported");
+        }
+
+        @Override
+        public Boolean uploadSessionExists(final String identifier) {
+            return false;
+        }
+
+        @Override
+        public Stream<Map.Entry<Integer, String>> listParts(final String identifier) {
+            return Stream.empty();
+        }
+    }
+}
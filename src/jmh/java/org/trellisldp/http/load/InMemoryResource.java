@@ -0,0 +1,161 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http.load;
+
+import static java.time.Instant.parse;
+import static java.util.Collections.singletonList;
+import static java.util.Objects.isNull;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Stream.concat;
+import static org.trellisldp.api.RDFUtils.getInstance;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.Literal;
+import org.apache.commons.rdf.api.Quad;
+import org.apache.commons.rdf.api.RDF;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.api.Triple;
+
+import org.trellisldp.api.Binary;
+import org.trellisldp.api.Resource;
+import org.trellisldp.api.VersionRange;
+import org.trellisldp.vocabulary.DC;
+import org.trellisldp.vocabulary.LDP;
+import org.trellisldp.vocabulary.Trellis;
+
+/**
+ * An immutable snapshot of a resource held by the {@link InMemoryResourceService}.
+ *
+ * @author acoburn
+ */
+class InMemoryResource implements Resource {
+
+    private static final RDF rdf = getInstance();
+
+    private final IRI identifier;
+    private final IRI interactionModel;
+    private final Instant modified;
+    private final List<Quad> quads;
+    private final Collection<IRI> children;
+    private final Optional<Binary> binary;
+
+    /**
+     * Create a resource snapshot
+     * @param identifier the identifier
+     * @param interactionModel the interaction model, or null for a deleted resource
+     * @param modified the modification time
+     * @param quads the stored quads
+     * @param children a live view of the contained resources
+     */
+    InMemoryResource(final IRI identifier, final IRI interactionModel, final Instant modified,
+            final List<Quad> quads, final Collection<IRI> children) {
+        this.identifier = identifier;
+        this.interactionModel = interactionModel;
+        this.modified = modified;
+        this.quads = quads;
+        this.children = children;
+        this.binary = quads.stream().filter(q -> q.getPredicate().equals(DC.hasPart))
+            .map(Quad::getObject).filter(IRI.class::isInstance).map(IRI.class::cast).findFirst()
+            .map(id -> new Binary(id, getValue(id, DC.modified).map(Instant::parse).orElse(modified),
+                        getValue(id, DC.format).orElse(null), getValue(id, DC.extent).map(Long::parseLong)
+                        .orElse(null)));
+    }
+
+    private Optional<String> getValue(final IRI subject, final IRI predicate) {
+        return quads.stream().filter(q -> q.getSubject().equals(subject) && q.getPredicate().equals(predicate))
+            .map(Quad::getObject).filter(Literal.class::isInstance).map(t -> ((Literal) t).getLexicalForm())
+            .findFirst();
+    }
+
+    @Override
+    public IRI getIdentifier() {
+        return identifier;
+    }
+
+    @Override
+    public IRI getInteractionModel() {
+        return isNull(interactionModel) ? LDP.Resource : interactionModel;
+    }
+
+    @Override
+    public List<VersionRange> getMementos() {
+        return singletonList(new VersionRange(parse("2017-01-01T00:00:00Z"), modified));
+    }
+
+    @Override
+    public Stream<? extends Quad> stream() {
+        return concat(quads.stream(), children.stream().map(child ->
+                    rdf.createQuad(LDP.PreferContainment, identifier, LDP.contains, child)));
+    }
+
+    @Override
+    public Stream<? extends Triple> stream(final IRI graphName) {
+        if (LDP.PreferContainment.equals(graphName)) {
+            return children.stream().map(child -> rdf.createTriple(identifier, LDP.contains, child));
+        }
+        return quads.stream().filter(q -> q.getGraphName().filter(graphName::equals).isPresent())
+            .map(Quad::asTriple);
+    }
+
+    @Override
+    public Optional<Binary> getBinary() {
+        return binary;
+    }
+
+    @Override
+    public Collection<IRI> getTypes() {
+        if (isNull(interactionModel)) {
+            return singletonList(Trellis.DeletedResource);
+        }
+        return quads.stream().filter(q -> q.getGraphName().filter(Trellis.PreferUserManaged::equals).isPresent())
+            .filter(q -> q.getSubject().equals(identifier) && q.getPredicate().equals(
+                        org.trellisldp.vocabulary.RDF.type))
+            .map(Quad::getObject).filter(IRI.class::isInstance).map(IRI.class::cast).collect(toList());
+    }
+
+    @Override
+    public Instant getModified() {
+        return modified;
+    }
+
+    @Override
+    public Boolean hasAcl() {
+        return quads.stream().anyMatch(q -> q.getGraphName().filter(Trellis.PreferAccessControl::equals)
+                .isPresent());
+    }
+
+    /**
+     * Find the interaction model in a set of quads
+     * @param quads the quads
+     * @return the interaction model, if one is present
+     */
+    static Optional<IRI> findInteractionModel(final Collection<Quad> quads) {
+        for (final Quad q : quads) {
+            final RDFTerm object = q.getObject();
+            if (q.getGraphName().filter(Trellis.PreferServerManaged::equals).isPresent()
+                    && q.getPredicate().equals(org.trellisldp.vocabulary.RDF.type) && object instanceof IRI) {
+                return of((IRI) object);
+            }
+        }
+        return empty();
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http.load;
+
+import static java.time.Instant.now;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.Optional.ofNullable;
+import static java.util.UUID.randomUUID;
+import static java.util.stream.Collectors.toList;
+import static org.trellisldp.api.RDFUtils.TRELLIS_PREFIX;
+import static org.trellisldp.api.RDFUtils.getInstance;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.apache.commons.rdf.api.Dataset;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.Quad;
+import org.apache.commons.rdf.api.RDF;
+import org.apache.commons.rdf.api.Triple;
+
+import org.trellisldp.api.Resource;
+import org.trellisldp.api.ResourceService;
+import org.trellisldp.vocabulary.DC;
+import org.trellisldp.vocabulary.LDP;
+import org.trellisldp.vocabulary.Trellis;
+
+/**
+ * A {@link ResourceService} that keeps the latest state of each resource in memory, with a configurable
+ * latency and failure model applied to every read and write.
+ *
+ * <p>Mementos are not tracked: a request for a resource at any point in time returns its latest state.
+ *
+ * @author acoburn
+ */
+public class InMemoryResourceService implements ResourceService {
+
+    private static final RDF rdf = getInstance();
+
+    private final Map<IRI, InMemoryResource> resources = new ConcurrentHashMap<>();
+    private final Map<IRI, Set<IRI>> children = new ConcurrentHashMap<>();
+    private final LatencyModel readLatency;
+    private final LatencyModel writeLatency;
+
+    /**
+     * Create an in-memory resource service
+     * @param readLatency the latency model for reads
+     * @param writeLatency the latency model for writes
+     */
+    public InMemoryResourceService(final LatencyModel readLatency, final LatencyModel writeLatency) {
+        this.readLatency = readLatency;
+        this.writeLatency = writeLatency;
+    }
+
+    /**
+     * Create a container with a number of child resources, bypassing the latency model
+     * @param partition the partition
+     * @param count the number of child resources
+     * @return the paths of the child resources, relative to the partition
+     */
+    public List<String> seed(final String partition, final int count) {
+        final IRI root = rdf.createIRI(TRELLIS_PREFIX + partition);
+        store(root, Stream.of(rdf.createQuad(Trellis.PreferServerManaged, root,
+                        org.trellisldp.vocabulary.RDF.type, LDP.BasicContainer)).collect(toList()));
+        return Stream.iterate(0, i -> i + 1).limit(count).map(i -> {
+            final IRI child = rdf.createIRI(root.getIRIString() + "/resource" + i);
+            store(child, Stream.of(
+                    rdf.createQuad(Trellis.PreferServerManaged, child, org.trellisldp.vocabulary.RDF.type,
+                        LDP.RDFSource),
+                    rdf.createQuad(Trellis.PreferUserManaged, child, DC.title, rdf.createLiteral("Resource " + i)))
+                    .collect(toList()));
+            return "/resource" + i;
+        }).collect(toList());
+    }
+
+    @Override
+    public Optional<Resource> get(final IRI identifier) {
+        readLatency.apply("get");
+        return ofNullable(resources.get(identifier));
+    }
+
+    @Override
+    public Optional<Resource> get(final IRI identifier, final Instant time) {
+        return get(identifier);
+    }
+
+    @Override
+    public Boolean put(final IRI identifier, final Dataset dataset) {
+        writeLatency.apply("put");
+        store(identifier, dataset.stream().map(q -> rdf.createQuad(q.getGraphName().orElse(null), q.getSubject(),
+                        q.getPredicate(), q.getObject())).collect(toList()));
+        return true;
+    }
+
+    private void store(final IRI identifier, final List<Quad> quads) {
+        final IRI model = InMemoryResource.findInteractionModel(quads).orElseGet(() ->
+                quads.stream().anyMatch(q -> q.getGraphName().filter(Trellis.PreferUserManaged::equals).isPresent())
+                ? ofNullable(resources.get(identifier)).map(Resource::getInteractionModel).orElse(null) : null);
+        final Collection<IRI> contained = children.computeIfAbsent(identifier, k -> ConcurrentHashMap.newKeySet());
+        resources.put(identifier, new InMemoryResource(identifier, model, now(), quads, contained));
+        getContainer(identifier).map(parent -> children.computeIfAbsent(parent, k -> ConcurrentHashMap.newKeySet()))
+            .ifPresent(siblings -> {
+                if (isNull(model)) {
+                    siblings.remove(identifier);
+                } else {
+                    siblings.add(identifier);
+                }
+            });
+    }
+
+    @Override
+    public Optional<IRI> getContainer(final IRI identifier) {
+        final String path = identifier.getIRIString().substring(TRELLIS_PREFIX.length());
+        final int index = path.lastIndexOf('/');
+        if (index > 0) {
+            return Optional.of(rdf.createIRI(TRELLIS_PREFIX + path.substring(0, index)));
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Stream<IRI> compact(final IRI identifier, final Instant from, final Instant until) {
+        return Stream.empty();
+    }
+
+    @Override
+    public Stream<IRI> purge(final IRI identifier) {
+        final InMemoryResource res = resources.remove(identifier);
+        return nonNull(res) ? Stream.of(identifier) : Stream.empty();
+    }
+
+    @Override
+    public Stream<? extends Triple> scan(final String partition) {
+        return Stream.empty();
+    }
+
+    @Override
+    public Supplier<String> getIdentifierSupplier() {
+        return () -> randomUUID().toString();
+    }
+}
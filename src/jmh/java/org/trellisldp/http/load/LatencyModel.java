@@ -0,0 +1,93 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http.load;
+
+import static java.lang.Double.parseDouble;
+import static java.lang.Math.exp;
+import static java.lang.Math.round;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.trellisldp.api.RuntimeRepositoryException;
+
+/**
+ * A log-normal latency distribution with an independent failure rate, used by the in-memory
+ * stand-in services to simulate a backend.
+ *
+ * <p>A model is written as {@code median:sigma:failureRate}, where the median is in milliseconds.
+ * For example, {@code 2:0.5:0.001} has a 2ms median, a moderately long tail and fails one call
+ * in a thousand. {@code 0} disables both latency and failures.
+ *
+ * @author acoburn
+ */
+public class LatencyModel {
+
+    /**
+     * A model without latency or failures
+     */
+    public static final LatencyModel NONE = new LatencyModel(0.0, 0.0, 0.0);
+
+    private final double medianMillis;
+    private final double sigma;
+    private final double failureRate;
+
+    /**
+     * Create a latency model
+     * @param medianMillis the median latency, in milliseconds
+     * @param sigma the standard deviation of the underlying normal distribution
+     * @param failureRate the probability that a call fails, from 0 to 1
+     */
+    public LatencyModel(final double medianMillis, final double sigma, final double failureRate) {
+        this.medianMillis = medianMillis;
+        this.sigma = sigma;
+        this.failureRate = failureRate;
+    }
+
+    /**
+     * Parse a latency model
+     * @param value the model, as {@code median[:sigma[:failureRate]]}
+     * @return the latency model
+     */
+    public static LatencyModel valueOf(final String value) {
+        final String[] parts = value.split(":");
+        return new LatencyModel(parseDouble(parts[0]), parts.length > 1 ? parseDouble(parts[1]) : 0.0,
+                parts.length > 2 ? parseDouble(parts[2]) : 0.0);
+    }
+
+    /**
+     * Pause the calling thread for a sampled latency, and fail at the configured rate
+     * @param operation the name of the simulated operation, used in the failure message
+     * @throws RuntimeRepositoryException when the simulated call fails
+     */
+    public void apply(final String operation) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (medianMillis > 0.0) {
+            final long micros = round(medianMillis * 1000 * exp(sigma * random.nextGaussian()));
+            try {
+                MICROSECONDS.sleep(micros);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (failureRate > 0.0 && random.nextDouble() < failureRate) {
+            throw new RuntimeRepositoryException("Simulated failure in " + operation);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return medianMillis + "ms:" + sigma + ":" + failureRate;
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http.load;
+
+import static java.lang.Integer.parseInt;
+import static java.lang.Long.parseLong;
+import static java.lang.System.nanoTime;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static javax.ws.rs.client.ClientBuilder.newClient;
+import static javax.ws.rs.client.Entity.entity;
+import static org.glassfish.jersey.grizzly2.httpserver.GrizzlyHttpServerFactory.createHttpServer;
+import static org.glassfish.jersey.client.HttpUrlConnectorProvider.SET_METHOD_WORKAROUND;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.grizzly.http.server.HttpServer;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.trellisldp.api.IOService;
+import org.trellisldp.http.AgentAuthorizationFilter;
+import org.trellisldp.http.CrossOriginResourceSharingFilter;
+import org.trellisldp.http.MultipartUploader;
+import org.trellisldp.http.PartitionedLdpResource;
+import org.trellisldp.http.WebAcFilter;
+import org.trellisldp.io.JenaIOService;
+
+/**
+ * An in-process, end-to-end load test. The full JAX-RS stack runs in an embedded HTTP server backed by
+ * in-memory stand-in services with configurable latency, and a fixed number of client threads drive a
+ * mixed workload against it for a fixed duration.
+ *
+ * <p>Arguments are given as {@code key=value} pairs:
+ * <ul>
+ * <li>{@code threads}: the number of client threads (default 16)</li>
+ * <li>{@code duration}: the measured run time, in seconds (default 30)</li>
+ * <li>{@code warmup}: the warmup time, in seconds (default 10)</li>
+ * <li>{@code resources}: the number of seeded resources (default 1000)</li>
+ * <li>{@code mix}: the relative weights of GET, PUT, PATCH, POST and DELETE (default 80:10:5:4:1)</li>
+ * <li>{@code resourceLatency}, {@code binaryLatency}, {@code accessLatency}: a {@link LatencyModel}
+ * for each backend service (default 0)</li>
+ * </ul>
+ *
+ * <p>Latency percentiles, throughput and errors are reported for each route. Responses with a 4xx or 5xx
+ * status and requests that fail in the client count as errors; latencies are recorded in a fixed-size
+ * histogram, to within 1.6%, so that the memory used does not grow with the length of the run.
+ *
+ * @author acoburn
+ */
+public final class LoadHarness {
+
+    private static final String PARTITION = "repo";
+    private static final String TURTLE = "text/turtle";
+    private static final String[] ROUTES = {"GET", "PUT", "PATCH", "POST", "DELETE"};
+
+    private final Map<String, String> options;
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+
+    private LoadHarness(final Map<String, String> options) {
+        this.options = options;
+    }
+
+    /**
+     * Run the load test
+     * @param args the arguments, as key=value pairs
+     * @throws Exception if the run is interrupted, a client thread fails or the server cannot be started
+     */
+    public static void main(final String[] args) throws Exception {
+        final Map<String, String> options = new HashMap<>();
+        Arrays.stream(args).map(arg -> arg.split("=", 2)).filter(kv -> kv.length == 2)
+            .forEach(kv -> options.put(kv[0], kv[1]));
+        new LoadHarness(options).run();
+    }
+
+    private String option(final String key, final String defaultValue) {
+        return options.getOrDefault(key, defaultValue);
+    }
+
+    private void run() throws Exception {
+        final int threads = parseInt(option("threads", "16"));
+        final long warmup = parseLong(option("warmup", "10"));
+        final long duration = parseLong(option("duration", "30"));
+        final int[] mix = Arrays.stream(option("mix", "80:10:5:4:1").split(":")).mapToInt(Integer::parseInt)
+            .toArray();
+
+        final InMemoryResourceService resourceService = new InMemoryResourceService(
+                LatencyModel.valueOf(option("resourceLatency", "0")),
+                LatencyModel.valueOf(option("resourceLatency", "0")));
+        final List<String> paths = resourceService.seed(PARTITION, parseInt(option("resources", "1000")));
+
+        final URI baseUri = URI.create("http://localhost:" + option("port", "9998") + "/");
+        final Map<String, String> partitions = singletonMap(PARTITION, baseUri.toString());
+        final IOService ioService = new JenaIOService(null);
+
+        final InMemoryBinaryService binaryService = new InMemoryBinaryService(
+                LatencyModel.valueOf(option("binaryLatency", "0")));
+
+        final ResourceConfig config = new ResourceConfig();
+        config.register(new PartitionedLdpResource(resourceService, ioService, binaryService, partitions));
+        config.register(new AgentAuthorizationFilter(user -> null, emptyList()));
+        config.register(new WebAcFilter(partitions, emptyList(),
+                    new InMemoryAccessControlService(LatencyModel.valueOf(option("accessLatency", "0")))));
+        config.register(new MultipartUploader(resourceService, binaryService, partitions));
+        config.register(new CrossOriginResourceSharingFilter(asList("*"), asList("PATCH", "POST", "PUT"),
+                    asList("Link", "Content-Type", "Accept-Datetime"), asList("Link", "Content-Type"), false, 100));
+
+        final HttpServer server = createHttpServer(baseUri, config);
+        final Client client = newClient().property(SET_METHOD_WORKAROUND, true);
+        final WebTarget target = client.target(baseUri).path(PARTITION);
+        try {
+            System.out.println("Warming up for " + warmup + "s with " + threads + " threads");
+            drive(target, paths, mix, threads, SECONDS.toNanos(warmup));
+            recorders.clear();
+            System.out.println("Measuring for " + duration + "s with " + threads + " threads");
+            drive(target, paths, mix, threads, SECONDS.toNanos(duration));
+            report(SECONDS.toNanos(duration));
+        } finally {
+            client.close();
+            server.shutdownNow();
+        }
+    }
+
+    private void drive(final WebTarget target, final List<String> paths, final int[] mix, final int threads,
+            final long nanos) throws InterruptedException, ExecutionException {
+        final int total = Arrays.stream(mix).sum();
+        final long deadline = nanoTime() + nanos;
+        final ExecutorService executor = newFixedThreadPool(threads);
+        final List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; ++i) {
+            workers.add(executor.submit(() -> {
+                final ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (nanoTime() < deadline) {
+                    final String route = pick(mix, random.nextInt(total));
+                    final String path = paths.get(random.nextInt(paths.size()));
+                    final Recorder recorder = recorders.computeIfAbsent(route, k -> new Recorder());
+                    final long start = nanoTime();
+                    try {
+                        final int status = execute(target, route, path);
+                        recorder.record(nanoTime() - start, status);
+                    } catch (final RuntimeException ex) {
+                        recorder.fail();
+                    }
+                }
+            }));
+        }
+        executor.shutdown();
+        executor.awaitTermination(nanos + MINUTES.toNanos(1), NANOSECONDS);
+        for (final Future<?> worker : workers) {
+            worker.get();
+        }
+    }
+
+    private static String pick(final int[] mix, final int value) {
+        int sum = 0;
+        for (int i = 0; i < mix.length && i < ROUTES.length; ++i) {
+            sum += mix[i];
+            if (value < sum) {
+                return ROUTES[i];
+            }
+        }
+        return ROUTES[0];
+    }
+
+    private static int execute(final WebTarget target, final String route, final String path) {
+        final WebTarget resource = target.path(path);
+        final Response res;
+        switch (route) {
+            case "PUT":
+                res = resource.request().put(entity("<> <http://purl.org/dc/terms/title> \"Updated\" .", TURTLE));
+                break;
+            case "PATCH":
+                res = resource.request().method("PATCH", entity(
+                            "INSERT { <> <http://purl.org/dc/terms/description> \"Patched\" } WHERE {}",
+                            "application/sparql-update"));
+                break;
+            case "POST":
+                res = target.request().post(entity("<> <http://purl.org/dc/terms/title> \"Child\" .", TURTLE));
+                break;
+            case "DELETE":
+                res = resource.request().delete();
+                break;
+            default:
+                res = resource.request().accept(TURTLE).get();
+        }
+        try {
+            res.readEntity(String.class);
+            return res.getStatus();
+        } finally {
+            res.close();
+        }
+    }
+
+    private void report(final long nanos) {
+        System.out.println(String.format("%-8s %10s %10s %10s %10s %10s %8s", "route", "requests", "req/s",
+                    "p50 (ms)", "p99 (ms)", "p999 (ms)", "errors"));
+        for (final String route : ROUTES) {
+            final Recorder recorder = recorders.get(route);
+            if (recorder != null) {
+                final long[] counts = recorder.counts();
+                final long requests = Arrays.stream(counts).sum();
+                System.out.println(String.format("%-8s %10d %10.1f %10.2f %10.2f %10.2f %8d", route, requests,
+                            requests / (nanos / 1e9), percentile(counts, requests, 0.5),
+                            percentile(counts, requests, 0.99), percentile(counts, requests, 0.999),
+                            recorder.errors.get()));
+            }
+        }
+    }
+
+    private static double percentile(final long[] counts, final long total, final double p) {
+        final long rank = Math.max(1L, (long) Math.ceil(p * total));
+        long seen = 0L;
+        for (int i = 0; i < counts.length; ++i) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Recorder.lowerBound(i) / 1e3;
+            }
+        }
+        return 0.0;
+    }
+
+    /**
+     * Collects the latency histogram and error count for a single route.
+     *
+     * <p>Latencies are counted in microseconds: exactly below 128&micro;s and, above that, in 64 buckets for
+     * each power of two.
+     */
+    private static final class Recorder {
+        private static final int SUB_BUCKETS = 64;
+
+        private final AtomicLongArray counts = new AtomicLongArray(SUB_BUCKETS * 58);
+        private final AtomicLong errors = new AtomicLong();
+
+        void record(final long nanos, final int status) {
+            if (status >= 400) {
+                errors.incrementAndGet();
+            }
+            counts.incrementAndGet(bucket(Math.max(0L, nanos / 1000L)));
+        }
+
+        void fail() {
+            errors.incrementAndGet();
+        }
+
+        long[] counts() {
+            final long[] values = new long[counts.length()];
+            for (int i = 0; i < values.length; ++i) {
+                values[i] = counts.get(i);
+            }
+            return values;
+        }
+
+        static int bucket(final long micros) {
+            if (micros < 2 * SUB_BUCKETS) {
+                return (int) micros;
+            }
+            final int shift = 57 - Long.numberOfLeadingZeros(micros);
+            return shift * SUB_BUCKETS + (int) (micros >>> shift);
+        }
+
+        static long lowerBound(final int bucket) {
+            if (bucket < 2 * SUB_BUCKETS) {
+                return bucket;
+            }
+            final int shift = bucket / SUB_BUCKETS - 1;
+            return (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        }
+    }
+}
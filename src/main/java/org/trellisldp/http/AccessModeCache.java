@@ -0,0 +1,138 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http;
+
+import static java.util.Collections.unmodifiableSet;
+import static java.util.Objects.hash;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.apache.commons.rdf.api.IRI;
+
+import org.trellisldp.api.Session;
+
+/**
+ * A bounded cache of WebAC access-mode decisions, keyed by agent, delegating agent and resource path.
+ *
+ * <p>Decisions for the same agent on the same path are shared across sessions, so anonymous requests
+ * for a resource are resolved once per entry lifetime. Since an ACL applies to the resources below it,
+ * a change to the ACL of a resource invalidates the decisions for the whole subtree. Entries also
+ * expire a fixed time after they are written, so changes made outside this module are eventually seen.
+ *
+ * @author acoburn
+ */
+public class AccessModeCache {
+
+    private final BoundedCache<Key, Set<IRI>> cache;
+
+    /**
+     * Create an access-mode cache
+     * @param maxSize the maximum number of cached decisions
+     * @param expireAfterWrite the time after which a decision is resolved again
+     */
+    public AccessModeCache(final long maxSize, final Duration expireAfterWrite) {
+        this.cache = new BoundedCache<>(maxSize, modes -> 1L, expireAfterWrite);
+    }
+
+    /**
+     * Get the access modes for a session on a resource, resolving them if they are not cached
+     * @param path the resource path
+     * @param session the session
+     * @param loader a function that resolves the access modes
+     * @return the access modes
+     */
+    public Set<IRI> get(final String path, final Session session, final Supplier<Set<IRI>> loader) {
+        return cache.get(new Key(session.getAgent(), session.getDelegatedBy().orElse(null), path), key ->
+                unmodifiableSet(new HashSet<>(loader.get())));
+    }
+
+    /**
+     * Remove the decisions for a resource and all of the resources below it
+     * @param path the resource path
+     */
+    public void invalidate(final String path) {
+        final String prefix = path.endsWith("/") ? path : path + "/";
+        cache.invalidateAll(key -> key.path.equals(path) || key.path.startsWith(prefix));
+    }
+
+    /**
+     * Remove all decisions from the cache
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Get the number of cached decisions
+     * @return the number of cached decisions
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * Get the number of decisions served from the cache
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    /**
+     * Get the number of decisions not found in the cache
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    /**
+     * Get the number of decisions evicted from the cache
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+
+    private static final class Key {
+        private final IRI agent;
+        private final IRI delegatedBy;
+        private final String path;
+
+        Key(final IRI agent, final IRI delegatedBy, final String path) {
+            this.agent = agent;
+            this.delegatedBy = delegatedBy;
+            this.path = path;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return path.equals(other.path) && Objects.equals(agent, other.agent)
+                && Objects.equals(delegatedBy, other.delegatedBy);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash(agent, delegatedBy, path);
+        }
+    }
+}
@@ -0,0 +1,335 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http;
+
+import static java.lang.System.nanoTime;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+import org.trellisldp.api.CacheService;
+
+/**
+ * A bounded, in-memory {@link CacheService} with approximate least-recently-used eviction.
+ *
+ * <p>The cache is bounded by the total weight of its entries, where the weight of each value is given by a
+ * weigher function (by default, each entry weighs 1). Values that weigh more than the whole cache are never
+ * stored. Entries may also expire a fixed time after they are written.
+ *
+ * <p>Lookups do not take a lock: they only mark the entry as referenced. Writes and invalidations are
+ * serialized, and keep the entries in a queue in the order they were written. When a write takes the cache
+ * over its maximum weight, entries are evicted from the head of the queue; a referenced entry is given a
+ * second chance and moved to the tail instead (the CLOCK algorithm), so each eviction takes amortized
+ * constant time.
+ *
+ * <p>Values are loaded outside of any lock, so concurrent requests for the same missing key may each load
+ * it. A value whose load began before its key was invalidated is returned to its caller but not stored.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ *
+ * @author acoburn
+ */
+public class BoundedCache<K, V> implements CacheService<K, V> {
+
+    private final long maximumWeight;
+    private final ToLongFunction<? super V> weigher;
+    private final long expireNanos;
+    private final Map<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+
+    // Guarded by the write lock
+    private final Map<K, Load> loads = new HashMap<>();
+    private Entry<K, V> head;
+    private Entry<K, V> tail;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private volatile long weight = 0L;
+
+    /**
+     * Create a cache bounded by the number of entries
+     * @param maximumSize the maximum number of entries
+     */
+    public BoundedCache(final long maximumSize) {
+        this(maximumSize, value -> 1L, null);
+    }
+
+    /**
+     * Create a bounded cache
+     * @param maximumWeight the maximum total weight of the cached values
+     * @param weigher a function that computes the weight of a value
+     * @param expireAfterWrite the time after which an entry expires, or null for no expiry
+     */
+    public BoundedCache(final long maximumWeight, final ToLongFunction<? super V> weigher,
+            final Duration expireAfterWrite) {
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.expireNanos = isNull(expireAfterWrite) ? 0L : expireAfterWrite.toNanos();
+    }
+
+    @Override
+    public V get(final K key, final Function<? super K, ? extends V> loader) {
+        final Optional<V> cached = getIfPresent(key);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        final Load load;
+        synchronized (writeLock) {
+            load = loads.computeIfAbsent(key, k -> new Load());
+            load.count++;
+        }
+        V value = null;
+        try {
+            value = loader.apply(key);
+        } finally {
+            synchronized (writeLock) {
+                if (--load.count == 0) {
+                    loads.remove(key, load);
+                }
+                if (nonNull(value) && !load.invalidated) {
+                    store(key, value);
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Get a cached value, if one is present
+     * @param key the key
+     * @return the value, if cached
+     */
+    public Optional<V> getIfPresent(final K key) {
+        final Entry<K, V> entry = entries.get(key);
+        if (nonNull(entry)) {
+            if (!entry.isExpired()) {
+                if (!entry.referenced) {
+                    entry.referenced = true;
+                }
+                hits.increment();
+                return of(entry.value);
+            }
+            synchronized (writeLock) {
+                remove(entry);
+            }
+        }
+        misses.increment();
+        return empty();
+    }
+
+    /**
+     * Store a value in the cache
+     * @param key the key
+     * @param value the value
+     */
+    public void put(final K key, final V value) {
+        synchronized (writeLock) {
+            store(key, value);
+        }
+    }
+
+    /**
+     * Remove an entry from the cache
+     * @param key the key
+     */
+    public void invalidate(final K key) {
+        synchronized (writeLock) {
+            final Load load = loads.remove(key);
+            if (nonNull(load)) {
+                load.invalidated = true;
+            }
+            final Entry<K, V> entry = entries.get(key);
+            if (nonNull(entry)) {
+                remove(entry);
+            }
+        }
+    }
+
+    /**
+     * Remove all entries whose keys match a predicate
+     * @param predicate the predicate
+     */
+    public void invalidateAll(final Predicate<? super K> predicate) {
+        synchronized (writeLock) {
+            loads.entrySet().removeIf(load -> {
+                if (predicate.test(load.getKey())) {
+                    load.getValue().invalidated = true;
+                    return true;
+                }
+                return false;
+            });
+            entries.forEach((key, entry) -> {
+                if (predicate.test(key)) {
+                    remove(entry);
+                }
+            });
+        }
+    }
+
+    /**
+     * Remove all entries from the cache
+     */
+    public void invalidateAll() {
+        invalidateAll(key -> true);
+    }
+
+    /**
+     * Get the number of entries in the cache
+     * @return the number of entries
+     */
+    public long size() {
+        return entries.size();
+    }
+
+    /**
+     * Get the total weight of the cached values
+     * @return the total weight
+     */
+    public long weight() {
+        return weight;
+    }
+
+    /**
+     * Get the number of lookups that found a value
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of lookups that did not find a value
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the number of entries removed to make room for others
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    // Called with the write lock held
+    private void store(final K key, final V value) {
+        final long w = weigher.applyAsLong(value);
+        final Entry<K, V> previous = entries.get(key);
+        if (nonNull(previous)) {
+            remove(previous);
+        }
+        if (w > maximumWeight) {
+            return;
+        }
+        final Entry<K, V> entry = new Entry<>(key, value, w, expireNanos > 0L ? nanoTime() + expireNanos : 0L);
+        entries.put(key, entry);
+        link(entry);
+        weight += w;
+        while (weight > maximumWeight) {
+            evict(entry);
+            evictions.increment();
+        }
+    }
+
+    // Called with the write lock held, when the queue holds at least one entry other than the retained one
+    private void evict(final Entry<K, V> retained) {
+        Entry<K, V> victim = head;
+        // Referenced entries are moved to the tail, but no more than one pass is made over the queue
+        for (int moved = 0; moved < entries.size() && (victim == retained || victim.referenced); moved++) {
+            victim.referenced = false;
+            unlink(victim);
+            link(victim);
+            victim = head;
+        }
+        remove(victim == retained ? victim.next : victim);
+    }
+
+    // Called with the write lock held
+    private void remove(final Entry<K, V> entry) {
+        if (entries.remove(entry.key, entry)) {
+            unlink(entry);
+            weight -= entry.weight;
+        }
+    }
+
+    // Called with the write lock held
+    private void link(final Entry<K, V> entry) {
+        entry.prev = tail;
+        entry.next = null;
+        if (isNull(tail)) {
+            head = entry;
+        } else {
+            tail.next = entry;
+        }
+        tail = entry;
+    }
+
+    // Called with the write lock held
+    private void unlink(final Entry<K, V> entry) {
+        if (isNull(entry.prev)) {
+            head = entry.next;
+        } else {
+            entry.prev.next = entry.next;
+        }
+        if (isNull(entry.next)) {
+            tail = entry.prev;
+        } else {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    private static final class Load {
+        private int count;
+        private boolean invalidated;
+    }
+
+    private static final class Entry<K, V> {
+        private final K key;
+        private final V value;
+        private final long weight;
+        private final long expires;
+        private volatile boolean referenced;
+        private Entry<K, V> prev;
+        private Entry<K, V> next;
+
+        Entry(final K key, final V value, final long weight, final long expires) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.expires = expires;
+        }
+
+        boolean isExpired() {
+            return expires != 0L && nanoTime() - expires > 0L;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.isNull;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.Quad;
+import org.apache.commons.rdf.api.Triple;
+
+import org.trellisldp.api.Binary;
+import org.trellisldp.api.Resource;
+import org.trellisldp.api.VersionRange;
+
+/**
+ * A snapshot of the metadata of a resource, as held by the {@link CachingResourceService}.
+ *
+ * <p>The cached snapshot holds only the metadata of the resource, so that the size of the cache bounds its
+ * memory use. Each lookup returns a view of the snapshot, which reads the RDF content of the resource from
+ * its loader the first time that the content is streamed, and then keeps it for the other streams of the
+ * same view.
+ *
+ * @author acoburn
+ */
+class CachedResource implements IndexedResource {
+
+    private final Supplier<Optional<Resource>> loader;
+    private final IRI identifier;
+    private final IRI interactionModel;
+    private final Optional<IRI> membershipResource;
+    private final Optional<IRI> memberRelation;
+    private final Optional<IRI> memberOfRelation;
+    private final Optional<IRI> insertedContentRelation;
+    private final List<VersionRange> mementos;
+    private final Optional<Binary> binary;
+    private final Optional<IRI> inbox;
+    private final Optional<IRI> annotationService;
+    private final Collection<IRI> types;
+    private final Instant modified;
+    private final Boolean hasAcl;
+    private Optional<Resource> resource;
+
+    /**
+     * Create a snapshot of the metadata of a resource
+     * @param resource the resource
+     */
+    CachedResource(final Resource resource) {
+        this.loader = null;
+        this.identifier = resource.getIdentifier();
+        this.interactionModel = resource.getInteractionModel();
+        this.membershipResource = resource.getMembershipResource();
+        this.memberRelation = resource.getMemberRelation();
+        this.memberOfRelation = resource.getMemberOfRelation();
+        this.insertedContentRelation = resource.getInsertedContentRelation();
+        this.mementos = unmodifiableList(new ArrayList<>(resource.getMementos()));
+        this.binary = resource.getBinary();
+        this.inbox = resource.getInbox();
+        this.annotationService = resource.getAnnotationService();
+        this.types = unmodifiableList(new ArrayList<>(resource.getTypes()));
+        this.modified = resource.getModified();
+        this.hasAcl = resource.hasAcl();
+    }
+
+    /**
+     * Create a view of a snapshot
+     * @param snapshot the snapshot
+     * @param loader a function that reads the resource from which the content is streamed
+     */
+    CachedResource(final CachedResource snapshot, final Supplier<Optional<Resource>> loader) {
+        this.loader = loader;
+        this.identifier = snapshot.identifier;
+        this.interactionModel = snapshot.interactionModel;
+        this.membershipResource = snapshot.membershipResource;
+        this.memberRelation = snapshot.memberRelation;
+        this.memberOfRelation = snapshot.memberOfRelation;
+        this.insertedContentRelation = snapshot.insertedContentRelation;
+        this.mementos = snapshot.mementos;
+        this.binary = snapshot.binary;
+        this.inbox = snapshot.inbox;
+        this.annotationService = snapshot.annotationService;
+        this.types = snapshot.types;
+        this.modified = snapshot.modified;
+        this.hasAcl = snapshot.hasAcl;
+    }
+
+    private Optional<Resource> fetch() {
+        if (isNull(resource)) {
+            resource = loader.get();
+        }
+        return resource;
+    }
+
+    @Override
+    public IRI getIdentifier() {
+        return identifier;
+    }
+
+    @Override
+    public IRI getInteractionModel() {
+        return interactionModel;
+    }
+
+    @Override
+    public Optional<IRI> getMembershipResource() {
+        return membershipResource;
+    }
+
+    @Override
+    public Optional<IRI> getMemberRelation() {
+        return memberRelation;
+    }
+
+    @Override
+    public Optional<IRI> getMemberOfRelation() {
+        return memberOfRelation;
+    }
+
+    @Override
+    public Optional<IRI> getInsertedContentRelation() {
+        return insertedContentRelation;
+    }
+
+    @Override
+    public List<VersionRange> getMementos() {
+        return mementos;
+    }
+
+    @Override
+    public Stream<? extends Quad> stream() {
+        return fetch().map(Resource::stream).orElseGet(Stream::empty);
+    }
+
+    @Override
+    public Stream<? extends Triple> stream(final IRI graphName) {
+        return fetch().map(res -> res.stream(graphName)).orElseGet(Stream::empty);
+    }
+
+    @Override
+    public Stream<? extends Triple> stream(final Collection<IRI> graphNames) {
+        return fetch().map(res -> res.stream(graphNames)).orElseGet(Stream::empty);
+    }
+
+    @Override
+    public Stream<? extends Triple> stream(final IRI graphName, final IRI subject, final IRI predicate) {
+        return fetch().map(res -> {
+            if (res instanceof IndexedResource) {
+                return ((IndexedResource) res).stream(graphName, subject, predicate);
+            }
+            return res.stream(graphName).filter(triple -> (isNull(subject) || subject.equals(triple.getSubject()))
+                    && (isNull(predicate) || predicate.equals(triple.getPredicate())));
+        }).orElseGet(Stream::empty);
+    }
+
+    @Override
+    public Optional<Long> estimateSize(final IRI graphName, final IRI subject, final IRI predicate) {
+        return fetch().filter(IndexedResource.class::isInstance).map(IndexedResource.class::cast)
+            .flatMap(res -> res.estimateSize(graphName, subject, predicate));
+    }
+
+    @Override
+    public Optional<Binary> getBinary() {
+        return binary;
+    }
+
+    @Override
+    public Boolean isMemento() {
+        return false;
+    }
+
+    @Override
+    public Optional<IRI> getInbox() {
+        return inbox;
+    }
+
+    @Override
+    public Collection<IRI> getTypes() {
+        return types;
+    }
+
+    @Override
+    public Optional<IRI> getAnnotationService() {
+        return annotationService;
+    }
+
+    @Override
+    public Instant getModified() {
+        return modified;
+    }
+
+    @Override
+    public Boolean hasAcl() {
+        return hasAcl;
+    }
+}
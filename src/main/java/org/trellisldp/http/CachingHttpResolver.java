@@ -0,0 +1,435 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http;
+
+import static java.lang.System.nanoTime;
+import static java.nio.channels.Channels.newChannel;
+import static java.nio.channels.Channels.newInputStream;
+import static java.nio.file.Files.createDirectories;
+import static java.nio.file.Files.createTempFile;
+import static java.nio.file.Files.deleteIfExists;
+import static java.nio.file.Files.newDirectoryStream;
+import static java.nio.file.Files.newOutputStream;
+import static java.nio.file.StandardOpenOption.DELETE_ON_CLOSE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.time.Duration.ZERO;
+import static java.util.Objects.nonNull;
+import static java.util.Objects.requireNonNull;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static javax.ws.rs.client.ClientBuilder.newClient;
+import static javax.ws.rs.core.HttpHeaders.ETAG;
+import static javax.ws.rs.core.HttpHeaders.IF_MODIFIED_SINCE;
+import static javax.ws.rs.core.HttpHeaders.IF_NONE_MATCH;
+import static javax.ws.rs.core.HttpHeaders.LAST_MODIFIED;
+import static javax.ws.rs.core.Response.Status.NOT_MODIFIED;
+import static javax.ws.rs.core.Response.Status.Family.SUCCESSFUL;
+import static org.apache.commons.io.IOUtils.copyLarge;
+import static org.apache.commons.io.IOUtils.skip;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.core.Response;
+
+import org.apache.commons.rdf.api.IRI;
+import org.slf4j.Logger;
+import org.trellisldp.api.RuntimeRepositoryException;
+
+/**
+ * An {@link HttpResolver} that keeps a copy of remote content in a local directory.
+ *
+ * <p>The cache is bounded by the total size of the cached files, and the least recently used files are
+ * removed first. Content is only cached when the origin sends an {@code ETag} or {@code Last-Modified}
+ * header and the content fits in the cache; other content is streamed from the origin without being written
+ * to disk. Content of unknown length is written to disk until it exceeds the cache size, and the rest of it is
+ * then streamed from the origin. A cached copy is revalidated with a conditional request once it
+ * is older than the revalidation interval (by default, on every request); when the origin responds with
+ * {@code 304 Not Modified}, the cached file is served.
+ *
+ * <p>Concurrent requests for content that is not cached share a single fetch from the origin. Full and
+ * partial reads of cached content are served from the local file. The cache index is held in memory, so files
+ * left in the directory by an earlier instance are removed when the resolver is created.
+ *
+ * @author acoburn
+ */
+public class CachingHttpResolver extends HttpResolver {
+
+    private static final Logger LOGGER = getLogger(CachingHttpResolver.class);
+
+    private static final String FILE_PREFIX = "binary-";
+    private static final String FILE_SUFFIX = ".cache";
+
+    private final Path directory;
+    private final long maxBytes;
+    private final long revalidateNanos;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, CompletableFuture<Optional<Entry>>> fetches = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private long weight = 0L;
+
+    /**
+     * Create a caching HTTP resolver using the default HTTP client
+     * @param directory the cache directory
+     * @param maxBytes the maximum total size of the cached content
+     */
+    public CachingHttpResolver(final String directory, final long maxBytes) {
+        this(newClient(), 0, ZERO, directory, maxBytes, ZERO);
+    }
+
+    /**
+     * Create a caching HTTP resolver
+     * @param client the client
+     * @param maxConnectionsPerHost the maximum number of concurrent requests to a single host, or 0 for no limit
+     * @param acquireTimeout the maximum time to wait for a connection to a host
+     * @param directory the cache directory
+     * @param maxBytes the maximum total size of the cached content
+     * @param revalidateAfter the time after which cached content is revalidated with the origin
+     */
+    public CachingHttpResolver(final Client client, final int maxConnectionsPerHost, final Duration acquireTimeout,
+            final String directory, final long maxBytes, final Duration revalidateAfter) {
+        super(client, maxConnectionsPerHost, acquireTimeout);
+        requireNonNull(directory, "Cache directory may not be null!");
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        this.maxBytes = maxBytes;
+        this.revalidateNanos = revalidateAfter.toNanos();
+        try {
+            createDirectories(this.directory);
+            try (final DirectoryStream<Path> files = newDirectoryStream(this.directory,
+                        FILE_PREFIX + "*" + FILE_SUFFIX)) {
+                for (final Path file : files) {
+                    deleteIfExists(file);
+                }
+            }
+        } catch (final IOException ex) {
+            throw new RuntimeRepositoryException("Error initializing cache directory " + directory, ex);
+        }
+    }
+
+    @Override
+    public Optional<InputStream> getContent(final String partition, final IRI identifier) {
+        return getChannel(identifier).map(channel -> newInputStream(channel));
+    }
+
+    @Override
+    public Optional<InputStream> getContent(final String partition, final IRI identifier, final long from) {
+        return getChannel(identifier).map(channel -> {
+            try {
+                if (channel instanceof FileChannel) {
+                    ((FileChannel) channel).position(from);
+                    return newInputStream(channel);
+                }
+                final InputStream input = newInputStream(channel);
+                skip(input, from);
+                return input;
+            } catch (final IOException ex) {
+                close(channel);
+                throw new RuntimeRepositoryException("Error reading content of " + identifier, ex);
+            }
+        });
+    }
+
+    private Optional<ReadableByteChannel> getChannel(final IRI identifier) {
+        requireNonNull(identifier, "Identifier may not be null!");
+        // A cached file may be evicted before it is opened, in which case it is fetched again
+        for (int attempt = 0; attempt < 2; attempt++) {
+            final Optional<Entry> entry = load(identifier);
+            if (!entry.isPresent()) {
+                return empty();
+            }
+            if (!entry.get().cached) {
+                return of(newChannel(entry.get().content));
+            }
+            try {
+                return of(FileChannel.open(entry.get().file, READ));
+            } catch (final NoSuchFileException ex) {
+                LOGGER.debug("Cached content of {} was evicted before it was read", identifier);
+                remove(identifier.getIRIString(), entry.get());
+            } catch (final IOException ex) {
+                throw new RuntimeRepositoryException("Error reading cached content of " + identifier, ex);
+            }
+        }
+        throw new RuntimeRepositoryException("Unable to cache the content of " + identifier);
+    }
+
+    @Override
+    public void setContent(final String partition, final IRI identifier, final InputStream stream,
+            final Map<String, String> metadata) {
+        invalidate(identifier);
+        super.setContent(partition, identifier, stream, metadata);
+    }
+
+    @Override
+    public void purgeContent(final String partition, final IRI identifier) {
+        invalidate(identifier);
+        super.purgeContent(partition, identifier);
+    }
+
+    /**
+     * Remove the cached content of a resource
+     * @param identifier the resource identifier
+     */
+    public void invalidate(final IRI identifier) {
+        synchronized (entries) {
+            final Entry entry = entries.remove(identifier.getIRIString());
+            if (nonNull(entry)) {
+                evict(entry);
+            }
+        }
+    }
+
+    /**
+     * Get the number of cached files
+     * @return the number of cached files
+     */
+    public long size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Get the total size of the cached content
+     * @return the number of cached bytes
+     */
+    public long weight() {
+        synchronized (entries) {
+            return weight;
+        }
+    }
+
+    /**
+     * Get the number of requests that were served from the cache without a new download
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of requests that downloaded content from the origin
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private Optional<Entry> load(final IRI identifier) {
+        final String key = identifier.getIRIString();
+        final Entry cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        if (nonNull(cached) && revalidateNanos > 0 && nanoTime() - cached.validated < revalidateNanos) {
+            hits.increment();
+            return of(cached);
+        }
+
+        final CompletableFuture<Optional<Entry>> fetch = new CompletableFuture<>();
+        final CompletableFuture<Optional<Entry>> pending = fetches.putIfAbsent(key, fetch);
+        if (nonNull(pending)) {
+            final Optional<Entry> shared = join(pending);
+            // Content that was not cached belongs to the request that downloaded it
+            return shared.filter(entry -> !entry.cached).isPresent() ? fetch(identifier, null) : shared;
+        }
+        try {
+            final Optional<Entry> entry = fetch(identifier, cached);
+            fetch.complete(entry);
+            return entry;
+        } catch (final RuntimeException ex) {
+            fetch.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            fetches.remove(key, fetch);
+        }
+    }
+
+    private Optional<Entry> fetch(final IRI identifier, final Entry cached) {
+        final String key = identifier.getIRIString();
+        final Map<String, String> headers = new HashMap<>();
+        if (nonNull(cached)) {
+            if (nonNull(cached.etag)) {
+                headers.put(IF_NONE_MATCH, cached.etag);
+            }
+            if (nonNull(cached.lastModified)) {
+                headers.put(IF_MODIFIED_SINCE, cached.lastModified);
+            }
+        }
+        return get(identifier, headers, (res, content) -> {
+            if (nonNull(cached) && res.getStatus() == NOT_MODIFIED.getStatusCode()) {
+                hits.increment();
+                cached.validated = nanoTime();
+                return of(cached);
+            }
+            if (!res.getStatusInfo().getFamily().equals(SUCCESSFUL) || !res.hasEntity()) {
+                if (nonNull(cached)) {
+                    remove(key, cached);
+                }
+                return empty();
+            }
+            misses.increment();
+            final boolean cacheable = (nonNull(res.getHeaderString(ETAG)) ||
+                    nonNull(res.getHeaderString(LAST_MODIFIED))) && res.getLength() <= maxBytes;
+            final Entry entry = cacheable ? download(identifier, res, content.get()) : new Entry(content.get());
+            if (entry.cached) {
+                store(key, entry);
+            } else if (nonNull(cached)) {
+                remove(key, cached);
+            }
+            return of(entry);
+        });
+    }
+
+    private Entry download(final IRI identifier, final Response res, final InputStream content) {
+        final String etag = res.getHeaderString(ETAG);
+        final String lastModified = res.getHeaderString(LAST_MODIFIED);
+        Path file = null;
+        try {
+            file = createTempFile(directory, FILE_PREFIX, FILE_SUFFIX);
+            final long size;
+            try (final OutputStream out = newOutputStream(file)) {
+                size = copyLarge(content, out, 0L, maxBytes + 1);
+            }
+            if (size <= maxBytes) {
+                content.close();
+                return new Entry(file, size, etag, lastModified);
+            }
+            // Content that does not fit in the cache is read from the partial copy and then from the origin
+            return new Entry(new SequenceInputStream(newInputStream(FileChannel.open(file, READ, DELETE_ON_CLOSE)),
+                        content));
+        } catch (final IOException ex) {
+            delete(file);
+            close(content);
+            throw new RuntimeRepositoryException("Error caching the content of " + identifier, ex);
+        }
+    }
+
+    private void store(final String key, final Entry entry) {
+        synchronized (entries) {
+            final Entry previous = entries.put(key, entry);
+            weight += entry.size;
+            if (nonNull(previous)) {
+                evict(previous);
+            }
+            final Iterator<Entry> iter = entries.values().iterator();
+            while (weight > maxBytes && iter.hasNext()) {
+                final Entry eldest = iter.next();
+                if (eldest != entry) {
+                    iter.remove();
+                    evict(eldest);
+                }
+            }
+        }
+    }
+
+    private void remove(final String key, final Entry entry) {
+        synchronized (entries) {
+            if (entries.remove(key, entry)) {
+                evict(entry);
+            }
+        }
+    }
+
+    // Called with the lock held, after the entry has been removed from the index
+    private void evict(final Entry entry) {
+        weight -= entry.size;
+        delete(entry.file);
+    }
+
+    private static void close(final Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (final IOException ex) {
+            LOGGER.warn("Error closing content stream: {}", ex.getMessage());
+        }
+    }
+
+    private static void delete(final Path file) {
+        try {
+            if (nonNull(file)) {
+                deleteIfExists(file);
+            }
+        } catch (final IOException ex) {
+            LOGGER.warn("Unable to remove cached file {}: {}", file, ex.getMessage());
+        }
+    }
+
+    private static <T> T join(final CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (final CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * A downloaded file and the validators sent with it, or content that is streamed without being cached.
+     */
+    private static final class Entry {
+
+        private final Path file;
+        private final long size;
+        private final String etag;
+        private final String lastModified;
+        private final InputStream content;
+        private final boolean cached;
+
+        private volatile long validated = nanoTime();
+
+        private Entry(final Path file, final long size, final String etag, final String lastModified) {
+            this.file = file;
+            this.size = size;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.content = null;
+            this.cached = true;
+        }
+
+        private Entry(final InputStream content) {
+            this.file = null;
+            this.size = 0L;
+            this.etag = null;
+            this.lastModified = null;
+            this.content = content;
+            this.cached = false;
+        }
+    }
+}
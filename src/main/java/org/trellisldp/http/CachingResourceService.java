@@ -0,0 +1,228 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.apache.commons.rdf.api.Dataset;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.Quad;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.api.Triple;
+import org.slf4j.Logger;
+
+import org.trellisldp.api.Resource;
+import org.trellisldp.api.ResourceService;
+
+/**
+ * A {@link ResourceService} that caches the metadata of the current state of resources.
+ *
+ * <p>Only lookups of the current state of a resource ({@link #get(IRI)}) are cached, and only the metadata of
+ * a resource is held in the cache (interaction model, modification date, types, binary metadata, mementos).
+ * The RDF content is read from the underlying service when a resource returned by a lookup is first
+ * streamed; a lookup that missed the cache streams the resource that it loaded. When content that is read
+ * this way has changed since the metadata was cached, the cached entry is removed. Lookups at a point in time,
+ * including those made before a write, always reach the underlying service, as do lookups of resources that
+ * do not exist.
+ *
+ * <p>Incremental updates are passed on when the underlying service is an {@link IncrementalResourceService}.
+ * Writes that go through this service invalidate the cached state of the resource and of its parent
+ * container. Changes made to the underlying service by other means are only seen once the cached entry
+ * expires, or after a call to {@link #invalidate(IRI)}.
+ *
+ * @author acoburn
+ */
+public class CachingResourceService implements IncrementalResourceService {
+
+    private static final Logger LOGGER = getLogger(CachingResourceService.class);
+
+    private final ResourceService service;
+    private final BoundedCache<IRI, CachedResource> cache;
+
+    /**
+     * Create a caching resource service
+     * @param service the underlying resource service
+     * @param maxSize the maximum number of cached resources
+     * @param expireAfterWrite the time after which a cached resource is read again from the underlying service
+     */
+    public CachingResourceService(final ResourceService service, final long maxSize,
+            final Duration expireAfterWrite) {
+        this.service = service;
+        this.cache = new BoundedCache<>(maxSize, res -> 1L, expireAfterWrite);
+    }
+
+    @Override
+    public Optional<Resource> get(final IRI identifier) {
+        final AtomicReference<Resource> loaded = new AtomicReference<>();
+        final CachedResource snapshot = cache.get(identifier, id -> service.get(id).map(res -> {
+            loaded.set(res);
+            return new CachedResource(res);
+        }).orElse(null));
+        if (isNull(snapshot)) {
+            return empty();
+        }
+        final Resource res = loaded.get();
+        return of(new CachedResource(snapshot, nonNull(res) ? () -> of(res) : () -> load(snapshot)));
+    }
+
+    private Optional<Resource> load(final Resource snapshot) {
+        final Optional<Resource> res = service.get(snapshot.getIdentifier());
+        if (!res.map(Resource::getModified).filter(snapshot.getModified()::equals).isPresent()) {
+            invalidate(snapshot.getIdentifier());
+        }
+        return res;
+    }
+
+    @Override
+    public Optional<Resource> get(final IRI identifier, final Instant time) {
+        return service.get(identifier, time);
+    }
+
+    @Override
+    public Boolean put(final IRI identifier, final Dataset dataset) {
+        try {
+            return service.put(identifier, dataset);
+        } finally {
+            invalidateWithParent(identifier);
+        }
+    }
+
+    @Override
+    public Boolean update(final IRI identifier, final Dataset deletions, final Dataset additions) {
+        if (!supportsIncrementalUpdates()) {
+            throw new UnsupportedOperationException("The underlying resource service does not support updates");
+        }
+        try {
+            return ((IncrementalResourceService) service).update(identifier, deletions, additions);
+        } finally {
+            invalidateWithParent(identifier);
+        }
+    }
+
+    @Override
+    public Boolean supportsIncrementalUpdates() {
+        return service instanceof IncrementalResourceService &&
+            ((IncrementalResourceService) service).supportsIncrementalUpdates();
+    }
+
+    @Override
+    public Optional<IRI> getContainer(final IRI identifier) {
+        return service.getContainer(identifier);
+    }
+
+    @Override
+    public Stream<IRI> compact(final IRI identifier, final Instant from, final Instant until) {
+        invalidate(identifier);
+        return service.compact(identifier, from, until);
+    }
+
+    @Override
+    public Stream<IRI> purge(final IRI identifier) {
+        invalidateWithParent(identifier);
+        return service.purge(identifier);
+    }
+
+    @Override
+    public Stream<? extends Triple> scan(final String partition) {
+        return service.scan(partition);
+    }
+
+    @Override
+    public RDFTerm skolemize(final RDFTerm term) {
+        return service.skolemize(term);
+    }
+
+    @Override
+    public RDFTerm unskolemize(final RDFTerm term) {
+        return service.unskolemize(term);
+    }
+
+    @Override
+    public <T extends RDFTerm> T toInternal(final T term, final String baseUrl) {
+        return service.toInternal(term, baseUrl);
+    }
+
+    @Override
+    public <T extends RDFTerm> T toExternal(final T term, final String baseUrl) {
+        return service.toExternal(term, baseUrl);
+    }
+
+    @Override
+    public Stream<? extends Quad> export(final String partition, final Collection<IRI> graphNames) {
+        return service.export(partition, graphNames);
+    }
+
+    @Override
+    public Supplier<String> getIdentifierSupplier() {
+        return service.getIdentifierSupplier();
+    }
+
+    /**
+     * Remove a resource from the cache
+     * @param identifier the resource identifier
+     */
+    public void invalidate(final IRI identifier) {
+        LOGGER.debug("Invalidating cached resource: {}", identifier);
+        cache.invalidate(identifier);
+    }
+
+    /**
+     * Get the number of cached resources
+     * @return the number of cached resources
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * Get the number of lookups served from the cache
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    /**
+     * Get the number of lookups not found in the cache
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    /**
+     * Get the number of resources evicted from the cache
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+
+    private void invalidateWithParent(final IRI identifier) {
+        invalidate(identifier);
+        service.getContainer(identifier).ifPresent(this::invalidate);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http;
+
+import static java.util.Optional.ofNullable;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.apache.commons.rdf.api.IRI;
+
+/**
+ * A bounded cache of the instance digests of binary content.
+ *
+ * <p>Digests are keyed by the binary identifier, its modification date and the (upper-case) algorithm name,
+ * so replacing a binary never serves an earlier digest. Values are expected to be in the form returned by
+ * {@link org.trellisldp.api.BinaryService#digest}.
+ *
+ * @author acoburn
+ */
+public class DigestCache {
+
+    private final BoundedCache<String, String> cache;
+    private final boolean deferred;
+
+    /**
+     * Create a digest cache
+     * @param maxSize the maximum number of cached digests
+     */
+    public DigestCache(final long maxSize) {
+        this(maxSize, false);
+    }
+
+    /**
+     * Create a digest cache
+     *
+     * <p>With deferred digests, a digest that is not yet cached is not computed before a response is sent.
+     * Instead, it is computed while the full binary is streamed to a client and it is then available
+     * to later requests.
+     *
+     * @param maxSize the maximum number of cached digests
+     * @param deferred whether digests should be computed while streaming binary content
+     */
+    public DigestCache(final long maxSize, final boolean deferred) {
+        this.cache = new BoundedCache<>(maxSize);
+        this.deferred = deferred;
+    }
+
+    /**
+     * Check whether digests are computed while streaming binary content
+     * @return true if digests are deferred; false otherwise
+     */
+    public boolean isDeferred() {
+        return deferred;
+    }
+
+    /**
+     * Get a digest, computing it if it is not cached
+     * @param identifier the binary identifier
+     * @param modified the binary modification date
+     * @param algorithm the digest algorithm
+     * @param loader a function that computes the digest
+     * @return the digest, if one could be computed
+     */
+    public Optional<String> get(final IRI identifier, final Instant modified, final String algorithm,
+            final Supplier<Optional<String>> loader) {
+        return ofNullable(cache.get(getKey(identifier, modified, algorithm), key -> loader.get().orElse(null)));
+    }
+
+    /**
+     * Get a digest, if it is cached
+     * @param identifier the binary identifier
+     * @param modified the binary modification date
+     * @param algorithm the digest algorithm
+     * @return the digest, if one is cached
+     */
+    public Optional<String> getIfPresent(final IRI identifier, final Instant modified, final String algorithm) {
+        return cache.getIfPresent(getKey(identifier, modified, algorithm));
+    }
+
+    /**
+     * Store a digest
+     * @param identifier the binary identifier
+     * @param modified the binary modification date
+     * @param algorithm the digest algorithm
+     * @param digest the digest
+     */
+    public void put(final IRI identifier, final Instant modified, final String algorithm, final String digest) {
+        cache.put(getKey(identifier, modified, algorithm), digest);
+    }
+
+    /**
+     * Get the number of cached digests
+     * @return the number of cached digests
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * Get the number of digests served from the cache
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    /**
+     * Get the number of digests not found in the cache
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    /**
+     * Get the number of digests evicted from the cache
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+
+    private static String getKey(final IRI identifier, final Instant modified, final String algorithm) {
+        return identifier.getIRIString() + " " + modified + " " + algorithm.toUpperCase();
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http;
+
+import static org.apache.commons.codec.digest.DigestUtils.md5Hex;
+
+import java.time.Instant;
+
+/**
+ * An {@link ETagGenerator} that computes an MD5 digest of the modification date and identifier.
+ *
+ * @author acoburn
+ */
+public class DigestETagGenerator implements ETagGenerator {
+
+    @Override
+    public String getValue(final String identifier, final Instant modified) {
+        return md5Hex(modified + identifier);
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http;
+
+import java.time.Instant;
+
+/**
+ * A strategy for computing the value of an entity tag from a resource identifier and its modification date.
+ *
+ * <p>Entity tags are compared only with earlier tags for the same URL, so a value needs to change whenever
+ * the modification date or the variant encoded in the identifier changes, but it need not be unique across
+ * resources. An implementation may be registered with the {@link java.util.ServiceLoader}; when none is
+ * registered, the {@link DigestETagGenerator} is used.
+ *
+ * @author acoburn
+ */
+public interface ETagGenerator {
+
+    /**
+     * Compute an entity tag value
+     * @param identifier the identifier of the resource, including any variant of the representation
+     * @param modified the modification date
+     * @return the entity tag value
+     */
+    String getValue(String identifier, Instant modified);
+}
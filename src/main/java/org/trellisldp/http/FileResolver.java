@@ -0,0 +1,425 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http;
+
+import static java.nio.channels.Channels.newInputStream;
+import static java.nio.file.Files.createDirectories;
+import static java.nio.file.Files.createTempFile;
+import static java.nio.file.Files.deleteIfExists;
+import static java.nio.file.Files.isDirectory;
+import static java.nio.file.Files.isRegularFile;
+import static java.nio.file.Files.list;
+import static java.nio.file.Files.move;
+import static java.nio.file.Files.walk;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.time.Instant.now;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+import static java.util.Comparator.reverseOrder;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.Objects.requireNonNull;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static java.util.Optional.ofNullable;
+import static java.util.UUID.randomUUID;
+import static java.util.stream.Collectors.toList;
+import static org.apache.commons.codec.binary.Hex.encodeHexString;
+import static org.apache.commons.codec.digest.DigestUtils.getMd5Digest;
+import static org.apache.commons.io.IOUtils.copy;
+import static org.slf4j.LoggerFactory.getLogger;
+import static org.trellisldp.api.RDFUtils.TRELLIS_PREFIX;
+import static org.trellisldp.api.RDFUtils.getInstance;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDF;
+import org.slf4j.Logger;
+import org.trellisldp.api.Binary;
+import org.trellisldp.api.BinaryService;
+import org.trellisldp.api.BinaryService.MultipartUpload;
+import org.trellisldp.api.RuntimeRepositoryException;
+import org.trellisldp.http.impl.HttpSession;
+
+/**
+ * A {@link BinaryService.Resolver} for {@code file:} identifiers, backed by a local directory per partition.
+ *
+ * <p>A binary identifier such as {@code file:some/path} resolves to the file {@code some/path} in the
+ * directory of the partition. Content is written to a temporary file in the target directory and then
+ * atomically renamed into place; when synchronization is enabled, the file and its directory are flushed
+ * to the storage device before a write completes. Content can be read from an offset, in which
+ * case the file is positioned at the offset instead of reading the leading bytes.
+ *
+ * <p>Multipart uploads are kept in an {@code .uploads} directory of the partition. Each part is stored in
+ * its own file, and completing an upload concatenates the parts with channel transfers.
+ *
+ * @author acoburn
+ */
+public class FileResolver implements BinaryService.Resolver, SeekableResolver {
+
+    private static final Logger LOGGER = getLogger(FileResolver.class);
+
+    private static final RDF rdf = getInstance();
+
+    private static final String FILE_SCHEME = "file:";
+    private static final String UPLOADS_DIRECTORY = ".uploads";
+    private static final String UPLOAD_SESSION = "upload.properties";
+    private static final String PARTITION = "partition";
+    private static final String IDENTIFIER = "identifier";
+    private static final String MIME_TYPE = "mimeType";
+    private static final Pattern PART_FILE = Pattern.compile("^(\\d+)-([0-9a-f]+)\\.part$");
+
+    private final Map<String, Path> directories = new TreeMap<>();
+    private final Map<String, String> baseUrls;
+    private final boolean sync;
+
+    /**
+     * Create a file-based resolver
+     *
+     * <p>Multipart uploads cannot be completed by this resolver, since no partition has a base URL.
+     *
+     * @param directories a map of partition names to base directories
+     */
+    public FileResolver(final Map<String, String> directories) {
+        this(directories, emptyMap(), true);
+    }
+
+    /**
+     * Create a file-based resolver
+     * @param directories a map of partition names to base directories
+     * @param baseUrls a map of partition names to base URLs, used for completed multipart uploads
+     * @param sync whether writes are flushed to the storage device before they complete
+     */
+    public FileResolver(final Map<String, String> directories, final Map<String, String> baseUrls,
+            final boolean sync) {
+        requireNonNull(directories, "Partition directories may not be null!");
+        directories.forEach((partition, directory) -> this.directories.put(partition,
+                    Paths.get(directory).toAbsolutePath().normalize()));
+        this.baseUrls = requireNonNull(baseUrls, "Partition base URLs may not be null!");
+        this.sync = sync;
+    }
+
+    @Override
+    public List<String> getUriSchemes() {
+        return singletonList("file");
+    }
+
+    @Override
+    public Boolean exists(final String partition, final IRI identifier) {
+        return getFile(partition, identifier).map(Files::isRegularFile).orElse(false);
+    }
+
+    @Override
+    public Optional<InputStream> getContent(final String partition, final IRI identifier) {
+        return getContent(partition, identifier, 0L);
+    }
+
+    @Override
+    public Optional<InputStream> getContent(final String partition, final IRI identifier, final long from) {
+        return getChannel(partition, identifier).map(channel -> {
+            try {
+                channel.position(from);
+                return newInputStream(channel);
+            } catch (final IOException ex) {
+                try {
+                    channel.close();
+                } catch (final IOException closeException) {
+                    ex.addSuppressed(closeException);
+                }
+                throw new RuntimeRepositoryException(ex);
+            }
+        });
+    }
+
+    private Optional<FileChannel> getChannel(final String partition, final IRI identifier) {
+        final Optional<Path> file = getFile(partition, identifier).filter(Files::isRegularFile);
+        if (file.isPresent()) {
+            try {
+                return of(FileChannel.open(file.get(), READ));
+            } catch (final IOException ex) {
+                throw new RuntimeRepositoryException(ex);
+            }
+        }
+        return empty();
+    }
+
+    @Override
+    public void setContent(final String partition, final IRI identifier, final InputStream stream,
+            final Map<String, String> metadata) {
+        final Path file = getFile(partition, identifier).orElseThrow(() ->
+                new RuntimeRepositoryException("Cannot resolve " + identifier + " in partition " + partition));
+        try {
+            createDirectories(file.getParent());
+            final Path temp = createTempFile(file.getParent(), ".", ".tmp");
+            try {
+                try (final OutputStream output = Files.newOutputStream(temp, WRITE)) {
+                    copy(stream, output);
+                }
+                commit(temp, file);
+            } finally {
+                deleteIfExists(temp);
+            }
+        } catch (final IOException ex) {
+            throw new RuntimeRepositoryException("Error writing " + identifier, ex);
+        }
+    }
+
+    @Override
+    public void purgeContent(final String partition, final IRI identifier) {
+        getFile(partition, identifier).ifPresent(file -> {
+            try {
+                deleteIfExists(file);
+            } catch (final IOException ex) {
+                throw new RuntimeRepositoryException("Error deleting " + identifier, ex);
+            }
+        });
+    }
+
+    @Override
+    public Boolean supportsMultipartUpload() {
+        return true;
+    }
+
+    @Override
+    public String initiateUpload(final String partition, final IRI identifier, final String mimeType) {
+        final Path base = getDirectory(partition).orElseThrow(() ->
+                new RuntimeRepositoryException("No directory defined for partition " + partition));
+        final String uploadId = randomUUID().toString();
+        final Properties session = new Properties();
+        session.setProperty(PARTITION, partition);
+        session.setProperty(IDENTIFIER, identifier.getIRIString());
+        session.setProperty(MIME_TYPE, mimeType);
+        try {
+            final Path directory = createDirectories(base.resolve(UPLOADS_DIRECTORY).resolve(uploadId));
+            try (final OutputStream output = Files.newOutputStream(directory.resolve(UPLOAD_SESSION))) {
+                session.store(output, null);
+            }
+        } catch (final IOException ex) {
+            throw new RuntimeRepositoryException("Error initiating upload for " + identifier, ex);
+        }
+        return uploadId;
+    }
+
+    @Override
+    public String uploadPart(final String identifier, final Integer partNumber, final InputStream content) {
+        final Path directory = getUploadDirectory(identifier).orElseThrow(() ->
+                new RuntimeRepositoryException("No upload session for " + identifier));
+        try {
+            final Path temp = createTempFile(directory, ".", ".tmp");
+            try {
+                final MessageDigest md5 = getMd5Digest();
+                try (final InputStream input = new DigestInputStream(content, md5);
+                        final OutputStream output = Files.newOutputStream(temp, WRITE)) {
+                    copy(input, output);
+                }
+                final String digest = encodeHexString(md5.digest());
+                // A part that is uploaded again replaces any earlier version
+                try (final Stream<Path> parts = list(directory)) {
+                    for (final Path part : parts.filter(p -> partNumber.equals(getPartNumber(p))).collect(toList())) {
+                        deleteIfExists(part);
+                    }
+                }
+                commit(temp, directory.resolve(partNumber + "-" + digest + ".part"));
+                return digest;
+            } finally {
+                deleteIfExists(temp);
+            }
+        } catch (final IOException ex) {
+            throw new RuntimeRepositoryException("Error writing part " + partNumber + " of " + identifier, ex);
+        }
+    }
+
+    @Override
+    public MultipartUpload completeUpload(final String identifier, final Map<Integer, String> partDigests) {
+        final Path directory = getUploadDirectory(identifier).orElseThrow(() ->
+                new RuntimeRepositoryException("No upload session for " + identifier));
+        final Map<Integer, Path> parts = getParts(directory);
+        for (final Map.Entry<Integer, String> entry : partDigests.entrySet()) {
+            final Path part = parts.get(entry.getKey());
+            if (isNull(part) || !part.getFileName().toString().equals(entry.getKey() + "-" + entry.getValue()
+                        + ".part")) {
+                throw new RuntimeRepositoryException("Part " + entry.getKey() + " of upload " + identifier +
+                        " does not match digest " + entry.getValue());
+            }
+        }
+
+        try {
+            final Properties session = new Properties();
+            try (final InputStream input = Files.newInputStream(directory.resolve(UPLOAD_SESSION))) {
+                session.load(input);
+            }
+            final String partition = session.getProperty(PARTITION);
+            final IRI binaryId = rdf.createIRI(FILE_SCHEME + identifier);
+            final Path file = getFile(partition, binaryId).orElseThrow(() ->
+                    new RuntimeRepositoryException("Cannot resolve " + binaryId + " in partition " + partition));
+            // The base URL is needed to convert the resource and audit IRIs to their internal form
+            final String baseUrl = baseUrls.get(partition);
+            if (isNull(baseUrl)) {
+                throw new RuntimeRepositoryException("No base URL is configured for partition " + partition);
+            }
+
+            // Concatenate the parts, in part number order
+            final Path temp = createTempFile(file.getParent(), ".", ".tmp");
+            try {
+                try (final FileChannel target = FileChannel.open(temp, WRITE)) {
+                    for (final Integer partNumber : new TreeMap<>(partDigests).keySet()) {
+                        try (final FileChannel source = FileChannel.open(parts.get(partNumber), READ)) {
+                            final long size = source.size();
+                            long position = 0L;
+                            while (position < size) {
+                                position += source.transferTo(position, size - position, target);
+                            }
+                        }
+                    }
+                }
+                commit(temp, file);
+            } finally {
+                deleteIfExists(temp);
+            }
+            deleteDirectory(directory);
+
+            final String path = session.getProperty(IDENTIFIER).substring(TRELLIS_PREFIX.length());
+            return new MultipartUpload(baseUrl, path, new HttpSession(),
+                    new Binary(binaryId, now(), session.getProperty(MIME_TYPE), Files.size(file)));
+        } catch (final IOException ex) {
+            throw new RuntimeRepositoryException("Error completing upload " + identifier, ex);
+        }
+    }
+
+    @Override
+    public void abortUpload(final String identifier) {
+        getUploadDirectory(identifier).ifPresent(directory -> {
+            try {
+                deleteDirectory(directory);
+            } catch (final IOException ex) {
+                throw new RuntimeRepositoryException("Error aborting upload " + identifier, ex);
+            }
+        });
+    }
+
+    @Override
+    public Boolean uploadSessionExists(final String identifier) {
+        return getUploadDirectory(identifier).isPresent();
+    }
+
+    @Override
+    public Stream<Map.Entry<Integer, String>> listParts(final String identifier) {
+        final Path directory = getUploadDirectory(identifier).orElseThrow(() ->
+                new RuntimeRepositoryException("No upload session for " + identifier));
+        return getParts(directory).entrySet().stream().map(entry -> {
+            final Matcher matcher = PART_FILE.matcher(entry.getValue().getFileName().toString());
+            matcher.matches();
+            return new SimpleImmutableEntry<>(entry.getKey(), matcher.group(2));
+        });
+    }
+
+    private Optional<Path> getDirectory(final String partition) {
+        return ofNullable(partition).map(directories::get);
+    }
+
+    private Optional<Path> getFile(final String partition, final IRI identifier) {
+        requireNonNull(identifier, "Identifier may not be null!");
+        final String iri = identifier.getIRIString();
+        if (!iri.startsWith(FILE_SCHEME)) {
+            return empty();
+        }
+        return getDirectory(partition).flatMap(base -> {
+            final Path file = base.resolve(iri.substring(FILE_SCHEME.length()).replaceFirst("^/+", "")).normalize();
+            // Identifiers may not point outside of the partition directory
+            if (file.startsWith(base) && !file.equals(base)
+                    && !file.startsWith(base.resolve(UPLOADS_DIRECTORY))) {
+                return of(file);
+            }
+            LOGGER.warn("Ignoring identifier outside of partition {}: {}", partition, identifier);
+            return empty();
+        });
+    }
+
+    private Optional<Path> getUploadDirectory(final String identifier) {
+        if (isNull(identifier) || identifier.contains("/") || identifier.contains("\\")
+                || identifier.startsWith(".")) {
+            return empty();
+        }
+        return directories.values().stream().map(base -> base.resolve(UPLOADS_DIRECTORY).resolve(identifier))
+            .filter(directory -> isRegularFile(directory.resolve(UPLOAD_SESSION))).findFirst();
+    }
+
+    private static Map<Integer, Path> getParts(final Path directory) {
+        final Map<Integer, Path> parts = new TreeMap<>();
+        try (final Stream<Path> files = list(directory)) {
+            files.forEach(file -> {
+                final Integer partNumber = getPartNumber(file);
+                if (nonNull(partNumber)) {
+                    parts.put(partNumber, file);
+                }
+            });
+        } catch (final IOException ex) {
+            throw new RuntimeRepositoryException(ex);
+        }
+        return parts;
+    }
+
+    private static Integer getPartNumber(final Path file) {
+        final Matcher matcher = PART_FILE.matcher(file.getFileName().toString());
+        return matcher.matches() ? Integer.valueOf(matcher.group(1)) : null;
+    }
+
+    private void commit(final Path temp, final Path file) throws IOException {
+        if (sync) {
+            try (final FileChannel channel = FileChannel.open(temp, WRITE)) {
+                channel.force(true);
+            }
+        }
+        move(temp, file, ATOMIC_MOVE, REPLACE_EXISTING);
+        if (sync) {
+            // Not every platform can open a directory for synchronization
+            try (final FileChannel channel = FileChannel.open(file.getParent(), READ)) {
+                channel.force(true);
+            } catch (final IOException ex) {
+                LOGGER.debug("Could not synchronize directory {}: {}", file.getParent(), ex.getMessage());
+            }
+        }
+    }
+
+    private static void deleteDirectory(final Path directory) throws IOException {
+        if (isDirectory(directory)) {
+            try (final Stream<Path> files = walk(directory)) {
+                for (final Path file : files.sorted(reverseOrder()).collect(toList())) {
+                    deleteIfExists(file);
+                }
+            }
+        }
+    }
+}
@@ -13,28 +13,45 @@
  */
 package org.trellisldp.http;
 
+import static java.time.Duration.ZERO;
 import static java.util.Arrays.asList;
+import static java.util.Objects.nonNull;
 import static java.util.Objects.requireNonNull;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
 import static java.util.Optional.ofNullable;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static javax.ws.rs.client.ClientBuilder.newBuilder;
 import static javax.ws.rs.client.ClientBuilder.newClient;
 import static javax.ws.rs.client.Entity.entity;
 import static javax.ws.rs.core.HttpHeaders.CONTENT_TYPE;
 import static javax.ws.rs.core.MediaType.APPLICATION_OCTET_STREAM_TYPE;
+import static javax.ws.rs.core.Response.Status.PARTIAL_CONTENT;
 import static javax.ws.rs.core.Response.Status.Family.SUCCESSFUL;
+import static org.apache.commons.io.IOUtils.skip;
 import static org.slf4j.LoggerFactory.getLogger;
+import static org.trellisldp.http.domain.HttpConstants.RANGE;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import javax.ws.rs.client.Client;
+import javax.ws.rs.client.Invocation;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
+import org.apache.commons.io.input.ProxyInputStream;
 import org.apache.commons.rdf.api.IRI;
 import org.slf4j.Logger;
 import org.trellisldp.api.BinaryService;
@@ -42,9 +59,19 @@ import org.trellisldp.api.BinaryService.MultipartUpload;
 import org.trellisldp.api.RuntimeRepositoryException;
 
 /**
+ * A {@link BinaryService.Resolver} for {@code http:} and {@code https:} identifiers.
+ *
+ * <p>Every response is closed once it has been handled; a content stream closes its response when the
+ * stream is closed, so that the connection can be reused. The resolver does not pool connections itself: the
+ * number of concurrent requests to a single host may be limited with a per-host semaphore, in which case a
+ * request waits up to the configured acquisition timeout for an earlier request to that host to complete.
+ * Idle connections are kept alive by the client connector; with the default connector, which uses
+ * {@link java.net.HttpURLConnection}, the size of the idle connection cache for each host is set with the
+ * {@code http.maxConnections} system property.
+ *
  * @author acoburn
  */
-public class HttpResolver implements BinaryService.Resolver {
+public class HttpResolver implements BinaryService.Resolver, SeekableResolver {
 
     private static final String HTTP_RESOLVER_NO_MULTIPART = "HTTP Resolver does not support multipart uploads";
     private static final String NON_NULL_IDENTIFIER = "Identifier may not be null!";
@@ -53,6 +80,9 @@ public class HttpResolver implements BinaryService.Resolver {
 
     // TODO - JDK9 use the new HttpClient library
     private final Client httpClient;
+    private final int maxConnectionsPerHost;
+    private final Duration acquireTimeout;
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
 
     /**
      * Create an HttpResolver using the default HTTP client
@@ -66,8 +96,31 @@ public class HttpResolver implements BinaryService.Resolver {
      * @param client the client
      */
     public HttpResolver(final Client client) {
+        this(client, 0, ZERO);
+    }
+
+    /**
+     * Create an HttpResolver with connection timeouts and a per-host connection limit
+     * @param connectTimeout the connect timeout, also used as the timeout to acquire a connection
+     * @param readTimeout the read timeout
+     * @param maxConnectionsPerHost the maximum number of concurrent requests to a single host, or 0 for no limit
+     */
+    public HttpResolver(final Duration connectTimeout, final Duration readTimeout, final int maxConnectionsPerHost) {
+        this(newBuilder().connectTimeout(connectTimeout.toMillis(), MILLISECONDS)
+                .readTimeout(readTimeout.toMillis(), MILLISECONDS).build(), maxConnectionsPerHost, connectTimeout);
+    }
+
+    /**
+     * Create an HttpResolver with a provided client and a per-host connection limit
+     * @param client the client
+     * @param maxConnectionsPerHost the maximum number of concurrent requests to a single host, or 0 for no limit
+     * @param acquireTimeout the maximum time to wait for a connection to a host
+     */
+    public HttpResolver(final Client client, final int maxConnectionsPerHost, final Duration acquireTimeout) {
         requireNonNull(client, "HTTP client may not be null!");
         httpClient = client;
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        this.acquireTimeout = acquireTimeout;
     }
 
     @Override
@@ -113,21 +166,57 @@ public class HttpResolver implements BinaryService.Resolver {
     @Override
     public Boolean exists(final String partition, final IRI identifier) {
         requireNonNull(identifier, NON_NULL_IDENTIFIER);
-        final Response res = httpClient.target(identifier.getIRIString()).request().head();
-        final Boolean status = res.getStatusInfo().getFamily().equals(SUCCESSFUL);
-        LOGGER.info("HTTP HEAD request to {} returned status {}", identifier, res.getStatus());
-        res.close();
-        return status;
+        final Runnable release = acquire(identifier);
+        try {
+            final Response res = httpClient.target(identifier.getIRIString()).request().head();
+            final Boolean status = res.getStatusInfo().getFamily().equals(SUCCESSFUL);
+            LOGGER.info("HTTP HEAD request to {} returned status {}", identifier, res.getStatus());
+            res.close();
+            return status;
+        } finally {
+            release.run();
+        }
     }
 
     @Override
     public Optional<InputStream> getContent(final String partition, final IRI identifier) {
         requireNonNull(identifier,  NON_NULL_IDENTIFIER);
-        final Response res = httpClient.target(identifier.getIRIString()).request().get();
-        LOGGER.info("HTTP GET request to {} returned status {}", identifier, res.getStatus());
-        if (res.hasEntity()) {
-            return of(res.getEntity()).map(x -> (InputStream) x);
+        final Runnable release = acquire(identifier);
+        try {
+            return getEntity(identifier, httpClient.target(identifier.getIRIString()).request().get(), release);
+        } catch (final RuntimeException ex) {
+            release.run();
+            throw ex;
+        }
+    }
+
+    @Override
+    public Optional<InputStream> getContent(final String partition, final IRI identifier, final long from) {
+        requireNonNull(identifier,  NON_NULL_IDENTIFIER);
+        final Runnable release = acquire(identifier);
+        final Response res;
+        try {
+            res = httpClient.target(identifier.getIRIString()).request().header(RANGE, "bytes=" + from + "-").get();
+        } catch (final RuntimeException ex) {
+            release.run();
+            throw ex;
+        }
+        LOGGER.info("HTTP GET request to {} from byte {} returned status {}", identifier, from, res.getStatus());
+        if (res.hasEntity() && res.getStatusInfo().getFamily().equals(SUCCESSFUL)) {
+            final InputStream input = new ResponseInputStream(res, release);
+            if (res.getStatus() != PARTIAL_CONTENT.getStatusCode()) {
+                // The server ignored the range, so skip the leading bytes here
+                try {
+                    skip(input, from);
+                } catch (final IOException ex) {
+                    close(input);
+                    throw new RuntimeRepositoryException("Error skipping to byte " + from + " of " + identifier, ex);
+                }
+            }
+            return of(input);
         }
+        res.close();
+        release.run();
         return empty();
     }
 
@@ -135,9 +224,15 @@ public class HttpResolver implements BinaryService.Resolver {
     public void setContent(final String partition, final IRI identifier, final InputStream stream,
             final Map<String, String> metadata) {
         requireNonNull(identifier, NON_NULL_IDENTIFIER);
-        final Response res = httpClient.target(identifier.getIRIString()).request().put(entity(stream,
-                    ofNullable(metadata.get(CONTENT_TYPE)).map(MediaType::valueOf)
-                        .orElse(APPLICATION_OCTET_STREAM_TYPE)));
+        final Runnable release = acquire(identifier);
+        final Response res;
+        try {
+            res = httpClient.target(identifier.getIRIString()).request().put(entity(stream,
+                        ofNullable(metadata.get(CONTENT_TYPE)).map(MediaType::valueOf)
+                            .orElse(APPLICATION_OCTET_STREAM_TYPE)));
+        } finally {
+            release.run();
+        }
         LOGGER.info("HTTP PUT request to {} returned {}", identifier, res.getStatusInfo());
         final Boolean ok = res.getStatusInfo().getFamily().equals(SUCCESSFUL);
         res.close();
@@ -150,7 +245,13 @@ public class HttpResolver implements BinaryService.Resolver {
     @Override
     public void purgeContent(final String partition, final IRI identifier) {
         requireNonNull(identifier, NON_NULL_IDENTIFIER);
-        final Response res = httpClient.target(identifier.getIRIString()).request().delete();
+        final Runnable release = acquire(identifier);
+        final Response res;
+        try {
+            res = httpClient.target(identifier.getIRIString()).request().delete();
+        } finally {
+            release.run();
+        }
         LOGGER.info("HTTP DELETE request to {} returned {}", identifier, res.getStatusInfo());
         final Boolean ok = res.getStatusInfo().getFamily().equals(SUCCESSFUL);
         res.close();
@@ -160,4 +261,106 @@ public class HttpResolver implements BinaryService.Resolver {
 
         }
     }
+
+    /**
+     * Perform a GET request to the location of a resource
+     * @param identifier the resource identifier
+     * @param headers additional request headers
+     * @param handler a function that handles the response and a supplier of its entity as a content stream;
+     *                the response is closed once the function returns, unless the content stream was opened, in
+     *                which case the response is closed with that stream
+     * @param <T> the type of the handled response
+     * @return the value returned by the handler
+     */
+    protected <T> T get(final IRI identifier, final Map<String, String> headers,
+            final BiFunction<Response, Supplier<InputStream>, T> handler) {
+        requireNonNull(identifier,  NON_NULL_IDENTIFIER);
+        final Runnable release = acquire(identifier);
+        final AtomicBoolean opened = new AtomicBoolean();
+        try {
+            final Invocation.Builder builder = httpClient.target(identifier.getIRIString()).request();
+            headers.forEach(builder::header);
+            final Response res = builder.get();
+            try {
+                LOGGER.info("HTTP GET request to {} returned status {}", identifier, res.getStatus());
+                return handler.apply(res, () -> {
+                    opened.set(true);
+                    return new ResponseInputStream(res, release);
+                });
+            } finally {
+                if (!opened.get()) {
+                    res.close();
+                }
+            }
+        } finally {
+            if (!opened.get()) {
+                release.run();
+            }
+        }
+    }
+
+    private static Optional<InputStream> getEntity(final IRI identifier, final Response res, final Runnable release) {
+        LOGGER.info("HTTP GET request to {} returned status {}", identifier, res.getStatus());
+        if (res.hasEntity()) {
+            return of(new ResponseInputStream(res, release));
+        }
+        res.close();
+        release.run();
+        return empty();
+    }
+
+    private static void close(final InputStream input) {
+        try {
+            input.close();
+        } catch (final IOException ex) {
+            LOGGER.warn("Error closing HTTP content stream: {}", ex.getMessage());
+        }
+    }
+
+    // Returns a function that releases the acquired connection permit once
+    private Runnable acquire(final IRI identifier) {
+        if (maxConnectionsPerHost <= 0) {
+            return () -> { };
+        }
+        final String host = URI.create(identifier.getIRIString()).getAuthority();
+        final Semaphore semaphore = permits.computeIfAbsent(host, k -> new Semaphore(maxConnectionsPerHost));
+        try {
+            if (semaphore.tryAcquire(acquireTimeout.toMillis(), MILLISECONDS)) {
+                final AtomicBoolean released = new AtomicBoolean();
+                return () -> {
+                    if (released.compareAndSet(false, true)) {
+                        semaphore.release();
+                    }
+                };
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        throw new RuntimeRepositoryException("Timed out waiting for a connection to " + host);
+    }
+
+    /**
+     * A content stream that closes its HTTP response.
+     */
+    private static final class ResponseInputStream extends ProxyInputStream {
+
+        private final Response response;
+        private final Runnable release;
+
+        private ResponseInputStream(final Response response, final Runnable release) {
+            super((InputStream) response.getEntity());
+            this.response = response;
+            this.release = release;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                response.close();
+                release.run();
+            }
+        }
+    }
 }
@@ -0,0 +1,51 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http;
+
+import org.apache.commons.rdf.api.Dataset;
+import org.apache.commons.rdf.api.IRI;
+
+import org.trellisldp.api.ResourceService;
+
+/**
+ * An optional capability for {@link ResourceService} implementations that can apply a change to a resource
+ * without rewriting all of its content.
+ *
+ * <p>When the resource service implements this interface and {@link #supportsIncrementalUpdates} is true,
+ * PATCH requests that consist only of {@code INSERT DATA} and {@code DELETE DATA} operations are applied as
+ * a set of removed and added quads; otherwise, the entire updated resource is passed to
+ * {@link ResourceService#put}. All terms are in their internal, skolemized form.
+ *
+ * @author acoburn
+ */
+public interface IncrementalResourceService extends ResourceService {
+
+    /**
+     * Update a resource by removing and then adding quads
+     * @param identifier the resource identifier
+     * @param deletions the quads to remove
+     * @param additions the quads to add
+     * @return whether the update succeeded
+     */
+    Boolean update(IRI identifier, Dataset deletions, Dataset additions);
+
+    /**
+     * Check whether this service can apply incremental updates. A service that decorates another resource
+     * service may only be able to do so when the decorated service can.
+     * @return true if {@link #update} may be called
+     */
+    default Boolean supportsIncrementalUpdates() {
+        return true;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http;
+
+import static java.util.Optional.empty;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.Triple;
+
+import org.trellisldp.api.Resource;
+
+/**
+ * An optional capability for {@link Resource} implementations that can select the triples of a graph
+ * by subject and predicate without reading the entire graph.
+ *
+ * <p>When a resource implements this interface, Linked Data Fragment requests that name a subject or
+ * a predicate are passed down to the resource; otherwise, the full graph is read and filtered.
+ * All terms are in their internal, skolemized form.
+ *
+ * @author acoburn
+ */
+public interface IndexedResource extends Resource {
+
+    /**
+     * Stream the triples of a graph that match a pattern
+     * @param graphName the graph name
+     * @param subject the subject, or null for any subject
+     * @param predicate the predicate, or null for any predicate
+     * @return the matching triples
+     */
+    Stream<? extends Triple> stream(IRI graphName, IRI subject, IRI predicate);
+
+    /**
+     * Estimate the number of triples of a graph that match a pattern
+     * @param graphName the graph name
+     * @param subject the subject, or null for any subject
+     * @param predicate the predicate, or null for any predicate
+     * @return an estimated count, if one is available
+     */
+    default Optional<Long> estimateSize(final IRI graphName, final IRI subject, final IRI predicate) {
+        return empty();
+    }
+}
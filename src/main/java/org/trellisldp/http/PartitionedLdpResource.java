@@ -34,8 +34,8 @@ import static org.trellisldp.http.impl.RdfUtils.ldpResourceTypes;
 
 import com.codahale.metrics.annotation.Timed;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -100,6 +100,10 @@ public class PartitionedLdpResource extends BaseLdpResource implements Container
 
     protected final BinaryService binaryService;
 
+    protected final RepresentationCache representationCache;
+
+    protected final DigestCache digestCache;
+
     private static final List<String> MUTATING_METHODS = asList("POST", "PUT", "DELETE", "PATCH");
 
     /**
@@ -111,10 +115,41 @@ public class PartitionedLdpResource extends BaseLdpResource implements Container
      */
     public PartitionedLdpResource(final ResourceService resourceService, final IOService ioService,
             final BinaryService binaryService, final Map<String, String> partitions) {
+        this(resourceService, ioService, binaryService, partitions, null);
+    }
+
+    /**
+     * Create a partitioned LdpResource
+     * @param resourceService the resource service
+     * @param ioService the i/o service
+     * @param binaryService the datastream service
+     * @param partitions a map of partitions for use with custom hostnames
+     * @param representationCache a cache of serialized RDF representations, may be null
+     */
+    public PartitionedLdpResource(final ResourceService resourceService, final IOService ioService,
+            final BinaryService binaryService, final Map<String, String> partitions,
+            final RepresentationCache representationCache) {
+        this(resourceService, ioService, binaryService, partitions, representationCache, null);
+    }
+
+    /**
+     * Create a partitioned LdpResource
+     * @param resourceService the resource service
+     * @param ioService the i/o service
+     * @param binaryService the datastream service
+     * @param partitions a map of partitions for use with custom hostnames
+     * @param representationCache a cache of serialized RDF representations, may be null
+     * @param digestCache a cache of binary instance digests, may be null
+     */
+    public PartitionedLdpResource(final ResourceService resourceService, final IOService ioService,
+            final BinaryService binaryService, final Map<String, String> partitions,
+            final RepresentationCache representationCache, final DigestCache digestCache) {
         super(partitions);
         this.resourceService = resourceService;
         this.ioService = ioService;
         this.binaryService = binaryService;
+        this.representationCache = representationCache;
+        this.digestCache = digestCache;
     }
 
     @Override
@@ -208,7 +243,8 @@ public class PartitionedLdpResource extends BaseLdpResource implements Container
     private Response fetchResource(final LdpRequest req) {
         final String baseUrl = partitions.get(req.getPartition());
         final IRI identifier = rdf.createIRI(TRELLIS_PREFIX + req.getPartition() + req.getPath());
-        final GetHandler getHandler = new GetHandler(req, resourceService, ioService, binaryService, baseUrl);
+        final GetHandler getHandler = new GetHandler(req, resourceService, ioService, binaryService, baseUrl,
+                representationCache, digestCache);
 
         // Fetch a versioned resource
         if (nonNull(req.getVersion())) {
@@ -268,8 +304,8 @@ public class PartitionedLdpResource extends BaseLdpResource implements Container
      */
     @PATCH
     @Timed
-    @Consumes("application/sparql-update")
-    public Response updateResource(@BeanParam final LdpRequest req, final String body) {
+    @Consumes({"application/sparql-update", "application/rdf-patch"})
+    public Response updateResource(@BeanParam final LdpRequest req, final InputStream body) {
 
         final String baseUrl = partitions.get(req.getPartition());
         final IRI identifier = rdf.createIRI(TRELLIS_PREFIX + req.getPartition() + req.getPath());
@@ -304,23 +340,27 @@ public class PartitionedLdpResource extends BaseLdpResource implements Container
      */
     @POST
     @Timed
-    public Response createResource(@BeanParam final LdpRequest req, final File body) {
+    public Response createResource(@BeanParam final LdpRequest req, final InputStream body) {
+        // The request body is only read once the request is known to succeed
+        if (!partitions.containsKey(req.getPartition())) {
+            LOGGER.warn("Partition {} not defined in configuration", req.getPartition());
+            return status(NOT_FOUND).build();
+        }
 
         final String baseUrl = partitions.get(req.getPartition());
         final String path = req.getPartition() + req.getPath();
         final String identifier = "/" + ofNullable(req.getSlug())
             .orElseGet(resourceService.getIdentifierSupplier());
 
-        final PostHandler postHandler = new PostHandler(req, identifier, body, resourceService,
-                ioService, binaryService, baseUrl);
-
         // First check if this is a container
         final Optional<Resource> parent = resourceService.get(rdf.createIRI(TRELLIS_PREFIX + path));
         if (parent.isPresent()) {
             final Optional<IRI> ixModel = parent.map(Resource::getInteractionModel);
             if (ixModel.filter(type -> ldpResourceTypes(type).anyMatch(LDP.Container::equals)).isPresent()) {
                 return resourceService.get(rdf.createIRI(TRELLIS_PREFIX + path + identifier), MAX)
-                    .map(x -> status(CONFLICT)).orElseGet(postHandler::createResource).build();
+                    .map(x -> status(CONFLICT)).orElseGet(() -> new PostHandler(req, identifier, body,
+                                resourceService, ioService, binaryService, baseUrl, digestCache).createResource())
+                    .build();
             } else if (parent.filter(RdfUtils::isDeleted).isPresent()) {
                 return status(GONE).build();
             }
@@ -337,7 +377,7 @@ public class PartitionedLdpResource extends BaseLdpResource implements Container
      */
     @PUT
     @Timed
-    public Response setResource(@BeanParam final LdpRequest req, final File body) {
+    public Response setResource(@BeanParam final LdpRequest req, final InputStream body) {
         if (!partitions.containsKey(req.getPartition())) {
             LOGGER.warn("Partition {} not defined in configuration", req.getPartition());
             return status(NOT_FOUND).build();
@@ -346,7 +386,7 @@ public class PartitionedLdpResource extends BaseLdpResource implements Container
         final String baseUrl = partitions.get(req.getPartition());
         final IRI identifier = rdf.createIRI(TRELLIS_PREFIX + req.getPartition() + req.getPath());
         final PutHandler putHandler = new PutHandler(req, body, resourceService, ioService,
-                binaryService, baseUrl);
+                binaryService, baseUrl, digestCache);
 
         return resourceService.get(identifier, MAX).filter(res -> !RdfUtils.isDeleted(res))
             .map(putHandler::setResource).orElseGet(putHandler::createResource).build();
@@ -0,0 +1,103 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http;
+
+import static java.util.Optional.ofNullable;
+
+import java.util.Optional;
+
+/**
+ * A size-bounded cache of serialized RDF representations.
+ *
+ * <p>Entries are keyed by the resource identifier, its modification date and the negotiated form of the
+ * response (syntax, profile, selected graphs and triple pattern), so a new version of a resource is never
+ * served from an earlier entry. Since mementos do not change, their entries remain valid until they are
+ * evicted.
+ *
+ * @author acoburn
+ */
+public class RepresentationCache {
+
+    private final BoundedCache<String, byte[]> cache;
+    private final int maxEntrySize;
+
+    /**
+     * Create a representation cache
+     * @param maxSize the maximum total size of the cached representations, in bytes
+     * @param maxEntrySize the maximum size of a single cached representation, in bytes
+     */
+    public RepresentationCache(final long maxSize, final int maxEntrySize) {
+        this.cache = new BoundedCache<>(maxSize, bytes -> bytes.length, null);
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    /**
+     * Get a cached representation
+     * @param key the cache key
+     * @return the serialized representation, if cached
+     */
+    public Optional<byte[]> get(final String key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Cache a representation, unless it is larger than the maximum entry size
+     * @param key the cache key
+     * @param representation the serialized representation
+     */
+    public void put(final String key, final byte[] representation) {
+        ofNullable(representation).filter(bytes -> bytes.length <= maxEntrySize)
+            .ifPresent(bytes -> cache.put(key, bytes));
+    }
+
+    /**
+     * Get the maximum size of a single cached representation
+     * @return the maximum size, in bytes
+     */
+    public int getMaxEntrySize() {
+        return maxEntrySize;
+    }
+
+    /**
+     * Get the total size of the cached representations
+     * @return the size, in bytes
+     */
+    public long size() {
+        return cache.weight();
+    }
+
+    /**
+     * Get the number of requests served from the cache
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    /**
+     * Get the number of requests not found in the cache
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    /**
+     * Get the number of representations evicted from the cache
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+}
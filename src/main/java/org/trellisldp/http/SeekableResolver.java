@@ -0,0 +1,40 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http;
+
+import java.io.InputStream;
+import java.util.Optional;
+
+import org.apache.commons.rdf.api.IRI;
+
+/**
+ * An optional capability of a {@link org.trellisldp.api.BinaryService.Resolver} that can start reading
+ * binary content at an offset without reading the preceding bytes.
+ *
+ * <p>When the resolver for a binary implements this interface, range requests are served from the
+ * requested offset; otherwise the content is read from the start and the leading bytes are skipped.
+ *
+ * @author acoburn
+ */
+public interface SeekableResolver {
+
+    /**
+     * Get the content of a binary, starting at an offset
+     * @param partition the partition
+     * @param identifier the identifier
+     * @param from the offset of the first byte
+     * @return the content from the offset onwards, if available
+     */
+    Optional<InputStream> getContent(String partition, IRI identifier, long from);
+}
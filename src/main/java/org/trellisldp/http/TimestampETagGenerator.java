@@ -0,0 +1,37 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http;
+
+import static java.lang.Integer.toHexString;
+import static java.lang.Long.toHexString;
+
+import java.time.Instant;
+
+/**
+ * An {@link ETagGenerator} that encodes the modification date directly, followed by a hash of the
+ * identifier, which distinguishes the variants of a representation.
+ *
+ * <p>This avoids formatting the date and computing a digest on every request, at the cost of revealing the
+ * modification date, which is already available in the {@code Last-Modified} header.
+ *
+ * @author acoburn
+ */
+public class TimestampETagGenerator implements ETagGenerator {
+
+    @Override
+    public String getValue(final String identifier, final Instant modified) {
+        return toHexString(modified.getEpochSecond()) + "." + toHexString(modified.getNano()) + "."
+            + toHexString(identifier.hashCode());
+    }
+}
@@ -16,10 +16,12 @@ package org.trellisldp.http;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static javax.ws.rs.Priorities.AUTHORIZATION;
 import static javax.ws.rs.core.HttpHeaders.LINK;
 import static javax.ws.rs.core.Link.fromUri;
+import static javax.ws.rs.core.Response.Status.Family.SUCCESSFUL;
 import static javax.ws.rs.core.Response.Status.METHOD_NOT_ALLOWED;
 import static javax.ws.rs.core.Response.status;
 import static javax.ws.rs.core.SecurityContext.BASIC_AUTH;
@@ -68,6 +70,7 @@ public class WebAcFilter implements ContainerRequestFilter, ContainerResponseFil
     private final AccessControlService accessService;
     private final Map<String, String> partitions;
     private final List<String> challenges;
+    private final AccessModeCache accessModeCache;
     private static final Set<String> readable = new HashSet<>(asList("GET", "HEAD", "OPTIONS"));
     private static final Set<String> writable = new HashSet<>(asList("PUT", "PATCH", "DELETE"));
     private static final Set<String> appendable = new HashSet<>(asList("POST"));
@@ -80,9 +83,22 @@ public class WebAcFilter implements ContainerRequestFilter, ContainerResponseFil
      */
     public WebAcFilter(final Map<String, String> partitions, final List<String> challenges,
             final AccessControlService accessService) {
+        this(partitions, challenges, accessService, null);
+    }
+
+    /**
+     * Create a new WebAc-based auth filter
+     * @param partitions the partitions in use
+     * @param challenges the challenges
+     * @param accessService the access service
+     * @param accessModeCache a cache of access-mode decisions, may be null
+     */
+    public WebAcFilter(final Map<String, String> partitions, final List<String> challenges,
+            final AccessControlService accessService, final AccessModeCache accessModeCache) {
         this.accessService = accessService;
         this.partitions = partitions;
         this.challenges = challenges.isEmpty() ? singletonList(BASIC_AUTH) : challenges;
+        this.accessModeCache = accessModeCache;
     }
 
     @Override
@@ -100,7 +116,7 @@ public class WebAcFilter implements ContainerRequestFilter, ContainerResponseFil
         final String partition = path.split("/")[0];
 
         if (partitions.containsKey(partition)) {
-            final Set<IRI> modes = accessService.getAccessModes(rdf.createIRI(TRELLIS_PREFIX + path), s);
+            final Set<IRI> modes = getAccessModes(path, s);
             if (ctx.getUriInfo().getQueryParameters().getOrDefault("ext", emptyList()).contains(HttpConstants.ACL)) {
                 verifyCanControl(modes, s, path);
             } else if (readable.contains(method)) {
@@ -117,11 +133,27 @@ public class WebAcFilter implements ContainerRequestFilter, ContainerResponseFil
 
     @Override
     public void filter(final ContainerRequestContext req, final ContainerResponseContext res) throws IOException {
-        if (!req.getUriInfo().getQueryParameters().containsKey("ext") ||
-                !req.getUriInfo().getQueryParameters().get("ext").contains("acl")) {
+        final boolean isAcl = req.getUriInfo().getQueryParameters().containsKey("ext") &&
+                req.getUriInfo().getQueryParameters().get("ext").contains("acl");
+        if (!isAcl) {
             res.getHeaders().add(LINK, fromUri(req.getUriInfo().getAbsolutePathBuilder()
                     .queryParam("ext", "acl").build()).rel(HttpConstants.ACL).build());
         }
+
+        // A changed or deleted ACL affects every resource below it
+        if (nonNull(accessModeCache) && SUCCESSFUL.equals(res.getStatusInfo().getFamily())
+                && (isAcl ? writable.contains(req.getMethod()) : "DELETE".equals(req.getMethod()))) {
+            LOGGER.debug("Invalidating cached access modes at and below {}", req.getUriInfo().getPath());
+            accessModeCache.invalidate(req.getUriInfo().getPath());
+        }
+    }
+
+    private Set<IRI> getAccessModes(final String path, final Session session) {
+        if (isNull(accessModeCache)) {
+            return accessService.getAccessModes(rdf.createIRI(TRELLIS_PREFIX + path), session);
+        }
+        return accessModeCache.get(path, session, () ->
+                accessService.getAccessModes(rdf.createIRI(TRELLIS_PREFIX + path), session));
     }
 
     private void verifyCanAppend(final Set<IRI> modes, final Session session, final String path) {
@@ -0,0 +1,135 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http.domain;
+
+import static java.lang.Long.parseLong;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.Optional;
+
+import org.slf4j.Logger;
+
+/**
+ * A single byte-range-spec of an HTTP Range header, as defined by
+ * <a href="https://tools.ietf.org/html/rfc7233#section-2.1">RFC 7233</a>.
+ *
+ * <p>A range has one of three forms: {@code first-last}, an open range ({@code first-}) with no last
+ * position or a suffix range ({@code -length}) with no first position. Positions are inclusive.
+ *
+ * @author acoburn
+ */
+public class ByteRange {
+
+    private static final Logger LOGGER = getLogger(ByteRange.class);
+
+    private final Long first;
+
+    private final Long last;
+
+    /**
+     * Create a byte range
+     * @param first the first byte position, or null for a suffix range
+     * @param last the last byte position, the suffix length for a suffix range or null for an open range
+     */
+    public ByteRange(final Long first, final Long last) {
+        this.first = first;
+        this.last = last;
+    }
+
+    /**
+     * Get the first byte position
+     * @return the first byte position, or null for a suffix range
+     */
+    public Long getFirst() {
+        return first;
+    }
+
+    /**
+     * Get the last byte position
+     * @return the last byte position, the suffix length for a suffix range or null for an open range
+     */
+    public Long getLast() {
+        return last;
+    }
+
+    /**
+     * Get the number of bytes in a resolved range
+     * @return the number of bytes, or null if the range is a suffix or open range
+     */
+    public Long getLength() {
+        return nonNull(first) && nonNull(last) ? last - first + 1 : null;
+    }
+
+    /**
+     * Resolve the range against a representation of a known length
+     * @param length the length of the representation
+     * @return the absolute range, if it is satisfiable
+     */
+    public Optional<ByteRange> resolve(final long length) {
+        if (isNull(first)) {
+            if (last > 0 && length > 0) {
+                return of(new ByteRange(max(0L, length - last), length - 1));
+            }
+        } else if (first < length) {
+            return of(new ByteRange(first, isNull(last) ? length - 1 : min(last, length - 1)));
+        }
+        return empty();
+    }
+
+    /**
+     * Get the value of a Content-Range header for a resolved range
+     * @param length the length of the representation
+     * @return the header value
+     */
+    public String getContentRange(final long length) {
+        return "bytes " + first + "-" + last + "/" + length;
+    }
+
+    /**
+     * Get a byte range from a byte-range-spec
+     * @param value the byte-range-spec
+     * @return the byte range or null if the value is not parseable
+     */
+    public static ByteRange valueOf(final String value) {
+        if (nonNull(value)) {
+            final String spec = value.trim();
+            final int index = spec.indexOf('-');
+            if (index >= 0 && index == spec.lastIndexOf('-')) {
+                try {
+                    final Long first = index > 0 ? parseLong(spec.substring(0, index).trim()) : null;
+                    final Long last = index < spec.length() - 1 ? parseLong(spec.substring(index + 1).trim()) : null;
+                    if (isNull(first) && nonNull(last) || nonNull(first) && first >= 0 && (isNull(last)
+                                || last >= first)) {
+                        return new ByteRange(first, last);
+                    }
+                    LOGGER.warn("Ignoring byte range: {}", value);
+                } catch (final NumberFormatException ex) {
+                    LOGGER.warn("Invalid byte range ({}): {}", value, ex.getMessage());
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return (isNull(first) ? "" : first) + "-" + (isNull(last) ? "" : last);
+    }
+}
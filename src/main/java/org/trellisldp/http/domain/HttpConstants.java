@@ -43,12 +43,22 @@ public final class HttpConstants {
 
     public static final String APPLICATION_LINK_FORMAT = "application/link-format";
 
+    public static final String CONTENT_RANGE = "Content-Range";
+
     public static final String DIGEST = "Digest";
 
+    public static final String IF_RANGE = "If-Range";
+
     public static final String LINK_TEMPLATE = "Link-Template";
 
+    public static final Integer DEFAULT_PAGE_SIZE = 100;
+
+    public static final Integer MAX_PAGE_SIZE = 10000;
+
     public static final String MEMENTO_DATETIME = "Memento-Datetime";
 
+    public static final String MULTIPART_BYTERANGES = "multipart/byteranges";
+
     public static final String PATCH = "PATCH";
 
     public static final String PREFER = "Prefer";
@@ -57,6 +57,12 @@ public class LdpRequest {
     @QueryParam("object")
     private String object;
 
+    @QueryParam("page")
+    private String page;
+
+    @QueryParam("pageSize")
+    private String pageSize;
+
     @Context
     private UriInfo uriInfo;
 
@@ -78,6 +84,9 @@ public class LdpRequest {
     @HeaderParam("Range")
     private Range range;
 
+    @HeaderParam("If-Range")
+    private String ifRange;
+
     @HeaderParam("Link")
     private Link link;
 
@@ -154,6 +163,14 @@ public class LdpRequest {
         return range;
     }
 
+    /**
+     * Get the If-Range header
+     * @return the If-Range header
+     */
+    public String getIfRange() {
+        return ifRange;
+    }
+
     /**
      * Get the partition name
      * @return the partition
@@ -234,6 +251,22 @@ public class LdpRequest {
         return object;
     }
 
+    /**
+     * Get the requested page.
+     * @return the page number, starting at 1, as given in the request
+     */
+    public String getPage() {
+        return page;
+    }
+
+    /**
+     * Get the requested page size.
+     * @return the page size, as given in the request
+     */
+    public String getPageSize() {
+        return pageSize;
+    }
+
     /**
      * Get a base url value
      * @return the baseUrl as a string
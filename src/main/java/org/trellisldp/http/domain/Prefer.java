@@ -64,12 +64,16 @@ public class Prefer {
 
     public static final String PREFER_WAIT = "wait";
 
+    public static final String PREFER_MAX_TRIPLE_COUNT = "max-triple-count";
+
     private final Optional<String> preference;
 
     private final Optional<String> handling;
 
     private final Optional<Integer> wait;
 
+    private final Optional<Integer> maxTripleCount;
+
     private final List<String> include;
 
     private final List<String> omit;
@@ -87,6 +91,21 @@ public class Prefer {
      */
     public Prefer(final String preference, final List<String> include, final List<String> omit,
             final Set<String> params, final String handling, final Integer wait) {
+        this(preference, include, omit, params, handling, wait, null);
+    }
+
+    /**
+     * Create a Prefer header representation
+     * @param preference the preference value
+     * @param include a list of include values
+     * @param omit a list of omit values
+     * @param params single-valued parameters
+     * @param handling the handling value
+     * @param wait the wait value
+     * @param maxTripleCount the max-triple-count paging hint
+     */
+    public Prefer(final String preference, final List<String> include, final List<String> omit,
+            final Set<String> params, final String handling, final Integer wait, final Integer maxTripleCount) {
         this.preference = ofNullable(preference)
             .filter(x -> x.equals(PREFER_MINIMAL) || x.equals(PREFER_REPRESENTATION));
         this.include = ofNullable(include).orElseGet(Collections::emptyList);
@@ -94,6 +113,7 @@ public class Prefer {
         this.handling = ofNullable(handling).filter(x -> x.equals(PREFER_LENIENT) || x.equals(PREFER_STRICT));
         this.wait = ofNullable(wait);
         this.params = ofNullable(params).orElseGet(Collections::emptySet);
+        this.maxTripleCount = ofNullable(maxTripleCount);
     }
 
 
@@ -120,7 +140,8 @@ public class Prefer {
                     wait = parseInt(waitValue);
                 }
                 return new Prefer(data.get(PREFER_RETURN), parseParameter(data.get(PREFER_INCLUDE)),
-                        parseParameter(data.get(PREFER_OMIT)), params, data.get(PREFER_HANDLING), wait);
+                        parseParameter(data.get(PREFER_OMIT)), params, data.get(PREFER_HANDLING), wait,
+                        parseCount(data.get(PREFER_MAX_TRIPLE_COUNT)));
             } catch (final NumberFormatException ex) {
                 LOGGER.error("Cannot parse wait parameter value {}: {}", waitValue, ex.getMessage());
             }
@@ -152,6 +173,14 @@ public class Prefer {
         return wait;
     }
 
+    /**
+     * Get the value of the max-triple-count paging hint, if set
+     * @return the maximum number of triples per page, if available
+     */
+    public Optional<Integer> getMaxTripleCount() {
+        return maxTripleCount;
+    }
+
     /**
      * Identify whether the respond-async parameter was set
      * @return true if the respond-async parameter was set; false otherwise
@@ -180,6 +209,15 @@ public class Prefer {
         return ofNullable(param).map(trimQuotes).map(x -> asList(x.split("\\s+"))).orElseGet(Collections::emptyList);
     }
 
+    private static Integer parseCount(final String param) {
+        try {
+            return ofNullable(param).map(trimQuotes).map(Integer::parseInt).filter(x -> x > 0).orElse(null);
+        } catch (final NumberFormatException ex) {
+            LOGGER.warn("Ignoring invalid {} value {}: {}", PREFER_MAX_TRIPLE_COUNT, param, ex.getMessage());
+            return null;
+        }
+    }
+
     private static Function<String, String> trimQuotes = param ->
         param.startsWith("\"") && param.endsWith("\"") && param.length() > 1 ?
             param.substring(1, param.length() - 1) : param;
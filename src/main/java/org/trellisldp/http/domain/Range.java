@@ -13,53 +13,104 @@
  */
 package org.trellisldp.http.domain;
 
-import static java.lang.Integer.parseInt;
+import static java.lang.Math.max;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Comparator.comparing;
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
-import static java.util.Optional.empty;
-import static java.util.Optional.of;
+import static java.util.stream.Collectors.toList;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 
 /**
  * A class representing an HTTP Range header
  *
+ * <p>Byte positions are 64-bit values. Besides {@code first-last} ranges, the header may contain open
+ * ({@code first-}) and suffix ({@code -length}) ranges, and it may list several ranges, separated by commas.
+ *
  * @author acoburn
  */
 public class Range {
 
     private static final Logger LOGGER = getLogger(Range.class);
 
-    private final Integer from;
+    private static final String BYTES_UNIT = "bytes=";
 
-    private final Integer to;
+    private final List<ByteRange> ranges;
 
     /**
      * Create a Range object
      * @param from the from value
      * @param to the to value
      */
-    public Range(final Integer from, final Integer to) {
-        this.from = from;
-        this.to = to;
+    public Range(final Long from, final Long to) {
+        this(Stream.of(new ByteRange(from, to)).collect(toList()));
+    }
+
+    /**
+     * Create a Range object
+     * @param ranges the byte ranges
+     */
+    public Range(final List<ByteRange> ranges) {
+        this.ranges = unmodifiableList(ranges);
+    }
+
+    /**
+     * Get the byte ranges, in the order of the header
+     * @return the byte ranges
+     */
+    public List<ByteRange> getRanges() {
+        return ranges;
+    }
+
+    /**
+     * Get the from value of the first byte range
+     * @return the byte offset, or null for a suffix range
+     */
+    public Long getFrom() {
+        return ranges.get(0).getFirst();
     }
 
     /**
-     * Get the from value
-     * @return the byte offset
+     * Get the to value of the first byte range
+     * @return the last byte position, the suffix length for a suffix range or null for an open range
      */
-    public Integer getFrom() {
-        return from;
+    public Long getTo() {
+        return ranges.get(0).getLast();
     }
 
     /**
-     * Get the to value
-     * @return the byte end
+     * Resolve the byte ranges against a representation of a known length
+     *
+     * <p>Unsatisfiable ranges are dropped. When any of the satisfiable ranges overlap or are adjacent,
+     * all of the ranges are coalesced and returned in ascending order; otherwise the order of the header
+     * is retained.
+     *
+     * @param length the length of the representation
+     * @return the satisfiable, absolute byte ranges; an empty list if none can be satisfied
      */
-    public Integer getTo() {
-        return to;
+    public List<ByteRange> resolve(final long length) {
+        final List<ByteRange> resolved = ranges.stream().map(range -> range.resolve(length))
+            .filter(Optional::isPresent).map(Optional::get).collect(toList());
+        final List<ByteRange> sorted = resolved.stream().sorted(comparing(ByteRange::getFirst)).collect(toList());
+        final List<ByteRange> coalesced = new ArrayList<>();
+        for (final ByteRange range : sorted) {
+            final int index = coalesced.size() - 1;
+            if (index >= 0 && range.getFirst() <= coalesced.get(index).getLast() + 1) {
+                final ByteRange previous = coalesced.get(index);
+                coalesced.set(index, new ByteRange(previous.getFirst(), max(previous.getLast(),
+                                range.getLast())));
+            } else {
+                coalesced.add(range);
+            }
+        }
+        return coalesced.size() < resolved.size() ? coalesced : resolved;
     }
 
     /**
@@ -68,32 +119,23 @@ public class Range {
      * @return the Range object or null if the value is not parseable
      */
     public static Range valueOf(final String value) {
-        final Optional<Integer[]> vals = parse(value);
-        if (vals.isPresent()) {
-            return new Range(vals.get()[0], vals.get()[1]);
-        }
-        return null;
-    }
-
-    private static Optional<Integer[]> parse(final String range) {
-        if (nonNull(range) && range.startsWith("bytes=")) {
-            final String[] parts = range.substring("bytes=".length()).split("-");
-            if (parts.length == 2) {
-                try {
-                    final Integer[] ints = new Integer[2];
-                    ints[0] = parseInt(parts[0]);
-                    ints[1] = parseInt(parts[1]);
-                    if (ints[0] >= 0 && ints[1] > ints[0]) {
-                        return of(ints);
+        if (nonNull(value) && value.regionMatches(true, 0, BYTES_UNIT, 0, BYTES_UNIT.length())) {
+            final List<ByteRange> ranges = new ArrayList<>();
+            for (final String spec : value.substring(BYTES_UNIT.length()).split(",")) {
+                // Empty list elements are permitted by the list syntax
+                if (!spec.trim().isEmpty()) {
+                    final ByteRange range = ByteRange.valueOf(spec);
+                    if (isNull(range)) {
+                        LOGGER.warn("Invalid Range request: {}", value);
+                        return null;
                     }
-                    LOGGER.warn("Ignoring range request: {}", range);
-                } catch (final NumberFormatException ex) {
-                    LOGGER.warn("Invalid Range request ({}): {}", range, ex.getMessage());
+                    ranges.add(range);
                 }
-            } else {
-                LOGGER.warn("Only simple range requests are supported! {}", range);
+            }
+            if (!ranges.isEmpty()) {
+                return new Range(ranges);
             }
         }
-        return empty();
+        return null;
     }
 }
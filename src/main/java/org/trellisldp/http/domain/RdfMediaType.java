@@ -38,6 +38,10 @@ public final class RdfMediaType {
 
     public static final MediaType APPLICATION_N_TRIPLES_TYPE = new MediaType(APPLICATION, "n-triples");
 
+    public static final String APPLICATION_RDF_PATCH = APPLICATION + "/rdf-patch";
+
+    public static final MediaType APPLICATION_RDF_PATCH_TYPE = new MediaType(APPLICATION, "rdf-patch");
+
     public static final String APPLICATION_SPARQL_UPDATE = APPLICATION + "/sparql-update";
 
     public static final MediaType APPLICATION_SPARQL_UPDATE_TYPE = new MediaType(APPLICATION, "sparql-update");
@@ -45,6 +45,8 @@ import org.trellisldp.api.AuditService;
 import org.trellisldp.api.ConstraintService;
 import org.trellisldp.api.Resource;
 import org.trellisldp.api.ResourceService;
+import org.trellisldp.http.DigestETagGenerator;
+import org.trellisldp.http.ETagGenerator;
 import org.trellisldp.http.domain.LdpRequest;
 
 /**
@@ -56,6 +58,9 @@ public class BaseLdpHandler {
 
     protected static Optional<AuditService> audit = loadFirst(AuditService.class);
 
+    protected static final ETagGenerator etagGenerator = loadFirst(ETagGenerator.class)
+        .orElseGet(DigestETagGenerator::new);
+
     protected static final List<ConstraintService> constraintServices = new ArrayList<>();
 
     static {
@@ -0,0 +1,423 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http.impl;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.Files.createTempFile;
+import static java.nio.file.StandardOpenOption.DELETE_ON_CLOSE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.Optional.ofNullable;
+import static org.slf4j.LoggerFactory.getLogger;
+import static org.trellisldp.api.RDFUtils.getInstance;
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.apache.commons.rdf.api.BlankNodeOrIRI;
+import org.apache.commons.rdf.api.Dataset;
+import org.apache.commons.rdf.api.Graph;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.Quad;
+import org.apache.commons.rdf.api.RDF;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.api.Triple;
+import org.slf4j.Logger;
+
+import org.trellisldp.api.RuntimeRepositoryException;
+
+/**
+ * A {@link Dataset} for assembling the quads of a write operation.
+ *
+ * <p>Each distinct term is stored once and given an integer identifier, and each quad is stored as four of
+ * those identifiers in fixed-size chunks of primitive storage. A hash table over the quad positions keeps the
+ * quads distinct. Once the chunks reach the spill threshold, further chunks are mapped from a temporary file
+ * rather than allocated on the heap; the file is removed when the dataset is cleared or closed.
+ *
+ * <p>The graphs returned by {@link #getGraph(BlankNodeOrIRI)} are views over the dataset, so they are
+ * created without copying any quads. Patterns are evaluated by scanning the stored quads, since the dataset
+ * is mostly written and then read once. Removed quads are not reclaimed until the dataset is cleared.
+ *
+ * <p>The dataset is not thread-safe, and it must not be modified while one of its streams is being read.
+ *
+ * @author acoburn
+ */
+public final class CompactDataset implements Dataset {
+
+    /**
+     * The system property that defines the default spill threshold, in bytes.
+     */
+    public static final String SPILL_THRESHOLD = "trellis.dataset.spillThreshold";
+
+    /**
+     * The default spill threshold, in bytes.
+     */
+    public static final long DEFAULT_SPILL_THRESHOLD = 64L * 1024L * 1024L;
+
+    private static final Logger LOGGER = getLogger(CompactDataset.class);
+    private static final RDF rdf = getInstance();
+
+    private static final int CHUNK_QUADS = 1 << 14;
+    private static final int CHUNK_BYTES = CHUNK_QUADS * 4 * Integer.BYTES;
+    private static final int DEFAULT_GRAPH = -1;
+    private static final int REMOVED = -2;
+    private static final int ANY = -3;
+    private static final int UNKNOWN = -4;
+    private static final int INITIAL_TABLE_SIZE = 16;
+
+    private final long spillThreshold;
+
+    private final Map<RDFTerm, Integer> ids = new HashMap<>();
+    private final List<RDFTerm> terms = new ArrayList<>();
+    private final List<IntBuffer> chunks = new ArrayList<>();
+
+    // Positions of the stored quads, plus one; zero marks an empty slot and -1 a removed quad
+    private int[] table = new int[INITIAL_TABLE_SIZE];
+    private int usedSlots = 0;
+    private int count = 0;
+    private long size = 0L;
+
+    private FileChannel spill;
+    private int spilledChunks = 0;
+
+    /**
+     * Create a dataset, using the spill threshold from the {@value #SPILL_THRESHOLD} system property
+     */
+    public CompactDataset() {
+        this(Long.getLong(SPILL_THRESHOLD, DEFAULT_SPILL_THRESHOLD));
+    }
+
+    /**
+     * Create a dataset
+     * @param spillThreshold the number of bytes of quad storage to hold on the heap before using a temporary file
+     */
+    public CompactDataset(final long spillThreshold) {
+        this.spillThreshold = spillThreshold;
+    }
+
+    @Override
+    public void add(final Quad quad) {
+        add(quad.getGraphName().orElse(null), quad.getSubject(), quad.getPredicate(), quad.getObject());
+    }
+
+    @Override
+    public void add(final BlankNodeOrIRI graphName, final BlankNodeOrIRI subject, final IRI predicate,
+            final RDFTerm object) {
+        final int g = isNull(graphName) ? DEFAULT_GRAPH : encode(graphName);
+        final int s = encode(subject);
+        final int p = encode(predicate);
+        final int o = encode(object);
+        if (find(g, s, p, o) < 0) {
+            if ((usedSlots + 1) * 2 > table.length) {
+                rehash();
+            }
+            final int position = append(g, s, p, o);
+            insert(position, g, s, p, o);
+            size++;
+        }
+    }
+
+    @Override
+    public boolean contains(final Quad quad) {
+        return contains(quad.getGraphName(), quad.getSubject(), quad.getPredicate(), quad.getObject());
+    }
+
+    @Override
+    public boolean contains(final Optional<BlankNodeOrIRI> graphName, final BlankNodeOrIRI subject,
+            final IRI predicate, final RDFTerm object) {
+        return match(graphName, subject, predicate, object).findAny().isPresent();
+    }
+
+    @Override
+    public Graph getGraph() {
+        return new GraphView(null);
+    }
+
+    @Override
+    public Optional<Graph> getGraph(final BlankNodeOrIRI graphName) {
+        return Optional.of(new GraphView(graphName));
+    }
+
+    @Override
+    public Stream<BlankNodeOrIRI> getGraphNames() {
+        return IntStream.range(0, count).map(position -> get(position, 0)).filter(g -> g >= 0).distinct()
+            .mapToObj(g -> (BlankNodeOrIRI) terms.get(g));
+    }
+
+    @Override
+    public void remove(final Quad quad) {
+        remove(quad.getGraphName(), quad.getSubject(), quad.getPredicate(), quad.getObject());
+    }
+
+    @Override
+    public void remove(final Optional<BlankNodeOrIRI> graphName, final BlankNodeOrIRI subject,
+            final IRI predicate, final RDFTerm object) {
+        for (final int position : match(graphName, subject, predicate, object).toArray()) {
+            final int slot = find(get(position, 0), get(position, 1), get(position, 2), get(position, 3));
+            table[slot] = -1;
+            set(position, 0, REMOVED);
+            size--;
+        }
+    }
+
+    @Override
+    public void clear() {
+        ids.clear();
+        terms.clear();
+        chunks.clear();
+        table = new int[INITIAL_TABLE_SIZE];
+        usedSlots = 0;
+        count = 0;
+        size = 0L;
+        spilledChunks = 0;
+        if (nonNull(spill)) {
+            try {
+                spill.close();
+            } catch (final IOException ex) {
+                LOGGER.warn("Error removing spilled dataset: {}", ex.getMessage());
+            }
+            spill = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        clear();
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public Stream<? extends Quad> stream() {
+        return stream(null, null, null, null);
+    }
+
+    @Override
+    public Stream<? extends Quad> stream(final Optional<BlankNodeOrIRI> graphName, final BlankNodeOrIRI subject,
+            final IRI predicate, final RDFTerm object) {
+        return match(graphName, subject, predicate, object).mapToObj(position -> {
+            final int g = get(position, 0);
+            return rdf.createQuad(g == DEFAULT_GRAPH ? null : (BlankNodeOrIRI) terms.get(g),
+                    (BlankNodeOrIRI) terms.get(get(position, 1)), (IRI) terms.get(get(position, 2)),
+                    terms.get(get(position, 3)));
+        });
+    }
+
+    /**
+     * Check whether the quad storage has been moved to a temporary file
+     * @return true if some of the quads are stored in a temporary file
+     */
+    public boolean isSpilled() {
+        return nonNull(spill);
+    }
+
+    private Stream<Triple> triples(final Optional<BlankNodeOrIRI> graphName, final BlankNodeOrIRI subject,
+            final IRI predicate, final RDFTerm object) {
+        return match(graphName, subject, predicate, object).mapToObj(position ->
+                rdf.createTriple((BlankNodeOrIRI) terms.get(get(position, 1)), (IRI) terms.get(get(position, 2)),
+                    terms.get(get(position, 3))));
+    }
+
+    // Streams the positions of the matching quads; a null graph name matches every graph
+    private IntStream match(final Optional<BlankNodeOrIRI> graphName, final BlankNodeOrIRI subject,
+            final IRI predicate, final RDFTerm object) {
+        final int g = isNull(graphName) ? ANY : graphName.map(this::lookup).orElse(DEFAULT_GRAPH);
+        final int s = lookup(subject);
+        final int p = lookup(predicate);
+        final int o = lookup(object);
+        if (g == UNKNOWN || s == UNKNOWN || p == UNKNOWN || o == UNKNOWN) {
+            return IntStream.empty();
+        }
+        if (g != ANY && s != ANY && p != ANY && o != ANY) {
+            final int slot = find(g, s, p, o);
+            return slot < 0 ? IntStream.empty() : IntStream.of(table[slot] - 1);
+        }
+        return IntStream.range(0, count).filter(position -> {
+            final int graph = get(position, 0);
+            return graph != REMOVED && (g == ANY || g == graph) && (s == ANY || s == get(position, 1))
+                && (p == ANY || p == get(position, 2)) && (o == ANY || o == get(position, 3));
+        });
+    }
+
+    private int lookup(final RDFTerm term) {
+        return isNull(term) ? ANY : ids.getOrDefault(term, UNKNOWN);
+    }
+
+    private int encode(final RDFTerm term) {
+        return ids.computeIfAbsent(term, t -> {
+            terms.add(t);
+            return terms.size() - 1;
+        });
+    }
+
+    private static int hash(final int g, final int s, final int p, final int o) {
+        final int h = ((g * 31 + s) * 31 + p) * 31 + o;
+        return h ^ (h >>> 16);
+    }
+
+    // Finds the table slot of a stored quad, or -1 if the quad is not stored
+    private int find(final int g, final int s, final int p, final int o) {
+        final int mask = table.length - 1;
+        int slot = hash(g, s, p, o) & mask;
+        while (table[slot] != 0) {
+            final int position = table[slot] - 1;
+            if (position >= 0 && get(position, 0) == g && get(position, 1) == s && get(position, 2) == p
+                    && get(position, 3) == o) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void insert(final int position, final int g, final int s, final int p, final int o) {
+        final int mask = table.length - 1;
+        int slot = hash(g, s, p, o) & mask;
+        while (table[slot] > 0) {
+            slot = (slot + 1) & mask;
+        }
+        if (table[slot] == 0) {
+            usedSlots++;
+        }
+        table[slot] = position + 1;
+    }
+
+    // Resizes the table for the stored quads, dropping the slots of removed quads
+    private void rehash() {
+        int length = INITIAL_TABLE_SIZE;
+        while (length < (size + 1) * 4) {
+            length <<= 1;
+        }
+        table = new int[length];
+        usedSlots = 0;
+        for (int position = 0; position < count; position++) {
+            final int g = get(position, 0);
+            if (g != REMOVED) {
+                insert(position, g, get(position, 1), get(position, 2), get(position, 3));
+            }
+        }
+    }
+
+    private int get(final int position, final int field) {
+        return chunks.get(position / CHUNK_QUADS).get((position % CHUNK_QUADS) * 4 + field);
+    }
+
+    private void set(final int position, final int field, final int value) {
+        chunks.get(position / CHUNK_QUADS).put((position % CHUNK_QUADS) * 4 + field, value);
+    }
+
+    private int append(final int g, final int s, final int p, final int o) {
+        if (count == chunks.size() * CHUNK_QUADS) {
+            chunks.add(allocate());
+        }
+        final IntBuffer chunk = chunks.get(count / CHUNK_QUADS);
+        final int offset = (count % CHUNK_QUADS) * 4;
+        chunk.put(offset, g);
+        chunk.put(offset + 1, s);
+        chunk.put(offset + 2, p);
+        chunk.put(offset + 3, o);
+        return count++;
+    }
+
+    private IntBuffer allocate() {
+        if ((long) (chunks.size() + 1) * CHUNK_BYTES <= spillThreshold) {
+            return IntBuffer.allocate(CHUNK_QUADS * 4);
+        }
+        try {
+            if (isNull(spill)) {
+                spill = FileChannel.open(createTempFile("trellis-dataset-", ".quads"), READ, WRITE, DELETE_ON_CLOSE);
+                LOGGER.debug("Spilling dataset of {} quads to disk", size);
+            }
+            return spill.map(READ_WRITE, (long) spilledChunks++ * CHUNK_BYTES, CHUNK_BYTES).asIntBuffer();
+        } catch (final IOException ex) {
+            throw new RuntimeRepositoryException("Unable to spill dataset to disk", ex);
+        }
+    }
+
+    /**
+     * A view of one graph of the dataset.
+     */
+    private final class GraphView implements Graph {
+
+        private final BlankNodeOrIRI graphName;
+
+        private GraphView(final BlankNodeOrIRI graphName) {
+            this.graphName = graphName;
+        }
+
+        @Override
+        public void add(final Triple triple) {
+            add(triple.getSubject(), triple.getPredicate(), triple.getObject());
+        }
+
+        @Override
+        public void add(final BlankNodeOrIRI subject, final IRI predicate, final RDFTerm object) {
+            CompactDataset.this.add(graphName, subject, predicate, object);
+        }
+
+        @Override
+        public boolean contains(final Triple triple) {
+            return contains(triple.getSubject(), triple.getPredicate(), triple.getObject());
+        }
+
+        @Override
+        public boolean contains(final BlankNodeOrIRI subject, final IRI predicate, final RDFTerm object) {
+            return CompactDataset.this.contains(ofNullable(graphName), subject, predicate, object);
+        }
+
+        @Override
+        public void remove(final Triple triple) {
+            remove(triple.getSubject(), triple.getPredicate(), triple.getObject());
+        }
+
+        @Override
+        public void remove(final BlankNodeOrIRI subject, final IRI predicate, final RDFTerm object) {
+            CompactDataset.this.remove(ofNullable(graphName), subject, predicate, object);
+        }
+
+        @Override
+        public void clear() {
+            remove(null, null, null);
+        }
+
+        @Override
+        public long size() {
+            return match(ofNullable(graphName), null, null, null).count();
+        }
+
+        @Override
+        public Stream<? extends Triple> stream() {
+            return stream(null, null, null);
+        }
+
+        @Override
+        public Stream<? extends Triple> stream(final BlankNodeOrIRI subject, final IRI predicate,
+                final RDFTerm object) {
+            return triples(ofNullable(graphName), subject, predicate, object);
+        }
+    }
+}
@@ -14,11 +14,17 @@
 package org.trellisldp.http.impl;
 
 import static java.util.Base64.getEncoder;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
 import static java.util.stream.Collectors.toList;
 import static javax.ws.rs.core.Response.Status.CONFLICT;
 import static javax.ws.rs.core.Response.status;
 import static org.apache.commons.codec.digest.DigestUtils.getDigest;
-import static org.apache.commons.codec.digest.DigestUtils.updateDigest;
+import static org.apache.commons.io.IOUtils.copy;
+import static org.apache.commons.io.output.NullOutputStream.NULL_OUTPUT_STREAM;
+import static org.apache.commons.rdf.api.RDFSyntax.NTRIPLES;
 import static org.trellisldp.http.impl.RdfUtils.skolemizeTriples;
 
 import java.io.File;
@@ -26,8 +32,12 @@ import java.io.FileInputStream;
 import java.io.InputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 import javax.ws.rs.BadRequestException;
@@ -35,6 +45,8 @@ import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.StreamingOutput;
 
+import org.apache.commons.io.input.CloseShieldInputStream;
+import org.apache.commons.io.input.CountingInputStream;
 import org.apache.commons.rdf.api.IRI;
 import org.apache.commons.rdf.api.RDFSyntax;
 
@@ -43,6 +55,7 @@ import org.trellisldp.api.ConstraintViolation;
 import org.trellisldp.api.IOService;
 import org.trellisldp.api.ResourceService;
 import org.trellisldp.api.RuntimeRepositoryException;
+import org.trellisldp.http.DigestCache;
 import org.trellisldp.http.domain.Digest;
 import org.trellisldp.http.domain.LdpRequest;
 import org.trellisldp.vocabulary.LDP;
@@ -56,7 +69,9 @@ class ContentBearingHandler extends BaseLdpHandler {
 
     protected final BinaryService binaryService;
     protected final IOService ioService;
-    protected final File entity;
+    private final InputStream entity;
+    private final File entityFile;
+    private final DigestCache digestCache;
 
     /**
      * Create a builder for an LDP POST response
@@ -66,18 +81,58 @@ class ContentBearingHandler extends BaseLdpHandler {
      * @param resourceService the resource service
      * @param ioService the serialization service
      * @param binaryService the binary service
+     * @param digestCache a cache for the digests of uploaded binaries, may be null
+     */
+    protected ContentBearingHandler(final LdpRequest req, final InputStream entity,
+            final ResourceService resourceService, final IOService ioService, final BinaryService binaryService,
+            final String baseUrl, final DigestCache digestCache) {
+        this(req, entity, null, resourceService, ioService, binaryService, baseUrl, digestCache);
+    }
+
+    /**
+     * Create a builder for an LDP POST response
+     * @param baseUrl the base URL
+     * @param req the LDP request
+     * @param entity the entity, spooled to a file
+     * @param resourceService the resource service
+     * @param ioService the serialization service
+     * @param binaryService the binary service
      */
     protected ContentBearingHandler(final LdpRequest req, final File entity, final ResourceService resourceService,
             final IOService ioService, final BinaryService binaryService, final String baseUrl) {
+        this(req, null, entity, resourceService, ioService, binaryService, baseUrl, null);
+    }
+
+    private ContentBearingHandler(final LdpRequest req, final InputStream entity, final File entityFile,
+            final ResourceService resourceService, final IOService ioService, final BinaryService binaryService,
+            final String baseUrl, final DigestCache digestCache) {
         super(req, resourceService, baseUrl);
         this.binaryService = binaryService;
         this.ioService = ioService;
         this.entity = entity;
+        this.entityFile = entityFile;
+        this.digestCache = digestCache;
+    }
+
+    /**
+     * Open the entity. A streamed entity can only be read once.
+     * @return the entity
+     * @throws IOException if the entity could not be opened
+     */
+    protected InputStream openEntity() throws IOException {
+        return isNull(entityFile) ? entity : new FileInputStream(entityFile);
     }
 
     protected void readEntityIntoDataset(final String identifier, final String baseUrl, final IRI graphName,
             final RDFSyntax syntax, final TrellisDataset dataset) {
-        try (final InputStream input = new FileInputStream(entity)) {
+        try (final InputStream input = openEntity()) {
+            // N-Triples can be split at line boundaries, so it is parsed in parallel
+            if (NTRIPLES.equals(syntax)) {
+                new ParallelNTriplesReader(resourceService, baseUrl).read(input, identifier, triple ->
+                        dataset.add(rdf.createQuad(graphName, triple.getSubject(), triple.getPredicate(),
+                                triple.getObject())));
+                return;
+            }
             ioService.read(input, identifier, syntax)
                 .map(skolemizeTriples(resourceService, baseUrl))
                 .map(triple -> rdf.createQuad(graphName, triple.getSubject(), triple.getPredicate(),
@@ -109,22 +164,48 @@ class ContentBearingHandler extends BaseLdpHandler {
         }
     }
 
-    protected String getDigestForEntity(final Digest digest) {
-        try (final InputStream input = new FileInputStream(entity)) {
-            return getEncoder().encodeToString(updateDigest(getDigest(digest.getAlgorithm()), input).digest());
-        } catch (final IllegalArgumentException ex) {
-            throw new BadRequestException("Invalid algorithm provided for digest. " + digest.getAlgorithm() +
-                    " is not supported: " + ex.getMessage());
+    /**
+     * Persist the entity as binary content. The entity is read once: its size and, if requested, its
+     * digest are computed as the content is written.
+     * @param contentLocation the location of the binary content
+     * @param modified the modification date of the binary content
+     * @param metadata the binary metadata
+     * @param digest the expected digest, may be null
+     * @return the size of the content, or empty if the content did not match the expected digest, in which
+     *         case the stored content has been removed
+     */
+    protected Optional<Long> persistContent(final IRI contentLocation, final Instant modified,
+            final Map<String, String> metadata, final Digest digest) {
+        final MessageDigest algorithm = nonNull(digest) ? getMessageDigest(digest) : null;
+        try (final CountingInputStream input = new CountingInputStream(isNull(algorithm) ? openEntity() :
+                    new DigestInputStream(openEntity(), algorithm))) {
+            binaryService.setContent(req.getPartition(), contentLocation, new CloseShieldInputStream(input),
+                    metadata);
+            // Read anything that the binary service did not, so that the size and digest cover the entire entity
+            copy(input, NULL_OUTPUT_STREAM);
+            if (nonNull(algorithm)) {
+                if (!getEncoder().encodeToString(algorithm.digest()).equals(digest.getDigest())) {
+                    binaryService.purgeContent(req.getPartition(), contentLocation);
+                    return empty();
+                }
+                // Keep the verified digest for later Want-Digest requests
+                final String alg = digest.getAlgorithm().toUpperCase();
+                if (nonNull(digestCache) && binaryService.supportedAlgorithms().contains(alg)) {
+                    digestCache.put(contentLocation, modified, alg, digest.getDigest());
+                }
+            }
+            return of(input.getByteCount());
         } catch (final IOException ex) {
-            throw new WebApplicationException("Error computing checksum on input", ex);
+            throw new WebApplicationException(ex);
         }
     }
 
-    protected void persistContent(final IRI contentLocation, final Map<String, String> metadata) {
-        try (final InputStream input = new FileInputStream(entity)) {
-            binaryService.setContent(req.getPartition(), contentLocation, input, metadata);
-        } catch (final IOException ex) {
-            throw new WebApplicationException(ex);
+    private static MessageDigest getMessageDigest(final Digest digest) {
+        try {
+            return getDigest(digest.getAlgorithm());
+        } catch (final IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid algorithm provided for digest. " + digest.getAlgorithm() +
+                    " is not supported: " + ex.getMessage());
         }
     }
 }
@@ -14,12 +14,20 @@
 package org.trellisldp.http.impl;
 
 import static java.lang.String.join;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.time.format.DateTimeFormatter.RFC_1123_DATE_TIME;
+import static java.time.temporal.ChronoUnit.SECONDS;
+import static java.util.Base64.getEncoder;
 import static java.util.Collections.singletonList;
 import static java.util.Date.from;
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.Optional.empty;
 import static java.util.Optional.ofNullable;
+import static java.util.UUID.randomUUID;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Stream.concat;
 import static java.util.stream.Stream.of;
 import static javax.ws.rs.HttpMethod.DELETE;
 import static javax.ws.rs.HttpMethod.GET;
@@ -28,12 +36,14 @@ import static javax.ws.rs.HttpMethod.OPTIONS;
 import static javax.ws.rs.HttpMethod.POST;
 import static javax.ws.rs.HttpMethod.PUT;
 import static javax.ws.rs.core.HttpHeaders.ALLOW;
+import static javax.ws.rs.core.HttpHeaders.CONTENT_TYPE;
 import static javax.ws.rs.core.HttpHeaders.VARY;
 import static javax.ws.rs.core.MediaType.APPLICATION_OCTET_STREAM;
 import static javax.ws.rs.core.MediaType.TEXT_HTML;
 import static javax.ws.rs.core.Response.Status.NO_CONTENT;
+import static javax.ws.rs.core.Response.Status.PARTIAL_CONTENT;
+import static javax.ws.rs.core.Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE;
 import static javax.ws.rs.core.Response.ok;
-import static org.apache.commons.codec.digest.DigestUtils.md5Hex;
 import static org.apache.commons.rdf.api.RDFSyntax.TURTLE;
 import static org.slf4j.LoggerFactory.getLogger;
 import static org.trellisldp.http.domain.HttpConstants.ACCEPT_DATETIME;
@@ -41,9 +51,11 @@ import static org.trellisldp.http.domain.HttpConstants.ACCEPT_PATCH;
 import static org.trellisldp.http.domain.HttpConstants.ACCEPT_POST;
 import static org.trellisldp.http.domain.HttpConstants.ACCEPT_RANGES;
 import static org.trellisldp.http.domain.HttpConstants.ACL;
+import static org.trellisldp.http.domain.HttpConstants.CONTENT_RANGE;
 import static org.trellisldp.http.domain.HttpConstants.DIGEST;
 import static org.trellisldp.http.domain.HttpConstants.LINK_TEMPLATE;
 import static org.trellisldp.http.domain.HttpConstants.MEMENTO_DATETIME;
+import static org.trellisldp.http.domain.HttpConstants.MULTIPART_BYTERANGES;
 import static org.trellisldp.http.domain.HttpConstants.PATCH;
 import static org.trellisldp.http.domain.HttpConstants.PREFER;
 import static org.trellisldp.http.domain.HttpConstants.PREFERENCE_APPLIED;
@@ -52,23 +64,28 @@ import static org.trellisldp.http.domain.HttpConstants.WANT_DIGEST;
 import static org.trellisldp.http.domain.Prefer.PREFER_MINIMAL;
 import static org.trellisldp.http.domain.Prefer.PREFER_REPRESENTATION;
 import static org.trellisldp.http.domain.Prefer.PREFER_RETURN;
+import static org.trellisldp.http.domain.RdfMediaType.APPLICATION_RDF_PATCH;
 import static org.trellisldp.http.domain.RdfMediaType.APPLICATION_SPARQL_UPDATE;
 import static org.trellisldp.http.domain.RdfMediaType.MEDIA_TYPES;
-import static org.trellisldp.http.impl.RdfUtils.filterWithLDF;
-import static org.trellisldp.http.impl.RdfUtils.filterWithPrefer;
 import static org.trellisldp.http.impl.RdfUtils.getDefaultProfile;
 import static org.trellisldp.http.impl.RdfUtils.getProfile;
 import static org.trellisldp.http.impl.RdfUtils.getSyntax;
 import static org.trellisldp.http.impl.RdfUtils.ldpResourceTypes;
-import static org.trellisldp.http.impl.RdfUtils.unskolemizeQuads;
 import static org.trellisldp.vocabulary.OA.annotationService;
 import static org.trellisldp.vocabulary.Trellis.PreferAccessControl;
 import static org.trellisldp.vocabulary.Trellis.PreferUserManaged;
 
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -80,10 +97,9 @@ import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.StreamingOutput;
 
 import org.apache.commons.io.IOUtils;
-import org.apache.commons.io.input.BoundedInputStream;
 import org.apache.commons.rdf.api.IRI;
-import org.apache.commons.rdf.api.Quad;
 import org.apache.commons.rdf.api.RDFSyntax;
+import org.apache.commons.rdf.api.Triple;
 import org.slf4j.Logger;
 
 import org.trellisldp.api.Binary;
@@ -91,6 +107,10 @@ import org.trellisldp.api.BinaryService;
 import org.trellisldp.api.IOService;
 import org.trellisldp.api.Resource;
 import org.trellisldp.api.ResourceService;
+import org.trellisldp.http.DigestCache;
+import org.trellisldp.http.RepresentationCache;
+import org.trellisldp.http.SeekableResolver;
+import org.trellisldp.http.domain.ByteRange;
 import org.trellisldp.http.domain.LdpRequest;
 import org.trellisldp.http.domain.Prefer;
 import org.trellisldp.http.domain.WantDigest;
@@ -106,8 +126,15 @@ public class GetHandler extends BaseLdpHandler {
 
     private static final Logger LOGGER = getLogger(GetHandler.class);
 
+    private static final String CRLF = "\r\n";
+
+    // Requests for more ranges than this are served in full
+    private static final int MAX_RANGES = 64;
+
     private final IOService ioService;
     private final BinaryService binaryService;
+    private final RepresentationCache representationCache;
+    private final DigestCache digestCache;
 
     /**
      * A GET response builder
@@ -119,9 +146,41 @@ public class GetHandler extends BaseLdpHandler {
      */
     public GetHandler(final LdpRequest req, final ResourceService resourceService, final IOService ioService,
             final BinaryService binaryService, final String baseUrl) {
+        this(req, resourceService, ioService, binaryService, baseUrl, null);
+    }
+
+    /**
+     * A GET response builder
+     * @param req the LDP request
+     * @param resourceService the resource service
+     * @param ioService the serialization service
+     * @param binaryService the binary service
+     * @param baseUrl the base URL
+     * @param representationCache a cache of serialized RDF representations, may be null
+     */
+    public GetHandler(final LdpRequest req, final ResourceService resourceService, final IOService ioService,
+            final BinaryService binaryService, final String baseUrl, final RepresentationCache representationCache) {
+        this(req, resourceService, ioService, binaryService, baseUrl, representationCache, null);
+    }
+
+    /**
+     * A GET response builder
+     * @param req the LDP request
+     * @param resourceService the resource service
+     * @param ioService the serialization service
+     * @param binaryService the binary service
+     * @param baseUrl the base URL
+     * @param representationCache a cache of serialized RDF representations, may be null
+     * @param digestCache a cache of binary digests, may be null
+     */
+    public GetHandler(final LdpRequest req, final ResourceService resourceService, final IOService ioService,
+            final BinaryService binaryService, final String baseUrl, final RepresentationCache representationCache,
+            final DigestCache digestCache) {
         super(req, resourceService, baseUrl);
         this.ioService = ioService;
         this.binaryService = binaryService;
+        this.representationCache = representationCache;
+        this.digestCache = digestCache;
     }
 
     /**
@@ -143,6 +202,24 @@ public class GetHandler extends BaseLdpHandler {
             throw new NotFoundException();
         }
 
+        // Evaluate any preconditions before the rest of the response is built
+        final boolean isBinary = res.getBinary().isPresent() && !syntax.isPresent();
+        final Prefer prefer = isBinary ? null : getPrefer();
+        final TriplePage page = !isBinary && TriplePage.isPaged(req, prefer) ?
+            new TriplePage(identifier, req, prefer) : null;
+        final Instant modified;
+        final EntityTag etag;
+        if (isBinary) {
+            modified = res.getBinary().map(Binary::getModified).orElseThrow(() ->
+                    new WebApplicationException("Could not access binary metadata for " + res.getIdentifier()));
+            etag = new EntityTag(etagGenerator.getValue(identifier + "BINARY", modified));
+        } else {
+            modified = res.getModified();
+            etag = new EntityTag(etagGenerator.getValue(identifier
+                        + ofNullable(page).map(TriplePage::getKey).orElse(""), modified), true);
+        }
+        checkCache(req.getRequest(), modified, etag);
+
         final ResponseBuilder builder = basicGetResponseBuilder(res, syntax);
 
         // Add NonRDFSource-related "describe*" link headers
@@ -165,22 +242,28 @@ public class GetHandler extends BaseLdpHandler {
         builder.header(LINK_TEMPLATE, "<" + identifier + "{?version}>; rel=\"" + Memento.Memento.getIRIString() + "\"");
 
         // NonRDFSources responses (strong ETags, etc)
-        if (res.getBinary().isPresent() && !syntax.isPresent()) {
-            return getLdpNr(identifier, res, builder);
+        if (isBinary) {
+            return getLdpNr(identifier, res, builder, modified, etag);
         }
 
         // RDFSource responses (weak ETags, etc)
         final RDFSyntax s = syntax.orElse(TURTLE);
         final IRI profile = getProfile(req.getHeaders().getAcceptableMediaTypes(), s);
-        return getLdpRs(identifier, res, builder, s, profile);
+        return getLdpRs(identifier, res, builder, s, profile, prefer, page, etag);
     }
 
-    private ResponseBuilder getLdpRs(final String identifier, final Resource res, final ResponseBuilder builder,
-            final RDFSyntax syntax, final IRI profile) {
+    private Prefer getPrefer() {
+        if (ACL.equals(req.getExt())) {
+            return new Prefer(PREFER_REPRESENTATION, singletonList(PreferAccessControl.getIRIString()),
+                    of(PreferUserManaged, LDP.PreferContainment, LDP.PreferMembership).map(IRI::getIRIString)
+                        .collect(toList()), null, null, null);
+        }
+        return req.getPrefer();
+    }
 
-        // Check for a cache hit
-        final EntityTag etag = new EntityTag(md5Hex(res.getModified() + identifier), true);
-        checkCache(req.getRequest(), res.getModified(), etag);
+    private ResponseBuilder getLdpRs(final String identifier, final Resource res, final ResponseBuilder builder,
+            final RDFSyntax syntax, final IRI profile, final Prefer prefer, final TriplePage page,
+            final EntityTag etag) {
 
         builder.tag(etag);
         if (res.isMemento()) {
@@ -194,14 +277,9 @@ public class GetHandler extends BaseLdpHandler {
         }
 
         // URI Templates
-        builder.header(LINK_TEMPLATE, "<" + identifier + "{?subject,predicate,object}>; rel=\""
+        builder.header(LINK_TEMPLATE, "<" + identifier + "{?subject,predicate,object,page,pageSize}>; rel=\""
                 + LDP.Resource.getIRIString() + "\"");
 
-        final Prefer prefer = ACL.equals(req.getExt()) ?
-            new Prefer(PREFER_REPRESENTATION, singletonList(PreferAccessControl.getIRIString()),
-                    of(PreferUserManaged, LDP.PreferContainment, LDP.PreferMembership).map(IRI::getIRIString)
-                        .collect(toList()), null, null, null) : req.getPrefer();
-
         ofNullable(prefer).ifPresent(p -> builder.header(PREFERENCE_APPLIED, PREFER_RETURN + "=" + p.getPreference()
                     .orElse(PREFER_REPRESENTATION)));
 
@@ -210,33 +288,89 @@ public class GetHandler extends BaseLdpHandler {
             return builder.status(NO_CONTENT);
         }
 
+        final TriplePipeline pipeline = new TriplePipeline(resourceService, getBaseUrl(), prefer,
+                req.getSubject(), req.getPredicate(), req.getObject());
+
+        if (nonNull(page)) {
+            return getLdpRsPage(identifier, res, builder, syntax, profile, pipeline, page);
+        }
+
         // Short circuit HEAD requests
         if (HEAD.equals(req.getRequest().getMethod())) {
             return builder;
         }
 
+        final IRI outputProfile = ofNullable(profile).orElseGet(() -> getDefaultProfile(syntax, identifier));
+
         // Stream the rdf content
+        if (isNull(representationCache)) {
+            final StreamingOutput stream = new StreamingOutput() {
+                @Override
+                public void write(final OutputStream out) throws IOException {
+                    try (final Stream<Triple> stream = pipeline.apply(res)) {
+                        ioService.write(stream, out, syntax, outputProfile);
+                    }
+                }
+            };
+            return builder.entity(stream);
+        }
+
+        // Serve the rdf content from the cache, or stream it and keep a copy
+        final String key = getCacheKey(identifier, res, syntax, outputProfile, prefer);
+        final Optional<byte[]> cached = representationCache.get(key);
+        if (cached.isPresent()) {
+            LOGGER.debug("Serving cached representation of {}", identifier);
+            return builder.entity(cached.get());
+        }
         final StreamingOutput stream = new StreamingOutput() {
             @Override
             public void write(final OutputStream out) throws IOException {
-                try (final Stream<? extends Quad> stream = res.stream()) {
-                    ioService.write(stream.filter(filterWithPrefer(prefer))
-                        .map(unskolemizeQuads(resourceService, getBaseUrl()))
-                        .filter(filterWithLDF(req.getSubject(), req.getPredicate(), req.getObject()))
-                        .map(Quad::asTriple), out, syntax,
-                            ofNullable(profile).orElseGet(() -> getDefaultProfile(syntax, identifier)));
+                final CapturingOutputStream capture = new CapturingOutputStream(out,
+                        representationCache.getMaxEntrySize());
+                try (final Stream<Triple> stream = pipeline.apply(res)) {
+                    ioService.write(stream, capture, syntax, outputProfile);
                 }
+                capture.getBytes().ifPresent(bytes -> representationCache.put(key, bytes));
             }
         };
         return builder.entity(stream);
     }
 
-    private ResponseBuilder getLdpNr(final String identifier, final Resource res, final ResponseBuilder builder) {
+    private String getCacheKey(final String identifier, final Resource res, final RDFSyntax syntax,
+            final IRI profile, final Prefer prefer) {
+        return join("\n", identifier, res.getModified().toString(), syntax.mediaType, profile.getIRIString(),
+                of(TriplePipeline.getGraphs(prefer)).map(IRI::getIRIString).collect(joining(" ")),
+                ofNullable(req.getSubject()).orElse(""), ofNullable(req.getPredicate()).orElse(""),
+                ofNullable(req.getObject()).orElse(""));
+    }
 
-        final Instant mod = res.getBinary().map(Binary::getModified).orElseThrow(() ->
-                new WebApplicationException("Could not access binary metadata for " + res.getIdentifier()));
-        final EntityTag etag = new EntityTag(md5Hex(mod + identifier + "BINARY"));
-        checkCache(req.getRequest(), mod, etag);
+    private ResponseBuilder getLdpRsPage(final String identifier, final Resource res, final ResponseBuilder builder,
+            final RDFSyntax syntax, final IRI profile, final TriplePipeline pipeline, final TriplePage page) {
+
+        // The page is bounded, so it is read up front in order to produce the paging links
+        final List<Triple> triples;
+        try (final Stream<Triple> stream = pipeline.apply(res)) {
+            triples = page.select(stream);
+        }
+        builder.link(LDP.Page.getIRIString(), "type").links(page.getLinks().toArray(Link[]::new));
+
+        if (HEAD.equals(req.getRequest().getMethod())) {
+            return builder;
+        }
+
+        final Optional<Long> estimate = pipeline.estimateSize(res);
+        final StreamingOutput stream = new StreamingOutput() {
+            @Override
+            public void write(final OutputStream out) throws IOException {
+                ioService.write(concat(triples.stream(), page.getMetadata(estimate)), out, syntax,
+                        ofNullable(profile).orElseGet(() -> getDefaultProfile(syntax, identifier)));
+            }
+        };
+        return builder.entity(stream);
+    }
+
+    private ResponseBuilder getLdpNr(final String identifier, final Resource res, final ResponseBuilder builder,
+            final Instant mod, final EntityTag etag) {
 
         // Set last-modified to be the binary's last-modified value
         builder.lastModified(from(mod));
@@ -252,31 +386,56 @@ public class GetHandler extends BaseLdpHandler {
             builder.header(ALLOW, join(",", GET, HEAD, OPTIONS, PUT, DELETE));
         }
 
+        // Resolve any range request, which is only served when the binary size is known
+        final Optional<Long> size = res.getBinary().flatMap(Binary::getSize);
+        final List<ByteRange> ranges = ofNullable(req.getRange()).filter(x -> size.isPresent())
+            .filter(x -> isRangeCurrent(mod, etag)).map(range -> range.resolve(size.get()))
+            .filter(list -> list.size() <= MAX_RANGES).orElse(null);
+        if (nonNull(ranges) && ranges.isEmpty()) {
+            return builder.status(REQUESTED_RANGE_NOT_SATISFIABLE).header(CONTENT_RANGE, "bytes */" + size.get());
+        }
+
         // Add instance digests, if Requested and supported
-        ofNullable(req.getWantDigest()).map(WantDigest::getAlgorithms).ifPresent(algs ->
-                algs.stream().filter(binaryService.supportedAlgorithms()::contains).findFirst().ifPresent(alg ->
-                    getBinaryDigest(dsid, alg).ifPresent(digest -> builder.header(DIGEST, digest))));
+        final Optional<String> algorithm = ofNullable(req.getWantDigest()).map(WantDigest::getAlgorithms)
+            .flatMap(algs -> algs.stream().filter(binaryService.supportedAlgorithms()::contains).findFirst());
+        final Optional<String> instanceDigest = algorithm.flatMap(alg -> isDeferred() ?
+                digestCache.getIfPresent(dsid, mod, alg) : getBinaryDigest(dsid, mod, alg));
+        instanceDigest.ifPresent(digest -> builder.header(DIGEST, digest));
+
+        // A deferred digest is computed while the full content is streamed
+        final MessageDigest streamDigest = isDeferred() && !instanceDigest.isPresent() && isNull(ranges) ?
+            algorithm.flatMap(GetHandler::getMessageDigest).orElse(null) : null;
+
+        final String boundary;
+        if (isNull(ranges)) {
+            boundary = null;
+        } else if (ranges.size() == 1) {
+            boundary = null;
+            builder.status(PARTIAL_CONTENT).header(CONTENT_RANGE, ranges.get(0).getContentRange(size.get()));
+        } else {
+            boundary = randomUUID().toString();
+            builder.status(PARTIAL_CONTENT).type(MULTIPART_BYTERANGES + "; boundary=" + boundary);
+        }
+        final String mimeType = res.getBinary().flatMap(Binary::getMimeType).orElse(APPLICATION_OCTET_STREAM);
 
         // Stream the binary content
         final StreamingOutput stream = new StreamingOutput() {
             @Override
             public void write(final OutputStream out) throws IOException {
-                // TODO -- with JDK 9 use InputStream::transferTo instead of IOUtils::copy
-                try (final InputStream binary = binaryService.getContent(req.getPartition(), dsid).orElseThrow(() ->
-                        new IOException("Could not retrieve content from " + dsid))) {
-                    if (isNull(req.getRange())) {
-                        IOUtils.copy(binary, out);
+                try {
+                    if (isNull(ranges)) {
+                        writeContent(dsid, out, streamDigest, mod, algorithm.orElse(null));
+                    } else if (isNull(boundary)) {
+                        writeRange(dsid, ranges.get(0), out);
                     } else {
-                        // Range Requests
-                        final long skipped = binary.skip(req.getRange().getFrom());
-                        if (skipped < req.getRange().getFrom()) {
-                            LOGGER.warn("Trying to skip more data available in the input stream! {}, {}",
-                                    skipped, req.getRange().getFrom());
-                        }
-                        try (final InputStream sliced = new BoundedInputStream(binary,
-                                    req.getRange().getTo() - req.getRange().getFrom())) {
-                            IOUtils.copy(sliced, out);
+                        // Multiple ranges are sent as multipart/byteranges
+                        for (final ByteRange range : ranges) {
+                            out.write(("--" + boundary + CRLF + CONTENT_TYPE + ": " + mimeType + CRLF + CONTENT_RANGE
+                                        + ": " + range.getContentRange(size.get()) + CRLF + CRLF).getBytes(UTF_8));
+                            writeRange(dsid, range, out);
+                            out.write(CRLF.getBytes(UTF_8));
                         }
+                        out.write(("--" + boundary + "--" + CRLF).getBytes(UTF_8));
                     }
                 } catch (final IOException ex) {
                     throw new WebApplicationException("Error processing binary content: " +
@@ -288,7 +447,99 @@ public class GetHandler extends BaseLdpHandler {
         return builder.entity(stream);
     }
 
-    private Optional<String> getBinaryDigest(final IRI dsid, final String algorithm) {
+    private void writeContent(final IRI dsid, final OutputStream out, final MessageDigest streamDigest,
+            final Instant modified, final String algorithm) throws IOException {
+        // TODO -- with JDK 9 use InputStream::transferTo instead of IOUtils::copy
+        try (final InputStream binary = binaryService.getContent(req.getPartition(), dsid).orElseThrow(() ->
+                    new IOException("Could not retrieve content from " + dsid))) {
+            if (nonNull(streamDigest)) {
+                IOUtils.copy(new DigestInputStream(binary, streamDigest), out);
+                digestCache.put(dsid, modified, algorithm, getEncoder().encodeToString(streamDigest.digest()));
+            } else {
+                IOUtils.copy(binary, out);
+            }
+        }
+    }
+
+    private void writeRange(final IRI dsid, final ByteRange range, final OutputStream out) throws IOException {
+        try (final InputStream binary = getContent(dsid, range.getFirst())) {
+            copy(binary, out, range.getLength());
+        }
+    }
+
+    private static void copy(final InputStream input, final OutputStream out, final long length)
+            throws IOException {
+        final long copied = IOUtils.copyLarge(input, out, 0L, length);
+        if (copied < length) {
+            throw new IOException("Binary content ended after " + copied + " of " + length + " bytes");
+        }
+    }
+
+    private InputStream getContent(final IRI dsid, final long from) throws IOException {
+        final Optional<SeekableResolver> seekable = from > 0 ? binaryService.getResolver(dsid)
+            .filter(SeekableResolver.class::isInstance).map(SeekableResolver.class::cast) : empty();
+        if (seekable.isPresent()) {
+            return seekable.get().getContent(req.getPartition(), dsid, from).orElseThrow(() ->
+                    new IOException("Could not retrieve content from " + dsid));
+        }
+
+        final InputStream binary = binaryService.getContent(req.getPartition(), dsid).orElseThrow(() ->
+                new IOException("Could not retrieve content from " + dsid));
+        long remaining = from;
+        while (remaining > 0) {
+            final long skipped = binary.skip(remaining);
+            if (skipped > 0) {
+                remaining -= skipped;
+            } else if (binary.read() >= 0) {
+                remaining -= 1;
+            } else {
+                LOGGER.warn("Trying to skip more data available in the input stream! {}, {}", from - remaining,
+                        from);
+                break;
+            }
+        }
+        return binary;
+    }
+
+    // A range is only served if an If-Range validator matches the current representation
+    private boolean isRangeCurrent(final Instant modified, final EntityTag etag) {
+        final String ifRange = req.getIfRange();
+        if (isNull(ifRange)) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // A weak entity tag never matches, since If-Range requires a strong comparison
+            return !etag.isWeak() && ifRange.trim().equals("\"" + etag.getValue() + "\"");
+        }
+        try {
+            return RFC_1123_DATE_TIME.parse(ifRange.trim(), Instant::from).equals(modified.truncatedTo(SECONDS));
+        } catch (final DateTimeParseException ex) {
+            LOGGER.warn("Ignoring invalid If-Range header: {}", ifRange);
+            return false;
+        }
+    }
+
+    private boolean isDeferred() {
+        return nonNull(digestCache) && digestCache.isDeferred();
+    }
+
+    private static Optional<MessageDigest> getMessageDigest(final String algorithm) {
+        try {
+            return Optional.of(MessageDigest.getInstance(algorithm));
+        } catch (final NoSuchAlgorithmException ex) {
+            LOGGER.warn("Digest algorithm {} cannot be computed while streaming: {}", algorithm, ex.getMessage());
+            return empty();
+        }
+    }
+
+    private Optional<String> getBinaryDigest(final IRI dsid, final Instant modified, final String algorithm) {
+        if (isNull(digestCache)) {
+            return computeBinaryDigest(dsid, algorithm);
+        }
+        return digestCache.get(dsid, modified, algorithm, () -> computeBinaryDigest(dsid, algorithm));
+    }
+
+    private Optional<String> computeBinaryDigest(final IRI dsid, final String algorithm) {
         final Optional<InputStream> b = binaryService.getContent(req.getPartition(), dsid);
         try (final InputStream is = b.orElseThrow(() -> new WebApplicationException("Couldn't fetch binary content"))) {
             return binaryService.digest(algorithm, is);
@@ -332,7 +583,7 @@ public class GetHandler extends BaseLdpHandler {
                         // text/html is excluded
                         .filter(mt -> !TEXT_HTML.equals(mt)).collect(joining(",")));
             } else if (LDP.RDFSource.equals(type) && !res.isMemento()) {
-                builder.header(ACCEPT_PATCH, APPLICATION_SPARQL_UPDATE);
+                builder.header(ACCEPT_PATCH, join(",", APPLICATION_SPARQL_UPDATE, APPLICATION_RDF_PATCH));
             }
         });
 
@@ -345,4 +596,48 @@ public class GetHandler extends BaseLdpHandler {
 
         return builder;
     }
+
+    /**
+     * An output stream that keeps a copy of the bytes written to it, up to a limit
+     */
+    private static final class CapturingOutputStream extends FilterOutputStream {
+
+        private final int limit;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        public CapturingOutputStream(final OutputStream out, final int limit) {
+            super(out);
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            out.write(b);
+            capture(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            out.write(b, off, len);
+            capture(b, off, len);
+        }
+
+        private void capture(final byte[] b, final int off, final int len) {
+            if (nonNull(buffer)) {
+                if (buffer.size() + len > limit) {
+                    buffer = null;
+                } else {
+                    buffer.write(b, off, len);
+                }
+            }
+        }
+
+        /**
+         * Get the captured bytes
+         * @return the bytes written to the stream, if they did not exceed the limit
+         */
+        public Optional<byte[]> getBytes() {
+            return ofNullable(buffer).map(ByteArrayOutputStream::toByteArray);
+        }
+    }
 }
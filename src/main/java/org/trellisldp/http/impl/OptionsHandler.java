@@ -31,6 +31,7 @@ import static org.trellisldp.http.domain.HttpConstants.ACCEPT_POST;
 import static org.trellisldp.http.domain.HttpConstants.ACL;
 import static org.trellisldp.http.domain.HttpConstants.PATCH;
 import static org.trellisldp.http.domain.HttpConstants.TIMEMAP;
+import static org.trellisldp.http.domain.RdfMediaType.APPLICATION_RDF_PATCH;
 import static org.trellisldp.http.domain.RdfMediaType.APPLICATION_SPARQL_UPDATE;
 import static org.trellisldp.http.domain.RdfMediaType.MEDIA_TYPES;
 import static org.trellisldp.http.impl.RdfUtils.ldpResourceTypes;
@@ -90,7 +91,7 @@ public class OptionsHandler extends BaseLdpHandler {
             // Mementos and TimeMaps are read-only
             builder.header(ALLOW, join(",", GET, HEAD, OPTIONS));
         } else {
-            builder.header(ACCEPT_PATCH, APPLICATION_SPARQL_UPDATE);
+            builder.header(ACCEPT_PATCH, join(",", APPLICATION_SPARQL_UPDATE, APPLICATION_RDF_PATCH));
             // ACL resources allow a limited set of methods (no DELETE or POST)
             // If it's not a container, POST isn't allowed
             if (PreferAccessControl.equals(graphName) || res.getInteractionModel().equals(RDFSource) ||
@@ -0,0 +1,182 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.copyOfRange;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static org.slf4j.LoggerFactory.getLogger;
+import static org.trellisldp.http.impl.RdfUtils.skolemizeTriples;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.apache.commons.rdf.api.BlankNode;
+import org.apache.commons.rdf.api.Triple;
+import org.slf4j.Logger;
+
+import org.trellisldp.api.ResourceService;
+
+/**
+ * A reader that parses and skolemizes an N-Triples document in parallel.
+ *
+ * <p>The document is split into chunks at line boundaries as it is read. Each chunk is parsed and skolemized
+ * on a {@link ForkJoinPool}, and the triples are passed to the consumer on the calling thread, in document
+ * order. Only a bounded number of chunks are in progress at any time. All of the chunks share one mapping
+ * from blank node labels to blank nodes, so a label that is used in several chunks is skolemized to the same
+ * resource. Errors in the document result in a {@link javax.ws.rs.BadRequestException}.
+ *
+ * @author acoburn
+ */
+public final class ParallelNTriplesReader {
+
+    private static final Logger LOGGER = getLogger(ParallelNTriplesReader.class);
+
+    /**
+     * The default chunk size, in bytes.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+
+    private final Function<Triple, Triple> skolemizer;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final int maxPending;
+
+    /**
+     * Create a reader that uses the common fork-join pool
+     * @param resourceService the resource service
+     * @param baseUrl the base URL
+     */
+    public ParallelNTriplesReader(final ResourceService resourceService, final String baseUrl) {
+        this(resourceService, baseUrl, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Create a reader
+     * @param resourceService the resource service
+     * @param baseUrl the base URL
+     * @param pool the pool on which chunks are parsed
+     * @param chunkSize the approximate size of each chunk, in bytes
+     */
+    public ParallelNTriplesReader(final ResourceService resourceService, final String baseUrl,
+            final ForkJoinPool pool, final int chunkSize) {
+        this.skolemizer = skolemizeTriples(resourceService, baseUrl);
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        this.maxPending = pool.getParallelism() * 2;
+    }
+
+    /**
+     * Read an N-Triples document
+     * @param input the document
+     * @param base the base IRI
+     * @param consumer the consumer of the skolemized triples
+     * @throws IOException if the document could not be read
+     */
+    public void read(final InputStream input, final String base, final Consumer<Triple> consumer)
+            throws IOException {
+        final Map<String, BlankNode> bnodes = new ConcurrentHashMap<>();
+        final Deque<CompletableFuture<List<Triple>>> pending = new ArrayDeque<>();
+        byte[] buffer = new byte[chunkSize];
+        int length = 0;
+        int chunks = 0;
+        try {
+            int read;
+            while ((read = input.read(buffer, length, buffer.length - length)) >= 0) {
+                length += read;
+                if (length == buffer.length) {
+                    final int end = lastLineEnd(buffer, length);
+                    if (end < 0) {
+                        // A single line is longer than the buffer
+                        buffer = copyOf(buffer, buffer.length * 2);
+                        continue;
+                    }
+                    final byte[] chunk = copyOfRange(buffer, 0, end);
+                    pending.add(supplyAsync(() -> parse(chunk, base, bnodes), pool));
+                    chunks++;
+                    final byte[] remainder = new byte[buffer.length];
+                    System.arraycopy(buffer, end, remainder, 0, length - end);
+                    buffer = remainder;
+                    length -= end;
+                    while (pending.size() > maxPending) {
+                        join(pending.remove()).forEach(consumer);
+                    }
+                }
+            }
+            if (length > 0) {
+                final byte[] chunk = copyOf(buffer, length);
+                pending.add(supplyAsync(() -> parse(chunk, base, bnodes), pool));
+                chunks++;
+            }
+            while (!pending.isEmpty()) {
+                join(pending.remove()).forEach(consumer);
+            }
+            LOGGER.debug("Read N-Triples document in {} chunks", chunks);
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private List<Triple> parse(final byte[] chunk, final String base, final Map<String, BlankNode> bnodes) {
+        final TermReader reader = new TermReader(new InputStreamReader(new ByteArrayInputStream(chunk), UTF_8),
+                base, bnodes, false);
+        final List<Triple> triples = new ArrayList<>();
+        try {
+            while (reader.skipWhitespace()) {
+                triples.add(skolemizer.apply(reader.readTriple()));
+            }
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return triples;
+    }
+
+    private static List<Triple> join(final CompletableFuture<List<Triple>> future) throws IOException {
+        try {
+            return future.join();
+        } catch (final CompletionException ex) {
+            if (ex.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) ex.getCause()).getCause();
+            } else if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    // The position after the last line feed, or -1 if there is none
+    private static int lastLineEnd(final byte[] buffer, final int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (buffer[i] == '\n') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+}
@@ -13,6 +13,7 @@
  */
 package org.trellisldp.http.impl;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Objects.isNull;
 import static java.util.Optional.empty;
 import static java.util.Optional.ofNullable;
@@ -24,12 +25,12 @@ import static javax.ws.rs.core.Response.Status.NO_CONTENT;
 import static javax.ws.rs.core.Response.ok;
 import static javax.ws.rs.core.Response.serverError;
 import static javax.ws.rs.core.Response.status;
-import static org.apache.commons.codec.digest.DigestUtils.md5Hex;
 import static org.slf4j.LoggerFactory.getLogger;
 import static org.trellisldp.api.RDFUtils.TRELLIS_PREFIX;
 import static org.trellisldp.http.domain.HttpConstants.ACL;
 import static org.trellisldp.http.domain.HttpConstants.PREFERENCE_APPLIED;
 import static org.trellisldp.http.domain.Prefer.PREFER_REPRESENTATION;
+import static org.trellisldp.http.domain.RdfMediaType.APPLICATION_RDF_PATCH_TYPE;
 import static org.trellisldp.http.impl.RdfUtils.getDefaultProfile;
 import static org.trellisldp.http.impl.RdfUtils.getProfile;
 import static org.trellisldp.http.impl.RdfUtils.getSyntax;
@@ -41,18 +42,26 @@ import static org.trellisldp.vocabulary.Trellis.PreferAccessControl;
 import static org.trellisldp.vocabulary.Trellis.PreferServerManaged;
 import static org.trellisldp.vocabulary.Trellis.PreferUserManaged;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import javax.ws.rs.BadRequestException;
 import javax.ws.rs.NotAcceptableException;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.StreamingOutput;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.rdf.api.Graph;
 import org.apache.commons.rdf.api.IRI;
 import org.apache.commons.rdf.api.RDFSyntax;
 import org.apache.commons.rdf.api.Triple;
@@ -64,6 +73,7 @@ import org.trellisldp.api.Resource;
 import org.trellisldp.api.ResourceService;
 import org.trellisldp.api.RuntimeRepositoryException;
 import org.trellisldp.api.Session;
+import org.trellisldp.http.IncrementalResourceService;
 import org.trellisldp.http.domain.LdpRequest;
 import org.trellisldp.http.domain.Prefer;
 import org.trellisldp.vocabulary.LDP;
@@ -79,7 +89,7 @@ public class PatchHandler extends BaseLdpHandler {
     private static final Logger LOGGER = getLogger(PatchHandler.class);
 
     private final IOService ioService;
-    private final String sparqlUpdate;
+    private final InputStream body;
 
     /**
      * Create a handler for PATCH operations
@@ -91,21 +101,58 @@ public class PatchHandler extends BaseLdpHandler {
      */
     public PatchHandler(final LdpRequest req, final String sparqlUpdate,
             final ResourceService resourceService, final IOService ioService, final String baseUrl) {
+        this(req, isNull(sparqlUpdate) ? null : new ByteArrayInputStream(sparqlUpdate.getBytes(UTF_8)),
+                resourceService, ioService, baseUrl);
+    }
+
+    /**
+     * Create a handler for PATCH operations
+     * @param req the LDP request
+     * @param body the sparql update or RDF Patch body
+     * @param resourceService the resource service
+     * @param ioService the serialization service
+     * @param baseUrl the base URL
+     */
+    public PatchHandler(final LdpRequest req, final InputStream body,
+            final ResourceService resourceService, final IOService ioService, final String baseUrl) {
         super(req, resourceService, baseUrl);
         this.ioService = ioService;
-        this.sparqlUpdate = sparqlUpdate;
+        this.body = body;
+    }
+
+    private boolean isIncremental() {
+        return resourceService instanceof IncrementalResourceService &&
+            ((IncrementalResourceService) resourceService).supportsIncrementalUpdates();
+    }
+
+    private boolean isRdfPatch() {
+        try {
+            return ofNullable(req.getContentType()).map(MediaType::valueOf)
+                .filter(APPLICATION_RDF_PATCH_TYPE::isCompatible).isPresent();
+        } catch (final IllegalArgumentException ex) {
+            return false;
+        }
     }
 
-    private List<Triple> updateGraph(final Resource res, final IRI graphName) {
-        final List<Triple> triples;
+    private String getSparqlUpdate() {
+        // The serialization service only accepts the update as a String
+        try {
+            return IOUtils.toString(body, UTF_8);
+        } catch (final IOException ex) {
+            throw new WebApplicationException("Unable to read Sparql-Update body: " + ex.getMessage(), BAD_REQUEST);
+        }
+    }
+
+    private Graph updateGraph(final Resource res, final IRI graphName, final String sparqlUpdate, final String base) {
+        // The updated triples are kept in skolemized form
+        final Graph triples = rdf.createGraph();
         // Update existing graph
         try (final TrellisGraph graph = TrellisGraph.createGraph()) {
             try (final Stream<? extends Triple> stream = res.stream(graphName)) {
                 stream.forEachOrdered(graph::add);
             }
-            ioService.update(graph.asGraph(), sparqlUpdate, TRELLIS_PREFIX + req.getPartition() + req.getPath() +
-                    (ACL.equals(req.getExt()) ? "?ext=acl" : ""));
-            triples = graph.stream().collect(toList());
+            ioService.update(graph.asGraph(), sparqlUpdate, base);
+            graph.stream().map(skolemizeTriples(resourceService, getBaseUrl())).forEachOrdered(triples::add);
         } catch (final RuntimeRepositoryException ex) {
             LOGGER.warn(ex.getMessage());
             throw new BadRequestException("Invalid RDF: " + ex.getMessage());
@@ -114,8 +161,98 @@ public class PatchHandler extends BaseLdpHandler {
         return triples;
     }
 
+    private ResponseBuilder updateIncrementally(final Resource res, final Stream<Triple> removed,
+            final Stream<Triple> added, final IRI graphName, final String identifier, final Session session) {
+        final String baseUrl = getBaseUrl();
+
+        try (final TrellisDataset deletions = TrellisDataset.createDataset();
+                final TrellisDataset additions = TrellisDataset.createDataset()) {
+
+            removed.map(t -> rdf.createQuad(graphName, t.getSubject(), t.getPredicate(), t.getObject()))
+                .forEachOrdered(deletions::add);
+            added.map(t -> rdf.createQuad(graphName, t.getSubject(), t.getPredicate(), t.getObject()))
+                .forEachOrdered(additions::add);
+            LOGGER.debug("Applying {} deletions and {} additions to {}", deletions.asDataset().size(),
+                    additions.asDataset().size(), identifier);
+
+            // Check any constraints against the updated graph
+            if (!constraintServices.isEmpty()) {
+                try (final TrellisGraph graph = getUpdatedGraph(res, graphName, deletions, additions)) {
+                    checkConstraints(res, graph.asGraph());
+                }
+            }
+
+            // Add audit-related triples
+            audit.ifPresent(svc -> svc.update(res.getIdentifier(), session).stream()
+                    .map(skolemizeQuads(resourceService, baseUrl)).forEachOrdered(additions::add));
+
+            if (((IncrementalResourceService) resourceService).update(res.getIdentifier(), deletions.asDataset(),
+                        additions.asDataset())) {
+                return getResponse(res, identifier, () -> resourceService.get(res.getIdentifier())
+                        .map(r -> r.stream(graphName)).orElseGet(Stream::empty));
+            }
+        }
+
+        LOGGER.error("Unable to persist data to location at {}", res.getIdentifier());
+        return serverError().type(TEXT_PLAIN)
+            .entity("Unable to persist data. Please consult the logs for more information");
+    }
+
+    // The constraint rules examine the whole graph, so the delta is applied to a copy of it
+    private TrellisGraph getUpdatedGraph(final Resource res, final IRI graphName, final TrellisDataset deletions,
+            final TrellisDataset additions) {
+        final TrellisGraph graph = TrellisGraph.createGraph();
+        final Graph deleted = deletions.getGraph(graphName).orElseGet(rdf::createGraph);
+        try (final Stream<? extends Triple> stream = res.stream(graphName)) {
+            stream.filter(t -> !deleted.contains(t)).forEachOrdered(graph::add);
+        }
+        additions.getGraph(graphName).ifPresent(added -> added.stream().forEachOrdered(graph::add));
+        return graph;
+    }
+
+    private void checkConstraints(final Resource res, final Graph graph) {
+        final List<ConstraintViolation> violations = constraintServices.stream()
+            .flatMap(svc -> svc.constrainedBy(res.getInteractionModel(), getBaseUrl(), graph)).collect(toList());
+
+        if (!violations.isEmpty()) {
+            final ResponseBuilder err = status(CONFLICT);
+            violations.forEach(v -> err.link(v.getConstraint().getIRIString(), LDP.constrainedBy.getIRIString()));
+            throw new WebApplicationException(err.build());
+        }
+    }
+
+    private ResponseBuilder getResponse(final Resource res, final String identifier,
+            final Supplier<Stream<? extends Triple>> triples) {
+        final String baseUrl = getBaseUrl();
+        final ResponseBuilder builder = ok();
+
+        ldpResourceTypes(res.getInteractionModel()).map(IRI::getIRIString)
+            .forEach(type -> builder.link(type, "type"));
+
+        return ofNullable(req.getPrefer()).flatMap(Prefer::getPreference).filter(PREFER_REPRESENTATION::equals)
+            .map(prefer -> {
+                final RDFSyntax syntax = getSyntax(req.getHeaders().getAcceptableMediaTypes(), empty())
+                    .orElseThrow(NotAcceptableException::new);
+                final IRI profile = ofNullable(getProfile(req.getHeaders().getAcceptableMediaTypes(), syntax))
+                    .orElseGet(() -> getDefaultProfile(syntax, identifier));
+
+                final StreamingOutput stream = new StreamingOutput() {
+                    @Override
+                    public void write(final OutputStream out) throws IOException {
+                        try (final Stream<? extends Triple> stream = triples.get()) {
+                            ioService.write(stream.map(unskolemizeTriples(resourceService, baseUrl)), out, syntax,
+                                    profile);
+                        }
+                    }
+                };
+
+                return builder.header(PREFERENCE_APPLIED, "return=representation").type(syntax.mediaType)
+                       .entity(stream);
+            }).orElseGet(() -> builder.status(NO_CONTENT));
+    }
+
     /**
-     * Update a resource with Sparql-Update and build an HTTP response
+     * Update a resource with Sparql-Update or RDF Patch and build an HTTP response
      * @param res the resource
      * @return the Response builder
      */
@@ -124,8 +261,8 @@ public class PatchHandler extends BaseLdpHandler {
         final String identifier = baseUrl + req.getPartition() + req.getPath() +
             (ACL.equals(req.getExt()) ? "?ext=acl" : "");
 
-        if (isNull(sparqlUpdate)) {
-            throw new WebApplicationException("Missing Sparql-Update body", BAD_REQUEST);
+        if (isNull(body)) {
+            throw new WebApplicationException("Missing PATCH body", BAD_REQUEST);
         }
         final Session session = ofNullable(req.getSession()).orElseGet(HttpSession::new);
 
@@ -133,21 +270,63 @@ public class PatchHandler extends BaseLdpHandler {
         checkDeleted(res, identifier);
 
         // Check the cache
-        final EntityTag etag = new EntityTag(md5Hex(res.getModified() + identifier));
+        final EntityTag etag = new EntityTag(etagGenerator.getValue(identifier, res.getModified()));
         checkCache(req.getRequest(), res.getModified(), etag);
 
         LOGGER.debug("Updating {} via PATCH", identifier);
 
         final IRI graphName = ACL.equals(req.getExt()) ? PreferAccessControl : PreferUserManaged;
         final IRI otherGraph = ACL.equals(req.getExt()) ? PreferUserManaged : PreferAccessControl;
+        final String base = TRELLIS_PREFIX + req.getPartition() + req.getPath() +
+            (ACL.equals(req.getExt()) ? "?ext=acl" : "");
+
+        // RDF Patch documents are read as a stream and applied without a SPARQL engine
+        if (isRdfPatch()) {
+            final RdfPatch patch = RdfPatch.read(body, base);
+            if (isIncremental()) {
+                final Function<Triple, Triple> internal = skolemizeTriples(resourceService, baseUrl);
+                return updateIncrementally(res, patch.getDeletions().stream().map(internal),
+                        patch.getAdditions().stream().map(internal), graphName, identifier, session);
+            }
+            return replaceGraph(res, applyPatch(res, graphName, patch), graphName, otherGraph, identifier, session);
+        }
+
+        final String sparqlUpdate = getSparqlUpdate();
+
+        // Apply data-only updates as a delta, if the resource service supports that
+        if (isIncremental()) {
+            final Optional<SparqlDataUpdate> delta = SparqlDataUpdate.parse(ioService, sparqlUpdate, base);
+            if (delta.isPresent()) {
+                final Function<Triple, Triple> internal = skolemizeTriples(resourceService, baseUrl);
+                return updateIncrementally(res, delta.get().getDeletions().stream().map(internal),
+                        delta.get().getAdditions().stream().map(internal), graphName, identifier, session);
+            }
+        }
 
-        // Put triples in buffer
-        final List<Triple> triples = updateGraph(res, graphName);
+        // Otherwise, run the update against a copy of the graph
+        return replaceGraph(res, updateGraph(res, graphName, sparqlUpdate, base), graphName, otherGraph,
+                identifier, session);
+    }
+
+    private Graph applyPatch(final Resource res, final IRI graphName, final RdfPatch patch) {
+        final Graph triples = rdf.createGraph();
+        try (final Stream<? extends Triple> stream = res.stream(graphName)) {
+            stream.forEachOrdered(triples::add);
+        }
+        patch.getDeletions().stream().map(skolemizeTriples(resourceService, getBaseUrl()))
+            .forEachOrdered(triples::remove);
+        patch.getAdditions().stream().map(skolemizeTriples(resourceService, getBaseUrl()))
+            .forEachOrdered(triples::add);
+        return triples;
+    }
+
+    private ResponseBuilder replaceGraph(final Resource res, final Graph triples, final IRI graphName,
+            final IRI otherGraph, final String identifier, final Session session) {
+        final String baseUrl = getBaseUrl();
 
         try (final TrellisDataset dataset = TrellisDataset.createDataset()) {
 
-            triples.stream().map(skolemizeTriples(resourceService, baseUrl))
-                .map(t -> rdf.createQuad(graphName, t.getSubject(), t.getPredicate(), t.getObject()))
+            triples.stream().map(t -> rdf.createQuad(graphName, t.getSubject(), t.getPredicate(), t.getObject()))
                 .forEachOrdered(dataset::add);
 
             // Add audit-related triples
@@ -158,16 +337,7 @@ public class PatchHandler extends BaseLdpHandler {
             dataset.add(rdf.createQuad(PreferServerManaged, res.getIdentifier(), RDF.type, res.getInteractionModel()));
 
             // Check any constraints
-            final List<ConstraintViolation> violations = constraintServices.stream()
-                .flatMap(svc -> dataset.getGraph(graphName).map(Stream::of).orElseGet(Stream::empty)
-                    .flatMap(g -> svc.constrainedBy(res.getInteractionModel(), baseUrl, g)))
-                .collect(toList());
-
-            if (!violations.isEmpty()) {
-                final ResponseBuilder err = status(CONFLICT);
-                violations.forEach(v -> err.link(v.getConstraint().getIRIString(), LDP.constrainedBy.getIRIString()));
-                throw new WebApplicationException(err.build());
-            }
+            checkConstraints(res, triples);
 
             // When updating User or ACL triples, be sure to add the other category to the dataset
             try (final Stream<? extends Triple> remaining = res.stream(otherGraph)) {
@@ -177,30 +347,7 @@ public class PatchHandler extends BaseLdpHandler {
 
             // Save new dataset
             if (resourceService.put(res.getIdentifier(), dataset.asDataset())) {
-
-                final ResponseBuilder builder = ok();
-
-                ldpResourceTypes(res.getInteractionModel()).map(IRI::getIRIString)
-                    .forEach(type -> builder.link(type, "type"));
-
-                return ofNullable(req.getPrefer()).flatMap(Prefer::getPreference).filter(PREFER_REPRESENTATION::equals)
-                    .map(prefer -> {
-                        final RDFSyntax syntax = getSyntax(req.getHeaders().getAcceptableMediaTypes(), empty())
-                            .orElseThrow(NotAcceptableException::new);
-                        final IRI profile = ofNullable(getProfile(req.getHeaders().getAcceptableMediaTypes(), syntax))
-                            .orElseGet(() -> getDefaultProfile(syntax, identifier));
-
-                        final StreamingOutput stream = new StreamingOutput() {
-                            @Override
-                            public void write(final OutputStream out) throws IOException {
-                                ioService.write(triples.stream().map(unskolemizeTriples(resourceService, baseUrl)),
-                                        out, syntax, profile);
-                            }
-                        };
-
-                        return builder.header(PREFERENCE_APPLIED, "return=representation").type(syntax.mediaType)
-                               .entity(stream);
-                    }).orElseGet(() -> builder.status(NO_CONTENT));
+                return getResponse(res, identifier, triples::stream);
             }
         }
 
@@ -34,7 +34,9 @@ import static org.trellisldp.vocabulary.Trellis.PreferServerManaged;
 import static org.trellisldp.vocabulary.Trellis.PreferUserManaged;
 
 import java.io.File;
+import java.io.InputStream;
 import java.net.URI;
+import java.time.Instant;
 import java.util.Map;
 import java.util.Optional;
 
@@ -49,7 +51,7 @@ import org.trellisldp.api.BinaryService;
 import org.trellisldp.api.IOService;
 import org.trellisldp.api.ResourceService;
 import org.trellisldp.api.Session;
-import org.trellisldp.http.domain.Digest;
+import org.trellisldp.http.DigestCache;
 import org.trellisldp.http.domain.LdpRequest;
 import org.trellisldp.vocabulary.DC;
 import org.trellisldp.vocabulary.LDP;
@@ -77,6 +79,40 @@ public class PostHandler extends ContentBearingHandler {
      * @param binaryService the datastream service
      * @param baseUrl the base URL
      */
+    public PostHandler(final LdpRequest req, final String id, final InputStream entity,
+            final ResourceService resourceService, final IOService ioService, final BinaryService binaryService,
+            final String baseUrl) {
+        this(req, id, entity, resourceService, ioService, binaryService, baseUrl, null);
+    }
+
+    /**
+     * Create a builder for an LDP POST response
+     * @param req the LDP request
+     * @param id the new resource's identifier
+     * @param entity the entity
+     * @param resourceService the resource service
+     * @param ioService the serialization service
+     * @param binaryService the datastream service
+     * @param baseUrl the base URL
+     * @param digestCache a cache for the digests of uploaded binaries, may be null
+     */
+    public PostHandler(final LdpRequest req, final String id, final InputStream entity,
+            final ResourceService resourceService, final IOService ioService, final BinaryService binaryService,
+            final String baseUrl, final DigestCache digestCache) {
+        super(req, entity, resourceService, ioService, binaryService, baseUrl, digestCache);
+        this.id = id;
+    }
+
+    /**
+     * Create a builder for an LDP POST response
+     * @param req the LDP request
+     * @param id the new resource's identifier
+     * @param entity the entity, spooled to a file
+     * @param resourceService the resource service
+     * @param ioService the serialization service
+     * @param binaryService the datastream service
+     * @param baseUrl the base URL
+     */
     public PostHandler(final LdpRequest req, final String id, final File entity, final ResourceService resourceService,
             final IOService ioService, final BinaryService binaryService, final String baseUrl) {
         super(req, entity, resourceService, ioService, binaryService, baseUrl);
@@ -122,26 +158,25 @@ public class PostHandler extends ContentBearingHandler {
 
             // Add user-supplied data
             if (ldpType.equals(LDP.NonRDFSource)) {
-                // Check the expected digest value
-                final Digest digest = req.getDigest();
-                if (nonNull(digest) && !getDigestForEntity(digest).equals(digest.getDigest())) {
-                    return status(BAD_REQUEST);
-                }
-
                 final Map<String, String> metadata = singletonMap(CONTENT_TYPE, ofNullable(contentType)
                         .orElse(APPLICATION_OCTET_STREAM));
                 final IRI binaryLocation = rdf.createIRI(binaryService.getIdentifierSupplier(req.getPartition())
                         .get());
+
+                // Persist the content, checking the expected digest value
+                final Instant modified = now();
+                final Optional<Long> size = persistContent(binaryLocation, modified, metadata, req.getDigest());
+                if (!size.isPresent()) {
+                    return status(BAD_REQUEST);
+                }
+
                 dataset.add(rdf.createQuad(PreferServerManaged, internalId, DC.hasPart, binaryLocation));
                 dataset.add(rdf.createQuad(PreferServerManaged, binaryLocation, DC.modified,
-                            rdf.createLiteral(now().toString(), XSD.dateTime)));
+                            rdf.createLiteral(modified.toString(), XSD.dateTime)));
                 dataset.add(rdf.createQuad(PreferServerManaged, binaryLocation, DC.format,
                             rdf.createLiteral(ofNullable(contentType).orElse(APPLICATION_OCTET_STREAM))));
                 dataset.add(rdf.createQuad(PreferServerManaged, binaryLocation, DC.extent,
-                            rdf.createLiteral(Long.toString(entity.length()), XSD.long_)));
-
-                // Persist the content
-                persistContent(binaryLocation, metadata);
+                            rdf.createLiteral(Long.toString(size.get()), XSD.long_)));
             } else {
                 readEntityIntoDataset(identifier, baseUrl, PreferUserManaged, rdfSyntax.orElse(TURTLE), dataset);
 
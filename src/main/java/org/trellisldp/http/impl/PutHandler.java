@@ -26,7 +26,6 @@ import static javax.ws.rs.core.Response.Status.NO_CONTENT;
 import static javax.ws.rs.core.Response.Status.NOT_ACCEPTABLE;
 import static javax.ws.rs.core.Response.serverError;
 import static javax.ws.rs.core.Response.status;
-import static org.apache.commons.codec.digest.DigestUtils.md5Hex;
 import static org.slf4j.LoggerFactory.getLogger;
 import static org.trellisldp.api.RDFUtils.TRELLIS_PREFIX;
 import static org.trellisldp.http.domain.HttpConstants.ACL;
@@ -37,6 +36,7 @@ import static org.trellisldp.vocabulary.Trellis.PreferServerManaged;
 import static org.trellisldp.vocabulary.Trellis.PreferUserManaged;
 
 import java.io.File;
+import java.io.InputStream;
 import java.net.URI;
 import java.time.Instant;
 import java.util.List;
@@ -62,7 +62,7 @@ import org.trellisldp.api.BinaryService;
 import org.trellisldp.api.IOService;
 import org.trellisldp.api.ResourceService;
 import org.trellisldp.api.Session;
-import org.trellisldp.http.domain.Digest;
+import org.trellisldp.http.DigestCache;
 import org.trellisldp.http.domain.LdpRequest;
 import org.trellisldp.vocabulary.DC;
 import org.trellisldp.vocabulary.LDP;
@@ -87,6 +87,36 @@ public class PutHandler extends ContentBearingHandler {
      * @param binaryService the binary service
      * @param baseUrl the base URL
      */
+    public PutHandler(final LdpRequest req, final InputStream entity, final ResourceService resourceService,
+            final IOService ioService, final BinaryService binaryService, final String baseUrl) {
+        this(req, entity, resourceService, ioService, binaryService, baseUrl, null);
+    }
+
+    /**
+     * Create a builder for an LDP PUT response
+     * @param req the LDP request
+     * @param entity the entity
+     * @param resourceService the resource service
+     * @param ioService the serialization service
+     * @param binaryService the binary service
+     * @param baseUrl the base URL
+     * @param digestCache a cache for the digests of uploaded binaries, may be null
+     */
+    public PutHandler(final LdpRequest req, final InputStream entity, final ResourceService resourceService,
+            final IOService ioService, final BinaryService binaryService, final String baseUrl,
+            final DigestCache digestCache) {
+        super(req, entity, resourceService, ioService, binaryService, baseUrl, digestCache);
+    }
+
+    /**
+     * Create a builder for an LDP PUT response
+     * @param req the LDP request
+     * @param entity the entity, spooled to a file
+     * @param resourceService the resource service
+     * @param ioService the serialization service
+     * @param binaryService the binary service
+     * @param baseUrl the base URL
+     */
     public PutHandler(final LdpRequest req, final File entity, final ResourceService resourceService,
             final IOService ioService, final BinaryService binaryService, final String baseUrl) {
         super(req, entity, resourceService, ioService, binaryService, baseUrl);
@@ -100,10 +130,10 @@ public class PutHandler extends ContentBearingHandler {
         if (binaryModification.isPresent() &&
                 !ofNullable(req.getContentType()).flatMap(RDFSyntax::byMediaType).isPresent()) {
             modified = binaryModification.get();
-            etag = new EntityTag(md5Hex(modified + identifier));
+            etag = new EntityTag(etagGenerator.getValue(identifier, modified));
         } else {
             modified = res.getModified();
-            etag = new EntityTag(md5Hex(modified + identifier), true);
+            etag = new EntityTag(etagGenerator.getValue(identifier, modified), true);
         }
         // Check the cache
         checkCache(req.getRequest(), modified, etag);
@@ -188,26 +218,24 @@ public class PutHandler extends ContentBearingHandler {
                 checkConstraint(dataset, PreferUserManaged, ldpType, baseUrl, rdfSyntax.get());
 
             } else {
-                // Check the expected digest value
-                final Digest digest = req.getDigest();
-                if (nonNull(digest) && !getDigestForEntity(digest).equals(digest.getDigest())) {
-                    return status(BAD_REQUEST);
-                }
-
                 final Map<String, String> metadata = singletonMap(CONTENT_TYPE, ofNullable(req.getContentType())
                         .orElse(APPLICATION_OCTET_STREAM));
                 final IRI binaryLocation = rdf.createIRI(binaryService.getIdentifierSupplier(req.getPartition()).get());
 
-                // Persist the content
-                persistContent(binaryLocation, metadata);
+                // Persist the content, checking the expected digest value
+                final Instant modified = now();
+                final Optional<Long> size = persistContent(binaryLocation, modified, metadata, req.getDigest());
+                if (!size.isPresent()) {
+                    return status(BAD_REQUEST);
+                }
 
                 dataset.add(rdf.createQuad(PreferServerManaged, internalId, DC.hasPart, binaryLocation));
                 dataset.add(rdf.createQuad(PreferServerManaged, binaryLocation, DC.modified,
-                            rdf.createLiteral(now().toString(), XSD.dateTime)));
+                            rdf.createLiteral(modified.toString(), XSD.dateTime)));
                 dataset.add(rdf.createQuad(PreferServerManaged, binaryLocation, DC.format,
                             rdf.createLiteral(ofNullable(req.getContentType()).orElse(APPLICATION_OCTET_STREAM))));
                 dataset.add(rdf.createQuad(PreferServerManaged, binaryLocation, DC.extent,
-                            rdf.createLiteral(Long.toString(entity.length()), XSD.long_)));
+                            rdf.createLiteral(Long.toString(size.get()), XSD.long_)));
             }
 
             if (nonNull(res)) {
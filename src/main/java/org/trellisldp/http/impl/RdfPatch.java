@@ -0,0 +1,145 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.unmodifiableSet;
+import static java.util.Objects.nonNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.ws.rs.BadRequestException;
+
+import org.apache.commons.rdf.api.BlankNode;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.api.Triple;
+
+/**
+ * An RDF Patch document, reduced to the set of triples that it removes and the set of triples that it adds.
+ *
+ * <p>The document is read row by row from a stream, so the request body is never held in memory as a whole.
+ * {@code A} and {@code D} rows add and delete a triple, {@code PA} and {@code PD} rows declare and remove
+ * prefixes, and the changes between {@code TX} and {@code TA} rows are discarded. Header rows are ignored.
+ * Relative IRIs other than {@code <>} and {@code <#fragment>} are not accepted, nor are quads or blank
+ * nodes in a {@code D} row. A document that cannot be read results in a {@link BadRequestException}.
+ *
+ * @author acoburn
+ */
+public final class RdfPatch {
+
+    private final Set<Triple> deletions = new LinkedHashSet<>();
+    private final Set<Triple> additions = new LinkedHashSet<>();
+
+    private RdfPatch() {
+        // Created by the read method
+    }
+
+    /**
+     * Get the triples removed by the patch
+     * @return the removed triples
+     */
+    public Set<Triple> getDeletions() {
+        return unmodifiableSet(deletions);
+    }
+
+    /**
+     * Get the triples added by the patch
+     * @return the added triples
+     */
+    public Set<Triple> getAdditions() {
+        return unmodifiableSet(additions);
+    }
+
+    /**
+     * Read an RDF Patch document
+     * @param input the document
+     * @param base the base IRI
+     * @return the patch
+     * @throws BadRequestException if the document is not a valid RDF Patch
+     */
+    public static RdfPatch read(final InputStream input, final String base) {
+        final RdfPatch patch = new RdfPatch();
+        final RdfPatch transaction = new RdfPatch();
+        final TermReader reader = new TermReader(new BufferedReader(new InputStreamReader(input, UTF_8)), base,
+                new HashMap<>(), true);
+        boolean inTransaction = false;
+        try {
+            String code;
+            while (nonNull(code = reader.readCode())) {
+                if ("H".equals(code)) {
+                    reader.skipRow();
+                } else if ("TX".equals(code) && !inTransaction) {
+                    reader.readRow(0);
+                    inTransaction = true;
+                } else if ("TC".equals(code) && inTransaction) {
+                    reader.readRow(0);
+                    patch.apply(transaction);
+                    inTransaction = false;
+                } else if ("TA".equals(code) && inTransaction) {
+                    reader.readRow(0);
+                    transaction.deletions.clear();
+                    transaction.additions.clear();
+                    inTransaction = false;
+                } else if ("PA".equals(code)) {
+                    final String prefix = reader.readPrefix();
+                    final RDFTerm namespace = reader.readRow(1).get(0);
+                    if (!(namespace instanceof IRI)) {
+                        throw new BadRequestException("Invalid RDF Patch prefix: " + namespace);
+                    }
+                    reader.setPrefix(prefix, ((IRI) namespace).getIRIString());
+                } else if ("PD".equals(code)) {
+                    final String prefix = reader.readPrefix();
+                    reader.readRow(0);
+                    reader.setPrefix(prefix, null);
+                } else if ("A".equals(code) || "D".equals(code)) {
+                    final Triple triple = reader.readTriple();
+                    final RdfPatch target = inTransaction ? transaction : patch;
+                    if ("A".equals(code)) {
+                        target.deletions.remove(triple);
+                        target.additions.add(triple);
+                    } else if (triple.getSubject() instanceof BlankNode || triple.getObject() instanceof BlankNode) {
+                        throw new BadRequestException("Blank nodes cannot be deleted with RDF Patch");
+                    } else {
+                        target.additions.remove(triple);
+                        target.deletions.add(triple);
+                    }
+                } else {
+                    throw new BadRequestException("Unexpected RDF Patch row: " + code);
+                }
+            }
+        } catch (final IOException ex) {
+            throw new BadRequestException("Unable to read RDF Patch: " + ex.getMessage(), ex);
+        }
+        if (inTransaction) {
+            throw new BadRequestException("Unterminated RDF Patch transaction");
+        }
+        return patch;
+    }
+
+    private void apply(final RdfPatch transaction) {
+        deletions.removeAll(transaction.additions);
+        additions.addAll(transaction.additions);
+        additions.removeAll(transaction.deletions);
+        deletions.addAll(transaction.deletions);
+        transaction.deletions.clear();
+        transaction.additions.clear();
+    }
+}
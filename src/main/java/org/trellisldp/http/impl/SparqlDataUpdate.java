@@ -0,0 +1,269 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.unmodifiableSet;
+import static java.util.Objects.isNull;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static java.util.stream.Collectors.toList;
+import static org.apache.commons.rdf.api.RDFSyntax.TURTLE;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.ByteArrayInputStream;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.apache.commons.rdf.api.BlankNode;
+import org.apache.commons.rdf.api.Triple;
+import org.slf4j.Logger;
+
+import org.trellisldp.api.IOService;
+
+/**
+ * A SPARQL Update request that consists only of {@code INSERT DATA} and {@code DELETE DATA} operations,
+ * reduced to the set of triples that it removes and the set of triples that it adds.
+ *
+ * <p>The update is read with a simple scanner: {@code PREFIX} and {@code BASE} declarations are kept, and
+ * the content of each data block is parsed as Turtle with the serialization service. Any other operation,
+ * a {@code GRAPH} block, a blank node in a {@code DELETE DATA} block or data that cannot be parsed means
+ * that the update is not handled here, so that it can be executed as a complete SPARQL Update instead.
+ *
+ * @author acoburn
+ */
+public final class SparqlDataUpdate {
+
+    private static final Logger LOGGER = getLogger(SparqlDataUpdate.class);
+
+    private final Set<Triple> deletions = new LinkedHashSet<>();
+    private final Set<Triple> additions = new LinkedHashSet<>();
+
+    private SparqlDataUpdate() {
+        // Created by the parse method
+    }
+
+    /**
+     * Get the triples removed by the update
+     * @return the removed triples
+     */
+    public Set<Triple> getDeletions() {
+        return unmodifiableSet(deletions);
+    }
+
+    /**
+     * Get the triples added by the update
+     * @return the added triples
+     */
+    public Set<Triple> getAdditions() {
+        return unmodifiableSet(additions);
+    }
+
+    /**
+     * Read a SPARQL Update request that consists only of data operations
+     * @param ioService the serialization service
+     * @param sparqlUpdate the SPARQL Update request
+     * @param base the base IRI
+     * @return the data update, if the request consists only of data operations
+     */
+    public static Optional<SparqlDataUpdate> parse(final IOService ioService, final String sparqlUpdate,
+            final String base) {
+        final Scanner scanner = new Scanner(sparqlUpdate);
+        final StringBuilder prologue = new StringBuilder();
+        final SparqlDataUpdate update = new SparqlDataUpdate();
+        while (scanner.skipWhitespace()) {
+            if (scanner.consume(';')) {
+                continue;
+            }
+            final String keyword = scanner.readWord().toUpperCase(Locale.ROOT);
+            if ("PREFIX".equals(keyword)) {
+                final String prefix = scanner.readPrefix();
+                final String iri = scanner.readIRI();
+                if (isNull(prefix) || isNull(iri)) {
+                    return empty();
+                }
+                prologue.append("@prefix ").append(prefix).append(' ').append(iri).append(" .\n");
+            } else if ("BASE".equals(keyword)) {
+                final String iri = scanner.readIRI();
+                if (isNull(iri)) {
+                    return empty();
+                }
+                prologue.append("@base ").append(iri).append(" .\n");
+            } else if (("INSERT".equals(keyword) || "DELETE".equals(keyword))
+                    && "DATA".equalsIgnoreCase(scanner.readWord())) {
+                final String block = scanner.readBlock();
+                if (isNull(block)) {
+                    return empty();
+                }
+                final Optional<List<Triple>> triples = read(ioService, prologue + block, base);
+                if (!triples.isPresent()) {
+                    return empty();
+                }
+                if ("INSERT".equals(keyword)) {
+                    update.deletions.removeAll(triples.get());
+                    update.additions.addAll(triples.get());
+                } else if (triples.get().stream().anyMatch(SparqlDataUpdate::hasBlankNode)) {
+                    return empty();
+                } else {
+                    update.additions.removeAll(triples.get());
+                    update.deletions.addAll(triples.get());
+                }
+            } else {
+                return empty();
+            }
+        }
+        return of(update);
+    }
+
+    private static Optional<List<Triple>> read(final IOService ioService, final String turtle, final String base) {
+        try (final Stream<? extends Triple> triples = ioService.read(new ByteArrayInputStream(turtle.getBytes(UTF_8)),
+                    base, TURTLE)) {
+            return of(triples.collect(toList()));
+        } catch (final RuntimeException ex) {
+            LOGGER.debug("Unable to read SPARQL Update data as Turtle: {}", ex.getMessage());
+            return empty();
+        }
+    }
+
+    private static boolean hasBlankNode(final Triple triple) {
+        return triple.getSubject() instanceof BlankNode || triple.getObject() instanceof BlankNode;
+    }
+
+    /**
+     * A scanner for the tokens of a SPARQL Update request.
+     */
+    private static final class Scanner {
+
+        private final String input;
+        private int pos = 0;
+
+        private Scanner(final String input) {
+            this.input = input;
+        }
+
+        // Skips whitespace and comments, returning whether any input remains
+        private boolean skipWhitespace() {
+            while (pos < input.length()) {
+                final char c = input.charAt(pos);
+                if (c == '#') {
+                    while (pos < input.length() && input.charAt(pos) != '\n') {
+                        pos++;
+                    }
+                } else if (Character.isWhitespace(c)) {
+                    pos++;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean consume(final char c) {
+            if (pos < input.length() && input.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private String readWord() {
+            skipWhitespace();
+            final int start = pos;
+            while (pos < input.length() && Character.isLetter(input.charAt(pos))) {
+                pos++;
+            }
+            return input.substring(start, pos);
+        }
+
+        private String readPrefix() {
+            skipWhitespace();
+            final int start = pos;
+            while (pos < input.length() && input.charAt(pos) != ':' && !Character.isWhitespace(input.charAt(pos))) {
+                pos++;
+            }
+            return consume(':') ? input.substring(start, pos) : null;
+        }
+
+        private String readIRI() {
+            skipWhitespace();
+            final int end = input.indexOf('>', pos);
+            if (!consume('<') || end < 0) {
+                return null;
+            }
+            final String iri = input.substring(pos - 1, end + 1);
+            pos = end + 1;
+            return iri;
+        }
+
+        // Reads the content of a data block, without comments, or null for a nested or unterminated block
+        private String readBlock() {
+            skipWhitespace();
+            if (!consume('{')) {
+                return null;
+            }
+            final StringBuilder block = new StringBuilder();
+            while (pos < input.length()) {
+                final char c = input.charAt(pos);
+                if (c == '}') {
+                    pos++;
+                    final String content = block.toString().trim();
+                    return content.isEmpty() || content.endsWith(".") ? content : content + "\n.";
+                } else if (c == '{') {
+                    return null;
+                } else if (c == '#') {
+                    skipWhitespace();
+                    block.append('\n');
+                } else if (c == '<') {
+                    final int end = input.indexOf('>', pos);
+                    if (end < 0) {
+                        return null;
+                    }
+                    block.append(input, pos, end + 1);
+                    pos = end + 1;
+                } else if (c == '"' || c == '\'') {
+                    if (!readString(c, block)) {
+                        return null;
+                    }
+                } else {
+                    block.append(c);
+                    pos++;
+                }
+            }
+            return null;
+        }
+
+        private boolean readString(final char quote, final StringBuilder block) {
+            final String delimiter = input.startsWith(new String(new char[]{quote, quote, quote}), pos) ?
+                new String(new char[]{quote, quote, quote}) : String.valueOf(quote);
+            final int start = pos;
+            pos += delimiter.length();
+            while (pos < input.length()) {
+                if (input.charAt(pos) == '\\') {
+                    pos += 2;
+                } else if (input.startsWith(delimiter, pos)) {
+                    pos += delimiter.length();
+                    block.append(input, start, pos);
+                    return true;
+                } else {
+                    pos++;
+                }
+            }
+            return false;
+        }
+    }
+}
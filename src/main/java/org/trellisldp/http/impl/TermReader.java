@@ -0,0 +1,359 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http.impl;
+
+import static java.util.Objects.isNull;
+import static org.trellisldp.api.RDFUtils.getInstance;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import javax.ws.rs.BadRequestException;
+
+import org.apache.commons.rdf.api.BlankNode;
+import org.apache.commons.rdf.api.BlankNodeOrIRI;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDF;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.api.Triple;
+
+import org.trellisldp.vocabulary.XSD;
+
+/**
+ * A reader for the dot-terminated rows of terms used by N-Triples and RDF Patch.
+ *
+ * <p>Blank node labels are mapped to blank nodes through the map that is passed to the reader, so that
+ * readers that share a map also share their blank nodes. The abbreviated forms of Turtle (prefixed names,
+ * booleans and numbers) are only read when the reader is created to allow them. Errors in the input result in
+ * a {@link BadRequestException}.
+ *
+ * @author acoburn
+ */
+final class TermReader {
+
+    private static final RDF rdf = getInstance();
+    private static final IRI END = rdf.createIRI("urn:x-end-of-row");
+    private static final Pattern INTEGER = Pattern.compile("[+-]?\\d+");
+    private static final Pattern DECIMAL = Pattern.compile("[+-]?\\d*\\.\\d+");
+    private static final Pattern SCHEME = Pattern.compile("[A-Za-z][A-Za-z0-9+.-]*:");
+    private static final String INVALID_IRI_CHARACTERS = "<\"{}|^`";
+
+    private final Reader reader;
+    private final String base;
+    private final Map<String, BlankNode> bnodes;
+    private final Map<String, String> prefixes = new HashMap<>();
+    private final boolean abbreviations;
+    private int next = -2;
+    private boolean endOfRow = false;
+
+    /**
+     * Create a term reader
+     * @param reader the input
+     * @param base the base IRI
+     * @param bnodes the blank nodes, by label
+     * @param abbreviations whether to read prefixed names, booleans and numbers, as in Turtle
+     */
+    TermReader(final Reader reader, final String base, final Map<String, BlankNode> bnodes,
+            final boolean abbreviations) {
+        this.reader = reader;
+        this.base = base;
+        this.bnodes = bnodes;
+        this.abbreviations = abbreviations;
+    }
+
+    /**
+     * Define or remove a prefix
+     * @param prefix the prefix
+     * @param namespace the namespace, or null to remove the prefix
+     */
+    void setPrefix(final String prefix, final String namespace) {
+        if (isNull(namespace)) {
+            prefixes.remove(prefix);
+        } else {
+            prefixes.put(prefix, namespace);
+        }
+    }
+
+    /**
+     * Skip whitespace and comments
+     * @return whether any input remains
+     * @throws IOException if the input could not be read
+     */
+    boolean skipWhitespace() throws IOException {
+        while (peek() >= 0) {
+            if (peek() == '#') {
+                while (peek() >= 0 && peek() != '\n') {
+                    read();
+                }
+            } else if (Character.isWhitespace(peek())) {
+                read();
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Read the code at the start of a row
+     * @return the code, or null at the end of the input
+     * @throws IOException if the input could not be read
+     */
+    String readCode() throws IOException {
+        return skipWhitespace() ? readWord() : null;
+    }
+
+    /**
+     * Read a prefix, without any trailing colon
+     * @return the prefix
+     * @throws IOException if the input could not be read
+     */
+    String readPrefix() throws IOException {
+        final String prefix = readWord();
+        return prefix.endsWith(":") ? prefix.substring(0, prefix.length() - 1) : prefix;
+    }
+
+    /**
+     * Read a header row, whose name and value are not used
+     * @throws IOException if the input could not be read
+     */
+    void skipRow() throws IOException {
+        readWord();
+        readRow(1);
+    }
+
+    /**
+     * Read a triple, through the terminating dot
+     * @return the triple
+     * @throws IOException if the input could not be read
+     */
+    Triple readTriple() throws IOException {
+        final List<RDFTerm> terms = readRow(3);
+        if (!(terms.get(0) instanceof BlankNodeOrIRI) || !(terms.get(1) instanceof IRI)) {
+            throw new BadRequestException("Invalid triple: " + terms);
+        }
+        return rdf.createTriple((BlankNodeOrIRI) terms.get(0), (IRI) terms.get(1), terms.get(2));
+    }
+
+    /**
+     * Read the terms of a row, through the terminating dot
+     * @param size the expected number of terms
+     * @return the terms
+     * @throws IOException if the input could not be read
+     */
+    List<RDFTerm> readRow(final int size) throws IOException {
+        final List<RDFTerm> terms = new ArrayList<>(size);
+        RDFTerm term;
+        while ((term = readTerm()) != END) {
+            terms.add(term);
+        }
+        if (terms.size() != size) {
+            throw new BadRequestException("Expected " + size + " terms in a row, found: " + terms);
+        }
+        return terms;
+    }
+
+    private int peek() throws IOException {
+        if (next == -2) {
+            next = reader.read();
+        }
+        return next;
+    }
+
+    private int read() throws IOException {
+        final int c = peek();
+        next = -2;
+        return c;
+    }
+
+    private String readWord() throws IOException {
+        skipWhitespace();
+        final StringBuilder word = new StringBuilder();
+        while (peek() >= 0 && !Character.isWhitespace(peek()) && peek() != '<' && peek() != '"') {
+            word.append((char) read());
+        }
+        if (word.length() == 0) {
+            throw new BadRequestException("Unexpected end of row");
+        }
+        return word.toString();
+    }
+
+    /**
+     * Read a word that ends a term. A trailing dot is not part of a blank node label, a prefixed name or a
+     * number, so it is kept as the end of the row.
+     */
+    private String readTermWord() throws IOException {
+        final String word = readWord();
+        if (word.length() > 1 && word.endsWith(".")) {
+            endOfRow = true;
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+
+    private RDFTerm readTerm() throws IOException {
+        if (endOfRow) {
+            endOfRow = false;
+            return END;
+        } else if (!skipWhitespace()) {
+            throw new BadRequestException("Unterminated row");
+        }
+        if (peek() == '<') {
+            read();
+            return readIRI();
+        } else if (peek() == '"') {
+            read();
+            return readLiteral();
+        }
+        final String word = readTermWord();
+        if (".".equals(word)) {
+            return END;
+        } else if (word.startsWith("_:")) {
+            return readBlankNode(word.substring(2));
+        } else if (!abbreviations) {
+            throw new BadRequestException("Unknown term: " + word);
+        } else if ("true".equals(word) || "false".equals(word)) {
+            return rdf.createLiteral(word, XSD.boolean_);
+        } else if (INTEGER.matcher(word).matches()) {
+            return rdf.createLiteral(word, XSD.integer);
+        } else if (DECIMAL.matcher(word).matches()) {
+            return rdf.createLiteral(word, XSD.decimal);
+        }
+        return readPrefixedName(word);
+    }
+
+    private BlankNode readBlankNode(final String label) {
+        if (label.isEmpty() || !(label.charAt(0) == '_' || Character.isLetterOrDigit(label.charAt(0))) ||
+                label.endsWith(".") ||
+                !label.codePoints().allMatch(c -> c == '.' || c == '-' || c == '_' || c == '\u00B7' ||
+                    Character.isLetterOrDigit(c))) {
+            throw new BadRequestException("Invalid blank node label: " + label);
+        }
+        return bnodes.computeIfAbsent(label, l -> rdf.createBlankNode());
+    }
+
+    private IRI readPrefixedName(final String word) {
+        if (!abbreviations) {
+            throw new BadRequestException("Unknown term: " + word);
+        }
+        final int colon = word.indexOf(':');
+        final String namespace = colon >= 0 ? prefixes.get(word.substring(0, colon)) : null;
+        if (isNull(namespace)) {
+            throw new BadRequestException("Unknown term: " + word);
+        }
+        return rdf.createIRI(namespace + word.substring(colon + 1));
+    }
+
+    private IRI readIRI() throws IOException {
+        final StringBuilder iri = new StringBuilder();
+        int c;
+        while ((c = read()) != '>') {
+            if (c < 0 || c == '\n') {
+                throw new BadRequestException("Unterminated IRI");
+            } else if (c <= ' ' || INVALID_IRI_CHARACTERS.indexOf(c) >= 0) {
+                throw new BadRequestException("Invalid character in IRI: " + iri.appendCodePoint(c));
+            } else if (c == '\\') {
+                iri.appendCodePoint(readEscape(read()));
+            } else {
+                iri.append((char) c);
+            }
+        }
+        return resolve(iri.toString());
+    }
+
+    private IRI resolve(final String iri) {
+        if (iri.isEmpty()) {
+            return rdf.createIRI(base);
+        } else if (iri.startsWith("#")) {
+            return rdf.createIRI(base + iri);
+        } else if (!SCHEME.matcher(iri).lookingAt()) {
+            throw new BadRequestException("Relative IRIs are not supported: " + iri);
+        }
+        try {
+            return rdf.createIRI(iri);
+        } catch (final IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid IRI: " + iri, ex);
+        }
+    }
+
+    private RDFTerm readLiteral() throws IOException {
+        final StringBuilder value = new StringBuilder();
+        int c;
+        while ((c = read()) != '"') {
+            if (c < 0 || c == '\n' || c == '\r') {
+                throw new BadRequestException("Unterminated literal");
+            } else if (c == '\\') {
+                value.appendCodePoint(readEscape(read()));
+            } else {
+                value.append((char) c);
+            }
+        }
+        if (peek() == '@') {
+            read();
+            final StringBuilder lang = new StringBuilder();
+            while (peek() >= 0 && (Character.isLetterOrDigit(peek()) || peek() == '-')) {
+                lang.append((char) read());
+            }
+            return rdf.createLiteral(value.toString(), lang.toString());
+        } else if (peek() == '^') {
+            read();
+            if (read() != '^') {
+                throw new BadRequestException("Invalid literal datatype");
+            }
+            if (peek() == '<') {
+                read();
+                return rdf.createLiteral(value.toString(), readIRI());
+            }
+            return rdf.createLiteral(value.toString(), readPrefixedName(readTermWord()));
+        }
+        return rdf.createLiteral(value.toString());
+    }
+
+    private int readEscape(final int c) throws IOException {
+        switch (c) {
+            case 't': return '\t';
+            case 'b': return '\b';
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 'f': return '\f';
+            case '"': return '"';
+            case '\'': return '\'';
+            case '\\': return '\\';
+            case 'u': return readHex(4);
+            case 'U': return readHex(8);
+            default:
+                throw new BadRequestException("Invalid escape sequence");
+        }
+    }
+
+    private int readHex(final int length) throws IOException {
+        long codePoint = 0;
+        for (int i = 0; i < length; i++) {
+            final int digit = Character.digit(read(), 16);
+            if (digit < 0) {
+                throw new BadRequestException("Invalid escape sequence");
+            }
+            codePoint = codePoint * 16 + digit;
+        }
+        if (codePoint > Character.MAX_CODE_POINT) {
+            throw new BadRequestException("Invalid code point in escape sequence: " + codePoint);
+        }
+        return (int) codePoint;
+    }
+}
@@ -14,7 +14,6 @@
 package org.trellisldp.http.impl;
 
 import static org.slf4j.LoggerFactory.getLogger;
-import static org.trellisldp.api.RDFUtils.getInstance;
 
 import java.util.Optional;
 
@@ -79,10 +78,11 @@ public class TrellisDataset implements AutoCloseable {
     }
 
     /**
-     * Create a new dataset
+     * Create a new dataset for the quads of a write operation
      * @return a dataset
+     * @see CompactDataset
      */
     public static TrellisDataset createDataset() {
-        return new TrellisDataset(getInstance().createDataset());
+        return new TrellisDataset(new CompactDataset());
     }
 }
@@ -0,0 +1,192 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http.impl;
+
+import static java.lang.String.join;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.nonNull;
+import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.toList;
+import static org.trellisldp.api.RDFUtils.getInstance;
+import static org.trellisldp.http.domain.HttpConstants.DEFAULT_PAGE_SIZE;
+import static org.trellisldp.http.domain.HttpConstants.MAX_PAGE_SIZE;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.core.Link;
+
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDF;
+import org.apache.commons.rdf.api.Triple;
+
+import org.trellisldp.http.domain.LdpRequest;
+import org.trellisldp.http.domain.Prefer;
+import org.trellisldp.vocabulary.XSD;
+
+/**
+ * A single page of an RDF response, selected with the {@code page} and {@code pageSize} query parameters
+ * or requested with a {@code max-triple-count} preference, as in LDP Paging.
+ *
+ * <p>Pages are numbered from 1 and are offsets into the response triples. Since the graphs of a resource
+ * are always read in the same order, page boundaries are stable as long as the resource is unchanged.
+ * Each page carries {@code first}, {@code prev} and {@code next} links, along with Hydra paging metadata
+ * in the response body.
+ *
+ * @author acoburn
+ */
+final class TriplePage {
+
+    private static final RDF rdf = getInstance();
+
+    private static final String HYDRA = "http://www.w3.org/ns/hydra/core#";
+    private static final IRI hydraFirst = rdf.createIRI(HYDRA + "first");
+    private static final IRI hydraNext = rdf.createIRI(HYDRA + "next");
+    private static final IRI hydraPrevious = rdf.createIRI(HYDRA + "previous");
+    private static final IRI hydraItemsPerPage = rdf.createIRI(HYDRA + "itemsPerPage");
+    private static final IRI hydraTotalItems = rdf.createIRI(HYDRA + "totalItems");
+    private static final IRI voidTriples = rdf.createIRI("http://rdfs.org/ns/void#triples");
+
+    private final String identifier;
+    private final List<String> query = new ArrayList<>();
+    private final int page;
+    private final int size;
+
+    private boolean hasNext = false;
+
+    /**
+     * Create a page for a request
+     * @param identifier the resource URL
+     * @param req the LDP request
+     * @param prefer the Prefer header, may be null
+     * @throws BadRequestException if the page or page size is not a number or is out of range
+     */
+    TriplePage(final String identifier, final LdpRequest req, final Prefer prefer) {
+        this.identifier = identifier;
+        this.page = ofNullable(req.getPage()).map(TriplePage::parse).orElse(1);
+        this.size = ofNullable(req.getPageSize()).map(TriplePage::parse).orElseGet(() -> ofNullable(prefer)
+                .flatMap(Prefer::getMaxTripleCount).map(max -> Math.min(max, MAX_PAGE_SIZE))
+                .orElse(DEFAULT_PAGE_SIZE));
+        if (page < 1 || this.size < 1 || this.size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Invalid page or pageSize: the page must be at least 1 and the page "
+                    + "size between 1 and " + MAX_PAGE_SIZE);
+        }
+        addParameter("ext", req.getExt());
+        addParameter("subject", req.getSubject());
+        addParameter("predicate", req.getPredicate());
+        addParameter("object", req.getObject());
+    }
+
+    private static Integer parse(final String value) {
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (final NumberFormatException ex) {
+            throw new BadRequestException("Invalid page or pageSize: " + value, ex);
+        }
+    }
+
+    /**
+     * Check whether a request asks for a page
+     * @param req the LDP request
+     * @param prefer the Prefer header, may be null
+     * @return true if the request includes paging parameters or a paging preference
+     */
+    static boolean isPaged(final LdpRequest req, final Prefer prefer) {
+        return nonNull(req.getPage()) || nonNull(req.getPageSize())
+            || ofNullable(prefer).flatMap(Prefer::getMaxTripleCount).isPresent();
+    }
+
+    /**
+     * Select the triples of this page. Only the page itself, and one triple beyond it, are read.
+     * @param triples the complete stream of triples
+     * @return the triples in this page
+     */
+    List<Triple> select(final Stream<Triple> triples) {
+        final List<Triple> selected = triples.skip((page - 1L) * size).limit(size + 1L).collect(toList());
+        hasNext = selected.size() > size;
+        return hasNext ? selected.subList(0, size) : selected;
+    }
+
+    /**
+     * Get a key that distinguishes this page from other views of the same resource
+     * @return the key
+     */
+    String getKey() {
+        return getUrl(page);
+    }
+
+    /**
+     * Get the paging links
+     * @return the links
+     */
+    Stream<Link> getLinks() {
+        final List<Link> links = new ArrayList<>();
+        links.add(Link.fromUri(getUrl(1)).rel("first").build());
+        if (page > 1) {
+            links.add(Link.fromUri(getUrl(page - 1)).rel("prev").build());
+        }
+        if (hasNext) {
+            links.add(Link.fromUri(getUrl(page + 1)).rel("next").build());
+        }
+        return links.stream();
+    }
+
+    /**
+     * Get the Hydra paging metadata
+     * @param estimate the estimated total number of triples, if known
+     * @return the metadata triples
+     */
+    Stream<Triple> getMetadata(final Optional<Long> estimate) {
+        final IRI fragment = rdf.createIRI(getUrl(page));
+        final List<Triple> metadata = new ArrayList<>();
+        metadata.add(rdf.createTriple(fragment, hydraItemsPerPage, rdf.createLiteral(Integer.toString(size),
+                        XSD.integer)));
+        metadata.add(rdf.createTriple(fragment, hydraFirst, rdf.createIRI(getUrl(1))));
+        if (page > 1) {
+            metadata.add(rdf.createTriple(fragment, hydraPrevious, rdf.createIRI(getUrl(page - 1))));
+        }
+        if (hasNext) {
+            metadata.add(rdf.createTriple(fragment, hydraNext, rdf.createIRI(getUrl(page + 1))));
+        }
+        estimate.ifPresent(count -> {
+            metadata.add(rdf.createTriple(fragment, hydraTotalItems, rdf.createLiteral(Long.toString(count),
+                            XSD.integer)));
+            metadata.add(rdf.createTriple(fragment, voidTriples, rdf.createLiteral(Long.toString(count),
+                            XSD.integer)));
+        });
+        return metadata.stream();
+    }
+
+    private String getUrl(final int number) {
+        final List<String> params = new ArrayList<>(query);
+        params.add("page=" + number);
+        params.add("pageSize=" + size);
+        return identifier + "?" + join("&", params);
+    }
+
+    private void addParameter(final String name, final String value) {
+        if (nonNull(value) && !value.isEmpty()) {
+            try {
+                query.add(name + "=" + URLEncoder.encode(value, UTF_8.name()));
+            } catch (final UnsupportedEncodingException ex) {
+                throw new IllegalStateException("UTF-8 is not supported", ex);
+            }
+        }
+    }
+}
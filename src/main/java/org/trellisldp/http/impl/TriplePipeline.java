@@ -0,0 +1,221 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http.impl;
+
+import static java.util.Arrays.asList;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static java.util.Optional.ofNullable;
+import static org.trellisldp.api.RDFUtils.getInstance;
+import static org.trellisldp.http.domain.HttpConstants.DEFAULT_REPRESENTATION;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.apache.commons.rdf.api.BlankNodeOrIRI;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.Literal;
+import org.apache.commons.rdf.api.Quad;
+import org.apache.commons.rdf.api.RDF;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.api.Triple;
+import org.apache.commons.rdf.api.TripleLike;
+
+import org.trellisldp.api.Resource;
+import org.trellisldp.api.ResourceService;
+import org.trellisldp.http.IndexedResource;
+import org.trellisldp.http.domain.Prefer;
+
+/**
+ * A per-request pipeline that converts the quads of a resource into the triples of an RDF response.
+ *
+ * <p>This is equivalent to applying {@link RdfUtils#filterWithPrefer}, {@link RdfUtils#unskolemizeQuads},
+ * {@link RdfUtils#filterWithLDF} and {@link Quad#asTriple} in sequence, but the graph selection is
+ * computed once per request, the predicate and literal LDF patterns are checked before any term is
+ * converted and each selected quad produces a single {@link Triple}. Since consecutive quads usually
+ * share a subject, the most recently converted subject is reused.
+ *
+ * <p>When the resource is an {@link IndexedResource}, the subject and predicate patterns are passed down
+ * to the resource and only the object pattern is checked here. Note that a pushed-down subject
+ * pattern matches that subject exactly, whereas the filter also lets blank node subjects through.
+ *
+ * <p>A pipeline holds per-request state and is applied to a single, sequential stream.
+ *
+ * @author acoburn
+ */
+public final class TriplePipeline {
+
+    private static final RDF rdf = getInstance();
+
+    private final ResourceService resourceService;
+    private final String baseUrl;
+    private final IRI[] graphs;
+    private final String subject;
+    private final String predicate;
+    private final String object;
+    private final IRI subjectIRI;
+    private final IRI predicateIRI;
+
+    private RDFTerm lastSubject;
+    private BlankNodeOrIRI lastExternalSubject;
+
+    /**
+     * Create a triple pipeline
+     * @param resourceService the resource service
+     * @param baseUrl the base URL
+     * @param prefer the Prefer header, may be null
+     * @param subject the LDF subject, may be null
+     * @param predicate the LDF predicate, may be null
+     * @param object the LDF object, may be null
+     */
+    public TriplePipeline(final ResourceService resourceService, final String baseUrl, final Prefer prefer,
+            final String subject, final String predicate, final String object) {
+        this.resourceService = resourceService;
+        this.baseUrl = baseUrl;
+        this.graphs = getGraphs(prefer);
+        this.subject = emptyToNull(subject);
+        this.predicate = emptyToNull(predicate);
+        this.object = emptyToNull(object);
+        this.subjectIRI = toIRI(this.subject).map(iri -> resourceService.toInternal(iri, baseUrl))
+            .filter(IRI.class::isInstance).map(IRI.class::cast).orElse(null);
+        this.predicateIRI = toIRI(this.predicate).orElse(null);
+    }
+
+    /**
+     * Get the graphs selected by a Prefer header. Included values that are not valid IRIs are ignored.
+     * @param prefer the Prefer header, may be null
+     * @return the graph names
+     */
+    public static IRI[] getGraphs(final Prefer prefer) {
+        final Set<String> include = new HashSet<>(DEFAULT_REPRESENTATION);
+        ofNullable(prefer).ifPresent(p -> {
+            p.getOmit().forEach(include::remove);
+            p.getInclude().forEach(include::add);
+        });
+        return include.stream().sorted().map(TriplePipeline::toIRI).filter(Optional::isPresent).map(Optional::get)
+            .toArray(IRI[]::new);
+    }
+
+    /**
+     * Apply the pipeline to the selected graphs of a resource. An {@link IndexedResource} is read one graph
+     * at a time, so graphs that are not part of the response are never read; any other resource is read in
+     * a single pass over all of the selected graphs.
+     * @param resource the resource
+     * @return the selected triples, in their external form
+     */
+    public Stream<Triple> apply(final Resource resource) {
+        if (resource instanceof IndexedResource) {
+            final IndexedResource indexed = (IndexedResource) resource;
+            if (nonNull(subjectIRI) || nonNull(predicateIRI)) {
+                return complete(Stream.of(graphs).<TripleLike>flatMap(graph ->
+                            indexed.stream(graph, subjectIRI, predicateIRI)));
+            }
+            return complete(Stream.of(graphs).<TripleLike>flatMap(indexed::stream));
+        }
+        return complete(resource.stream(asList(graphs)));
+    }
+
+    /**
+     * Estimate the number of triples that the pipeline would produce for a resource
+     * @param resource the resource
+     * @return the estimated number of triples, if the resource can provide an estimate
+     */
+    public Optional<Long> estimateSize(final Resource resource) {
+        if (resource instanceof IndexedResource) {
+            final IndexedResource indexed = (IndexedResource) resource;
+            long total = 0L;
+            for (final IRI graph : graphs) {
+                final Optional<Long> size = indexed.estimateSize(graph, subjectIRI, predicateIRI);
+                if (!size.isPresent()) {
+                    return empty();
+                }
+                total += size.get();
+            }
+            return of(total);
+        }
+        return empty();
+    }
+
+    /**
+     * Apply the pipeline to a stream of quads
+     * @param quads the quads
+     * @return the selected triples, in their external form
+     */
+    public Stream<Triple> apply(final Stream<? extends Quad> quads) {
+        return complete(quads.filter(quad -> quad.getGraphName().filter(this::isSelected).isPresent()));
+    }
+
+    private Stream<Triple> complete(final Stream<? extends TripleLike> stream) {
+        final Stream<Triple> triples = stream.sequential().filter(this::select).map(this::convert);
+        if (nonNull(subject) || nonNull(object)) {
+            return triples.filter(this::matches);
+        }
+        return triples;
+    }
+
+    private boolean select(final TripleLike triple) {
+        return (isNull(predicate) || predicate.equals(((IRI) triple.getPredicate()).getIRIString()))
+            && !(nonNull(object) && triple.getObject() instanceof Literal
+                && !object.equals(((Literal) triple.getObject()).getLexicalForm()));
+    }
+
+    private boolean isSelected(final RDFTerm graphName) {
+        for (final IRI graph : graphs) {
+            if (graph == graphName || graph.equals(graphName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Triple convert(final TripleLike triple) {
+        final RDFTerm subj = triple.getSubject();
+        if (!subj.equals(lastSubject)) {
+            lastSubject = subj;
+            lastExternalSubject = (BlankNodeOrIRI) external(subj);
+        }
+        return rdf.createTriple(lastExternalSubject, (IRI) triple.getPredicate(), external(triple.getObject()));
+    }
+
+    private RDFTerm external(final RDFTerm term) {
+        if (term instanceof IRI) {
+            return resourceService.toExternal(resourceService.unskolemize(term), baseUrl);
+        }
+        return term;
+    }
+
+    private boolean matches(final Triple triple) {
+        return !(differs(triple.getSubject(), subject) || differs(triple.getObject(), object));
+    }
+
+    private static boolean differs(final RDFTerm term, final String value) {
+        return nonNull(value) && term instanceof IRI && !((IRI) term).getIRIString().equals(value);
+    }
+
+    private static Optional<IRI> toIRI(final String value) {
+        try {
+            return ofNullable(value).map(rdf::createIRI);
+        } catch (final IllegalArgumentException ex) {
+            return empty();
+        }
+    }
+
+    private static String emptyToNull(final String value) {
+        return nonNull(value) && !value.isEmpty() ? value : null;
+    }
+}
@@ -25,6 +25,7 @@ import static java.util.Collections.emptyList;
 import static java.util.Date.from;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
+import static java.util.function.Predicate.isEqual;
 import static java.util.stream.Collectors.toList;
 import static javax.ws.rs.client.Entity.entity;
 import static javax.ws.rs.core.HttpHeaders.CACHE_CONTROL;
@@ -42,7 +43,9 @@ import static javax.ws.rs.core.Response.Status.NO_CONTENT;
 import static javax.ws.rs.core.Response.Status.NOT_ACCEPTABLE;
 import static javax.ws.rs.core.Response.Status.NOT_FOUND;
 import static javax.ws.rs.core.Response.Status.OK;
+import static javax.ws.rs.core.Response.Status.PARTIAL_CONTENT;
 import static javax.ws.rs.core.Response.Status.PRECONDITION_FAILED;
+import static javax.ws.rs.core.Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE;
 import static javax.ws.rs.core.Response.Status.UNSUPPORTED_MEDIA_TYPE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -51,9 +54,11 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.trellisldp.http.domain.HttpConstants.ACCEPT_DATETIME;
@@ -61,7 +66,9 @@ import static org.trellisldp.http.domain.HttpConstants.ACCEPT_PATCH;
 import static org.trellisldp.http.domain.HttpConstants.ACCEPT_POST;
 import static org.trellisldp.http.domain.HttpConstants.ACCEPT_RANGES;
 import static org.trellisldp.http.domain.HttpConstants.APPLICATION_LINK_FORMAT;
+import static org.trellisldp.http.domain.HttpConstants.CONTENT_RANGE;
 import static org.trellisldp.http.domain.HttpConstants.DIGEST;
+import static org.trellisldp.http.domain.HttpConstants.IF_RANGE;
 import static org.trellisldp.http.domain.HttpConstants.LINK_TEMPLATE;
 import static org.trellisldp.http.domain.HttpConstants.MEMENTO_DATETIME;
 import static org.trellisldp.http.domain.HttpConstants.PREFER;
@@ -73,6 +80,7 @@ import static org.trellisldp.http.domain.RdfMediaType.APPLICATION_LD_JSON;
 import static org.trellisldp.http.domain.RdfMediaType.APPLICATION_LD_JSON_TYPE;
 import static org.trellisldp.http.domain.RdfMediaType.APPLICATION_N_TRIPLES;
 import static org.trellisldp.http.domain.RdfMediaType.TEXT_TURTLE_TYPE;
+import static org.trellisldp.http.domain.RdfMediaType.APPLICATION_RDF_PATCH;
 import static org.trellisldp.http.domain.RdfMediaType.APPLICATION_SPARQL_UPDATE;
 import static org.trellisldp.api.RDFUtils.TRELLIS_BNODE_PREFIX;
 import static org.trellisldp.api.RDFUtils.TRELLIS_PREFIX;
@@ -87,6 +95,7 @@ import java.io.InputStream;
 import java.io.IOException;
 import java.time.Instant;
 import java.util.AbstractMap.SimpleEntry;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -103,6 +112,7 @@ import org.apache.commons.io.IOUtils;
 import org.apache.commons.rdf.api.BlankNode;
 import org.apache.commons.rdf.api.Dataset;
 import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.Quad;
 import org.apache.commons.rdf.api.Literal;
 import org.apache.commons.rdf.api.RDF;
 import org.apache.commons.rdf.api.RDFTerm;
@@ -325,6 +335,12 @@ abstract class AbstractLdpResourceTest extends JerseyTest {
         when(mockResource.getInbox()).thenReturn(empty());
         when(mockResource.getAnnotationService()).thenReturn(empty());
         when(mockResource.getTypes()).thenReturn(emptyList());
+        when(mockResource.stream(any(IRI.class))).thenAnswer(inv -> mockResource.stream()
+                .filter(quad -> quad.getGraphName().filter(isEqual(inv.getArgument(0))).isPresent())
+                .map(Quad::asTriple));
+        doAnswer(inv -> mockResource.stream()
+                .filter(quad -> quad.getGraphName().filter(inv.<Collection<IRI>>getArgument(0)::contains).isPresent())
+                .map(Quad::asTriple)).when(mockResource).stream(anyCollection());
 
         when(mockDeletedResource.getMementos()).thenReturn(emptyList());
         when(mockDeletedResource.getInteractionModel()).thenReturn(LDP.Resource);
@@ -404,6 +420,45 @@ abstract class AbstractLdpResourceTest extends JerseyTest {
     /* ******************************* *
      *            GET Tests
      * ******************************* */
+    @Test
+    public void testGetPaged() {
+        final Response res = target(RESOURCE_PATH).queryParam("pageSize", 1).request().accept("text/turtle")
+            .header("Prefer", "return=representation; include=\"" + Trellis.PreferServerManaged.getIRIString()
+                    + "\"").get();
+
+        assertEquals(OK, res.getStatusInfo());
+        assertTrue(res.getLinks().stream().anyMatch(hasType(LDP.Page)));
+        assertTrue(res.getLinks().stream().anyMatch(hasLink(rdf.createIRI(BASE_URL + RESOURCE_PATH
+                            + "?page=1&pageSize=1"), "first")));
+        assertTrue(res.getLinks().stream().anyMatch(hasLink(rdf.createIRI(BASE_URL + RESOURCE_PATH
+                            + "?page=2&pageSize=1"), "next")));
+        assertTrue(res.readEntity(String.class).contains("http://www.w3.org/ns/hydra/core#next"));
+    }
+
+    @Test
+    public void testGetPreferMaxTripleCount() {
+        final Response res = target(RESOURCE_PATH).request().accept("text/turtle")
+            .header("Prefer", "return=representation; max-triple-count=\"10\"").get();
+
+        assertEquals(OK, res.getStatusInfo());
+        assertTrue(res.getLinks().stream().anyMatch(hasType(LDP.Page)));
+        assertFalse(res.getLinks().stream().anyMatch(link -> "next".equals(link.getRel())));
+    }
+
+    @Test
+    public void testGetInvalidPage() {
+        final Response res = target(RESOURCE_PATH).queryParam("page", 0).request().get();
+
+        assertEquals(BAD_REQUEST, res.getStatusInfo());
+    }
+
+    @Test
+    public void testGetMalformedPage() {
+        final Response res = target(RESOURCE_PATH).queryParam("page", "abc").request().get();
+
+        assertEquals(BAD_REQUEST, res.getStatusInfo());
+    }
+
     @Test
     public void testGetJson() throws IOException {
         final Response res = target("/" + RESOURCE_PATH).request().accept("application/ld+json").get();
@@ -415,13 +470,13 @@ abstract class AbstractLdpResourceTest extends JerseyTest {
         assertTrue(res.getLinks().stream().anyMatch(hasType(LDP.RDFSource)));
         assertFalse(res.getLinks().stream().anyMatch(hasType(LDP.Container)));
         assertNull(res.getHeaderString(ACCEPT_POST));
-        assertEquals(APPLICATION_SPARQL_UPDATE, res.getHeaderString(ACCEPT_PATCH));
+        assertEquals(APPLICATION_SPARQL_UPDATE + "," + APPLICATION_RDF_PATCH, res.getHeaderString(ACCEPT_PATCH));
         assertTrue(res.hasEntity());
 
         final List<String> templates = res.getStringHeaders().get(LINK_TEMPLATE);
         assertEquals(2L, templates.size());
-        assertTrue(templates.contains("<" + BASE_URL + RESOURCE_PATH + "{?subject,predicate,object}>; rel=\""
-                + LDP.Resource.getIRIString() + "\""));
+        assertTrue(templates.contains("<" + BASE_URL + RESOURCE_PATH
+                    + "{?subject,predicate,object,page,pageSize}>; rel=\"" + LDP.Resource.getIRIString() + "\""));
         assertTrue(templates.contains("<" + BASE_URL + RESOURCE_PATH + "{?version}>; rel=\""
                 + Memento.Memento.getIRIString() + "\""));
 
@@ -711,7 +766,8 @@ abstract class AbstractLdpResourceTest extends JerseyTest {
     public void testGetBinaryRange() throws IOException {
         final Response res = target(BINARY_PATH).request().header(RANGE, "bytes=3-10").get();
 
-        assertEquals(OK, res.getStatusInfo());
+        assertEquals(PARTIAL_CONTENT, res.getStatusInfo());
+        assertEquals("bytes 3-10/100", res.getHeaderString(CONTENT_RANGE));
         assertFalse(res.getAllowedMethods().contains("PATCH"));
         assertTrue(res.getAllowedMethods().contains("PUT"));
         assertTrue(res.getAllowedMethods().contains("DELETE"));
@@ -735,14 +791,58 @@ abstract class AbstractLdpResourceTest extends JerseyTest {
         assertFalse(varies.contains(PREFER));
 
         final String entity = IOUtils.toString((InputStream) res.getEntity(), UTF_8);
-        assertEquals("e input", entity);
+        assertEquals("e input ", entity);
+    }
+
+    @Test
+    public void testGetBinarySuffixRange() throws IOException {
+        when(mockBinary.getSize()).thenReturn(of(17L));
+        final Response res = target(BINARY_PATH).request().header(RANGE, "bytes=-6").get();
+
+        assertEquals(PARTIAL_CONTENT, res.getStatusInfo());
+        assertEquals("bytes 11-16/17", res.getHeaderString(CONTENT_RANGE));
+        assertEquals("stream", IOUtils.toString((InputStream) res.getEntity(), UTF_8));
+    }
+
+    @Test
+    public void testGetBinaryMultipleRanges() throws IOException {
+        when(mockBinary.getSize()).thenReturn(of(17L));
+        final Response res = target(BINARY_PATH).request().header(RANGE, "bytes=0-3, 11-").get();
+
+        assertEquals(PARTIAL_CONTENT, res.getStatusInfo());
+        assertNull(res.getHeaderString(CONTENT_RANGE));
+        assertTrue(res.getMediaType().toString().startsWith("multipart/byteranges"));
+        final String boundary = res.getMediaType().getParameters().get("boundary");
+        assertEquals("--" + boundary + "\r\nContent-Type: text/plain\r\nContent-Range: bytes 0-3/17\r\n\r\nSome\r\n"
+                + "--" + boundary + "\r\nContent-Type: text/plain\r\nContent-Range: bytes 11-16/17\r\n\r\nstream\r\n"
+                + "--" + boundary + "--\r\n", IOUtils.toString((InputStream) res.getEntity(), UTF_8));
+    }
+
+    @Test
+    public void testGetBinaryIfRangeMismatch() throws IOException {
+        final Response res = target(BINARY_PATH).request().header(RANGE, "bytes=3-10")
+            .header(IF_RANGE, "\"some-other-etag\"").get();
+
+        assertEquals(OK, res.getStatusInfo());
+        assertNull(res.getHeaderString(CONTENT_RANGE));
+        assertEquals("Some input stream", IOUtils.toString((InputStream) res.getEntity(), UTF_8));
+    }
+
+    @Test
+    public void testGetBinaryIfRangeDate() throws IOException {
+        final Response res = target(BINARY_PATH).request().header(RANGE, "bytes=3-10")
+            .header(IF_RANGE, RFC_1123_DATE_TIME.withZone(UTC).format(time)).get();
+
+        assertEquals(PARTIAL_CONTENT, res.getStatusInfo());
+        assertEquals("e input ", IOUtils.toString((InputStream) res.getEntity(), UTF_8));
     }
 
     @Test
     public void testGetBinaryRangeExceed() throws IOException {
         final Response res = target(BINARY_PATH).request().header(RANGE, "bytes=300-400").get();
 
-        assertEquals(OK, res.getStatusInfo());
+        assertEquals(REQUESTED_RANGE_NOT_SATISFIABLE, res.getStatusInfo());
+        assertEquals("bytes */100", res.getHeaderString(CONTENT_RANGE));
         assertFalse(res.getAllowedMethods().contains("PATCH"));
         assertTrue(res.getAllowedMethods().contains("PUT"));
         assertTrue(res.getAllowedMethods().contains("DELETE"));
@@ -765,8 +865,6 @@ abstract class AbstractLdpResourceTest extends JerseyTest {
         assertTrue(varies.contains(ACCEPT_DATETIME));
         assertFalse(varies.contains(PREFER));
 
-        final String entity = IOUtils.toString((InputStream) res.getEntity(), UTF_8);
-        assertEquals("", entity);
     }
 
     @Test
@@ -774,7 +872,7 @@ abstract class AbstractLdpResourceTest extends JerseyTest {
         when(mockBinaryService.getContent(eq(REPO1), eq(binaryInternalIdentifier)))
             .thenReturn(of(mockInputStream));
         when(mockInputStream.skip(anyLong())).thenThrow(new IOException());
-        final Response res = target(BINARY_PATH).request().header(RANGE, "bytes=300-400").get();
+        final Response res = target(BINARY_PATH).request().header(RANGE, "bytes=30-40").get();
         assertEquals(INTERNAL_SERVER_ERROR, res.getStatusInfo());
     }
 
@@ -890,7 +988,7 @@ abstract class AbstractLdpResourceTest extends JerseyTest {
         assertTrue(res.getLinks().stream().anyMatch(hasType(LDP.RDFSource)));
         assertFalse(res.getLinks().stream().anyMatch(hasType(LDP.Container)));
         assertNull(res.getHeaderString(ACCEPT_POST));
-        assertEquals(APPLICATION_SPARQL_UPDATE, res.getHeaderString(ACCEPT_PATCH));
+        assertEquals(APPLICATION_SPARQL_UPDATE + "," + APPLICATION_RDF_PATCH, res.getHeaderString(ACCEPT_PATCH));
         assertNull(res.getHeaderString(ACCEPT_RANGES));
         assertEquals(from(time), res.getLastModified());
         assertTrue(res.getLinks().stream().anyMatch(l ->
@@ -948,7 +1046,7 @@ abstract class AbstractLdpResourceTest extends JerseyTest {
         assertTrue(res.getLinks().stream().anyMatch(hasType(LDP.RDFSource)));
         assertFalse(res.getLinks().stream().anyMatch(hasType(LDP.Container)));
         assertNull(res.getHeaderString(ACCEPT_POST));
-        assertEquals(APPLICATION_SPARQL_UPDATE, res.getHeaderString(ACCEPT_PATCH));
+        assertEquals(APPLICATION_SPARQL_UPDATE + "," + APPLICATION_RDF_PATCH, res.getHeaderString(ACCEPT_PATCH));
         assertNull(res.getHeaderString(ACCEPT_RANGES));
         assertEquals(from(time), res.getLastModified());
         assertTrue(res.getLinks().stream().anyMatch(l ->
@@ -1014,7 +1112,7 @@ abstract class AbstractLdpResourceTest extends JerseyTest {
         assertTrue(res.getLinks().stream().anyMatch(hasType(LDP.RDFSource)));
         assertFalse(res.getLinks().stream().anyMatch(hasType(LDP.Container)));
         assertNull(res.getHeaderString(ACCEPT_POST));
-        assertEquals(APPLICATION_SPARQL_UPDATE, res.getHeaderString(ACCEPT_PATCH));
+        assertEquals(APPLICATION_SPARQL_UPDATE + "," + APPLICATION_RDF_PATCH, res.getHeaderString(ACCEPT_PATCH));
         assertNull(res.getHeaderString(ACCEPT_RANGES));
         assertEquals(from(time), res.getLastModified());
         assertTrue(res.getLinks().stream().anyMatch(l ->
@@ -1077,7 +1175,7 @@ abstract class AbstractLdpResourceTest extends JerseyTest {
         assertTrue(res.getLinks().stream().anyMatch(hasType(LDP.RDFSource)));
         assertFalse(res.getLinks().stream().anyMatch(hasType(LDP.Container)));
         assertNull(res.getHeaderString(ACCEPT_POST));
-        assertEquals(APPLICATION_SPARQL_UPDATE, res.getHeaderString(ACCEPT_PATCH));
+        assertEquals(APPLICATION_SPARQL_UPDATE + "," + APPLICATION_RDF_PATCH, res.getHeaderString(ACCEPT_PATCH));
         assertNull(res.getHeaderString(ACCEPT_RANGES));
         assertEquals(from(time), res.getLastModified());
         assertTrue(res.getLinks().stream().anyMatch(l ->
@@ -1495,7 +1593,7 @@ abstract class AbstractLdpResourceTest extends JerseyTest {
         assertTrue(res.getLinks().stream().anyMatch(hasType(LDP.RDFSource)));
         assertFalse(res.getLinks().stream().anyMatch(hasType(LDP.Container)));
         assertNull(res.getHeaderString(ACCEPT_POST));
-        assertEquals(APPLICATION_SPARQL_UPDATE, res.getHeaderString(ACCEPT_PATCH));
+        assertEquals(APPLICATION_SPARQL_UPDATE + "," + APPLICATION_RDF_PATCH, res.getHeaderString(ACCEPT_PATCH));
         assertNull(res.getHeaderString(ACCEPT_RANGES));
         assertEquals(from(time), res.getLastModified());
         // The next two assertions may change at some point
@@ -1624,7 +1722,7 @@ abstract class AbstractLdpResourceTest extends JerseyTest {
         assertTrue(res.getAllowedMethods().contains("OPTIONS"));
         assertFalse(res.getAllowedMethods().contains("POST"));
 
-        assertEquals(APPLICATION_SPARQL_UPDATE, res.getHeaderString(ACCEPT_PATCH));
+        assertEquals(APPLICATION_SPARQL_UPDATE + "," + APPLICATION_RDF_PATCH, res.getHeaderString(ACCEPT_PATCH));
 
         assertTrue(res.getLinks().stream().anyMatch(hasType(LDP.Resource)));
         assertTrue(res.getLinks().stream().anyMatch(hasType(LDP.RDFSource)));
@@ -1645,7 +1743,7 @@ abstract class AbstractLdpResourceTest extends JerseyTest {
         assertTrue(res.getAllowedMethods().contains("OPTIONS"));
         assertFalse(res.getAllowedMethods().contains("POST"));
 
-        assertEquals(APPLICATION_SPARQL_UPDATE, res.getHeaderString(ACCEPT_PATCH));
+        assertEquals(APPLICATION_SPARQL_UPDATE + "," + APPLICATION_RDF_PATCH, res.getHeaderString(ACCEPT_PATCH));
         assertNull(res.getHeaderString(ACCEPT_POST));
 
         assertNull(res.getHeaderString(MEMENTO_DATETIME));
@@ -1670,7 +1768,7 @@ abstract class AbstractLdpResourceTest extends JerseyTest {
         assertTrue(res.getAllowedMethods().contains("OPTIONS"));
         assertTrue(res.getAllowedMethods().contains("POST"));
 
-        assertEquals(APPLICATION_SPARQL_UPDATE, res.getHeaderString(ACCEPT_PATCH));
+        assertEquals(APPLICATION_SPARQL_UPDATE + "," + APPLICATION_RDF_PATCH, res.getHeaderString(ACCEPT_PATCH));
         assertNotNull(res.getHeaderString(ACCEPT_POST));
         final List<String> acceptPost = asList(res.getHeaderString(ACCEPT_POST).split(","));
         assertEquals(3L, acceptPost.size());
@@ -1699,7 +1797,7 @@ abstract class AbstractLdpResourceTest extends JerseyTest {
         assertTrue(res.getAllowedMethods().contains("OPTIONS"));
         assertFalse(res.getAllowedMethods().contains("POST"));
 
-        assertEquals(APPLICATION_SPARQL_UPDATE, res.getHeaderString(ACCEPT_PATCH));
+        assertEquals(APPLICATION_SPARQL_UPDATE + "," + APPLICATION_RDF_PATCH, res.getHeaderString(ACCEPT_PATCH));
         assertNull(res.getHeaderString(ACCEPT_POST));
         assertNull(res.getHeaderString(MEMENTO_DATETIME));
     }
@@ -1824,7 +1922,7 @@ abstract class AbstractLdpResourceTest extends JerseyTest {
         assertTrue(res.getAllowedMethods().contains("OPTIONS"));
         assertFalse(res.getAllowedMethods().contains("POST"));
 
-        assertEquals(APPLICATION_SPARQL_UPDATE, res.getHeaderString(ACCEPT_PATCH));
+        assertEquals(APPLICATION_SPARQL_UPDATE + "," + APPLICATION_RDF_PATCH, res.getHeaderString(ACCEPT_PATCH));
         assertNull(res.getHeaderString(ACCEPT_POST));
         assertNull(res.getHeaderString(MEMENTO_DATETIME));
     }
@@ -2485,6 +2583,15 @@ abstract class AbstractLdpResourceTest extends JerseyTest {
         assertNull(res.getHeaderString(MEMENTO_DATETIME));
     }
 
+    @Test
+    public void testPatchRdfPatch() {
+        final Response res = target(RESOURCE_PATH).request()
+            .method("PATCH", entity("A <> <http://purl.org/dc/terms/title> \"A title\" .", APPLICATION_RDF_PATCH));
+
+        assertEquals(NO_CONTENT, res.getStatusInfo());
+        assertTrue(res.getLinks().stream().anyMatch(hasType(LDP.RDFSource)));
+    }
+
     @Test
     public void testPatchExistingResponse() throws IOException {
         final Response res = target(RESOURCE_PATH).request()
@@ -0,0 +1,169 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http;
+
+import static java.time.Duration.ofMillis;
+import static java.util.concurrent.CompletableFuture.allOf;
+import static java.util.concurrent.CompletableFuture.runAsync;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.stream.IntStream.range;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+/**
+ * @author acoburn
+ */
+@RunWith(JUnitPlatform.class)
+public class BoundedCacheTest {
+
+    @Test
+    public void testGetAndLoad() {
+        final BoundedCache<String, String> cache = new BoundedCache<>(10L);
+        assertEquals("A", cache.get("a", String::toUpperCase));
+        assertEquals("A", cache.get("a", k -> "other"));
+        assertEquals(1L, cache.getHitCount());
+        assertEquals(1L, cache.getMissCount());
+        assertEquals(1L, cache.size());
+    }
+
+    @Test
+    public void testNullNotCached() {
+        final BoundedCache<String, String> cache = new BoundedCache<>(10L);
+        assertNull(cache.get("a", k -> null));
+        assertFalse(cache.getIfPresent("a").isPresent());
+        assertEquals(0L, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        final BoundedCache<String, String> cache = new BoundedCache<>(2L);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        assertTrue(cache.getIfPresent("a").isPresent());
+        cache.put("c", "C");
+        assertTrue(cache.getIfPresent("a").isPresent());
+        assertFalse(cache.getIfPresent("b").isPresent());
+        assertTrue(cache.getIfPresent("c").isPresent());
+        assertEquals(1L, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testWeight() {
+        final BoundedCache<String, String> cache = new BoundedCache<>(10L, String::length, null);
+        cache.put("a", "aaaaaa");
+        cache.put("b", "bbbb");
+        assertEquals(10L, cache.weight());
+        cache.put("c", "cc");
+        assertEquals(6L, cache.weight());
+        assertFalse(cache.getIfPresent("a").isPresent());
+
+        cache.put("d", "this value is too heavy");
+        assertFalse(cache.getIfPresent("d").isPresent());
+        assertEquals(6L, cache.weight());
+        assertEquals(1L, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testExpiry() throws InterruptedException {
+        final BoundedCache<String, String> cache = new BoundedCache<>(10L, v -> 1L, ofMillis(10L));
+        cache.put("a", "A");
+        assertTrue(cache.getIfPresent("a").isPresent());
+        Thread.sleep(20L);
+        assertFalse(cache.getIfPresent("a").isPresent());
+        assertEquals(0L, cache.size());
+    }
+
+    @Test
+    public void testInvalidate() {
+        final BoundedCache<String, String> cache = new BoundedCache<>(10L);
+        cache.put("a/1", "1");
+        cache.put("a/2", "2");
+        cache.put("b/1", "3");
+        cache.invalidate("b/1");
+        assertFalse(cache.getIfPresent("b/1").isPresent());
+        cache.invalidateAll(k -> k.startsWith("a/"));
+        assertEquals(0L, cache.size());
+        cache.put("c", "4");
+        cache.invalidateAll();
+        assertEquals(0L, cache.size());
+    }
+
+    @Test
+    public void testConcurrentAccess() {
+        final BoundedCache<Integer, String> cache = new BoundedCache<>(50L);
+        final ExecutorService executor = newFixedThreadPool(8);
+        try {
+            allOf(range(0, 8).mapToObj(i -> runAsync(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    final Integer key = j % 200;
+                    assertEquals(key.toString(), cache.get(key, Object::toString));
+                    if (j % 1000 == 0) {
+                        cache.invalidate(key);
+                    }
+                }
+            }, executor)).toArray(CompletableFuture[]::new)).join();
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(cache.size() <= 50L);
+        assertEquals(cache.size(), cache.weight());
+    }
+
+    @Test
+    public void testLoadRacingInvalidation() {
+        final BoundedCache<String, String> cache = new BoundedCache<>(10L);
+        assertEquals("stale", cache.get("a", k -> {
+            cache.invalidate(k);
+            return "stale";
+        }));
+        assertFalse(cache.getIfPresent("a").isPresent());
+    }
+
+    @Test
+    public void testLoadRacingOtherInvalidation() {
+        final BoundedCache<String, String> cache = new BoundedCache<>(10L);
+        assertEquals("A", cache.get("a", k -> {
+            cache.invalidate("b");
+            return "A";
+        }));
+        assertTrue(cache.getIfPresent("a").isPresent());
+    }
+
+    @Test
+    public void testSecondChanceEviction() {
+        final BoundedCache<Integer, String> cache = new BoundedCache<>(3L);
+        cache.put(1, "1");
+        cache.put(2, "2");
+        cache.put(3, "3");
+        assertTrue(cache.getIfPresent(1).isPresent());
+        assertTrue(cache.getIfPresent(2).isPresent());
+        assertTrue(cache.getIfPresent(3).isPresent());
+        cache.put(4, "4");
+        assertFalse(cache.getIfPresent(1).isPresent());
+        assertTrue(cache.getIfPresent(4).isPresent());
+        cache.put(5, "5");
+        assertFalse(cache.getIfPresent(2).isPresent());
+        assertEquals(3L, cache.size());
+        assertEquals(2L, cache.getEvictionCount());
+    }
+}
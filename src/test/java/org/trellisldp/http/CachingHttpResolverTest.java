@@ -0,0 +1,287 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.createTempDirectory;
+import static java.time.Duration.ZERO;
+import static java.time.Duration.ofHours;
+import static java.util.Comparator.reverseOrder;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.Collectors.toList;
+import static javax.ws.rs.core.HttpHeaders.ETAG;
+import static javax.ws.rs.core.HttpHeaders.IF_NONE_MATCH;
+import static javax.ws.rs.core.Response.Status.Family.CLIENT_ERROR;
+import static javax.ws.rs.core.Response.Status.Family.REDIRECTION;
+import static javax.ws.rs.core.Response.Status.Family.SUCCESSFUL;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+import static org.trellisldp.api.RDFUtils.getInstance;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDF;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+
+/**
+ * @author acoburn
+ */
+@RunWith(JUnitPlatform.class)
+public class CachingHttpResolverTest {
+
+    private final static RDF rdf = getInstance();
+    private final static String partition = "partition";
+    private final static String etag = "\"abc\"";
+    private final static IRI resource = rdf.createIRI("http://example.org/resource");
+    private final static IRI other = rdf.createIRI("http://example.org/other");
+
+    private Path directory;
+
+    @Mock
+    private Client mockClient;
+
+    @Mock
+    private WebTarget mockWebTarget;
+
+    @Mock
+    private Invocation.Builder mockInvocationBuilder;
+
+    @Mock
+    private Response mockResponse, mockNotModified;
+
+    @Mock
+    private Response.StatusType mockStatusType, mockNotModifiedStatusType;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        initMocks(this);
+        directory = createTempDirectory("trellis");
+        when(mockClient.target(anyString())).thenReturn(mockWebTarget);
+        when(mockWebTarget.request()).thenReturn(mockInvocationBuilder);
+        when(mockInvocationBuilder.header(anyString(), anyString())).thenReturn(mockInvocationBuilder);
+        when(mockInvocationBuilder.get()).thenReturn(mockResponse);
+        when(mockResponse.getStatus()).thenReturn(200);
+        when(mockResponse.getStatusInfo()).thenReturn(mockStatusType);
+        when(mockResponse.hasEntity()).thenReturn(true);
+        when(mockResponse.getEntity()).thenAnswer(inv -> new ByteArrayInputStream("some data".getBytes(UTF_8)));
+        when(mockResponse.getHeaderString(ETAG)).thenReturn(etag);
+        when(mockStatusType.getFamily()).thenReturn(SUCCESSFUL);
+        when(mockNotModified.getStatus()).thenReturn(304);
+        when(mockNotModified.getStatusInfo()).thenReturn(mockNotModifiedStatusType);
+        when(mockNotModifiedStatusType.getFamily()).thenReturn(REDIRECTION);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (final Stream<Path> files = Files.walk(directory)) {
+            for (final Path file : files.sorted(reverseOrder()).collect(toList())) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Test
+    public void testRevalidate() {
+        final CachingHttpResolver resolver = getResolver(1000L, ZERO);
+        assertEquals("some data", read(resolver.getContent(partition, resource)));
+        assertEquals(1L, resolver.size());
+        assertEquals(9L, resolver.weight());
+
+        when(mockInvocationBuilder.get()).thenReturn(mockNotModified);
+        assertEquals("some data", read(resolver.getContent(partition, resource)));
+        verify(mockInvocationBuilder).header(eq(IF_NONE_MATCH), eq(etag));
+        verify(mockNotModified).close();
+        assertEquals(1L, resolver.getMissCount());
+        assertEquals(1L, resolver.getHitCount());
+    }
+
+    @Test
+    public void testChangedContent() {
+        final CachingHttpResolver resolver = getResolver(1000L, ZERO);
+        assertEquals("some data", read(resolver.getContent(partition, resource)));
+
+        when(mockResponse.getEntity()).thenAnswer(inv -> new ByteArrayInputStream("new data!!".getBytes(UTF_8)));
+        assertEquals("new data!!", read(resolver.getContent(partition, resource)));
+        assertEquals(1L, resolver.size());
+        assertEquals(10L, resolver.weight());
+        assertEquals(2L, resolver.getMissCount());
+    }
+
+    @Test
+    public void testFreshContent() {
+        final CachingHttpResolver resolver = getResolver(1000L, ofHours(1L));
+        assertEquals("some data", read(resolver.getContent(partition, resource)));
+        assertEquals("some data", read(resolver.getContent(partition, resource)));
+        verify(mockInvocationBuilder).get();
+        verify(mockInvocationBuilder, never()).header(anyString(), anyString());
+    }
+
+    @Test
+    public void testRange() throws IOException {
+        final CachingHttpResolver resolver = getResolver(1000L, ofHours(1L));
+        assertEquals("data", read(resolver.getContent(partition, resource, 5L)));
+        assertEquals("me data", read(resolver.getContent(partition, resource, 2L)));
+        verify(mockInvocationBuilder).get();
+    }
+
+    @Test
+    public void testEviction() {
+        final CachingHttpResolver resolver = getResolver(12L, ofHours(1L));
+        assertEquals("some data", read(resolver.getContent(partition, resource)));
+        assertEquals("some data", read(resolver.getContent(partition, other)));
+        assertEquals(1L, resolver.size());
+        assertEquals(9L, resolver.weight());
+
+        assertEquals("some data", read(resolver.getContent(partition, resource)));
+        verify(mockInvocationBuilder, times(3)).get();
+    }
+
+    @Test
+    public void testUncacheable() throws IOException {
+        when(mockResponse.getHeaderString(ETAG)).thenReturn(null);
+        final CachingHttpResolver resolver = getResolver(1000L, ofHours(1L));
+        assertEquals("some data", read(resolver.getContent(partition, resource)));
+        assertEquals(0L, resolver.size());
+        try (final Stream<Path> files = Files.list(directory)) {
+            assertEquals(0L, files.count());
+        }
+    }
+
+    @Test
+    public void testUncacheableStreamed() throws IOException {
+        when(mockResponse.getHeaderString(ETAG)).thenReturn(null);
+        final CachingHttpResolver resolver = getResolver(1000L, ofHours(1L));
+        final Optional<InputStream> content = resolver.getContent(partition, resource);
+        assertTrue(content.isPresent());
+        try (final Stream<Path> files = Files.list(directory)) {
+            assertEquals(0L, files.count());
+        }
+        verify(mockResponse, never()).close();
+        assertEquals("some data", read(content));
+        verify(mockResponse).close();
+    }
+
+    @Test
+    public void testTooLarge() throws IOException {
+        when(mockResponse.getLength()).thenReturn(9);
+        final CachingHttpResolver resolver = getResolver(4L, ofHours(1L));
+        final Optional<InputStream> content = resolver.getContent(partition, resource);
+        try (final Stream<Path> files = Files.list(directory)) {
+            assertEquals(0L, files.count());
+        }
+        assertEquals("some data", read(content));
+        assertEquals(0L, resolver.size());
+    }
+
+    @Test
+    public void testTooLargeUnknownLength() throws IOException {
+        when(mockResponse.getLength()).thenReturn(-1);
+        final CachingHttpResolver resolver = getResolver(4L, ofHours(1L));
+        assertEquals("some data", read(resolver.getContent(partition, resource)));
+        assertEquals(0L, resolver.size());
+        assertEquals(0L, resolver.weight());
+        verify(mockResponse).close();
+        try (final Stream<Path> files = Files.list(directory)) {
+            assertEquals(0L, files.count());
+        }
+    }
+
+    @Test
+    public void testNotFound() {
+        when(mockStatusType.getFamily()).thenReturn(CLIENT_ERROR);
+        final CachingHttpResolver resolver = getResolver(1000L, ZERO);
+        assertFalse(resolver.getContent(partition, resource).isPresent());
+        assertEquals(0L, resolver.size());
+        verify(mockResponse).close();
+    }
+
+    @Test
+    public void testInvalidate() {
+        final CachingHttpResolver resolver = getResolver(1000L, ofHours(1L));
+        assertEquals("some data", read(resolver.getContent(partition, resource)));
+        resolver.invalidate(resource);
+        assertEquals(0L, resolver.size());
+        assertEquals(0L, resolver.weight());
+    }
+
+    @Test
+    public void testConcurrentMisses() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch proceed = new CountDownLatch(1);
+        when(mockInvocationBuilder.get()).thenAnswer(inv -> {
+            started.countDown();
+            proceed.await(5L, SECONDS);
+            return mockResponse;
+        });
+        final CachingHttpResolver resolver = getResolver(1000L, ofHours(1L));
+
+        final CompletableFuture<String> first = CompletableFuture.supplyAsync(() ->
+                read(resolver.getContent(partition, resource)));
+        started.await(5L, SECONDS);
+        final CompletableFuture<String> second = new CompletableFuture<>();
+        final Thread waiter = new Thread(() -> second.complete(read(resolver.getContent(partition, resource))));
+        waiter.start();
+        for (int i = 0; i < 500 && waiter.getState() != Thread.State.WAITING; i++) {
+            Thread.sleep(10L);
+        }
+        proceed.countDown();
+        waiter.join(5000L);
+
+        assertEquals("some data", first.get(5L, SECONDS));
+        assertEquals("some data", second.get(5L, SECONDS));
+        verify(mockInvocationBuilder).get();
+        assertEquals(1L, resolver.getMissCount());
+    }
+
+    private CachingHttpResolver getResolver(final long maxBytes, final Duration revalidateAfter) {
+        return new CachingHttpResolver(mockClient, 0, ZERO, directory.toString(), maxBytes, revalidateAfter);
+    }
+
+    private static String read(final Optional<InputStream> content) {
+        try (final InputStream input = content.get()) {
+            return IOUtils.toString(input, UTF_8);
+        } catch (final IOException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http;
+
+import static java.time.Duration.ofMinutes;
+import static java.time.Instant.ofEpochSecond;
+import static java.util.Collections.singletonList;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+import static org.trellisldp.api.RDFUtils.getInstance;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.stream.Stream;
+
+import org.apache.commons.rdf.api.Dataset;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDF;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.api.Triple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.trellisldp.api.Resource;
+import org.trellisldp.api.ResourceService;
+import org.trellisldp.http.domain.Prefer;
+import org.trellisldp.http.impl.TriplePipeline;
+import org.trellisldp.vocabulary.DC;
+import org.trellisldp.vocabulary.LDP;
+import org.trellisldp.vocabulary.SKOS;
+import org.trellisldp.vocabulary.Trellis;
+
+/**
+ * @author acoburn
+ */
+@RunWith(JUnitPlatform.class)
+public class CachingResourceServiceTest {
+
+    private static final RDF rdf = getInstance();
+    private static final Instant time = ofEpochSecond(1496262729);
+    private static final IRI parent = rdf.createIRI("trellis:repository");
+    private static final IRI identifier = rdf.createIRI("trellis:repository/resource");
+    private static final IRI other = rdf.createIRI("trellis:repository/other");
+
+    @Mock
+    private ResourceService mockResourceService;
+
+    @Mock
+    private Resource mockResource;
+
+    @Mock
+    private Dataset mockDataset;
+
+    @BeforeEach
+    public void setUp() {
+        initMocks(this);
+        when(mockResourceService.get(eq(identifier))).thenAnswer(inv -> of(mockResource));
+        when(mockResourceService.get(eq(other))).thenReturn(empty());
+        when(mockResourceService.getContainer(eq(identifier))).thenReturn(of(parent));
+        when(mockResourceService.put(any(IRI.class), any(Dataset.class))).thenReturn(true);
+        when(mockResource.getIdentifier()).thenReturn(identifier);
+        when(mockResource.getInteractionModel()).thenReturn(LDP.RDFSource);
+        when(mockResource.getModified()).thenReturn(time);
+        when(mockResource.getTypes()).thenReturn(singletonList(SKOS.Concept));
+        when(mockResource.hasAcl()).thenReturn(false);
+        when(mockResource.stream(eq(Trellis.PreferUserManaged))).thenAnswer(inv -> Stream.of(
+                    rdf.createTriple(identifier, DC.title, rdf.createLiteral("A title")),
+                    rdf.createTriple(identifier, DC.subject, rdf.createLiteral("A subject"))));
+        when(mockResource.stream(anyCollection())).thenAnswer(inv ->
+                inv.<Collection<IRI>>getArgument(0).contains(Trellis.PreferUserManaged) ?
+                mockResource.stream(Trellis.PreferUserManaged) : Stream.empty());
+    }
+
+    @Test
+    public void testCachedMetadata() {
+        final CachingResourceService service = new CachingResourceService(mockResourceService, 10L, ofMinutes(1L));
+        final Resource res = service.get(identifier).get();
+        assertEquals(identifier, res.getIdentifier());
+        assertEquals(LDP.RDFSource, res.getInteractionModel());
+        assertEquals(time, res.getModified());
+        assertEquals(singletonList(SKOS.Concept), res.getTypes());
+        assertFalse(res.hasAcl());
+        assertFalse(res.isMemento());
+        assertFalse(res.getBinary().isPresent());
+
+        assertEquals(time, service.get(identifier).map(Resource::getModified).get());
+        verify(mockResourceService, times(1)).get(eq(identifier));
+        assertEquals(1L, service.getHitCount());
+        assertEquals(1L, service.getMissCount());
+    }
+
+    @Test
+    public void testContentFromSnapshot() {
+        final CachingResourceService service = new CachingResourceService(mockResourceService, 10L, ofMinutes(1L));
+        final IndexedResource res = (IndexedResource) service.get(identifier).get();
+        assertEquals(2L, res.stream(Trellis.PreferUserManaged).count());
+        assertEquals(singletonList(DC.title), res.stream(Trellis.PreferUserManaged, identifier, DC.title)
+                .map(Triple::getPredicate).collect(toList()));
+        assertFalse(res.estimateSize(Trellis.PreferUserManaged, null, null).isPresent());
+        verify(mockResourceService, times(1)).get(eq(identifier));
+    }
+
+    @Test
+    public void testSingleLookupPerGet() {
+        final CachingResourceService service = new CachingResourceService(mockResourceService, 10L, ofMinutes(1L));
+        final Prefer prefer = Prefer.valueOf("return=representation; include=\"" +
+                Trellis.PreferServerManaged.getIRIString() + " " + Trellis.PreferAudit.getIRIString() + "\"");
+        final TriplePipeline pipeline = new TriplePipeline(service, "http://example.org/", prefer, null, null,
+                null);
+
+        when(mockResourceService.unskolemize(any(RDFTerm.class))).then(returnsFirstArg());
+        when(mockResourceService.toExternal(any(RDFTerm.class), any())).then(returnsFirstArg());
+
+        // A GET looks up the resource, estimates the size of the representation and streams every graph
+        final Resource res = service.get(identifier).get();
+        pipeline.estimateSize(res);
+        assertEquals(2L, pipeline.apply(res).count());
+        verify(mockResourceService, times(1)).get(eq(identifier));
+    }
+
+    @Test
+    public void testContentReadOnCacheHit() {
+        final CachingResourceService service = new CachingResourceService(mockResourceService, 10L, ofMinutes(1L));
+        service.get(identifier);
+        final Resource res = service.get(identifier).get();
+        verify(mockResourceService, times(1)).get(eq(identifier));
+
+        // The cached entry holds no content: the first stream reads it and the others reuse it
+        assertEquals(2L, res.stream(Trellis.PreferUserManaged).count());
+        assertEquals(2L, res.stream(singletonList(Trellis.PreferUserManaged)).count());
+        verify(mockResourceService, times(2)).get(eq(identifier));
+        assertEquals(1L, service.size());
+    }
+
+    @Test
+    public void testStaleContentInvalidates() {
+        final CachingResourceService service = new CachingResourceService(mockResourceService, 10L, ofMinutes(1L));
+        service.get(identifier);
+        final Resource res = service.get(identifier).get();
+        when(mockResource.getModified()).thenReturn(time.plusSeconds(1L));
+
+        assertEquals(2L, res.stream(Trellis.PreferUserManaged).count());
+        assertEquals(time, res.getModified());
+        assertEquals(0L, service.size());
+        assertEquals(time.plusSeconds(1L), service.get(identifier).map(Resource::getModified).get());
+    }
+
+    @Test
+    public void testMissingResourceNotCached() {
+        final CachingResourceService service = new CachingResourceService(mockResourceService, 10L, ofMinutes(1L));
+        assertFalse(service.get(other).isPresent());
+        assertFalse(service.get(other).isPresent());
+        verify(mockResourceService, times(2)).get(eq(other));
+        assertEquals(0L, service.size());
+    }
+
+    @Test
+    public void testVersionedLookupNotCached() {
+        final CachingResourceService service = new CachingResourceService(mockResourceService, 10L, ofMinutes(1L));
+        when(mockResourceService.get(eq(identifier), eq(time))).thenReturn(of(mockResource));
+        assertTrue(service.get(identifier, time).isPresent());
+        assertEquals(0L, service.size());
+    }
+
+    @Test
+    public void testWriteInvalidates() {
+        final CachingResourceService service = new CachingResourceService(mockResourceService, 10L, ofMinutes(1L));
+        final Resource mockParent = mockResource;
+        when(mockResourceService.get(eq(parent))).thenReturn(of(mockParent));
+        service.get(identifier);
+        service.get(parent);
+        assertEquals(2L, service.size());
+
+        final Instant later = time.plusSeconds(10L);
+        when(mockResource.getModified()).thenReturn(later);
+        assertTrue(service.put(identifier, mockDataset));
+        assertEquals(0L, service.size());
+        assertEquals(later, service.get(identifier).map(Resource::getModified).get());
+    }
+
+    @Test
+    public void testIncrementalUpdate() {
+        final IncrementalResourceService mockIncremental = mock(IncrementalResourceService.class);
+        when(mockIncremental.get(eq(identifier))).thenAnswer(inv -> of(mockResource));
+        when(mockIncremental.getContainer(eq(identifier))).thenReturn(of(parent));
+        when(mockIncremental.update(any(IRI.class), any(Dataset.class), any(Dataset.class))).thenReturn(true);
+        when(mockIncremental.supportsIncrementalUpdates()).thenReturn(true);
+
+        final CachingResourceService service = new CachingResourceService(mockIncremental, 10L, ofMinutes(1L));
+        assertTrue(service.supportsIncrementalUpdates());
+        service.get(identifier);
+        assertEquals(1L, service.size());
+
+        assertTrue(service.update(identifier, mockDataset, mockDataset));
+        verify(mockIncremental).update(eq(identifier), eq(mockDataset), eq(mockDataset));
+        assertEquals(0L, service.size());
+    }
+
+    @Test
+    public void testNoIncrementalUpdate() {
+        final CachingResourceService service = new CachingResourceService(mockResourceService, 10L, ofMinutes(1L));
+        assertFalse(service.supportsIncrementalUpdates());
+        assertThrows(UnsupportedOperationException.class, () ->
+                service.update(identifier, mockDataset, mockDataset));
+    }
+
+    @Test
+    public void testPurgeInvalidates() {
+        final CachingResourceService service = new CachingResourceService(mockResourceService, 10L, ofMinutes(1L));
+        when(mockResourceService.purge(eq(identifier))).thenReturn(Stream.of(identifier));
+        service.get(identifier);
+        assertEquals(1L, service.size());
+        assertEquals(1L, service.purge(identifier).count());
+        assertEquals(0L, service.size());
+    }
+
+    @Test
+    public void testDelegation() {
+        final CachingResourceService service = new CachingResourceService(mockResourceService, 10L, ofMinutes(1L));
+        when(mockResourceService.getIdentifierSupplier()).thenReturn(() -> "id");
+        when(mockResourceService.toExternal(any(IRI.class), any())).thenReturn(other);
+        assertEquals("id", service.getIdentifierSupplier().get());
+        assertEquals(other, service.toExternal(identifier, "http://example.org/"));
+        assertEquals(of(parent), service.getContainer(identifier));
+    }
+}
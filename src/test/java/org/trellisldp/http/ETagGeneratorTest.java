@@ -0,0 +1,50 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http;
+
+import static java.time.Instant.ofEpochSecond;
+import static org.apache.commons.codec.digest.DigestUtils.md5Hex;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+/**
+ * @author acoburn
+ */
+@RunWith(JUnitPlatform.class)
+public class ETagGeneratorTest {
+
+    private static final Instant time = ofEpochSecond(1496262729);
+    private static final String identifier = "http://example.org/repository/resource";
+
+    @Test
+    public void testDigestETag() {
+        final ETagGenerator generator = new DigestETagGenerator();
+        assertEquals(md5Hex(time + identifier), generator.getValue(identifier, time));
+    }
+
+    @Test
+    public void testTimestampETag() {
+        final ETagGenerator generator = new TimestampETagGenerator();
+        final String etag = generator.getValue(identifier, time);
+        assertEquals(etag, generator.getValue(identifier, ofEpochSecond(1496262729)));
+        assertNotEquals(etag, generator.getValue(identifier, time.plusNanos(1L)));
+        assertNotEquals(etag, generator.getValue(identifier + "BINARY", time));
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.createTempDirectory;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static java.util.Comparator.reverseOrder;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static org.apache.commons.codec.digest.DigestUtils.md5Hex;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.trellisldp.api.RDFUtils.getInstance;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDF;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+import org.trellisldp.api.BinaryService.MultipartUpload;
+import org.trellisldp.api.RuntimeRepositoryException;
+
+/**
+ * @author acoburn
+ */
+@RunWith(JUnitPlatform.class)
+public class FileResolverTest {
+
+    private final static RDF rdf = getInstance();
+    private final static String partition = "partition";
+    private final static IRI identifier = rdf.createIRI("file:some/binary");
+
+    private Path directory;
+    private FileResolver resolver;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = createTempDirectory("trellis");
+        resolver = new FileResolver(singletonMap(partition, directory.toString()),
+                singletonMap(partition, "http://example.org/"), true);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (final Stream<Path> files = Files.walk(directory)) {
+            for (final Path file : files.sorted(reverseOrder()).collect(toList())) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Test
+    public void testContent() throws IOException {
+        assertTrue(resolver.getUriSchemes().contains("file"));
+        assertFalse(resolver.exists(partition, identifier));
+        assertFalse(resolver.getContent(partition, identifier).isPresent());
+
+        resolver.setContent(partition, identifier, stream("Some data"), emptyMap());
+        assertTrue(resolver.exists(partition, identifier));
+        assertEquals("Some data", read(resolver.getContent(partition, identifier).get()));
+        assertEquals("data", read(resolver.getContent(partition, identifier, 5L).get()));
+
+        resolver.setContent(partition, identifier, stream("Other data"), emptyMap());
+        assertEquals("Other data", read(resolver.getContent(partition, identifier).get()));
+        try (final Stream<Path> files = Files.list(directory.resolve("some"))) {
+            assertEquals(1L, files.count());
+        }
+
+        resolver.purgeContent(partition, identifier);
+        assertFalse(resolver.exists(partition, identifier));
+    }
+
+    @Test
+    public void testOutsidePartition() {
+        final IRI outside = rdf.createIRI("file:../outside");
+        assertFalse(resolver.exists(partition, outside));
+        assertFalse(resolver.exists("other", identifier));
+        assertFalse(resolver.exists(partition, rdf.createIRI("http://example.org/binary")));
+        assertThrows(RuntimeRepositoryException.class, () ->
+                resolver.setContent(partition, outside, stream("Some data"), emptyMap()));
+    }
+
+    @Test
+    public void testMultipartUpload() throws IOException {
+        assertTrue(resolver.supportsMultipartUpload());
+        final String uploadId = resolver.initiateUpload(partition,
+                rdf.createIRI("trellis:partition/resource"), "text/plain");
+        assertTrue(resolver.uploadSessionExists(uploadId));
+
+        final String digest1 = resolver.uploadPart(uploadId, 1, stream("Some "));
+        final String digest2 = resolver.uploadPart(uploadId, 2, stream("more data"));
+        assertEquals(md5Hex("Some "), digest1);
+        assertEquals(md5Hex("more data"), digest2);
+
+        final Map<Integer, String> parts = resolver.listParts(uploadId)
+            .collect(toMap(Map.Entry::getKey, Map.Entry::getValue));
+        assertEquals(2, parts.size());
+        assertEquals(digest1, parts.get(1));
+
+        final MultipartUpload upload = resolver.completeUpload(uploadId, parts);
+        assertEquals("http://example.org/", upload.getBaseUrl());
+        assertEquals("partition/resource", upload.getPath());
+        assertEquals("text/plain", upload.getBinary().getMimeType().get());
+        assertEquals((Long) 14L, upload.getBinary().getSize().get());
+        assertEquals("Some more data", read(resolver.getContent(partition, upload.getBinary().getIdentifier())
+                    .get()));
+        assertFalse(resolver.uploadSessionExists(uploadId));
+    }
+
+    @Test
+    public void testMultipartUploadBadDigest() {
+        final String uploadId = resolver.initiateUpload(partition,
+                rdf.createIRI("trellis:partition/resource"), "text/plain");
+        resolver.uploadPart(uploadId, 1, stream("Some data"));
+        final Map<Integer, String> parts = new HashMap<>();
+        parts.put(1, md5Hex("Other data"));
+
+        assertThrows(RuntimeRepositoryException.class, () -> resolver.completeUpload(uploadId, parts));
+        assertTrue(resolver.uploadSessionExists(uploadId));
+
+        resolver.abortUpload(uploadId);
+        assertFalse(resolver.uploadSessionExists(uploadId));
+        assertFalse(resolver.uploadSessionExists("../" + uploadId));
+    }
+
+    @Test
+    public void testMultipartUploadWithoutBaseUrl() {
+        final FileResolver resolver = new FileResolver(singletonMap(partition, directory.toString()));
+        final String uploadId = resolver.initiateUpload(partition,
+                rdf.createIRI("trellis:partition/resource"), "text/plain");
+        final String digest = resolver.uploadPart(uploadId, 1, stream("Some data"));
+
+        assertThrows(RuntimeRepositoryException.class, () ->
+                resolver.completeUpload(uploadId, singletonMap(1, digest)));
+        assertTrue(resolver.uploadSessionExists(uploadId));
+        assertFalse(resolver.exists(partition, rdf.createIRI("file:" + uploadId)));
+    }
+
+    private static InputStream stream(final String data) {
+        return new ByteArrayInputStream(data.getBytes(UTF_8));
+    }
+
+    private static String read(final InputStream input) throws IOException {
+        try (final InputStream is = input) {
+            return IOUtils.toString(is, UTF_8);
+        }
+    }
+}
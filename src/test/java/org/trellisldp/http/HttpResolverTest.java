@@ -14,6 +14,7 @@
 package org.trellisldp.http;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.time.Duration.ofMillis;
 import static java.util.Collections.emptyMap;
 import static javax.ws.rs.core.Response.Status.Family.CLIENT_ERROR;
 import static javax.ws.rs.core.Response.Status.Family.SUCCESSFUL;
@@ -23,6 +24,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 import static org.mockito.MockitoAnnotations.initMocks;
@@ -30,6 +32,7 @@ import static org.mockito.MockitoAnnotations.initMocks;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.IOException;
+import java.util.Optional;
 
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.Entity;
@@ -83,6 +86,7 @@ public class HttpResolverTest {
         when(mockWebTarget.request()).thenReturn(mockInvocationBuilder);
         when(mockInvocationBuilder.put(any(Entity.class))).thenReturn(mockResponse);
         when(mockInvocationBuilder.delete()).thenReturn(mockResponse);
+        when(mockInvocationBuilder.head()).thenReturn(mockResponse);
         when(mockInvocationBuilder.get()).thenReturn(mockResponse);
         when(mockResponse.getStatusInfo()).thenReturn(mockStatusType);
         when(mockStatusType.getFamily()).thenReturn(SUCCESSFUL);
@@ -137,6 +141,32 @@ public class HttpResolverTest {
         verify(mockInvocationBuilder).put(any(Entity.class));
     }
 
+    @Test
+    public void testMockedGetContent() throws IOException {
+        mockEntity();
+        final Resolver resolver = new HttpResolver(mockClient);
+        final Optional<InputStream> content = resolver.getContent(partition, resource);
+        assertTrue(content.isPresent());
+        verify(mockResponse, never()).close();
+        assertEquals("some data", uncheckedToString(content.get()));
+        content.get().close();
+        verify(mockResponse).close();
+    }
+
+    @Test
+    public void testMockedConnectionLimit() throws IOException {
+        mockEntity();
+        final Resolver resolver = new HttpResolver(mockClient, 1, ofMillis(10L));
+        final Optional<InputStream> content = resolver.getContent(partition, resource);
+        assertTrue(content.isPresent());
+        assertThrows(RuntimeRepositoryException.class, () -> resolver.getContent(partition, resource));
+        assertTrue(resolver.exists(partition, sslResource));
+
+        content.get().close();
+        content.get().close();
+        assertTrue(resolver.getContent(partition, resource).isPresent());
+    }
+
     @Test
     public void testMockedDelete() throws IOException {
         final Resolver resolver = new HttpResolver(mockClient);
@@ -245,6 +275,12 @@ public class HttpResolverTest {
     public void testGetNoEntity() throws IOException {
         final Resolver resolver = new HttpResolver(mockClient);
         assertFalse(resolver.getContent(partition, resource).isPresent());
+        verify(mockResponse).close();
+    }
+
+    private void mockEntity() {
+        when(mockResponse.hasEntity()).thenReturn(true);
+        when(mockResponse.getEntity()).thenAnswer(inv -> new ByteArrayInputStream("some data".getBytes(UTF_8)));
     }
 
     private String uncheckedToString(final InputStream is) {
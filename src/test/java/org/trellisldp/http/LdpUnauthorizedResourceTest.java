@@ -20,6 +20,7 @@ import static java.util.Collections.emptyList;
 import static java.util.Collections.emptySet;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
+import static java.util.function.Predicate.isEqual;
 import static javax.ws.rs.client.Entity.entity;
 import static javax.ws.rs.core.HttpHeaders.WWW_AUTHENTICATE;
 import static javax.ws.rs.core.Response.Status.UNAUTHORIZED;
@@ -30,6 +31,8 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 import static org.trellisldp.http.domain.HttpConstants.APPLICATION_LINK_FORMAT;
@@ -39,6 +42,7 @@ import static org.trellisldp.api.RDFUtils.TRELLIS_BNODE_PREFIX;
 import static org.trellisldp.api.RDFUtils.getInstance;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.stream.Stream;
@@ -49,6 +53,7 @@ import javax.ws.rs.core.Response;
 import org.apache.commons.rdf.api.BlankNode;
 import org.apache.commons.rdf.api.Dataset;
 import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.Quad;
 import org.apache.commons.rdf.api.Literal;
 import org.apache.commons.rdf.api.RDF;
 import org.glassfish.jersey.server.ResourceConfig;
@@ -170,6 +175,12 @@ public class LdpUnauthorizedResourceTest extends JerseyTest {
         when(mockResource.getInbox()).thenReturn(empty());
         when(mockResource.getAnnotationService()).thenReturn(empty());
         when(mockResource.getTypes()).thenReturn(emptyList());
+        when(mockResource.stream(any(IRI.class))).thenAnswer(inv -> mockResource.stream()
+                .filter(quad -> quad.getGraphName().filter(isEqual(inv.getArgument(0))).isPresent())
+                .map(Quad::asTriple));
+        doAnswer(inv -> mockResource.stream()
+                .filter(quad -> quad.getGraphName().filter(inv.<Collection<IRI>>getArgument(0)::contains).isPresent())
+                .map(Quad::asTriple)).when(mockResource).stream(anyCollection());
 
         when(mockResourceService.unskolemize(any(IRI.class)))
             .thenAnswer(inv -> {
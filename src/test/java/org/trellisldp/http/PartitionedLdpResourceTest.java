@@ -0,0 +1,166 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http;
+
+import static java.time.Instant.ofEpochSecond;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static java.util.Date.from;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static javax.ws.rs.core.Response.Status.CONFLICT;
+import static javax.ws.rs.core.Response.Status.GONE;
+import static javax.ws.rs.core.Response.Status.METHOD_NOT_ALLOWED;
+import static javax.ws.rs.core.Response.Status.NOT_FOUND;
+import static javax.ws.rs.core.Response.Status.PRECONDITION_FAILED;
+import static javax.ws.rs.core.Response.status;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+import static org.trellisldp.api.RDFUtils.TRELLIS_PREFIX;
+import static org.trellisldp.api.RDFUtils.getInstance;
+
+import java.io.InputStream;
+import java.time.Instant;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
+
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDF;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.trellisldp.api.BinaryService;
+import org.trellisldp.api.IOService;
+import org.trellisldp.api.Resource;
+import org.trellisldp.api.ResourceService;
+import org.trellisldp.http.domain.LdpRequest;
+import org.trellisldp.vocabulary.LDP;
+import org.trellisldp.vocabulary.Trellis;
+
+/**
+ * @author acoburn
+ */
+@RunWith(JUnitPlatform.class)
+public class PartitionedLdpResourceTest {
+
+    private static final RDF rdf = getInstance();
+    private static final Instant time = ofEpochSecond(1496262729);
+    private static final IRI parent = rdf.createIRI(TRELLIS_PREFIX + "partition/parent");
+    private static final IRI child = rdf.createIRI(TRELLIS_PREFIX + "partition/parent/child");
+
+    @Mock
+    private ResourceService mockResourceService;
+
+    @Mock
+    private IOService mockIoService;
+
+    @Mock
+    private BinaryService mockBinaryService;
+
+    @Mock
+    private LdpRequest mockLdpRequest;
+
+    @Mock
+    private Request mockRequest;
+
+    @Mock
+    private Resource mockResource;
+
+    @Mock
+    private InputStream mockBody;
+
+    private PartitionedLdpResource resource;
+
+    @BeforeEach
+    public void setUp() {
+        initMocks(this);
+        resource = new PartitionedLdpResource(mockResourceService, mockIoService, mockBinaryService,
+                singletonMap("partition", "http://example.org/"));
+        when(mockLdpRequest.getPartition()).thenReturn("partition");
+        when(mockLdpRequest.getPath()).thenReturn("/parent");
+        when(mockLdpRequest.getSlug()).thenReturn("child");
+        when(mockLdpRequest.getRequest()).thenReturn(mockRequest);
+        when(mockResourceService.get(any(IRI.class))).thenReturn(empty());
+        when(mockResourceService.get(any(IRI.class), any(Instant.class))).thenReturn(empty());
+        when(mockResource.getModified()).thenReturn(time);
+        when(mockResource.getTypes()).thenReturn(singletonList(Trellis.DeletedResource));
+    }
+
+    @Test
+    public void testPostUnknownPartition() {
+        when(mockLdpRequest.getPartition()).thenReturn("other");
+        assertEquals(NOT_FOUND, resource.createResource(mockLdpRequest, mockBody).getStatusInfo());
+        verifyZeroInteractions(mockBody);
+    }
+
+    @Test
+    public void testPostMissingParent() {
+        assertEquals(NOT_FOUND, resource.createResource(mockLdpRequest, mockBody).getStatusInfo());
+        verifyZeroInteractions(mockBody);
+    }
+
+    @Test
+    public void testPostNonContainerParent() {
+        when(mockResource.getInteractionModel()).thenReturn(LDP.RDFSource);
+        when(mockResourceService.get(eq(parent))).thenReturn(of(mockResource));
+        assertEquals(METHOD_NOT_ALLOWED, resource.createResource(mockLdpRequest, mockBody).getStatusInfo());
+        verifyZeroInteractions(mockBody);
+    }
+
+    @Test
+    public void testPostDeletedParent() {
+        when(mockResource.getInteractionModel()).thenReturn(LDP.Resource);
+        when(mockResourceService.get(eq(parent))).thenReturn(of(mockResource));
+        assertEquals(GONE, resource.createResource(mockLdpRequest, mockBody).getStatusInfo());
+        verifyZeroInteractions(mockBody);
+    }
+
+    @Test
+    public void testPostConflict() {
+        when(mockResource.getInteractionModel()).thenReturn(LDP.Container);
+        when(mockResourceService.get(eq(parent))).thenReturn(of(mockResource));
+        when(mockResourceService.get(eq(child), any(Instant.class))).thenReturn(of(mockResource));
+        assertEquals(CONFLICT, resource.createResource(mockLdpRequest, mockBody).getStatusInfo());
+        verifyZeroInteractions(mockBody);
+    }
+
+    @Test
+    public void testPutUnknownPartition() {
+        when(mockLdpRequest.getPartition()).thenReturn("other");
+        assertEquals(NOT_FOUND, resource.setResource(mockLdpRequest, mockBody).getStatusInfo());
+        verifyZeroInteractions(mockBody);
+    }
+
+    @Test
+    public void testPutPreconditionFailed() {
+        when(mockResource.getInteractionModel()).thenReturn(LDP.RDFSource);
+        when(mockResource.getTypes()).thenReturn(singletonList(LDP.RDFSource));
+        when(mockResourceService.get(eq(parent), any(Instant.class))).thenReturn(of(mockResource));
+        when(mockRequest.evaluatePreconditions(eq(from(time)), any(EntityTag.class)))
+            .thenReturn(status(PRECONDITION_FAILED));
+        final WebApplicationException ex = assertThrows(WebApplicationException.class, () ->
+                resource.setResource(mockLdpRequest, mockBody));
+        assertEquals(PRECONDITION_FAILED, ex.getResponse().getStatusInfo());
+        verifyZeroInteractions(mockBody);
+    }
+}
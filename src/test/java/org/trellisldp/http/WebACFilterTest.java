@@ -13,12 +13,21 @@
  */
 package org.trellisldp.http;
 
+import static java.time.Duration.ofMinutes;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.Optional.empty;
+import static javax.ws.rs.core.Response.Status.FORBIDDEN;
+import static javax.ws.rs.core.Response.Status.NO_CONTENT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.MockitoAnnotations.initMocks;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.trellisldp.http.domain.HttpConstants.SESSION_PROPERTY;
 
 import java.util.HashMap;
 import java.util.HashSet;
@@ -28,6 +37,7 @@ import java.util.Set;
 import javax.ws.rs.NotAllowedException;
 import javax.ws.rs.NotAuthorizedException;
 import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.UriInfo;
 
@@ -42,6 +52,7 @@ import org.apache.commons.rdf.api.IRI;
 import org.trellisldp.api.AccessControlService;
 import org.trellisldp.api.Session;
 import org.trellisldp.vocabulary.ACL;
+import org.trellisldp.vocabulary.Trellis;
 
 /**
  * @author acoburn
@@ -85,6 +96,12 @@ public class WebACFilterTest {
     @Mock
     private MultivaluedMap<String, String> mockQueryParams;
 
+    @Mock
+    private ContainerResponseContext mockResponseContext;
+
+    @Mock
+    private Session mockSession;
+
     @BeforeEach
     public void setUp() {
         initMocks(this);
@@ -123,4 +140,51 @@ public class WebACFilterTest {
         modes.clear();
         assertThrows(NotAuthorizedException.class, () -> filter.filter(mockContext));
     }
+
+    @Test
+    public void testCachedAccessModes() throws Exception {
+        when(mockContext.getMethod()).thenReturn("GET");
+        when(mockContext.getProperty(eq(SESSION_PROPERTY))).thenReturn(mockSession);
+        when(mockSession.getAgent()).thenReturn(Trellis.AnonymousUser);
+        when(mockSession.getDelegatedBy()).thenReturn(empty());
+
+        final AccessModeCache cache = new AccessModeCache(10L, ofMinutes(1L));
+        final WebAcFilter filter = new WebAcFilter(partitions, emptyList(), mockAccessControlService, cache);
+        filter.filter(mockContext);
+        filter.filter(mockContext);
+        verify(mockAccessControlService, times(1)).getAccessModes(any(IRI.class), any(Session.class));
+        assertEquals(1L, cache.getHitCount());
+        assertEquals(1L, cache.getMissCount());
+    }
+
+    @Test
+    public void testAclChangeInvalidatesSubtree() throws Exception {
+        when(mockContext.getMethod()).thenReturn("GET");
+        when(mockContext.getProperty(eq(SESSION_PROPERTY))).thenReturn(mockSession);
+        when(mockSession.getAgent()).thenReturn(Trellis.AnonymousUser);
+        when(mockSession.getDelegatedBy()).thenReturn(empty());
+
+        final AccessModeCache cache = new AccessModeCache(10L, ofMinutes(1L));
+        final WebAcFilter filter = new WebAcFilter(partitions, emptyList(), mockAccessControlService, cache);
+        when(mockUriInfo.getPath()).thenReturn(REPO1 + "/resource");
+        filter.filter(mockContext);
+        when(mockUriInfo.getPath()).thenReturn(REPO1 + "/resource/child");
+        filter.filter(mockContext);
+        when(mockUriInfo.getPath()).thenReturn(REPO1 + "/resource2");
+        filter.filter(mockContext);
+        assertEquals(3L, cache.size());
+
+        // A failed ACL update keeps the cached decisions
+        when(mockUriInfo.getPath()).thenReturn(REPO1 + "/resource");
+        when(mockQueryParams.containsKey(eq("ext"))).thenReturn(true);
+        when(mockQueryParams.get(eq("ext"))).thenReturn(singletonList("acl"));
+        when(mockContext.getMethod()).thenReturn("PATCH");
+        when(mockResponseContext.getStatusInfo()).thenReturn(FORBIDDEN);
+        filter.filter(mockContext, mockResponseContext);
+        assertEquals(3L, cache.size());
+
+        when(mockResponseContext.getStatusInfo()).thenReturn(NO_CONTENT);
+        filter.filter(mockContext, mockResponseContext);
+        assertEquals(1L, cache.size());
+    }
 }
@@ -198,4 +198,14 @@ public class PreferTest {
     public void testNullPrefer() {
         assertNull(Prefer.valueOf(null));
     }
+
+    @Test
+    public void testPreferMaxTripleCount() {
+        final Prefer prefer = Prefer.valueOf("return=representation; max-triple-count=\"500\"");
+        assertEquals(of("representation"), prefer.getPreference());
+        assertEquals(of(500), prefer.getMaxTripleCount());
+        assertFalse(Prefer.valueOf("return=representation; max-triple-count=5.5").getMaxTripleCount().isPresent());
+        assertFalse(Prefer.valueOf("return=representation; max-triple-count=0").getMaxTripleCount().isPresent());
+        assertFalse(Prefer.valueOf("return=representation").getMaxTripleCount().isPresent());
+    }
 }
@@ -13,9 +13,12 @@
  */
 package org.trellisldp.http.domain;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 import org.junit.platform.runner.JUnitPlatform;
 import org.junit.runner.RunWith;
@@ -29,8 +32,59 @@ public class RangeTest {
     @Test
     public void testRange() {
         final Range range = Range.valueOf("bytes=1-10");
-        assertTrue(range.getFrom().equals(1));
-        assertTrue(range.getTo().equals(10));
+        assertTrue(range.getFrom().equals(1L));
+        assertTrue(range.getTo().equals(10L));
+        assertEquals(1, range.getRanges().size());
+    }
+
+    @Test
+    public void testLargeRange() {
+        final Range range = Range.valueOf("bytes=3000000000-4000000000");
+        assertEquals((Long) 3000000000L, range.getFrom());
+        assertEquals((Long) 4000000000L, range.getTo());
+    }
+
+    @Test
+    public void testOpenRange() {
+        final Range range = Range.valueOf("bytes=100-");
+        assertEquals((Long) 100L, range.getFrom());
+        assertNull(range.getTo());
+        final List<ByteRange> resolved = range.resolve(500L);
+        assertEquals(1, resolved.size());
+        assertEquals("bytes 100-499/500", resolved.get(0).getContentRange(500L));
+    }
+
+    @Test
+    public void testSuffixRange() {
+        final Range range = Range.valueOf("bytes=-500");
+        assertNull(range.getFrom());
+        assertEquals((Long) 500L, range.getTo());
+        assertEquals("bytes 500-999/1000", range.resolve(1000L).get(0).getContentRange(1000L));
+        assertEquals("bytes 0-99/100", range.resolve(100L).get(0).getContentRange(100L));
+    }
+
+    @Test
+    public void testMultipleRanges() {
+        final Range range = Range.valueOf("bytes=20-24, 1-15");
+        assertEquals(2, range.getRanges().size());
+        final List<ByteRange> resolved = range.resolve(100L);
+        assertEquals((Long) 20L, resolved.get(0).getFirst());
+        assertEquals((Long) 1L, resolved.get(1).getFirst());
+    }
+
+    @Test
+    public void testCoalescedRanges() {
+        final List<ByteRange> resolved = Range.valueOf("bytes=50-60,0-9,5-20,21-30").resolve(100L);
+        assertEquals(2, resolved.size());
+        assertEquals("bytes 0-30/100", resolved.get(0).getContentRange(100L));
+        assertEquals("bytes 50-60/100", resolved.get(1).getContentRange(100L));
+    }
+
+    @Test
+    public void testUnsatisfiableRange() {
+        assertTrue(Range.valueOf("bytes=100-200").resolve(100L).isEmpty());
+        assertTrue(Range.valueOf("bytes=-0").resolve(100L).isEmpty());
+        assertEquals(1, Range.valueOf("bytes=100-200,90-95").resolve(100L).size());
     }
 
     @Test
@@ -45,7 +99,14 @@ public class RangeTest {
 
     @Test
     public void testInvalidRange2() {
-        assertNull(Range.valueOf("bytes=1-15, 20-24"));
+        assertNull(Range.valueOf("bytes=1-15, 24-20"));
+    }
+
+    @Test
+    public void testInvalidRange3() {
+        assertNull(Range.valueOf("bytes=-"));
+        assertNull(Range.valueOf("bytes=,"));
+        assertNull(Range.valueOf("bytes=1-2-3"));
     }
 
     @Test
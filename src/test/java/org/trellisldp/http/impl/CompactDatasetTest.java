@@ -0,0 +1,153 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http.impl;
+
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static java.util.stream.Collectors.toSet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.trellisldp.api.RDFUtils.getInstance;
+
+import java.util.Set;
+
+import org.apache.commons.rdf.api.BlankNodeOrIRI;
+import org.apache.commons.rdf.api.Graph;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.Literal;
+import org.apache.commons.rdf.api.Quad;
+import org.apache.commons.rdf.api.RDF;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+import org.trellisldp.vocabulary.DC;
+import org.trellisldp.vocabulary.LDP;
+import org.trellisldp.vocabulary.RDFS;
+import org.trellisldp.vocabulary.Trellis;
+
+/**
+ * @author acoburn
+ */
+@RunWith(JUnitPlatform.class)
+public class CompactDatasetTest {
+
+    private static final RDF rdf = getInstance();
+    private static final IRI identifier = rdf.createIRI("trellis:repository/resource");
+    private static final IRI other = rdf.createIRI("trellis:repository/other");
+    private static final Literal title = rdf.createLiteral("A title");
+
+    @Test
+    public void testAddContains() {
+        final CompactDataset dataset = new CompactDataset();
+        dataset.add(rdf.createQuad(Trellis.PreferUserManaged, identifier, DC.title, title));
+        dataset.add(rdf.createQuad(Trellis.PreferUserManaged, identifier, DC.title, title));
+        dataset.add(Trellis.PreferServerManaged, identifier, DC.title, title);
+        dataset.add(null, identifier, RDFS.label, title);
+
+        assertEquals(3L, dataset.size());
+        assertTrue(dataset.contains(rdf.createQuad(Trellis.PreferUserManaged, identifier, DC.title, title)));
+        assertTrue(dataset.contains(rdf.createQuad(null, identifier, RDFS.label, title)));
+        assertTrue(dataset.contains(empty(), identifier, null, null));
+        assertTrue(dataset.contains(null, null, DC.title, null));
+        assertFalse(dataset.contains(of(Trellis.PreferAccessControl), null, null, null));
+        assertFalse(dataset.contains(null, other, null, null));
+        assertEquals(2L, dataset.stream(null, identifier, DC.title, title).count());
+        assertEquals(2L, dataset.getGraphNames().count());
+        assertTrue(dataset.getGraphNames().anyMatch(Trellis.PreferServerManaged::equals));
+    }
+
+    @Test
+    public void testRemove() {
+        final CompactDataset dataset = new CompactDataset();
+        dataset.add(Trellis.PreferUserManaged, identifier, DC.title, title);
+        dataset.add(Trellis.PreferUserManaged, identifier, RDFS.label, title);
+        dataset.add(Trellis.PreferUserManaged, other, RDFS.label, title);
+        dataset.add(Trellis.PreferServerManaged, identifier, DC.title, title);
+
+        dataset.remove(rdf.createQuad(Trellis.PreferUserManaged, identifier, DC.title, title));
+        assertEquals(3L, dataset.size());
+        assertFalse(dataset.contains(rdf.createQuad(Trellis.PreferUserManaged, identifier, DC.title, title)));
+        assertTrue(dataset.contains(rdf.createQuad(Trellis.PreferServerManaged, identifier, DC.title, title)));
+
+        dataset.remove(null, null, RDFS.label, null);
+        assertEquals(1L, dataset.size());
+        assertEquals(1L, dataset.getGraphNames().count());
+
+        dataset.add(Trellis.PreferUserManaged, identifier, DC.title, title);
+        assertEquals(2L, dataset.size());
+        assertTrue(dataset.contains(rdf.createQuad(Trellis.PreferUserManaged, identifier, DC.title, title)));
+
+        dataset.clear();
+        assertEquals(0L, dataset.size());
+        assertFalse(dataset.stream().findAny().isPresent());
+    }
+
+    @Test
+    public void testGraphView() {
+        final CompactDataset dataset = new CompactDataset();
+        final Graph graph = dataset.getGraph(Trellis.PreferUserManaged).get();
+        assertEquals(0L, graph.size());
+
+        graph.add(identifier, DC.title, title);
+        graph.add(rdf.createTriple(identifier, LDP.contains, other));
+        dataset.add(Trellis.PreferServerManaged, identifier, DC.title, title);
+
+        assertEquals(2L, graph.size());
+        assertEquals(3L, dataset.size());
+        assertTrue(graph.contains(rdf.createTriple(identifier, DC.title, title)));
+        assertTrue(graph.contains(null, LDP.contains, null));
+        assertEquals(1L, graph.stream(identifier, LDP.contains, null).count());
+        assertEquals(0L, dataset.getGraph().size());
+
+        graph.remove(identifier, DC.title, title);
+        assertEquals(1L, graph.size());
+        assertTrue(dataset.contains(of(Trellis.PreferServerManaged), identifier, DC.title, title));
+
+        graph.clear();
+        assertEquals(0L, graph.size());
+        assertEquals(1L, dataset.size());
+    }
+
+    @Test
+    public void testSpill() {
+        final int count = 40000;
+        final CompactDataset dataset = new CompactDataset(256L * 1024L);
+        for (int i = 0; i < count; i++) {
+            dataset.add(Trellis.PreferUserManaged, rdf.createIRI("trellis:repository/resource/" + i % 1000),
+                    DC.extent, rdf.createLiteral(Integer.toString(i)));
+        }
+        assertTrue(dataset.isSpilled());
+        assertEquals(count, dataset.size());
+        assertTrue(dataset.contains(of(Trellis.PreferUserManaged), rdf.createIRI("trellis:repository/resource/999"),
+                    DC.extent, rdf.createLiteral("39999")));
+        assertEquals(40L, dataset.stream(null, rdf.createIRI("trellis:repository/resource/5"), null, null).count());
+        final Set<BlankNodeOrIRI> subjects = dataset.stream().map(Quad::getSubject).collect(toSet());
+        assertEquals(1000L, subjects.size());
+
+        dataset.close();
+        assertFalse(dataset.isSpilled());
+        assertEquals(0L, dataset.size());
+    }
+
+    @Test
+    public void testNoSpill() {
+        final CompactDataset dataset = new CompactDataset();
+        for (int i = 0; i < 20000; i++) {
+            dataset.add(Trellis.PreferUserManaged, identifier, DC.extent, rdf.createLiteral(Integer.toString(i)));
+        }
+        assertFalse(dataset.isSpilled());
+        assertEquals(20000L, dataset.size());
+    }
+}
@@ -13,11 +13,14 @@
  */
 package org.trellisldp.http.impl;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.time.Instant.ofEpochSecond;
 import static java.time.ZoneOffset.UTC;
 import static java.time.ZonedDateTime.ofInstant;
 import static java.time.format.DateTimeFormatter.RFC_1123_DATE_TIME;
+import static java.util.Base64.getEncoder;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static java.util.Date.from;
 import static java.util.Optional.empty;
@@ -34,9 +37,12 @@ import static javax.ws.rs.core.MediaType.APPLICATION_JSON_TYPE;
 import static javax.ws.rs.core.MediaType.TEXT_HTML_TYPE;
 import static javax.ws.rs.core.MediaType.TEXT_PLAIN_TYPE;
 import static javax.ws.rs.core.MediaType.WILDCARD_TYPE;
+import static javax.ws.rs.core.Response.Status.NOT_MODIFIED;
 import static javax.ws.rs.core.Response.Status.NO_CONTENT;
 import static javax.ws.rs.core.Response.Status.OK;
+import static javax.ws.rs.core.Response.Status.PARTIAL_CONTENT;
 import static javax.ws.rs.core.Response.notModified;
+import static org.apache.commons.codec.digest.DigestUtils.md5;
 import static org.apache.commons.codec.digest.DigestUtils.md5Hex;
 import static org.apache.commons.rdf.api.RDFSyntax.RDFA_HTML;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -45,15 +51,27 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 import static org.mockito.MockitoAnnotations.initMocks;
 import static org.trellisldp.api.RDFUtils.getInstance;
 import static org.trellisldp.http.domain.HttpConstants.ACCEPT_DATETIME;
 import static org.trellisldp.http.domain.HttpConstants.ACCEPT_PATCH;
 import static org.trellisldp.http.domain.HttpConstants.ACCEPT_POST;
 import static org.trellisldp.http.domain.HttpConstants.ACCEPT_RANGES;
+import static org.trellisldp.http.domain.HttpConstants.CONTENT_RANGE;
+import static org.trellisldp.http.domain.HttpConstants.DIGEST;
+import static org.trellisldp.http.domain.HttpConstants.MAX_PAGE_SIZE;
 import static org.trellisldp.http.domain.HttpConstants.MEMENTO_DATETIME;
 import static org.trellisldp.http.domain.HttpConstants.PATCH;
 import static org.trellisldp.http.domain.HttpConstants.PREFER;
@@ -63,15 +81,24 @@ import static org.trellisldp.http.domain.HttpConstants.WANT_DIGEST;
 import static org.trellisldp.http.domain.RdfMediaType.APPLICATION_LD_JSON;
 import static org.trellisldp.http.domain.RdfMediaType.APPLICATION_LD_JSON_TYPE;
 import static org.trellisldp.http.domain.RdfMediaType.APPLICATION_N_TRIPLES;
+import static org.trellisldp.http.domain.RdfMediaType.APPLICATION_RDF_PATCH;
 import static org.trellisldp.http.domain.RdfMediaType.APPLICATION_SPARQL_UPDATE;
 import static org.trellisldp.http.domain.RdfMediaType.TEXT_TURTLE_TYPE;
 import static org.trellisldp.vocabulary.JSONLD.compacted;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
+import javax.ws.rs.BadRequestException;
 import javax.ws.rs.NotAcceptableException;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.EntityTag;
@@ -80,9 +107,11 @@ import javax.ws.rs.core.Link;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 import org.apache.commons.rdf.api.IRI;
 import org.apache.commons.rdf.api.RDF;
+import org.apache.commons.rdf.api.RDFTerm;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.platform.runner.JUnitPlatform;
@@ -94,8 +123,14 @@ import org.trellisldp.api.BinaryService;
 import org.trellisldp.api.IOService;
 import org.trellisldp.api.Resource;
 import org.trellisldp.api.ResourceService;
+import org.trellisldp.http.DigestCache;
+import org.trellisldp.http.RepresentationCache;
+import org.trellisldp.http.SeekableResolver;
 import org.trellisldp.http.domain.LdpRequest;
 import org.trellisldp.http.domain.Prefer;
+import org.trellisldp.http.domain.Range;
+import org.trellisldp.http.domain.WantDigest;
+import org.trellisldp.vocabulary.DC;
 import org.trellisldp.vocabulary.LDP;
 import org.trellisldp.vocabulary.OA;
 import org.trellisldp.vocabulary.SKOS;
@@ -140,6 +175,8 @@ public class GetHandlerTest {
         initMocks(this);
         when(mockResource.getMementos()).thenReturn(emptyList());
         when(mockResource.getInteractionModel()).thenReturn(LDP.RDFSource);
+        when(mockResource.stream(anyCollection())).thenAnswer(inv -> inv.<Collection<IRI>>getArgument(0).stream()
+                .flatMap(mockResource::stream));
         when(mockResource.getModified()).thenReturn(time);
         when(mockResource.getBinary()).thenReturn(empty());
         when(mockResource.isMemento()).thenReturn(false);
@@ -150,6 +187,8 @@ public class GetHandlerTest {
         when(mockLdpRequest.getRequest()).thenReturn(mockRequest);
         when(mockLdpRequest.getPath()).thenReturn("");
         when(mockLdpRequest.getPartition()).thenReturn("partition");
+        when(mockLdpRequest.getPage()).thenReturn(null);
+        when(mockLdpRequest.getPageSize()).thenReturn(null);
         when(mockLdpRequest.getBaseUrl()).thenReturn(baseUrl);
         when(mockLdpRequest.getHeaders()).thenReturn(mockHeaders);
     }
@@ -167,7 +206,7 @@ public class GetHandlerTest {
         assertTrue(res.getLinks().stream().anyMatch(hasType(LDP.RDFSource)));
         assertFalse(res.getLinks().stream().anyMatch(hasType(LDP.Container)));
         assertNull(res.getHeaderString(ACCEPT_POST));
-        assertEquals(APPLICATION_SPARQL_UPDATE, res.getHeaderString(ACCEPT_PATCH));
+        assertEquals(APPLICATION_SPARQL_UPDATE + "," + APPLICATION_RDF_PATCH, res.getHeaderString(ACCEPT_PATCH));
         assertNull(res.getHeaderString(PREFERENCE_APPLIED));
         assertNull(res.getHeaderString(ACCEPT_RANGES));
         assertTrue(TEXT_TURTLE_TYPE.isCompatible(res.getMediaType()));
@@ -194,6 +233,57 @@ public class GetHandlerTest {
         assertTrue(varies.contains(PREFER));
     }
 
+    @Test
+    public void testGetCachedLdprs() throws IOException {
+        when(mockHeaders.getAcceptableMediaTypes()).thenReturn(singletonList(TEXT_TURTLE_TYPE));
+        doAnswer(inv -> {
+            inv.<OutputStream>getArgument(1).write("data".getBytes(UTF_8));
+            return null;
+        }).when(mockIoService).write(any(), any(OutputStream.class), any(), any());
+
+        final RepresentationCache cache = new RepresentationCache(1024L, 16);
+        final GetHandler getHandler = new GetHandler(mockLdpRequest, mockResourceService,
+                mockIoService, mockBinaryService, null, cache);
+
+        final Response res = getHandler.getRepresentation(mockResource).build();
+        assertEquals(OK, res.getStatusInfo());
+        assertTrue(res.getEntity() instanceof StreamingOutput);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingOutput) res.getEntity()).write(out);
+        assertEquals("data", out.toString(UTF_8.name()));
+        assertEquals(0L, cache.getHitCount());
+        assertEquals(1L, cache.getMissCount());
+
+        final Response res2 = getHandler.getRepresentation(mockResource).build();
+        assertEquals(OK, res2.getStatusInfo());
+        assertEquals("data", new String((byte[]) res2.getEntity(), UTF_8));
+        assertEquals(1L, cache.getHitCount());
+
+        when(mockResource.getModified()).thenReturn(binaryTime);
+        final Response res3 = getHandler.getRepresentation(mockResource).build();
+        assertTrue(res3.getEntity() instanceof StreamingOutput);
+        assertEquals(2L, cache.getMissCount());
+    }
+
+    @Test
+    public void testGetLargeLdprsNotCached() throws IOException {
+        when(mockHeaders.getAcceptableMediaTypes()).thenReturn(singletonList(TEXT_TURTLE_TYPE));
+        doAnswer(inv -> {
+            inv.<OutputStream>getArgument(1).write("more data than fits".getBytes(UTF_8));
+            return null;
+        }).when(mockIoService).write(any(), any(OutputStream.class), any(), any());
+
+        final RepresentationCache cache = new RepresentationCache(1024L, 16);
+        final GetHandler getHandler = new GetHandler(mockLdpRequest, mockResourceService,
+                mockIoService, mockBinaryService, null, cache);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingOutput) getHandler.getRepresentation(mockResource).build().getEntity()).write(out);
+        assertEquals("more data than fits", out.toString(UTF_8.name()));
+        assertEquals(0L, cache.size());
+        assertTrue(getHandler.getRepresentation(mockResource).build().getEntity() instanceof StreamingOutput);
+    }
+
     @Test
     public void testGetPreferLdprs() {
         when(mockHeaders.getAcceptableMediaTypes()).thenReturn(singletonList(TEXT_TURTLE_TYPE));
@@ -209,7 +299,7 @@ public class GetHandlerTest {
         assertTrue(res.getLinks().stream().anyMatch(hasType(LDP.RDFSource)));
         assertFalse(res.getLinks().stream().anyMatch(hasType(LDP.Container)));
         assertNull(res.getHeaderString(ACCEPT_POST));
-        assertEquals(APPLICATION_SPARQL_UPDATE, res.getHeaderString(ACCEPT_PATCH));
+        assertEquals(APPLICATION_SPARQL_UPDATE + "," + APPLICATION_RDF_PATCH, res.getHeaderString(ACCEPT_PATCH));
         assertEquals("return=representation", res.getHeaderString(PREFERENCE_APPLIED));
         assertNull(res.getHeaderString(ACCEPT_RANGES));
         assertTrue(TEXT_TURTLE_TYPE.isCompatible(res.getMediaType()));
@@ -271,6 +361,22 @@ public class GetHandlerTest {
         assertThrows(WebApplicationException.class, () -> getHandler.getRepresentation(mockResource));
     }
 
+    @Test
+    public void testCacheBeforeMementos() {
+        when(mockRequest.evaluatePreconditions(eq(from(time)), any(EntityTag.class)))
+                .thenReturn(notModified());
+        when(mockHeaders.getAcceptableMediaTypes()).thenReturn(singletonList(TEXT_TURTLE_TYPE));
+
+        final GetHandler getHandler = new GetHandler(mockLdpRequest, mockResourceService,
+                mockIoService, mockBinaryService, baseUrl);
+
+        final WebApplicationException ex = assertThrows(WebApplicationException.class, () ->
+                getHandler.getRepresentation(mockResource));
+        assertEquals(NOT_MODIFIED, ex.getResponse().getStatusInfo());
+        verify(mockResource, never()).getMementos();
+        verify(mockResource, never()).getTypes();
+    }
+
     @Test
     public void testCacheLdpNr() {
         when(mockResource.getBinary()).thenReturn(of(testBinary));
@@ -330,7 +436,7 @@ public class GetHandlerTest {
         assertTrue(res.getLinks().stream().anyMatch(hasType(LDP.RDFSource)));
         assertFalse(res.getLinks().stream().anyMatch(hasType(LDP.Container)));
         assertNull(res.getHeaderString(ACCEPT_POST));
-        assertEquals(APPLICATION_SPARQL_UPDATE, res.getHeaderString(ACCEPT_PATCH));
+        assertEquals(APPLICATION_SPARQL_UPDATE + "," + APPLICATION_RDF_PATCH, res.getHeaderString(ACCEPT_PATCH));
         assertEquals("return=minimal", res.getHeaderString(PREFERENCE_APPLIED));
         assertNull(res.getHeaderString(ACCEPT_RANGES));
         assertTrue(APPLICATION_LD_JSON_TYPE.isCompatible(res.getMediaType()));
@@ -371,7 +477,7 @@ public class GetHandlerTest {
         assertTrue(res.getLinks().stream().anyMatch(hasType(LDP.Resource)));
         assertTrue(res.getLinks().stream().anyMatch(hasType(LDP.RDFSource)));
         assertTrue(res.getLinks().stream().anyMatch(hasType(LDP.Container)));
-        assertEquals(APPLICATION_SPARQL_UPDATE, res.getHeaderString(ACCEPT_PATCH));
+        assertEquals(APPLICATION_SPARQL_UPDATE + "," + APPLICATION_RDF_PATCH, res.getHeaderString(ACCEPT_PATCH));
         assertNull(res.getHeaderString(PREFERENCE_APPLIED));
         assertNull(res.getHeaderString(ACCEPT_RANGES));
         assertTrue(APPLICATION_LD_JSON_TYPE.isCompatible(res.getMediaType()));
@@ -420,7 +526,7 @@ public class GetHandlerTest {
         assertTrue(res.getLinks().stream().anyMatch(hasType(LDP.Resource)));
         assertTrue(res.getLinks().stream().anyMatch(hasType(LDP.RDFSource)));
         assertTrue(res.getLinks().stream().anyMatch(hasType(LDP.Container)));
-        assertEquals(APPLICATION_SPARQL_UPDATE, res.getHeaderString(ACCEPT_PATCH));
+        assertEquals(APPLICATION_SPARQL_UPDATE + "," + APPLICATION_RDF_PATCH, res.getHeaderString(ACCEPT_PATCH));
         assertNull(res.getHeaderString(PREFERENCE_APPLIED));
         assertNull(res.getHeaderString(ACCEPT_RANGES));
         assertTrue(TEXT_HTML_TYPE.isCompatible(res.getMediaType()));
@@ -472,6 +578,94 @@ public class GetHandlerTest {
                     !link.getUri().toString().endsWith("#description")));
     }
 
+    @Test
+    public void testGetBinaryCachedDigest() throws IOException {
+        when(mockResource.getBinary()).thenReturn(of(testBinary));
+        when(mockResource.getInteractionModel()).thenReturn(LDP.NonRDFSource);
+        when(mockLdpRequest.getWantDigest()).thenReturn(new WantDigest("md5"));
+        when(mockBinaryService.supportedAlgorithms()).thenReturn(singleton("MD5"));
+        when(mockBinaryService.getContent(eq("partition"), eq(testBinary.getIdentifier())))
+            .thenAnswer(inv -> of(new ByteArrayInputStream("Some data".getBytes(UTF_8))));
+        when(mockBinaryService.digest(eq("MD5"), any(InputStream.class))).thenReturn(of("md5-digest"));
+
+        final DigestCache cache = new DigestCache(10L);
+        final Response res1 = new GetHandler(mockLdpRequest, mockResourceService, mockIoService, mockBinaryService,
+                baseUrl, null, cache).getRepresentation(mockResource).build();
+        final Response res2 = new GetHandler(mockLdpRequest, mockResourceService, mockIoService, mockBinaryService,
+                baseUrl, null, cache).getRepresentation(mockResource).build();
+
+        assertEquals("md5-digest", res1.getHeaderString(DIGEST));
+        assertEquals("md5-digest", res2.getHeaderString(DIGEST));
+        verify(mockBinaryService, times(1)).digest(eq("MD5"), any(InputStream.class));
+        assertEquals(1L, cache.getHitCount());
+    }
+
+    @Test
+    public void testGetBinaryDeferredDigest() throws IOException {
+        when(mockResource.getBinary()).thenReturn(of(testBinary));
+        when(mockResource.getInteractionModel()).thenReturn(LDP.NonRDFSource);
+        when(mockLdpRequest.getWantDigest()).thenReturn(new WantDigest("md5"));
+        when(mockBinaryService.supportedAlgorithms()).thenReturn(singleton("MD5"));
+        when(mockBinaryService.getContent(eq("partition"), eq(testBinary.getIdentifier())))
+            .thenAnswer(inv -> of(new ByteArrayInputStream("Some data".getBytes(UTF_8))));
+
+        final DigestCache cache = new DigestCache(10L, true);
+        final Response res1 = new GetHandler(mockLdpRequest, mockResourceService, mockIoService, mockBinaryService,
+                baseUrl, null, cache).getRepresentation(mockResource).build();
+        assertNull(res1.getHeaderString(DIGEST));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingOutput) res1.getEntity()).write(out);
+        assertEquals("Some data", new String(out.toByteArray(), UTF_8));
+
+        final Response res2 = new GetHandler(mockLdpRequest, mockResourceService, mockIoService, mockBinaryService,
+                baseUrl, null, cache).getRepresentation(mockResource).build();
+        assertEquals(getEncoder().encodeToString(md5("Some data")), res2.getHeaderString(DIGEST));
+        verify(mockBinaryService, never()).digest(any(), any(InputStream.class));
+    }
+
+    @Test
+    public void testGetBinarySeekableRange() throws IOException {
+        final BinaryService.Resolver mockResolver = mock(BinaryService.Resolver.class,
+                withSettings().extraInterfaces(SeekableResolver.class));
+        when(mockResource.getBinary()).thenReturn(of(testBinary));
+        when(mockResource.getInteractionModel()).thenReturn(LDP.NonRDFSource);
+        when(mockLdpRequest.getRange()).thenReturn(Range.valueOf("bytes=50-53"));
+        when(mockBinaryService.getResolver(eq(testBinary.getIdentifier()))).thenReturn(of(mockResolver));
+        when(((SeekableResolver) mockResolver).getContent(eq("partition"), eq(testBinary.getIdentifier()), eq(50L)))
+            .thenAnswer(inv -> of(new ByteArrayInputStream("data and more".getBytes(UTF_8))));
+
+        final Response res = new GetHandler(mockLdpRequest, mockResourceService, mockIoService, mockBinaryService,
+                baseUrl).getRepresentation(mockResource).build();
+        assertEquals(PARTIAL_CONTENT, res.getStatusInfo());
+        assertEquals("bytes 50-53/100", res.getHeaderString(CONTENT_RANGE));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingOutput) res.getEntity()).write(out);
+        assertEquals("data", new String(out.toByteArray(), UTF_8));
+        verify(mockBinaryService, never()).getContent(any(), any(IRI.class));
+    }
+
+    @Test
+    public void testGetBinaryFetchedOnWrite() throws IOException {
+        final BinaryService.Resolver mockResolver = mock(BinaryService.Resolver.class);
+        when(mockResource.getBinary()).thenReturn(of(testBinary));
+        when(mockResource.getInteractionModel()).thenReturn(LDP.NonRDFSource);
+        when(mockRequest.getMethod()).thenReturn(GET);
+        when(mockBinaryService.getResolver(eq(testBinary.getIdentifier()))).thenReturn(of(mockResolver));
+        when(mockBinaryService.getContent(eq("partition"), eq(testBinary.getIdentifier())))
+            .thenAnswer(inv -> of(new ByteArrayInputStream("remote data".getBytes(UTF_8))));
+
+        final Response res = new GetHandler(mockLdpRequest, mockResourceService, mockIoService, mockBinaryService,
+                baseUrl).getRepresentation(mockResource).build();
+        verify(mockBinaryService, never()).getContent(any(), any(IRI.class));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingOutput) res.getEntity()).write(out);
+        assertEquals("remote data", new String(out.toByteArray(), UTF_8));
+        verify(mockBinaryService).getContent(eq("partition"), eq(testBinary.getIdentifier()));
+    }
+
     @Test
     public void testGetAcl() {
         when(mockResource.getInteractionModel()).thenReturn(LDP.Container);
@@ -506,6 +700,87 @@ public class GetHandlerTest {
         assertThrows(WebApplicationException.class, () -> getHandler.getRepresentation(mockResource));
     }
 
+    @Test
+    public void testGetPagedLdprs() {
+        final IRI identifier = rdf.createIRI("trellis:partition");
+        when(mockResourceService.unskolemize(any(IRI.class))).then(returnsFirstArg());
+        when(mockResourceService.toExternal(any(RDFTerm.class), any())).then(returnsFirstArg());
+        when(mockHeaders.getAcceptableMediaTypes()).thenReturn(singletonList(TEXT_TURTLE_TYPE));
+        when(mockResource.stream(eq(Trellis.PreferUserManaged))).thenAnswer(inv -> Stream.of(
+                    rdf.createTriple(identifier, DC.title, rdf.createLiteral("A title")),
+                    rdf.createTriple(identifier, DC.subject, rdf.createLiteral("A subject")),
+                    rdf.createTriple(identifier, DC.description, rdf.createLiteral("A thing"))));
+        when(mockLdpRequest.getPage()).thenReturn("1");
+        when(mockLdpRequest.getPageSize()).thenReturn("2");
+        when(mockLdpRequest.getPredicate()).thenReturn("");
+
+        final GetHandler getHandler = new GetHandler(mockLdpRequest, mockResourceService,
+                mockIoService, mockBinaryService, null);
+
+        final Response res = getHandler.getRepresentation(mockResource).build();
+        assertEquals(OK, res.getStatusInfo());
+        assertTrue(res.getLinks().stream().anyMatch(hasLink(rdf.createIRI(baseUrl
+                            + "partition?page=1&pageSize=2"), "first")));
+        assertTrue(res.getLinks().stream().anyMatch(hasLink(rdf.createIRI(baseUrl
+                            + "partition?page=2&pageSize=2"), "next")));
+        assertFalse(res.getLinks().stream().anyMatch(link -> "prev".equals(link.getRel())));
+        assertEquals(md5Hex(time + baseUrl + "partition" + baseUrl + "partition?page=1&pageSize=2"),
+                res.getEntityTag().getValue());
+
+        when(mockLdpRequest.getPage()).thenReturn("2");
+        when(mockLdpRequest.getSubject()).thenReturn("http://example.org/a b");
+
+        final Response res2 = getHandler.getRepresentation(mockResource).build();
+        assertEquals(OK, res2.getStatusInfo());
+        assertTrue(res2.getLinks().stream().anyMatch(hasLink(rdf.createIRI(baseUrl
+                            + "partition?subject=http%3A%2F%2Fexample.org%2Fa+b&page=1&pageSize=2"), "prev")));
+        assertFalse(res2.getLinks().stream().anyMatch(link -> "next".equals(link.getRel())));
+    }
+
+    @Test
+    public void testGetPreferPagedContainer() {
+        final IRI identifier = rdf.createIRI("trellis:partition");
+        when(mockResourceService.unskolemize(any(IRI.class))).then(returnsFirstArg());
+        when(mockResourceService.toExternal(any(RDFTerm.class), any())).then(returnsFirstArg());
+        when(mockResource.getInteractionModel()).thenReturn(LDP.BasicContainer);
+        when(mockResource.stream(eq(LDP.PreferContainment))).thenAnswer(inv -> Stream.of(
+                    rdf.createTriple(identifier, LDP.contains, rdf.createIRI("trellis:partition/1")),
+                    rdf.createTriple(identifier, LDP.contains, rdf.createIRI("trellis:partition/2"))));
+        when(mockHeaders.getAcceptableMediaTypes()).thenReturn(singletonList(TEXT_TURTLE_TYPE));
+        when(mockLdpRequest.getPrefer()).thenReturn(Prefer.valueOf("return=representation; max-triple-count=1"));
+
+        final GetHandler getHandler = new GetHandler(mockLdpRequest, mockResourceService,
+                mockIoService, mockBinaryService, null);
+
+        final Response res = getHandler.getRepresentation(mockResource).build();
+        assertEquals(OK, res.getStatusInfo());
+        assertTrue(res.getLinks().stream().anyMatch(hasType(LDP.Page)));
+        assertTrue(res.getLinks().stream().anyMatch(hasType(LDP.BasicContainer)));
+        assertTrue(res.getLinks().stream().anyMatch(hasLink(rdf.createIRI(baseUrl
+                            + "partition?page=2&pageSize=1"), "next")));
+        assertTrue(res.getEntityTag().isWeak());
+        assertEquals(md5Hex(time + baseUrl + "partition" + baseUrl + "partition?page=1&pageSize=1"),
+                res.getEntityTag().getValue());
+    }
+
+    @Test
+    public void testGetInvalidPage() {
+        when(mockHeaders.getAcceptableMediaTypes()).thenReturn(singletonList(TEXT_TURTLE_TYPE));
+        when(mockLdpRequest.getPage()).thenReturn("0");
+
+        final GetHandler getHandler = new GetHandler(mockLdpRequest, mockResourceService,
+                mockIoService, mockBinaryService, null);
+
+        assertThrows(BadRequestException.class, () -> getHandler.getRepresentation(mockResource));
+
+        when(mockLdpRequest.getPage()).thenReturn(null);
+        when(mockLdpRequest.getPageSize()).thenReturn(String.valueOf(MAX_PAGE_SIZE + 1));
+        assertThrows(BadRequestException.class, () -> getHandler.getRepresentation(mockResource));
+
+        when(mockLdpRequest.getPageSize()).thenReturn("abc");
+        assertThrows(BadRequestException.class, () -> getHandler.getRepresentation(mockResource));
+    }
+
     private static Predicate<Link> hasLink(final IRI iri, final String rel) {
         return link -> rel.equals(link.getRel()) && iri.getIRIString().equals(link.getUri().toString());
     }
@@ -38,6 +38,7 @@ import static org.trellisldp.http.domain.HttpConstants.ACCEPT_POST;
 import static org.trellisldp.http.domain.HttpConstants.PATCH;
 import static org.trellisldp.http.domain.RdfMediaType.APPLICATION_LD_JSON;
 import static org.trellisldp.http.domain.RdfMediaType.APPLICATION_N_TRIPLES;
+import static org.trellisldp.http.domain.RdfMediaType.APPLICATION_RDF_PATCH;
 import static org.trellisldp.http.domain.RdfMediaType.APPLICATION_SPARQL_UPDATE;
 import static org.trellisldp.http.domain.RdfMediaType.TEXT_TURTLE;
 
@@ -100,7 +101,7 @@ public class OptionsHandlerTest {
         final Response res = optionsHandler.ldpOptions(mockResource).build();
         assertEquals(NO_CONTENT, res.getStatusInfo());
         assertNull(res.getHeaderString(ACCEPT_POST));
-        assertEquals(APPLICATION_SPARQL_UPDATE, res.getHeaderString(ACCEPT_PATCH));
+        assertEquals(APPLICATION_SPARQL_UPDATE + "," + APPLICATION_RDF_PATCH, res.getHeaderString(ACCEPT_PATCH));
 
         final String allow = res.getHeaderString(ALLOW);
         assertTrue(allow.contains(GET));
@@ -126,7 +127,7 @@ public class OptionsHandlerTest {
         assertTrue(acceptPost.contains(APPLICATION_N_TRIPLES));
         assertTrue(acceptPost.contains(TEXT_TURTLE.split(";")[0]));
 
-        assertEquals(APPLICATION_SPARQL_UPDATE, res.getHeaderString(ACCEPT_PATCH));
+        assertEquals(APPLICATION_SPARQL_UPDATE + "," + APPLICATION_RDF_PATCH, res.getHeaderString(ACCEPT_PATCH));
 
         final String allow = res.getHeaderString(ALLOW);
         assertNotNull(allow);
@@ -147,7 +148,7 @@ public class OptionsHandlerTest {
 
         final Response res = optionsHandler.ldpOptions(mockResource).build();
         assertEquals(NO_CONTENT, res.getStatusInfo());
-        assertEquals(APPLICATION_SPARQL_UPDATE, res.getHeaderString(ACCEPT_PATCH));
+        assertEquals(APPLICATION_SPARQL_UPDATE + "," + APPLICATION_RDF_PATCH, res.getHeaderString(ACCEPT_PATCH));
 
         final String allow = res.getHeaderString(ALLOW);
         assertTrue(allow.contains(GET));
@@ -169,7 +170,7 @@ public class OptionsHandlerTest {
         assertEquals(NO_CONTENT, res.getStatusInfo());
         assertNull(res.getHeaderString(ACCEPT_POST));
 
-        assertEquals(APPLICATION_SPARQL_UPDATE, res.getHeaderString(ACCEPT_PATCH));
+        assertEquals(APPLICATION_SPARQL_UPDATE + "," + APPLICATION_RDF_PATCH, res.getHeaderString(ACCEPT_PATCH));
 
         final String allow = res.getHeaderString(ALLOW);
         assertTrue(allow.contains(GET));
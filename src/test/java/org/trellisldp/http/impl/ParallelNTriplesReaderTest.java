@@ -0,0 +1,164 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toSet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.trellisldp.api.RDFUtils.TRELLIS_BNODE_PREFIX;
+import static org.trellisldp.api.RDFUtils.getInstance;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.ws.rs.BadRequestException;
+
+import org.apache.commons.rdf.api.BlankNode;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.Literal;
+import org.apache.commons.rdf.api.RDF;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.api.Triple;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+import org.trellisldp.api.ResourceService;
+import org.trellisldp.vocabulary.DC;
+import org.trellisldp.vocabulary.RDFS;
+
+/**
+ * @author acoburn
+ */
+@RunWith(JUnitPlatform.class)
+public class ParallelNTriplesReaderTest {
+
+    private static final RDF rdf = getInstance();
+    private static final String base = "http://example.org/repository/resource";
+    private static final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterAll
+    public static void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testRead() throws IOException {
+        final StringBuilder doc = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            doc.append("<http://example.org/resource/").append(i).append("> <http://purl.org/dc/terms/extent> \"")
+                .append(i).append("\"^^<http://www.w3.org/2001/XMLSchema#integer> .\n");
+        }
+        final List<Triple> triples = read(doc.toString(), 256);
+        assertEquals(1000L, triples.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(rdf.createIRI("http://example.org/resource/" + i), triples.get(i).getSubject());
+            assertEquals(Integer.toString(i), ((Literal) triples.get(i).getObject()).getLexicalForm());
+        }
+    }
+
+    @Test
+    public void testBlankNodesAcrossChunks() throws IOException {
+        final StringBuilder doc = new StringBuilder("<> <http://purl.org/dc/terms/subject> _:b0 .\n");
+        for (int i = 0; i < 100; i++) {
+            doc.append("<> <http://purl.org/dc/terms/extent> \"").append(i).append("\" .\n");
+        }
+        doc.append("_:b0 <http://www.w3.org/2000/01/rdf-schema#label> \"A subject\" . # a comment\n\n");
+        final List<Triple> triples = read(doc.toString(), 128);
+        assertEquals(102L, triples.size());
+        final Triple first = triples.get(0);
+        final Triple last = triples.get(101);
+        assertEquals(rdf.createIRI(base), first.getSubject());
+        assertEquals(DC.subject, first.getPredicate());
+        assertEquals(RDFS.label, last.getPredicate());
+        assertTrue(((IRI) first.getObject()).getIRIString().startsWith(TRELLIS_BNODE_PREFIX));
+        assertEquals(first.getObject(), last.getSubject());
+        assertEquals(1L, triples.stream().filter(t -> t.getSubject() instanceof IRI)
+                .filter(t -> ((IRI) t.getSubject()).getIRIString().startsWith(TRELLIS_BNODE_PREFIX))
+                .map(Triple::getSubject).collect(toSet()).size());
+    }
+
+    @Test
+    public void testLongLines() throws IOException {
+        final String value = new String(new char[1000]).replace('\0', 'x');
+        final List<Triple> triples = read("<> <http://purl.org/dc/terms/title> \"" + value + "\" .\n" +
+                "<> <http://purl.org/dc/terms/description> \"caf\\u00E9\"@fr .", 64);
+        assertEquals(2L, triples.size());
+        assertEquals(rdf.createLiteral(value), triples.get(0).getObject());
+        assertEquals(rdf.createLiteral("caf\u00E9", "fr"), triples.get(1).getObject());
+    }
+
+    @Test
+    public void testDotWithoutWhitespace() throws IOException {
+        final List<Triple> triples = read("<http://example.org/s> <http://purl.org/dc/terms/subject> _:b1.\n" +
+                "_:b1 <http://www.w3.org/2000/01/rdf-schema#label> \"A subject\"@en.\n" +
+                "_:b.2 <http://purl.org/dc/terms/subject> <http://example.org/s>.\n", 128);
+        assertEquals(3L, triples.size());
+        assertEquals(triples.get(0).getObject(), triples.get(1).getSubject());
+        assertEquals(rdf.createLiteral("A subject", "en"), triples.get(1).getObject());
+        assertTrue(((IRI) triples.get(2).getSubject()).getIRIString().startsWith(TRELLIS_BNODE_PREFIX));
+        assertEquals(rdf.createIRI("http://example.org/s"), triples.get(2).getObject());
+    }
+
+    @Test
+    public void testInvalidTerms() {
+        assertThrows(BadRequestException.class, () ->
+                read("<> <http://purl.org/dc/terms/title> \"\\U00110000\" .\n", 128));
+        assertThrows(BadRequestException.class, () ->
+                read("<> <http://purl.org/dc/terms/title> \"\\u+123\" .\n", 128));
+        assertThrows(BadRequestException.class, () -> read("<> <http://purl.org/dc/terms/title> true .\n", 128));
+        assertThrows(BadRequestException.class, () -> read("<> <http://purl.org/dc/terms/extent> 5 .\n", 128));
+        assertThrows(BadRequestException.class, () -> read("<> <http://purl.org/dc/terms/subject> _:b1.. \n", 128));
+        assertThrows(BadRequestException.class, () -> read("<> <http://purl.org/dc/terms/subject> _:-b .\n", 128));
+        assertThrows(BadRequestException.class, () ->
+                read("<> <http://purl.org/dc/terms/title> \"A\ntitle\" .\n", 128));
+        assertThrows(BadRequestException.class, () ->
+                read("<http://example.org/a b> <http://purl.org/dc/terms/title> \"A title\" .\n", 128));
+        assertThrows(BadRequestException.class, () ->
+                read("<http://example.org/{a}> <http://purl.org/dc/terms/title> \"A title\" .\n", 128));
+    }
+
+    @Test
+    public void testInvalid() {
+        final StringBuilder doc = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            doc.append("<> <http://purl.org/dc/terms/extent> \"").append(i).append("\" .\n");
+        }
+        doc.append("<> <http://purl.org/dc/terms/title> .\n");
+        assertThrows(BadRequestException.class, () -> read(doc.toString(), 128));
+        assertThrows(BadRequestException.class, () -> read("<> <relative> \"A title\" .\n", 128));
+    }
+
+    private static List<Triple> read(final String doc, final int chunkSize) throws IOException {
+        final ResourceService mockResourceService = mock(ResourceService.class);
+        when(mockResourceService.skolemize(any(RDFTerm.class))).then(returnsFirstArg());
+        when(mockResourceService.skolemize(any(BlankNode.class))).thenAnswer(inv ->
+                rdf.createIRI(TRELLIS_BNODE_PREFIX + inv.<BlankNode>getArgument(0).uniqueReference()));
+        when(mockResourceService.toInternal(any(RDFTerm.class), any())).then(returnsFirstArg());
+
+        final List<Triple> triples = new ArrayList<>();
+        new ParallelNTriplesReader(mockResourceService, base, pool, chunkSize)
+            .read(new ByteArrayInputStream(doc.getBytes(UTF_8)), base, triples::add);
+        return triples;
+    }
+}
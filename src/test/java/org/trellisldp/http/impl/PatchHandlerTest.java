@@ -13,6 +13,8 @@
  */
 package org.trellisldp.http.impl;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.time.Duration.ofMinutes;
 import static java.time.Instant.ofEpochSecond;
 import static java.util.Collections.singletonList;
 import static java.util.stream.Stream.of;
@@ -32,6 +34,8 @@ import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 import static org.mockito.MockitoAnnotations.initMocks;
@@ -43,8 +47,14 @@ import static org.trellisldp.api.RDFUtils.TRELLIS_BNODE_PREFIX;
 import static org.trellisldp.api.RDFUtils.TRELLIS_PREFIX;
 import static org.trellisldp.api.RDFUtils.getInstance;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
 import java.util.function.Predicate;
 
 import javax.ws.rs.BadRequestException;
@@ -55,12 +65,14 @@ import javax.ws.rs.core.Link;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 import org.apache.commons.rdf.api.BlankNode;
 import org.apache.commons.rdf.api.Dataset;
 import org.apache.commons.rdf.api.Graph;
 import org.apache.commons.rdf.api.IRI;
 import org.apache.commons.rdf.api.Literal;
+import org.apache.commons.rdf.api.Quad;
 import org.apache.commons.rdf.api.RDF;
 import org.apache.commons.rdf.api.RDFTerm;
 import org.apache.commons.rdf.api.Triple;
@@ -75,8 +87,12 @@ import org.trellisldp.api.IOService;
 import org.trellisldp.api.Resource;
 import org.trellisldp.api.ResourceService;
 import org.trellisldp.api.RuntimeRepositoryException;
+import org.trellisldp.http.CachingResourceService;
+import org.trellisldp.http.IncrementalResourceService;
 import org.trellisldp.http.domain.LdpRequest;
 import org.trellisldp.http.domain.Prefer;
+import org.trellisldp.io.JenaIOService;
+import org.trellisldp.vocabulary.DC;
 import org.trellisldp.vocabulary.LDP;
 import org.trellisldp.vocabulary.RDFS;
 import org.trellisldp.vocabulary.Trellis;
@@ -92,6 +108,7 @@ public class PatchHandlerTest {
     private final static RDF rdf = getInstance();
     private final static String insert = "INSERT { <> <http://purl.org/dc/terms/title> \"A title\" } WHERE {}";
     private final static IRI identifier = rdf.createIRI("trellis:partition/resource");
+    private final static IOService ioService = new JenaIOService(null);
 
     @Mock
     private ResourceService mockResourceService;
@@ -143,7 +160,7 @@ public class PatchHandlerTest {
 
     @Test
     public void testPatchNoSparql() {
-        final PatchHandler patchHandler = new PatchHandler(mockLdpRequest, null,
+        final PatchHandler patchHandler = new PatchHandler(mockLdpRequest, (String) null,
                 mockResourceService, mockIoService, null);
         assertThrows(WebApplicationException.class, () -> patchHandler.updateResource(mockResource).build());
     }
@@ -275,6 +292,223 @@ public class PatchHandlerTest {
         assertThrows(BadRequestException.class, () -> patchHandler.updateResource(mockResource));
     }
 
+    @Test
+    public void testPatchIncremental() throws IOException {
+        final IncrementalResourceService mockService = getIncrementalService();
+        final Triple title = rdf.createTriple(identifier, DC.title, rdf.createLiteral("A title"));
+        final Resource mockUpdated = mock(Resource.class);
+        when(mockUpdated.stream(eq(Trellis.PreferUserManaged))).thenAnswer(x -> of(title));
+        when(mockService.get(eq(identifier))).thenReturn(Optional.of(mockUpdated));
+        final List<Quad> deletions = new ArrayList<>();
+        final List<Quad> additions = new ArrayList<>();
+        when(mockService.update(eq(identifier), any(Dataset.class), any(Dataset.class))).thenAnswer(inv -> {
+            inv.<Dataset>getArgument(1).stream().forEach(deletions::add);
+            inv.<Dataset>getArgument(2).stream().forEach(additions::add);
+            return true;
+        });
+        when(mockLdpRequest.getPartition()).thenReturn("partition");
+        when(mockLdpRequest.getPath()).thenReturn("/resource");
+        when(mockLdpRequest.getPrefer()).thenReturn(Prefer.valueOf("return=representation"));
+
+        final PatchHandler patchHandler = new PatchHandler(mockLdpRequest,
+                "PREFIX dc: <http://purl.org/dc/terms/>\n" +
+                "DELETE DATA { <> dc:title \"Old title\" } ; INSERT DATA { <> dc:title \"A title\" }",
+                mockService, ioService, null);
+
+        final Response res = patchHandler.updateResource(mockResource).build();
+        assertEquals(OK, res.getStatusInfo());
+        assertEquals(singletonList(rdf.createQuad(Trellis.PreferUserManaged, identifier, DC.title,
+                        rdf.createLiteral("Old title"))), deletions);
+        assertTrue(additions.contains(rdf.createQuad(Trellis.PreferUserManaged, identifier, DC.title,
+                        rdf.createLiteral("A title"))));
+        verify(mockService, never()).put(any(IRI.class), any(Dataset.class));
+        verify(mockResource, never()).stream(eq(Trellis.PreferAccessControl));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingOutput) res.getEntity()).write(out);
+        assertTrue(new String(out.toByteArray(), UTF_8).contains("A title"));
+    }
+
+    @Test
+    public void testPatchIncrementalThroughCache() {
+        final IncrementalResourceService mockService = getIncrementalService();
+        when(mockLdpRequest.getPartition()).thenReturn("partition");
+        when(mockLdpRequest.getPath()).thenReturn("/resource");
+        final CachingResourceService service = new CachingResourceService(mockService, 10L, ofMinutes(1L));
+
+        final PatchHandler patchHandler = new PatchHandler(mockLdpRequest,
+                "INSERT DATA { <> <http://purl.org/dc/terms/title> \"A title\" }", service, ioService, null);
+
+        assertEquals(NO_CONTENT, patchHandler.updateResource(mockResource).build().getStatusInfo());
+        verify(mockService).update(eq(identifier), any(Dataset.class), any(Dataset.class));
+        verify(mockService, never()).put(any(IRI.class), any(Dataset.class));
+    }
+
+    @Test
+    public void testPatchThroughCacheWithoutIncremental() {
+        when(mockResource.stream(any(IRI.class))).thenAnswer(x -> of());
+        when(mockLdpRequest.getPartition()).thenReturn("partition");
+        when(mockLdpRequest.getPath()).thenReturn("/resource");
+        final CachingResourceService service = new CachingResourceService(mockResourceService, 10L,
+                ofMinutes(1L));
+
+        final PatchHandler patchHandler = new PatchHandler(mockLdpRequest,
+                "INSERT DATA { <> <http://purl.org/dc/terms/title> \"A title\" }", service, ioService, null);
+
+        assertEquals(NO_CONTENT, patchHandler.updateResource(mockResource).build().getStatusInfo());
+        verify(mockResourceService).put(eq(identifier), any(Dataset.class));
+    }
+
+    @Test
+    public void testPatchIncrementalConstraint() {
+        final IncrementalResourceService mockService = getIncrementalService();
+        when(mockLdpRequest.getPartition()).thenReturn("partition");
+        when(mockLdpRequest.getPath()).thenReturn("/resource");
+
+        final PatchHandler patchHandler = new PatchHandler(mockLdpRequest,
+                "INSERT DATA { <> a \"Some literal\" }", mockService, ioService, null);
+
+        assertThrows(WebApplicationException.class, () -> patchHandler.updateResource(mockResource));
+        verify(mockService, never()).update(any(IRI.class), any(Dataset.class), any(Dataset.class));
+    }
+
+    @Test
+    public void testPatchIncrementalContainer() {
+        final IncrementalResourceService mockService = getIncrementalService();
+        when(mockResource.getInteractionModel()).thenReturn(LDP.DirectContainer);
+        when(mockResource.stream(eq(Trellis.PreferUserManaged))).thenAnswer(x -> of(
+                    rdf.createTriple(identifier, LDP.membershipResource, rdf.createIRI(baseUrl + "partition/member")),
+                    rdf.createTriple(identifier, LDP.hasMemberRelation, DC.relation)));
+        when(mockLdpRequest.getPartition()).thenReturn("partition");
+        when(mockLdpRequest.getPath()).thenReturn("/resource");
+
+        final PatchHandler patchHandler = new PatchHandler(mockLdpRequest,
+                "INSERT DATA { <#x> <http://purl.org/dc/terms/title> \"A title\" }", mockService, ioService, null);
+
+        assertEquals(NO_CONTENT, patchHandler.updateResource(mockResource).build().getStatusInfo());
+        verify(mockService).update(eq(identifier), any(Dataset.class), any(Dataset.class));
+    }
+
+    @Test
+    public void testPatchIncrementalContainerDeletion() {
+        final IncrementalResourceService mockService = getIncrementalService();
+        when(mockResource.getInteractionModel()).thenReturn(LDP.DirectContainer);
+        when(mockResource.stream(eq(Trellis.PreferUserManaged))).thenAnswer(x -> of(
+                    rdf.createTriple(identifier, LDP.membershipResource, rdf.createIRI(baseUrl + "partition/member")),
+                    rdf.createTriple(identifier, LDP.hasMemberRelation, DC.relation)));
+        when(mockLdpRequest.getPartition()).thenReturn("partition");
+        when(mockLdpRequest.getPath()).thenReturn("/resource");
+
+        final PatchHandler patchHandler = new PatchHandler(mockLdpRequest,
+                "DELETE DATA { <> <http://www.w3.org/ns/ldp#membershipResource> <" + baseUrl + "partition/member> }",
+                mockService, ioService, null);
+
+        final WebApplicationException ex = assertThrows(WebApplicationException.class, () ->
+                patchHandler.updateResource(mockResource));
+        assertEquals(CONFLICT, ex.getResponse().getStatusInfo());
+        verify(mockService, never()).update(any(IRI.class), any(Dataset.class), any(Dataset.class));
+    }
+
+    @Test
+    public void testPatchIncrementalFallback() {
+        final IncrementalResourceService mockService = getIncrementalService();
+        when(mockService.put(any(IRI.class), any(Dataset.class))).thenReturn(true);
+        when(mockResource.stream(any(IRI.class))).thenAnswer(x -> of());
+        when(mockLdpRequest.getPartition()).thenReturn("partition");
+        when(mockLdpRequest.getPath()).thenReturn("/resource");
+
+        final PatchHandler patchHandler = new PatchHandler(mockLdpRequest, insert, mockService, ioService, null);
+
+        final Response res = patchHandler.updateResource(mockResource).build();
+        assertEquals(NO_CONTENT, res.getStatusInfo());
+        verify(mockService).put(eq(identifier), any(Dataset.class));
+        verify(mockService, never()).update(any(IRI.class), any(Dataset.class), any(Dataset.class));
+    }
+
+    @Test
+    public void testRdfPatch() {
+        final Triple existing = rdf.createTriple(identifier, DC.title, rdf.createLiteral("Old title"));
+        final Triple other = rdf.createTriple(identifier, RDFS.label, rdf.createLiteral("A label"));
+        when(mockResource.stream(eq(Trellis.PreferUserManaged))).thenAnswer(x -> of(existing, other));
+        when(mockResource.stream(eq(Trellis.PreferAccessControl))).thenAnswer(x -> of());
+        when(mockLdpRequest.getContentType()).thenReturn("application/rdf-patch; charset=utf-8");
+        when(mockLdpRequest.getPartition()).thenReturn("partition");
+        when(mockLdpRequest.getPath()).thenReturn("/resource");
+        final List<Quad> quads = new ArrayList<>();
+        when(mockResourceService.put(eq(identifier), any(Dataset.class))).thenAnswer(inv -> {
+            inv.<Dataset>getArgument(1).stream().forEach(quads::add);
+            return true;
+        });
+
+        final PatchHandler patchHandler = new PatchHandler(mockLdpRequest, new ByteArrayInputStream((
+                    "PA dc <http://purl.org/dc/terms/> .\n" +
+                    "D <> dc:title \"Old title\" .\n" +
+                    "A <> dc:title \"A title\" .\n").getBytes(UTF_8)), mockResourceService, mockIoService, null);
+
+        final Response res = patchHandler.updateResource(mockResource).build();
+        assertEquals(NO_CONTENT, res.getStatusInfo());
+        assertTrue(quads.contains(rdf.createQuad(Trellis.PreferUserManaged, identifier, DC.title,
+                        rdf.createLiteral("A title"))));
+        assertTrue(quads.contains(rdf.createQuad(Trellis.PreferUserManaged, identifier, RDFS.label,
+                        rdf.createLiteral("A label"))));
+        assertFalse(quads.contains(rdf.createQuad(Trellis.PreferUserManaged, identifier, DC.title,
+                        rdf.createLiteral("Old title"))));
+        verify(mockIoService, never()).update(any(Graph.class), any(String.class), any(String.class));
+    }
+
+    @Test
+    public void testRdfPatchIncremental() {
+        final IncrementalResourceService mockService = getIncrementalService();
+        final List<Quad> deletions = new ArrayList<>();
+        final List<Quad> additions = new ArrayList<>();
+        when(mockService.update(eq(identifier), any(Dataset.class), any(Dataset.class))).thenAnswer(inv -> {
+            inv.<Dataset>getArgument(1).stream().forEach(deletions::add);
+            inv.<Dataset>getArgument(2).stream().forEach(additions::add);
+            return true;
+        });
+        when(mockLdpRequest.getContentType()).thenReturn("application/rdf-patch");
+        when(mockLdpRequest.getPartition()).thenReturn("partition");
+        when(mockLdpRequest.getPath()).thenReturn("/resource");
+
+        final PatchHandler patchHandler = new PatchHandler(mockLdpRequest, new ByteArrayInputStream((
+                    "TX .\n" +
+                    "D <> <http://purl.org/dc/terms/title> \"Old title\" .\n" +
+                    "A <> <http://purl.org/dc/terms/title> \"A title\"@en .\n" +
+                    "TC .\n").getBytes(UTF_8)), mockService, mockIoService, null);
+
+        final Response res = patchHandler.updateResource(mockResource).build();
+        assertEquals(NO_CONTENT, res.getStatusInfo());
+        assertEquals(singletonList(rdf.createQuad(Trellis.PreferUserManaged, identifier, DC.title,
+                        rdf.createLiteral("Old title"))), deletions);
+        assertTrue(additions.contains(rdf.createQuad(Trellis.PreferUserManaged, identifier, DC.title,
+                        rdf.createLiteral("A title", "en"))));
+        verify(mockService, never()).put(any(IRI.class), any(Dataset.class));
+        verify(mockResource, never()).stream(eq(Trellis.PreferAccessControl));
+    }
+
+    @Test
+    public void testRdfPatchInvalid() {
+        when(mockLdpRequest.getContentType()).thenReturn("application/rdf-patch");
+
+        final PatchHandler patchHandler = new PatchHandler(mockLdpRequest, new ByteArrayInputStream(
+                    "A <> <http://purl.org/dc/terms/title> .\n".getBytes(UTF_8)), mockResourceService,
+                mockIoService, null);
+
+        assertThrows(BadRequestException.class, () -> patchHandler.updateResource(mockResource));
+        verify(mockResourceService, never()).put(any(IRI.class), any(Dataset.class));
+    }
+
+    private IncrementalResourceService getIncrementalService() {
+        final IncrementalResourceService mockService = mock(IncrementalResourceService.class);
+        when(mockService.update(any(IRI.class), any(Dataset.class), any(Dataset.class))).thenReturn(true);
+        when(mockService.supportsIncrementalUpdates()).thenReturn(true);
+        when(mockService.skolemize(any(RDFTerm.class))).then(returnsFirstArg());
+        when(mockService.unskolemize(any(RDFTerm.class))).then(returnsFirstArg());
+        when(mockService.toInternal(any(RDFTerm.class), any())).then(returnsFirstArg());
+        when(mockService.toExternal(any(RDFTerm.class), any())).then(returnsFirstArg());
+        return mockService;
+    }
+
     private static Predicate<Link> hasLink(final IRI iri, final String rel) {
         return link -> rel.equals(link.getRel()) && iri.getIRIString().equals(link.getUri().toString());
     }
@@ -264,6 +264,25 @@ public class PostHandlerTest {
         verify(mockResourceService).put(eq(identifier), any(Dataset.class));
     }
 
+    @Test
+    public void testStreamedEntity() throws IOException {
+        final String path = "partition/newresource";
+        final IRI identifier = rdf.createIRI("trellis:" + path);
+        final Triple triple = rdf.createTriple(rdf.createIRI(baseUrl + path), DC.title,
+                        rdf.createLiteral("A title"));
+        when(mockIoService.read(any(), any(), eq(TURTLE))).thenAnswer(x -> Stream.of(triple));
+        when(mockRequest.getContentType()).thenReturn("text/turtle");
+
+        try (final InputStream entity = getClass().getResourceAsStream("/simpleTriple.ttl")) {
+            final PostHandler postHandler = new PostHandler(mockRequest, "/newresource", entity,
+                    mockResourceService, mockIoService, mockBinaryService, null);
+
+            assertEquals(CREATED, postHandler.createResource().build().getStatusInfo());
+            verify(mockIoService).read(eq(entity), eq(baseUrl + path), eq(TURTLE));
+            verify(mockResourceService).put(eq(identifier), any(Dataset.class));
+        }
+    }
+
     @Test
     public void testEntity2() throws IOException {
         final IRI identifier = rdf.createIRI("trellis:partition/newresource");
@@ -329,6 +348,8 @@ public class PostHandlerTest {
                 mockResourceService, mockIoService, mockBinaryService, null);
 
         assertEquals(BAD_REQUEST, postHandler.createResource().build().getStatusInfo());
+        verify(mockBinaryService).purgeContent(eq("partition"), any(IRI.class));
+        verify(mockResourceService, never()).put(any(IRI.class), any(Dataset.class));
     }
 
     @Test
@@ -13,13 +13,16 @@
  */
 package org.trellisldp.http.impl;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.time.Instant.ofEpochSecond;
+import static java.util.Collections.singleton;
 import static java.util.Date.from;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
 import static java.util.UUID.randomUUID;
 import static javax.ws.rs.core.Link.fromUri;
 import static javax.ws.rs.core.MediaType.TEXT_PLAIN;
+import static javax.ws.rs.core.Response.Status.BAD_REQUEST;
 import static javax.ws.rs.core.Response.Status.CONFLICT;
 import static javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
 import static javax.ws.rs.core.Response.Status.NO_CONTENT;
@@ -34,18 +37,25 @@ import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 import static org.mockito.MockitoAnnotations.initMocks;
+import static org.trellisldp.http.domain.RdfMediaType.APPLICATION_N_TRIPLES;
 import static org.trellisldp.http.domain.RdfMediaType.TEXT_TURTLE;
 import static org.trellisldp.api.RDFUtils.TRELLIS_BNODE_PREFIX;
 import static org.trellisldp.api.RDFUtils.TRELLIS_PREFIX;
 import static org.trellisldp.api.RDFUtils.getInstance;
+import static org.trellisldp.vocabulary.Trellis.PreferUserManaged;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Predicate;
 
 import javax.ws.rs.WebApplicationException;
@@ -58,6 +68,7 @@ import org.apache.commons.rdf.api.BlankNode;
 import org.apache.commons.rdf.api.Dataset;
 import org.apache.commons.rdf.api.IRI;
 import org.apache.commons.rdf.api.Literal;
+import org.apache.commons.rdf.api.Quad;
 import org.apache.commons.rdf.api.RDF;
 import org.apache.commons.rdf.api.RDFSyntax;
 import org.apache.commons.rdf.api.RDFTerm;
@@ -73,8 +84,12 @@ import org.trellisldp.api.BinaryService;
 import org.trellisldp.api.IOService;
 import org.trellisldp.api.Resource;
 import org.trellisldp.api.ResourceService;
+import org.trellisldp.http.DigestCache;
+import org.trellisldp.http.domain.Digest;
 import org.trellisldp.http.domain.LdpRequest;
+import org.trellisldp.vocabulary.DC;
 import org.trellisldp.vocabulary.LDP;
+import org.trellisldp.vocabulary.RDFS;
 
 /**
  * @author acoburn
@@ -191,6 +206,62 @@ public class PutHandlerTest {
         verify(mockIoService).read(any(InputStream.class), eq(baseUrl + "partition/resource"), eq(TURTLE));
     }
 
+    @Test
+    public void testPutStreamedLdpResource() throws IOException {
+        when(mockLdpRequest.getLink()).thenReturn(fromUri(LDP.Container.getIRIString()).rel("type").build());
+        when(mockLdpRequest.getContentType()).thenReturn(TEXT_TURTLE);
+
+        try (final InputStream entity = getClass().getResourceAsStream("/simpleTriple.ttl")) {
+            final PutHandler putHandler = new PutHandler(mockLdpRequest, entity, mockResourceService,
+                    mockIoService, mockBinaryService, null);
+
+            assertEquals(NO_CONTENT, putHandler.setResource(mockResource).build().getStatusInfo());
+            verify(mockIoService).read(eq(entity), eq(baseUrl + "partition/resource"), eq(TURTLE));
+        }
+    }
+
+    @Test
+    public void testPutStreamedLdpBinaryResource() throws IOException {
+        when(mockResource.getInteractionModel()).thenReturn(LDP.NonRDFSource);
+        when(mockResource.getBinary()).thenReturn(of(testBinary));
+        when(mockLdpRequest.getContentType()).thenReturn(TEXT_PLAIN);
+        when(mockLdpRequest.getLink()).thenReturn(fromUri(LDP.NonRDFSource.getIRIString()).rel("type").build());
+        when(mockLdpRequest.getDigest()).thenReturn(new Digest("md5", "1VOyRwUXW1CPdC5nelt7GQ=="));
+
+        try (final InputStream entity = getClass().getResourceAsStream("/simpleData.txt")) {
+            final PutHandler putHandler = new PutHandler(mockLdpRequest, entity, mockResourceService,
+                    mockIoService, mockBinaryService, null);
+
+            assertEquals(NO_CONTENT, putHandler.setResource(mockResource).build().getStatusInfo());
+            verify(mockBinaryService).setContent(eq("partition"), any(IRI.class), any(InputStream.class), any());
+            verify(mockResourceService).put(any(IRI.class), any(Dataset.class));
+        }
+    }
+
+    @Test
+    public void testPutNTriples() {
+        when(mockLdpRequest.getContentType()).thenReturn(APPLICATION_N_TRIPLES);
+        final List<Quad> quads = new ArrayList<>();
+        when(mockResourceService.put(any(IRI.class), any(Dataset.class))).thenAnswer(inv -> {
+            inv.<Dataset>getArgument(1).stream().forEach(quads::add);
+            return true;
+        });
+
+        final InputStream entity = new ByteArrayInputStream(("<> <http://purl.org/dc/terms/subject> _:b0 .\n" +
+                    "_:b0 <http://www.w3.org/2000/01/rdf-schema#label> \"A subject\" .\n").getBytes(UTF_8));
+        final PutHandler putHandler = new PutHandler(mockLdpRequest, entity, mockResourceService,
+                mockIoService, mockBinaryService, null);
+
+        assertEquals(NO_CONTENT, putHandler.setResource(mockResource).build().getStatusInfo());
+        verify(mockIoService, never()).read(any(InputStream.class), any(), any(RDFSyntax.class));
+        final IRI internalId = rdf.createIRI(TRELLIS_PREFIX + "partition/resource");
+        final Quad subject = quads.stream().filter(q -> q.getPredicate().equals(DC.subject)).findFirst().get();
+        assertEquals(internalId, subject.getSubject());
+        assertTrue(subject.getObject().ntriplesString().startsWith("<" + TRELLIS_BNODE_PREFIX));
+        assertTrue(quads.contains(rdf.createQuad(PreferUserManaged, (IRI) subject.getObject(), RDFS.label,
+                        rdf.createLiteral("A subject"))));
+    }
+
     @Test
     public void testPutError() {
         when(mockLdpRequest.getLink()).thenReturn(fromUri(LDP.Container.getIRIString()).rel("type").build());
@@ -246,6 +317,65 @@ public class PutHandlerTest {
         verify(mockIoService, never()).read(any(InputStream.class), anyString(), any(RDFSyntax.class));
     }
 
+    @Test
+    public void testPutLdpBinaryResourceWithDigest() {
+        when(mockResource.getInteractionModel()).thenReturn(LDP.NonRDFSource);
+        when(mockResource.getBinary()).thenReturn(of(testBinary));
+        when(mockLdpRequest.getContentType()).thenReturn(TEXT_PLAIN);
+        when(mockLdpRequest.getLink()).thenReturn(fromUri(LDP.NonRDFSource.getIRIString()).rel("type").build());
+        when(mockLdpRequest.getDigest()).thenReturn(new Digest("md5", "1VOyRwUXW1CPdC5nelt7GQ=="));
+        doAnswer(inv -> {
+            try (final InputStream input = inv.getArgument(2)) {
+                assertEquals(10L, input.read(new byte[1024]));
+            }
+            return null;
+        }).when(mockBinaryService).setContent(any(), any(IRI.class), any(InputStream.class), any());
+
+        final File entity = new File(getClass().getResource("/simpleData.txt").getFile());
+        final PutHandler putHandler = new PutHandler(mockLdpRequest, entity, mockResourceService,
+                mockIoService, mockBinaryService, null);
+
+        assertEquals(NO_CONTENT, putHandler.setResource(mockResource).build().getStatusInfo());
+        verify(mockBinaryService, never()).purgeContent(any(), any(IRI.class));
+        verify(mockResourceService).put(any(IRI.class), any(Dataset.class));
+    }
+
+    @Test
+    public void testPutLdpBinaryResourceCachesDigest() throws IOException {
+        when(mockResource.getInteractionModel()).thenReturn(LDP.NonRDFSource);
+        when(mockResource.getBinary()).thenReturn(of(testBinary));
+        when(mockLdpRequest.getContentType()).thenReturn(TEXT_PLAIN);
+        when(mockLdpRequest.getLink()).thenReturn(fromUri(LDP.NonRDFSource.getIRIString()).rel("type").build());
+        when(mockLdpRequest.getDigest()).thenReturn(new Digest("md5", "1VOyRwUXW1CPdC5nelt7GQ=="));
+        when(mockBinaryService.supportedAlgorithms()).thenReturn(singleton("MD5"));
+
+        final DigestCache cache = new DigestCache(10L);
+        try (final InputStream entity = getClass().getResourceAsStream("/simpleData.txt")) {
+            final PutHandler putHandler = new PutHandler(mockLdpRequest, entity, mockResourceService,
+                    mockIoService, mockBinaryService, null, cache);
+
+            assertEquals(NO_CONTENT, putHandler.setResource(mockResource).build().getStatusInfo());
+        }
+        assertEquals(1L, cache.size());
+    }
+
+    @Test
+    public void testPutLdpBinaryResourceWithBadDigest() {
+        when(mockResource.getInteractionModel()).thenReturn(LDP.NonRDFSource);
+        when(mockResource.getBinary()).thenReturn(of(testBinary));
+        when(mockLdpRequest.getContentType()).thenReturn(TEXT_PLAIN);
+        when(mockLdpRequest.getLink()).thenReturn(fromUri(LDP.NonRDFSource.getIRIString()).rel("type").build());
+        when(mockLdpRequest.getDigest()).thenReturn(new Digest("md5", "blahblah"));
+
+        final File entity = new File(getClass().getResource("/simpleData.txt").getFile());
+        final PutHandler putHandler = new PutHandler(mockLdpRequest, entity, mockResourceService,
+                mockIoService, mockBinaryService, null);
+
+        assertEquals(BAD_REQUEST, putHandler.setResource(mockResource).build().getStatusInfo());
+        verify(mockBinaryService).purgeContent(eq("partition"), any(IRI.class));
+        verify(mockResourceService, never()).put(any(IRI.class), any(Dataset.class));
+    }
+
     @Test
     public void testPutLdpNRDescription() {
         when(mockResource.getBinary()).thenReturn(of(testBinary));
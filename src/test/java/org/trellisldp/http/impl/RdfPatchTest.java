@@ -0,0 +1,153 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.trellisldp.api.RDFUtils.getInstance;
+
+import java.io.ByteArrayInputStream;
+
+import javax.ws.rs.BadRequestException;
+
+import org.apache.commons.rdf.api.BlankNode;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDF;
+import org.apache.commons.rdf.api.Triple;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+import org.trellisldp.vocabulary.DC;
+import org.trellisldp.vocabulary.RDFS;
+import org.trellisldp.vocabulary.XSD;
+
+/**
+ * @author acoburn
+ */
+@RunWith(JUnitPlatform.class)
+public class RdfPatchTest {
+
+    private final static RDF rdf = getInstance();
+    private final static String base = "trellis:partition/resource";
+    private final static IRI identifier = rdf.createIRI(base);
+
+    @Test
+    public void testAddDelete() {
+        final RdfPatch patch = read(
+                "H id <uuid:0686c69d-8f89-4496-acb5-744f0157a8db> .\n" +
+                "PA dc: <http://purl.org/dc/terms/> .\n" +
+                "PA rdfs <http://www.w3.org/2000/01/rdf-schema#> .\n" +
+                "D <> dc:title \"Old title\" .\n" +
+                "A <> dc:title \"A \\\"new\\\" title\\n\"@en-US .\n" +
+                "A <#frag> rdfs:label \"caf\\u00E9\" . # a comment\n" +
+                "A <http://example.org/thing> dc:extent \"5\"^^<http://www.w3.org/2001/XMLSchema#int> .\n" +
+                "A <> dc:date 2017 .\n");
+        assertEquals(1L, patch.getDeletions().size());
+        assertTrue(patch.getDeletions().contains(rdf.createTriple(identifier, DC.title,
+                        rdf.createLiteral("Old title"))));
+        assertEquals(4L, patch.getAdditions().size());
+        assertTrue(patch.getAdditions().contains(rdf.createTriple(identifier, DC.title,
+                        rdf.createLiteral("A \"new\" title\n", "en-US"))));
+        assertTrue(patch.getAdditions().contains(rdf.createTriple(rdf.createIRI(base + "#frag"), RDFS.label,
+                        rdf.createLiteral("caf\u00E9"))));
+        assertTrue(patch.getAdditions().contains(rdf.createTriple(rdf.createIRI("http://example.org/thing"),
+                        DC.extent, rdf.createLiteral("5", XSD.int_))));
+        assertTrue(patch.getAdditions().contains(rdf.createTriple(identifier, DC.date,
+                        rdf.createLiteral("2017", XSD.integer))));
+    }
+
+    @Test
+    public void testNetChanges() {
+        final RdfPatch patch = read(
+                "A <> <http://purl.org/dc/terms/title> \"A title\" .\n" +
+                "D <> <http://purl.org/dc/terms/title> \"A title\" .\n" +
+                "D <> <http://purl.org/dc/terms/description> \"A description\" .\n" +
+                "A <> <http://purl.org/dc/terms/description> \"A description\" .\n");
+        assertEquals(1L, patch.getDeletions().size());
+        assertTrue(patch.getDeletions().contains(rdf.createTriple(identifier, DC.title,
+                        rdf.createLiteral("A title"))));
+        assertEquals(1L, patch.getAdditions().size());
+        assertTrue(patch.getAdditions().contains(rdf.createTriple(identifier, DC.description,
+                        rdf.createLiteral("A description"))));
+    }
+
+    @Test
+    public void testTransactions() {
+        final RdfPatch patch = read(
+                "TX .\n" +
+                "A <> <http://purl.org/dc/terms/title> \"Discarded\" .\n" +
+                "TA .\n" +
+                "TX .\n" +
+                "A <> <http://purl.org/dc/terms/title> \"A title\" .\n" +
+                "TC .\n");
+        assertTrue(patch.getDeletions().isEmpty());
+        assertEquals(1L, patch.getAdditions().size());
+        assertTrue(patch.getAdditions().contains(rdf.createTriple(identifier, DC.title,
+                        rdf.createLiteral("A title"))));
+    }
+
+    @Test
+    public void testBlankNodes() {
+        final RdfPatch patch = read(
+                "A <> <http://purl.org/dc/terms/subject> _:b0 .\n" +
+                "A _:b0 <http://www.w3.org/2000/01/rdf-schema#label> \"A subject\" .\n");
+        assertEquals(2L, patch.getAdditions().size());
+        final Triple subject = patch.getAdditions().stream().filter(t -> t.getPredicate().equals(DC.subject))
+            .findFirst().get();
+        final Triple label = patch.getAdditions().stream().filter(t -> t.getPredicate().equals(RDFS.label))
+            .findFirst().get();
+        assertTrue(subject.getObject() instanceof BlankNode);
+        assertEquals(subject.getObject(), label.getSubject());
+
+        assertThrows(BadRequestException.class, () ->
+                read("D _:b0 <http://www.w3.org/2000/01/rdf-schema#label> \"A subject\" .\n"));
+    }
+
+    @Test
+    public void testDotWithoutWhitespace() {
+        final RdfPatch patch = read(
+                "PA dc: <http://purl.org/dc/terms/> .\n" +
+                "A <> dc:subject _:b1.\n" +
+                "A _:b1 dc:extent 5.\n" +
+                "A _:b1 dc:title \"A title\"^^dc:text.\n");
+        assertEquals(3L, patch.getAdditions().size());
+        assertTrue(patch.getAdditions().stream().anyMatch(t -> t.getObject().equals(rdf.createLiteral("5",
+                            XSD.integer))));
+        assertTrue(patch.getAdditions().stream().anyMatch(t -> t.getObject().equals(rdf.createLiteral("A title",
+                            rdf.createIRI("http://purl.org/dc/terms/text")))));
+    }
+
+    @Test
+    public void testInvalid() {
+        assertThrows(BadRequestException.class, () -> read("A <> <http://purl.org/dc/terms/title> .\n"));
+        assertThrows(BadRequestException.class, () -> read("A <> <http://purl.org/dc/terms/title> \"A title\"\n"));
+        assertThrows(BadRequestException.class, () -> read("A <> <http://purl.org/dc/terms/title> \"A title\" " +
+                    "<http://example.org/graph> .\n"));
+        assertThrows(BadRequestException.class, () -> read("A <> dc:title \"A title\" .\n"));
+        assertThrows(BadRequestException.class, () -> read("A <other> <http://purl.org/dc/terms/title> \"A\" .\n"));
+        assertThrows(BadRequestException.class, () -> read("A \"A\" <http://purl.org/dc/terms/title> \"A\" .\n"));
+        assertThrows(BadRequestException.class, () -> read("X <> <http://purl.org/dc/terms/title> \"A\" .\n"));
+        assertThrows(BadRequestException.class, () -> read("TX .\nA <> <http://purl.org/dc/terms/title> \"A\" .\n"));
+        assertThrows(BadRequestException.class, () -> read("TC .\n"));
+        assertThrows(BadRequestException.class, () -> read("A <> <http://purl.org/dc/terms/title> \"\\q\" .\n"));
+        assertThrows(BadRequestException.class, () ->
+                read("A <> <http://purl.org/dc/terms/title> \"\\U00110000\" .\n"));
+    }
+
+    private static RdfPatch read(final String patch) {
+        return RdfPatch.read(new ByteArrayInputStream(patch.getBytes(UTF_8)), base);
+    }
+}
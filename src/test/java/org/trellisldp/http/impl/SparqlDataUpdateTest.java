@@ -0,0 +1,105 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.trellisldp.api.RDFUtils.getInstance;
+
+import java.util.Optional;
+
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDF;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+import org.trellisldp.api.IOService;
+import org.trellisldp.io.JenaIOService;
+import org.trellisldp.vocabulary.DC;
+import org.trellisldp.vocabulary.RDFS;
+
+/**
+ * @author acoburn
+ */
+@RunWith(JUnitPlatform.class)
+public class SparqlDataUpdateTest {
+
+    private final static RDF rdf = getInstance();
+    private final static IOService ioService = new JenaIOService(null);
+    private final static String base = "trellis:partition/resource";
+    private final static IRI identifier = rdf.createIRI(base);
+
+    @Test
+    public void testInsertData() {
+        final Optional<SparqlDataUpdate> update = SparqlDataUpdate.parse(ioService,
+                "PREFIX dc: <http://purl.org/dc/terms/>\n" +
+                "INSERT DATA { <> dc:title \"A title\" ; <http://www.w3.org/2000/01/rdf-schema#label> 'A } label' }",
+                base);
+        assertTrue(update.isPresent());
+        assertTrue(update.get().getDeletions().isEmpty());
+        assertEquals(2L, update.get().getAdditions().size());
+        assertTrue(update.get().getAdditions().contains(rdf.createTriple(identifier, DC.title,
+                        rdf.createLiteral("A title"))));
+        assertTrue(update.get().getAdditions().contains(rdf.createTriple(identifier, RDFS.label,
+                        rdf.createLiteral("A } label"))));
+    }
+
+    @Test
+    public void testDeleteInsertData() {
+        final Optional<SparqlDataUpdate> update = SparqlDataUpdate.parse(ioService,
+                "prefix dc: <http://purl.org/dc/terms/>\n" +
+                "delete data { <> dc:title \"Old title\" . } ;\n" +
+                "# A comment with a { brace\n" +
+                "insert data { <> dc:title \"\"\"New\n title\"\"\" # no trailing dot\n } ;\n" +
+                "INSERT DATA { <> dc:description \"A description\" } ;\n" +
+                "DELETE DATA { <> dc:description \"A description\" }", base);
+        assertTrue(update.isPresent());
+        assertEquals(2L, update.get().getDeletions().size());
+        assertTrue(update.get().getDeletions().contains(rdf.createTriple(identifier, DC.title,
+                        rdf.createLiteral("Old title"))));
+        assertTrue(update.get().getDeletions().contains(rdf.createTriple(identifier, DC.description,
+                        rdf.createLiteral("A description"))));
+        assertEquals(1L, update.get().getAdditions().size());
+        assertTrue(update.get().getAdditions().contains(rdf.createTriple(identifier, DC.title,
+                        rdf.createLiteral("New\n title"))));
+    }
+
+    @Test
+    public void testBlankNodes() {
+        final Optional<SparqlDataUpdate> update = SparqlDataUpdate.parse(ioService,
+                "INSERT DATA { <> <http://purl.org/dc/terms/subject> [ a <http://example.org/Subject> ] }", base);
+        assertTrue(update.isPresent());
+        assertEquals(2L, update.get().getAdditions().size());
+
+        assertFalse(SparqlDataUpdate.parse(ioService,
+                    "DELETE DATA { <> <http://purl.org/dc/terms/subject> _:b0 }", base).isPresent());
+    }
+
+    @Test
+    public void testOtherUpdates() {
+        assertFalse(SparqlDataUpdate.parse(ioService,
+                    "INSERT { <> <http://purl.org/dc/terms/title> \"A title\" } WHERE {}", base).isPresent());
+        assertFalse(SparqlDataUpdate.parse(ioService,
+                    "DELETE WHERE { <> <http://purl.org/dc/terms/title> ?o }", base).isPresent());
+        assertFalse(SparqlDataUpdate.parse(ioService,
+                    "INSERT DATA { GRAPH <http://example.org/g> { <> a <http://example.org/Type> } }", base)
+                .isPresent());
+        assertFalse(SparqlDataUpdate.parse(ioService,
+                    "INSERT DATA { <> <http://purl.org/dc/terms/title> ?title }", base).isPresent());
+        assertFalse(SparqlDataUpdate.parse(ioService,
+                    "INSERT DATA { <> <http://purl.org/dc/terms/title> \"Unterminated }", base).isPresent());
+        assertFalse(SparqlDataUpdate.parse(ioService, "CLEAR DEFAULT", base).isPresent());
+    }
+}
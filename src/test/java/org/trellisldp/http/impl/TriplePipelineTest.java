@@ -0,0 +1,198 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.http.impl;
+
+import static java.util.Arrays.asList;
+import static java.util.Objects.isNull;
+import static java.util.Optional.of;
+import static java.util.function.Predicate.isEqual;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.trellisldp.api.RDFUtils.TRELLIS_BNODE_PREFIX;
+import static org.trellisldp.api.RDFUtils.TRELLIS_PREFIX;
+import static org.trellisldp.api.RDFUtils.getInstance;
+import static org.trellisldp.http.impl.RdfUtils.filterWithLDF;
+import static org.trellisldp.http.impl.RdfUtils.filterWithPrefer;
+import static org.trellisldp.http.impl.RdfUtils.unskolemizeQuads;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.apache.commons.rdf.api.BlankNode;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.Quad;
+import org.apache.commons.rdf.api.RDF;
+import org.apache.commons.rdf.api.Triple;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+import org.trellisldp.api.Resource;
+import org.trellisldp.api.ResourceService;
+import org.trellisldp.http.IndexedResource;
+import org.trellisldp.http.domain.Prefer;
+import org.trellisldp.vocabulary.DC;
+import org.trellisldp.vocabulary.LDP;
+import org.trellisldp.vocabulary.Trellis;
+
+/**
+ * @author acoburn
+ */
+@RunWith(JUnitPlatform.class)
+public class TriplePipelineTest {
+
+    private static final RDF rdf = getInstance();
+    private static final String BASE_URL = "http://example.org/";
+    private static final IRI identifier = rdf.createIRI(TRELLIS_PREFIX + "repo/resource");
+    private static final IRI child = rdf.createIRI(TRELLIS_PREFIX + "repo/resource/child");
+    private static final IRI bnode = rdf.createIRI(TRELLIS_BNODE_PREFIX + "b0");
+
+    private final ResourceService resourceService = mock(ResourceService.class, CALLS_REAL_METHODS);
+
+    private static List<Quad> getQuads() {
+        return asList(
+            rdf.createQuad(Trellis.PreferUserManaged, identifier, DC.title, rdf.createLiteral("A title")),
+            rdf.createQuad(Trellis.PreferUserManaged, identifier, DC.subject, bnode),
+            rdf.createQuad(Trellis.PreferUserManaged, bnode, DC.title, rdf.createLiteral("Other")),
+            rdf.createQuad(Trellis.PreferUserManaged, identifier, DC.relation, child),
+            rdf.createQuad(Trellis.PreferServerManaged, identifier, DC.created, rdf.createLiteral("2017")),
+            rdf.createQuad(Trellis.PreferAccessControl, identifier, DC.description, rdf.createLiteral("acl")),
+            rdf.createQuad(LDP.PreferContainment, identifier, LDP.contains, child),
+            rdf.createQuad(null, identifier, DC.title, rdf.createLiteral("No graph")));
+    }
+
+    private List<Triple> pipeline(final Prefer prefer, final String subject, final String predicate,
+            final String object) {
+        return new TriplePipeline(resourceService, BASE_URL, prefer, subject, predicate, object)
+            .apply(getQuads().stream()).collect(toList());
+    }
+
+    private List<Triple> reference(final Prefer prefer, final String subject, final String predicate,
+            final String object) {
+        return getQuads().stream().filter(filterWithPrefer(prefer))
+            .map(unskolemizeQuads(resourceService, BASE_URL))
+            .filter(filterWithLDF(subject, predicate, object)).map(Quad::asTriple).collect(toList());
+    }
+
+    @Test
+    public void testDefaultGraphs() {
+        final List<Triple> triples = pipeline(null, null, null, null);
+        assertEquals(5L, triples.size());
+        assertTrue(triples.contains(rdf.createTriple(rdf.createIRI(BASE_URL + "repo/resource"), LDP.contains,
+                        rdf.createIRI(BASE_URL + "repo/resource/child"))));
+        assertTrue(triples.stream().anyMatch(t -> t.getObject() instanceof BlankNode));
+    }
+
+    @Test
+    public void testPreferGraphs() {
+        assertEquals(4L, pipeline(Prefer.ofOmit(LDP.PreferContainment.getIRIString()), null, null, null).size());
+        assertEquals(7L, pipeline(Prefer.ofInclude(Trellis.PreferServerManaged.getIRIString(),
+                        Trellis.PreferAccessControl.getIRIString()), null, null, null).size());
+    }
+
+    @Test
+    public void testLinkedDataFragments() {
+        assertEquals(2L, pipeline(null, null, DC.title.getIRIString(), null).size());
+        assertEquals(2L, pipeline(null, null, null, "A title").size());
+        assertEquals(5L, pipeline(null, BASE_URL + "repo/resource", null, null).size());
+        assertEquals(3L, pipeline(null, null, null, BASE_URL + "repo/resource/child").size());
+        assertEquals(1L, pipeline(null, BASE_URL + "repo/resource", LDP.contains.getIRIString(),
+                    BASE_URL + "repo/resource/child").size());
+        assertEquals(1L, pipeline(null, TRELLIS_PREFIX + "repo/resource", null, null).size());
+    }
+
+    @Test
+    public void testEquivalentToFilterChain() {
+        final List<Prefer> prefers = asList(null, Prefer.ofOmit(LDP.PreferContainment.getIRIString()),
+                Prefer.ofInclude(Trellis.PreferServerManaged.getIRIString(),
+                    Trellis.PreferAccessControl.getIRIString()));
+        final List<String> subjects = asList(null, "", BASE_URL + "repo/resource", BASE_URL + "other");
+        final List<String> predicates = asList(null, DC.title.getIRIString(), LDP.contains.getIRIString());
+        final List<String> objects = asList(null, "A title", BASE_URL + "repo/resource/child", "2017");
+        prefers.forEach(prefer -> subjects.forEach(s -> predicates.forEach(p -> objects.forEach(o ->
+            assertEquals(reference(prefer, s, p, o), pipeline(prefer, s, p, o),
+                "Mismatch for " + prefer + " " + s + " " + p + " " + o)))));
+    }
+
+    @Test
+    public void testResourceGraphs() {
+        final Resource resource = mock(Resource.class);
+        when(resource.stream(anyCollection())).thenAnswer(inv -> getQuads().stream()
+                .filter(quad -> quad.getGraphName().filter(inv.<Collection<IRI>>getArgument(0)::contains)
+                    .isPresent()).map(Quad::asTriple));
+        final Prefer prefer = Prefer.ofInclude(Trellis.PreferServerManaged.getIRIString());
+        final List<Triple> triples = new TriplePipeline(resourceService, BASE_URL, prefer, null, null, null)
+            .apply(resource).collect(toList());
+
+        assertEquals(reference(prefer, null, null, null), triples);
+        verify(resource).stream(eq(asList(TriplePipeline.getGraphs(prefer))));
+        verify(resource, never()).stream(any(IRI.class));
+        verify(resource, never()).stream();
+    }
+
+    @Test
+    public void testIndexedResource() {
+        final IndexedResource resource = mock(IndexedResource.class);
+        when(resource.stream(any(IRI.class), any(), any())).thenAnswer(inv -> getQuads().stream()
+                .filter(quad -> quad.getGraphName().filter(isEqual(inv.getArgument(0))).isPresent())
+                .filter(quad -> isNull(inv.getArgument(1)) || quad.getSubject().equals(inv.getArgument(1)))
+                .filter(quad -> isNull(inv.getArgument(2)) || quad.getPredicate().equals(inv.getArgument(2)))
+                .map(Quad::asTriple));
+        when(resource.estimateSize(any(IRI.class), any(), any())).thenReturn(of(3L));
+
+        final TriplePipeline pipeline = new TriplePipeline(resourceService, BASE_URL, null,
+                BASE_URL + "repo/resource", DC.title.getIRIString(), null);
+        final List<Triple> triples = pipeline.apply(resource).collect(toList());
+
+        assertEquals(1L, triples.size());
+        assertEquals(of(9L), pipeline.estimateSize(resource));
+        verify(resource).stream(eq(Trellis.PreferUserManaged), eq(identifier), eq(DC.title));
+        verify(resource, never()).stream(any(IRI.class));
+
+        new TriplePipeline(resourceService, BASE_URL, null, null, null, "A title").apply(resource).count();
+        verify(resource).stream(eq(Trellis.PreferUserManaged));
+    }
+
+    @Test
+    public void testEstimateWithoutIndex() {
+        assertFalse(new TriplePipeline(resourceService, BASE_URL, null, null, null, null)
+                .estimateSize(mock(Resource.class)).isPresent());
+    }
+
+    @Test
+    public void testGetGraphs() {
+        final List<IRI> graphs = Stream.of(TriplePipeline.getGraphs(Prefer.ofOmit(
+                            LDP.PreferMembership.getIRIString()))).collect(toList());
+        assertEquals(asList(Trellis.PreferUserManaged, LDP.PreferContainment), graphs);
+    }
+
+    @Test
+    public void testGetGraphsInvalidInclude() {
+        final List<IRI> graphs = Stream.of(TriplePipeline.getGraphs(Prefer.valueOf(
+                        "return=representation; include=\"<bad> " + Trellis.PreferAudit.getIRIString() + "\""
+                        + "; omit=\"{bad}\""))).collect(toList());
+        assertEquals(asList(Trellis.PreferAudit, Trellis.PreferUserManaged, LDP.PreferContainment,
+                    LDP.PreferMembership), graphs);
+    }
+}